@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.benchmark;
+
+import azkaban.crypto.Crypto;
+import azkaban.crypto.DecryptedValueCache;
+import azkaban.crypto.Version;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.TimeUnit;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.jasypt.encryption.pbe.StandardPBEStringEncryptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decryption of a V1_1 (AES) secret, as done by jobs reading encrypted credentials.
+ *
+ * newEncryptorPerCall is the decryption as it was done before encryptors were pooled, and is the
+ * baseline of the two others.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CryptoBenchmark {
+
+  private static final String PASSPHRASE = "benchmark-passphrase";
+  private static final BouncyCastleProvider PROVIDER = new BouncyCastleProvider();
+
+  private final Crypto crypto = new Crypto();
+  private final Crypto cachingCrypto = new Crypto(new DecryptedValueCache(100, 60 * 1000));
+  private String ciphered;
+  private String cipheredValue;
+
+  @Setup
+  public void setUp() throws Exception {
+    this.ciphered = this.crypto.encrypt("jdbc-password", PASSPHRASE, Version.V1_1);
+    this.cipheredValue = new ObjectMapper().readTree(Crypto.decode(this.ciphered))
+        .get("val").asText();
+  }
+
+  @Benchmark
+  public String newEncryptorPerCall() {
+    final StandardPBEStringEncryptor encryptor = new StandardPBEStringEncryptor();
+    encryptor.setPassword(PASSPHRASE);
+    encryptor.setProvider(PROVIDER);
+    encryptor.setAlgorithm("PBEWITHSHA256AND128BITAES-CBC-BC");
+    return encryptor.decrypt(this.cipheredValue);
+  }
+
+  @Benchmark
+  public String pooledEncryptor() {
+    return this.crypto.decrypt(this.ciphered, PASSPHRASE);
+  }
+
+  @Benchmark
+  public String cachedValue() {
+    return this.cachingCrypto.decrypt(this.ciphered, PASSPHRASE);
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.benchmark;
+
+import azkaban.db.EncodingType;
+import azkaban.executor.ExecutableFlow;
+import azkaban.executor.Status;
+import azkaban.flow.Flow;
+import azkaban.flow.FlowUtils;
+import azkaban.project.Project;
+import azkaban.utils.GZIPUtils;
+import azkaban.utils.JSONUtils;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Creation and (de)serialization of executable flows, as done on submission and on every flow
+ * update written to execution_flows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExecutableFlowBenchmark {
+
+  @Param({"10", "50"})
+  public int width;
+
+  private SyntheticProject syntheticProject;
+  private Project project;
+  private Flow flow;
+  private ExecutableFlow executableFlow;
+  private Map<String, Object> flowObject;
+  private byte[] gzippedFlow;
+
+  @Setup
+  public void setUp() throws IOException {
+    this.syntheticProject = SyntheticProject.generate(this.width, 10);
+    this.project = new Project(1, "benchmark");
+    this.flow = this.syntheticProject.load(this.project).get(SyntheticProject.FLOW_NAME);
+    this.executableFlow = FlowUtils.createExecutableFlow(this.project, this.flow);
+    this.executableFlow.setExecutionId(1);
+    this.flowObject = this.executableFlow.toObject();
+    this.gzippedFlow = JSONUtils.toGzipJSONBytes(this.flowObject);
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.syntheticProject.delete();
+  }
+
+  @Benchmark
+  public ExecutableFlow createExecutableFlow() {
+    return FlowUtils.createExecutableFlow(this.project, this.flow);
+  }
+
+  @Benchmark
+  public Map<String, Object> toObject() {
+    return this.executableFlow.toObject();
+  }
+
+  @Benchmark
+  public byte[] encodeThroughString() throws IOException {
+    return GZIPUtils.gzipString(JSONUtils.toJSON(this.executableFlow.toObject()), "UTF-8");
+  }
+
+  @Benchmark
+  public byte[] encodeStreaming() throws IOException {
+    return JSONUtils.toGzipJSONBytes(this.executableFlow.toObject());
+  }
+
+  @Benchmark
+  public ExecutableFlow decode() throws IOException {
+    return ExecutableFlow.createExecutableFlow(
+        GZIPUtils.transformBytesToObject(this.gzippedFlow, EncodingType.GZIP),
+        Status.RUNNING);
+  }
+}
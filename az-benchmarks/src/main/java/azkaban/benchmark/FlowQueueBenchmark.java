@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.benchmark;
+
+import azkaban.DispatchMethod;
+import azkaban.executor.ExecutableFlow;
+import azkaban.executor.ExecutableFlowPriorityComparator;
+import azkaban.executor.ExecutionOptions;
+import azkaban.executor.ExecutionReference;
+import azkaban.executor.ExecutorManagerException;
+import azkaban.executor.QueuedExecutions;
+import azkaban.utils.Pair;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Priority ordering of queued executions on the web server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FlowQueueBenchmark {
+
+  @Param({"100", "10000"})
+  public int queueSize;
+
+  private final ExecutableFlowPriorityComparator comparator =
+      new ExecutableFlowPriorityComparator();
+  private List<Pair<ExecutionReference, ExecutableFlow>> executions;
+
+  @Setup
+  public void setUp() {
+    final Random random = new Random(42);
+    this.executions = new ArrayList<>(this.queueSize);
+    for (int i = 0; i < this.queueSize; i++) {
+      final ExecutableFlow flow = new ExecutableFlow();
+      flow.setExecutionId(i + 1);
+      flow.setUpdateTime(random.nextInt(1000));
+      final ExecutionOptions options = new ExecutionOptions();
+      // most flows keep the default priority
+      if (random.nextInt(10) == 0) {
+        options.addAllFlowParameters(Collections.singletonMap(
+            ExecutionOptions.FLOW_PRIORITY, String.valueOf(random.nextInt(10))));
+      }
+      flow.setExecutionOptions(options);
+      this.executions.add(new Pair<>(new ExecutionReference(i + 1, DispatchMethod.PUSH), flow));
+    }
+  }
+
+  @Benchmark
+  public List<Pair<ExecutionReference, ExecutableFlow>> sort() {
+    final List<Pair<ExecutionReference, ExecutableFlow>> sorted = new ArrayList<>(this.executions);
+    sorted.sort(this.comparator);
+    return sorted;
+  }
+
+  @Benchmark
+  public int enqueueAndDrain() throws ExecutorManagerException, InterruptedException {
+    final QueuedExecutions queue = new QueuedExecutions(this.queueSize);
+    for (final Pair<ExecutionReference, ExecutableFlow> execution : this.executions) {
+      queue.enqueue(execution.getSecond(), execution.getFirst());
+    }
+    int sum = 0;
+    while (!queue.isEmpty()) {
+      sum += queue.fetchHead().getFirst().getExecId();
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.benchmark;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import azkaban.ServiceProvider;
+import azkaban.execapp.ExecMetrics;
+import azkaban.execapp.FlowRunner;
+import azkaban.execapp.TriggerManager;
+import azkaban.executor.AlerterHolder;
+import azkaban.executor.ExecutableFlow;
+import azkaban.executor.ExecutionLogsLoader;
+import azkaban.executor.ExecutorLoader;
+import azkaban.executor.ExecutorManagerException;
+import azkaban.executor.Status;
+import azkaban.flow.Flow;
+import azkaban.jmx.JmxJobMBeanManager;
+import azkaban.jobtype.JobTypeManager;
+import azkaban.metrics.CommonMetrics;
+import azkaban.metrics.MetricsManager;
+import azkaban.project.Project;
+import azkaban.project.ProjectLoader;
+import azkaban.utils.Props;
+import com.codahale.metrics.MetricRegistry;
+import com.google.inject.Guice;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A whole flow run of noop jobs on a synthetic DAG, measuring the graph progression, job runner
+ * setup and event overhead of the flow runner rather than the jobs themselves. The database is
+ * mocked out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class FlowRunnerBenchmark {
+
+  @Param({"5", "20"})
+  public int width;
+
+  @Param({"10"})
+  public int depth;
+
+  private SyntheticProject syntheticProject;
+  private Project project;
+  private Flow flow;
+  private JobTypeManager jobTypeManager;
+  private ExecutorLoader executorLoader;
+  private ExecutionLogsLoader executionLogsLoader;
+  private ProjectLoader projectLoader;
+  private AlerterHolder alerterHolder;
+  private CommonMetrics commonMetrics;
+  private ExecMetrics execMetrics;
+  private int nextExecId = 1;
+
+  @Setup
+  public void setUp() throws IOException {
+    this.syntheticProject = SyntheticProject.generate(this.width, this.depth);
+    this.project = new Project(1, "benchmark");
+    this.flow = this.syntheticProject.load(this.project).get(SyntheticProject.FLOW_NAME);
+
+    this.jobTypeManager = new JobTypeManager(null, null, getClass().getClassLoader());
+    this.executorLoader = mock(ExecutorLoader.class);
+    try {
+      when(this.executorLoader.updateExecutableReference(anyInt(), anyLong())).thenReturn(true);
+    } catch (final ExecutorManagerException e) {
+      throw new IllegalStateException(e);
+    }
+    this.executionLogsLoader = mock(ExecutionLogsLoader.class);
+    this.projectLoader = mock(ProjectLoader.class);
+    this.alerterHolder = mock(AlerterHolder.class);
+    final MetricsManager metricsManager = new MetricsManager(new MetricRegistry());
+    this.commonMetrics = new CommonMetrics(metricsManager);
+    this.execMetrics = new ExecMetrics(metricsManager);
+
+    // the job started events add job SLA triggers
+    final TriggerManager triggerManager = mock(TriggerManager.class);
+    ServiceProvider.SERVICE_PROVIDER.unsetInjector();
+    ServiceProvider.SERVICE_PROVIDER.setInjector(Guice.createInjector(
+        binder -> binder.bind(TriggerManager.class).toInstance(triggerManager)));
+    JmxJobMBeanManager.getInstance().initialize(new Props());
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.syntheticProject.delete();
+  }
+
+  @Benchmark
+  public Status runFlow() throws ExecutorManagerException {
+    final ExecutableFlow executableFlow = new ExecutableFlow(this.project, this.flow);
+    executableFlow.setExecutionId(this.nextExecId++);
+    executableFlow.setExecutionPath(this.syntheticProject.getDir().getPath());
+    executableFlow.setSubmitUser("benchmark");
+    final FlowRunner runner = new FlowRunner(executableFlow, this.executorLoader,
+        this.executionLogsLoader, this.projectLoader, this.jobTypeManager, new Props(), null,
+        this.alerterHolder, this.commonMetrics, this.execMetrics);
+    runner.run();
+    if (executableFlow.getStatus() != Status.SUCCEEDED) {
+      throw new IllegalStateException("Flow finished as " + executableFlow.getStatus());
+    }
+    return executableFlow.getStatus();
+  }
+}
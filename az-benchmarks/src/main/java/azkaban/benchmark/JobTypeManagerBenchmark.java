@@ -0,0 +1,76 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.benchmark;
+
+import azkaban.flow.CommonJobProperties;
+import azkaban.jobExecutor.Job;
+import azkaban.jobtype.JobTypeManager;
+import azkaban.utils.Props;
+import java.util.concurrent.TimeUnit;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Construction of a job executor, as done for every job run, with the cached jobtype classes
+ * and with a classloader per job.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JobTypeManagerBenchmark {
+
+  @Param({"command", "noop"})
+  public String jobType;
+
+  @Param({"false", "true"})
+  public boolean isolatedClassLoader;
+
+  private JobTypeManager jobTypeManager;
+  private Props jobProps;
+  private Logger logger;
+
+  @Setup
+  public void setUp() {
+    final Props globalProps = new Props();
+    globalProps.put(CommonJobProperties.JOBTYPE_CLASSLOADER_ISOLATED,
+        String.valueOf(this.isolatedClassLoader));
+    this.jobTypeManager = new JobTypeManager(null, globalProps, getClass().getClassLoader());
+    this.jobProps = new Props();
+    this.jobProps.put("type", this.jobType);
+    this.jobProps.put("command", "echo benchmark");
+    this.logger = Logger.getLogger(JobTypeManagerBenchmark.class);
+    this.logger.setLevel(Level.WARN);
+  }
+
+  @Benchmark
+  public Job buildJobExecutor() {
+    return this.jobTypeManager.buildJobExecutor("benchmark-job", this.jobProps, this.logger);
+  }
+}
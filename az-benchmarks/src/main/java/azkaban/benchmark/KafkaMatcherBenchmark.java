@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.benchmark;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import trigger.kafka.Constants.DependencyInstanceConfigKey;
+import trigger.kafka.KafkaDepInstanceCollection;
+import trigger.kafka.KafkaDependencyInstanceContext;
+
+/**
+ * Matching of consumed Kafka records against the trigger dependency rules of a topic, as done by
+ * the Kafka event monitor for every record. The concurrent variant shows how matching scales on
+ * the matcher pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class KafkaMatcherBenchmark {
+
+  private static final String TOPIC = "AzEvent_Benchmark";
+
+  @Param({"10", "200"})
+  public int rules;
+
+  private KafkaDepInstanceCollection depInstances;
+  private String[] payloads;
+
+  @Setup
+  public void setUp() {
+    this.depInstances = new KafkaDepInstanceCollection();
+    for (int i = 0; i < this.rules; i++) {
+      final ImmutableMap<String, String> config = ImmutableMap.of(
+          DependencyInstanceConfigKey.TOPIC, TOPIC,
+          DependencyInstanceConfigKey.MATCH, "\"dataset\":\"db" + i + "\\.table_\\d+\"",
+          DependencyInstanceConfigKey.NAME, "dep" + i);
+      this.depInstances.add(new KafkaDependencyInstanceContext(config::get, null, null));
+    }
+    this.payloads = new String[64];
+    for (int i = 0; i < this.payloads.length; i++) {
+      // about half of the records match one rule, the others match none
+      final int db = i * 7 % (this.rules * 2);
+      this.payloads[i] = "{\"event\":\"partition_added\",\"dataset\":\"db" + db + ".table_" + i
+          + "\",\"ts\":" + (1_600_000_000_000L + i) + "}";
+    }
+  }
+
+  private String nextPayload() {
+    return this.payloads[ThreadLocalRandom.current().nextInt(this.payloads.length)];
+  }
+
+  @Benchmark
+  public Set<String> matchRecord() {
+    return this.depInstances.regexInTopic(TOPIC, nextPayload());
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Set<String> matchRecordConcurrently() {
+    return this.depInstances.regexInTopic(TOPIC, nextPayload());
+  }
+}
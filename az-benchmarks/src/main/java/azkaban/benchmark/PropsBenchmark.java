@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.benchmark;
+
+import azkaban.utils.Props;
+import azkaban.utils.PropsUtils;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Variable resolution of job props layered over flow and system props, as done for every job.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PropsBenchmark {
+
+  @Param({"50", "500"})
+  public int size;
+
+  private Props props;
+
+  @Setup
+  public void setUp() {
+    final Props systemProps = new Props();
+    systemProps.put("azkaban.home", "/export/apps/azkaban");
+    systemProps.put("hadoop.home", "${azkaban.home}/hadoop");
+    final Props flowProps = new Props(systemProps);
+    flowProps.put("team", "benchmark");
+    flowProps.put("base.dir", "/data/${team}");
+    this.props = new Props(flowProps);
+    for (int i = 0; i < this.size; i++) {
+      this.props.put("key" + i, i % 2 == 0 ? "${base.dir}/out" + i : "${hadoop.home}/lib/" + i);
+      this.props.put("plain" + i, "value" + i);
+    }
+  }
+
+  @Benchmark
+  public Props resolveProps() {
+    return PropsUtils.resolveProps(this.props);
+  }
+
+  @Benchmark
+  public int lookupThroughParents() {
+    int length = 0;
+    for (int i = 0; i < this.size; i++) {
+      length += this.props.getString("plain" + i).length();
+      length += this.props.getString("azkaban.home").length();
+    }
+    return length;
+  }
+}
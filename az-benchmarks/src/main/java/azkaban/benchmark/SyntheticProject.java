@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.benchmark;
+
+import azkaban.flow.Flow;
+import azkaban.project.DirectoryFlowLoader;
+import azkaban.project.Project;
+import azkaban.utils.Props;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Generates a project directory of noop jobs forming a layered DAG: each job depends on two jobs
+ * of the previous layer, and a single end job, which names the flow, depends on the last layer.
+ */
+public class SyntheticProject {
+
+  public static final String FLOW_NAME = "end";
+
+  private final File dir;
+  private final int width;
+  private final int depth;
+
+  private SyntheticProject(final File dir, final int width, final int depth) {
+    this.dir = dir;
+    this.width = width;
+    this.depth = depth;
+  }
+
+  /**
+   * Write a project of width * depth + 1 jobs in a new temporary directory.
+   */
+  public static SyntheticProject generate(final int width, final int depth) throws IOException {
+    final SyntheticProject project = new SyntheticProject(
+        Files.createTempDirectory("az-benchmark-project").toFile(), width, depth);
+    project.write();
+    return project;
+  }
+
+  private void write() throws IOException {
+    write("common.properties",
+        "team=benchmark\n"
+            + "base.dir=/tmp/${team}\n"
+            + "retries=3\n");
+    for (int layer = 0; layer < this.depth; layer++) {
+      final File layerDir = new File(this.dir, "layer" + layer);
+      for (int i = 0; i < this.width; i++) {
+        final StringBuilder job = new StringBuilder()
+            .append("type=noop\n")
+            .append("output.dir=${base.dir}/layer").append(layer).append("/").append(i)
+            .append('\n')
+            .append("retries=${retries}\n");
+        if (layer > 0) {
+          job.append("dependencies=").append(jobName(layer - 1, i)).append(',')
+              .append(jobName(layer - 1, (i + 1) % this.width)).append('\n');
+        }
+        write(new File(layerDir, jobName(layer, i) + ".job"), job.toString());
+      }
+    }
+
+    final StringBuilder end = new StringBuilder("type=noop\ndependencies=");
+    for (int i = 0; i < this.width; i++) {
+      end.append(i == 0 ? "" : ",").append(jobName(this.depth - 1, i));
+    }
+    write(FLOW_NAME + ".job", end.append('\n').toString());
+  }
+
+  private static String jobName(final int layer, final int index) {
+    return "job-" + layer + "-" + index;
+  }
+
+  private void write(final String name, final String content) throws IOException {
+    write(new File(this.dir, name), content);
+  }
+
+  private static void write(final File file, final String content) throws IOException {
+    FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Load the flows of the project into the given project.
+   */
+  public Map<String, Flow> load(final Project project) {
+    final DirectoryFlowLoader loader = new DirectoryFlowLoader(new Props());
+    loader.loadProjectFlow(project, this.dir);
+    if (!loader.getErrors().isEmpty()) {
+      throw new IllegalStateException("Invalid synthetic project: " + loader.getErrors());
+    }
+    project.setFlows(loader.getFlowMap());
+    return loader.getFlowMap();
+  }
+
+  public File getDir() {
+    return this.dir;
+  }
+
+  public int getJobCount() {
+    return this.width * this.depth + 1;
+  }
+
+  public void delete() {
+    FileUtils.deleteQuietly(this.dir);
+  }
+}
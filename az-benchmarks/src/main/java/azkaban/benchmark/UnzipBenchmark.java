@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.benchmark;
+
+import azkaban.utils.Utils;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Extracting a project archive, as done on upload and when an executor sets up a project
+ * directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UnzipBenchmark {
+
+  @Param({"100", "1000"})
+  public int files;
+
+  @Param({"4096"})
+  public int fileBytes;
+
+  private File zip;
+  private File dest;
+
+  @Setup
+  public void setUp() throws IOException {
+    this.zip = File.createTempFile("az-benchmark", ".zip");
+    final Random random = new Random(42);
+    final byte[] content = new byte[this.fileBytes];
+    try (final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(this.zip))) {
+      for (int i = 0; i < this.files; i++) {
+        out.putNextEntry(new ZipEntry("dir" + (i % 10) + "/file" + i + ".job"));
+        // half random, half compressible
+        random.nextBytes(content);
+        for (int j = content.length / 2; j < content.length; j++) {
+          content[j] = 'a';
+        }
+        out.write(content);
+        out.closeEntry();
+      }
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void createDest() throws IOException {
+    this.dest = Files.createTempDirectory("az-benchmark-unzip").toFile();
+  }
+
+  @TearDown(Level.Invocation)
+  public void deleteDest() {
+    FileUtils.deleteQuietly(this.dest);
+  }
+
+  @TearDown
+  public void tearDown() {
+    FileUtils.deleteQuietly(this.zip);
+  }
+
+  @Benchmark
+  public File unzip() throws IOException {
+    try (final ZipFile source = new ZipFile(this.zip)) {
+      Utils.unzip(source, this.dest);
+    }
+    return this.dest;
+  }
+}
@@ -457,6 +457,35 @@ public class Constants {
     // enable quartz scheduler and flow trigger if true.
     public static final String ENABLE_QUARTZ = "azkaban.server.schedule.enable_quartz";
 
+    // Scheduler backing flow triggers: "quartz" (default) or "timing_wheel". The timing wheel
+    // keeps fire times in memory and shards schedules across web servers.
+    public static final String SCHEDULER_IMPL = "azkaban.server.schedule.impl";
+    public static final String TIMING_WHEEL_TICK_MS =
+        "azkaban.server.schedule.timing_wheel.tick.ms";
+    public static final String TIMING_WHEEL_SIZE = "azkaban.server.schedule.timing_wheel.size";
+    public static final String TIMING_WHEEL_THREADS =
+        "azkaban.server.schedule.timing_wheel.threads";
+    public static final String TIMING_WHEEL_REFRESH_INTERVAL_MS =
+        "azkaban.server.schedule.timing_wheel.refresh.interval.ms";
+    // Same meaning as Quartz's org.quartz.jobStore.misfireThreshold.
+    public static final String TIMING_WHEEL_MISFIRE_THRESHOLD_MS =
+        "azkaban.server.schedule.timing_wheel.misfire.threshold.ms";
+    // FIRE_ONCE_NOW (default, as the Quartz cron triggers), DO_NOTHING or IGNORE_MISFIRES.
+    public static final String TIMING_WHEEL_MISFIRE_POLICY =
+        "azkaban.server.schedule.timing_wheel.misfire.policy";
+    // Schedules are sharded across web servers by schedule id. Each server sets the same count
+    // and its own index in [0, count).
+    public static final String TIMING_WHEEL_SHARD_COUNT =
+        "azkaban.server.schedule.timing_wheel.shard.count";
+    public static final String TIMING_WHEEL_SHARD_INDEX =
+        "azkaban.server.schedule.timing_wheel.shard.index";
+    // Switching from quartz to timing_wheel: when job_schedules is empty on start and
+    // azkaban.server.schedule.enable_quartz is set, the schedules in the Quartz job store (QRTZ_*
+    // tables) are copied into it once. The Quartz tables are left untouched, so switching back
+    // still finds them, but changes made with the timing wheel are not written back.
+    public static final String TIMING_WHEEL_IMPORT_QUARTZ =
+        "azkaban.server.schedule.timing_wheel.import.quartz";
+
     public static final String CUSTOM_CREDENTIAL_NAME = "azkaban.security.credential";
 
     public static final String OAUTH_CREDENTIAL_NAME = "azkaban.oauth.credential";
@@ -578,6 +607,31 @@ public class Constants {
 
     // Executions are permitted to restart this many of times, e.g. "...=3"
     public static final String AZKABAN_EXECUTION_RESTART_LIMIT = "azkaban.flow.retry.limit";
+
+    // Index the Hadoop/Spark application ids of a job attempt while its log is written, instead of
+    // scanning the whole log to find them. Off by default, needs the execution_job_application_ids
+    // table.
+    public static final String AZKABAN_APPLICATION_ID_INDEX_ENABLED =
+        "azkaban.application.id.index.enabled";
+
+    // Send alert emails from a bounded queue instead of on the thread raising the alert
+    public static final String MAIL_DELIVERY_ASYNC_ENABLED = "mail.delivery.async.enabled";
+    public static final String MAIL_DELIVERY_QUEUE_CAPACITY = "mail.delivery.queue.capacity";
+    public static final String MAIL_DELIVERY_THREADS = "mail.delivery.threads";
+    // How long closing the queue waits for the queued emails to be sent
+    public static final String MAIL_DELIVERY_SHUTDOWN_TIMEOUT_MS =
+        "mail.delivery.shutdown.timeout.ms";
+    // Emails to the same recipients within this window are sent as one digest, 0 to disable
+    public static final String MAIL_DIGEST_WINDOW_MS = "mail.digest.window.ms";
+    // Idle SMTP connections kept for reuse are closed after this time
+    public static final String MAIL_SMTP_POOL_IDLE_TIMEOUT_MS = "mail.smtp.pool.idle.timeout.ms";
+
+    // DB statements taking longer than this are logged to the azkaban.db.SlowQueryLog logger,
+    // 0 or less disables the log
+    public static final String AZKABAN_DB_SLOW_QUERY_THRESHOLD_MS =
+        "azkaban.db.slow.query.threshold.ms";
+    // Number of statements reported by the DB statements MBean
+    public static final String AZKABAN_DB_SLOW_QUERY_TOP_N = "azkaban.db.slow.query.top.n";
   }
 
   public static class FlowProperties {
@@ -650,6 +704,13 @@ public class Constants {
     public static final String JOBCALLBACK_SOCKET_TIMEOUT = "jobcallback.socket.timeout";
     public static final String JOBCALLBACK_RESPONSE_WAIT_TIMEOUT = "jobcallback.response.wait.timeout";
     public static final String JOBCALLBACK_THREAD_POOL_SIZE = "jobcallback.thread.pool.size";
+    // at most this many callbacks to the same host:port are sent concurrently, others wait in queue
+    public static final String JOBCALLBACK_MAX_CONNECTIONS_PER_HOST =
+        "jobcallback.max.connections.per.host";
+    // number of times a callback is sent before giving up, including the first one
+    public static final String JOBCALLBACK_MAX_ATTEMPTS = "jobcallback.max.attempts";
+    // delay before the first re-send of a failed callback, doubled on each further re-send
+    public static final String JOBCALLBACK_RETRY_INTERVAL_MS = "jobcallback.retry.interval.ms";
   }
 
   public static class FlowTriggerProps {
@@ -841,6 +902,12 @@ public class Constants {
         AZKABAN_CONTAINERIZED_PREFIX + "yarn.application.cleanup.timeout.min";
     public static final String CONTAINERIZED_YARN_APPLICATION_CLEANUP_PARALLELISM =
         AZKABAN_CONTAINERIZED_PREFIX + "yarn.application.cleanup.parallelism";
+    public static final String CONTAINERIZED_YARN_APPLICATION_KILL_TIMEOUT_SEC =
+        AZKABAN_CONTAINERIZED_PREFIX + "yarn.application.kill.timeout.sec";
+    public static final String CONTAINERIZED_YARN_CLIENT_POOL_MAX_SIZE =
+        AZKABAN_CONTAINERIZED_PREFIX + "yarn.client.pool.max.size";
+    public static final String CONTAINERIZED_YARN_CLIENT_POOL_IDLE_MIN =
+        AZKABAN_CONTAINERIZED_PREFIX + "yarn.client.pool.idle.min";
 
     public static final String ENV_VERSION_SET_ID = "VERSION_SET_ID";
     public static final String ENV_FLOW_EXECUTION_ID = "FLOW_EXECUTION_ID";
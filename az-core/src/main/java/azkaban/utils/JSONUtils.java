@@ -17,6 +17,7 @@
 package azkaban.utils;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -29,10 +30,14 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 import org.apache.commons.io.IOUtils;
+import org.codehaus.jackson.JsonEncoding;
 import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
 import org.codehaus.jackson.JsonNode;
 import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.codehaus.jackson.map.ObjectWriter;
 import org.slf4j.Logger;
@@ -42,6 +47,12 @@ public class JSONUtils {
 
   private static final Logger log = LoggerFactory.getLogger(JSONUtils.class);
 
+  // Mappers and factories are thread-safe once configured, and costly to create: they cache the
+  // serializers and the symbol tables. Never reconfigure them after construction.
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final JsonFactory FACTORY = MAPPER.getJsonFactory();
+  private static final ObjectWriter PRETTY_WRITER = MAPPER.writerWithDefaultPrettyPrinter();
+
   /**
    * The constructor. Cannot construct this class.
    */
@@ -53,14 +64,11 @@ public class JSONUtils {
   }
 
   public static String toJSON(final Object obj, final boolean prettyPrint) {
-    final ObjectMapper mapper = new ObjectMapper();
-
     try {
       if (prettyPrint) {
-        final ObjectWriter writer = mapper.writerWithDefaultPrettyPrinter();
-        return writer.writeValueAsString(obj);
+        return PRETTY_WRITER.writeValueAsString(obj);
       }
-      return mapper.writeValueAsString(obj);
+      return MAPPER.writeValueAsString(obj);
     } catch (final Exception e) {
       throw new RuntimeException(e);
     }
@@ -72,19 +80,66 @@ public class JSONUtils {
 
   public static void toJSON(final Object obj, final OutputStream stream,
       final boolean prettyPrint) {
-    final ObjectMapper mapper = new ObjectMapper();
     try {
       if (prettyPrint) {
-        final ObjectWriter writer = mapper.writerWithDefaultPrettyPrinter();
-        writer.writeValue(stream, obj);
+        PRETTY_WRITER.writeValue(stream, obj);
         return;
       }
-      mapper.writeValue(stream, obj);
+      MAPPER.writeValue(stream, obj);
     } catch (final Exception e) {
       throw new RuntimeException(e);
     }
   }
 
+  /**
+   * Write the object as UTF-8 json straight into the stream, without an intermediate string.
+   * Unlike {@link #toJSON(Object, OutputStream)}, the stream is left open.
+   */
+  public static void writeJSON(final Object obj, final OutputStream stream) throws IOException {
+    try (final JsonGenerator generator = createGenerator(stream)) {
+      MAPPER.writeValue(generator, obj);
+    }
+  }
+
+  /**
+   * Write the object as gzipped UTF-8 json into the stream, which is left open.
+   */
+  public static void writeGzipJSON(final Object obj, final OutputStream stream)
+      throws IOException {
+    final GZIPOutputStream gzipStream = new GZIPOutputStream(stream);
+    writeJSON(obj, gzipStream);
+    gzipStream.finish();
+  }
+
+  /**
+   * @return the object as UTF-8 json, encoded without an intermediate string
+   */
+  public static byte[] toJSONBytes(final Object obj) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    writeJSON(obj, bytes);
+    return bytes.toByteArray();
+  }
+
+  /**
+   * @return the object as gzipped UTF-8 json, as {@code GZIPUtils.gzipString(toJSON(obj))} but
+   * without the intermediate string and byte array.
+   */
+  public static byte[] toGzipJSONBytes(final Object obj) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    writeGzipJSON(obj, bytes);
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Create a generator writing UTF-8 json to the stream from the shared factory, for callers
+   * writing their json incrementally. Closing the generator does not close the stream.
+   */
+  public static JsonGenerator createGenerator(final OutputStream stream) throws IOException {
+    final JsonGenerator generator = FACTORY.createJsonGenerator(stream, JsonEncoding.UTF8);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    return generator;
+  }
+
   public static void toJSON(final Object obj, final File file) throws IOException {
     toJSON(obj, file, false);
   }
@@ -110,70 +165,83 @@ public class JSONUtils {
   }
 
   public static Object parseJSONFromString(final String json) throws IOException {
-    final ObjectMapper mapper = new ObjectMapper();
-    final JsonFactory factory = new JsonFactory();
-    final JsonParser parser = factory.createJsonParser(json);
-    final JsonNode node = mapper.readTree(parser);
-
-    return toObjectFromJSONNode(node);
+    try (final JsonParser parser = FACTORY.createJsonParser(json)) {
+      return parseJSON(parser);
+    }
   }
 
   public static Object parseJSONFromFile(final File file) throws IOException {
-    final ObjectMapper mapper = new ObjectMapper();
-    final JsonFactory factory = new JsonFactory();
-    final JsonParser parser = factory.createJsonParser(file);
-    final JsonNode node = mapper.readTree(parser);
-
-    return toObjectFromJSONNode(node);
+    try (final JsonParser parser = FACTORY.createJsonParser(file)) {
+      return parseJSON(parser);
+    }
   }
 
   public static Object parseJSONFromReader(final Reader reader) throws IOException {
-    final ObjectMapper mapper = new ObjectMapper();
-    final JsonFactory factory = new JsonFactory();
-    final JsonParser parser = factory.createJsonParser(reader);
-    final JsonNode node = mapper.readTree(parser);
+    try (final JsonParser parser = FACTORY.createJsonParser(reader)) {
+      return parseJSON(parser);
+    }
+  }
 
-    return toObjectFromJSONNode(node);
+  /**
+   * Parse json bytes, whose encoding is detected, e.g. a gunzipping stream over a blob, without
+   * decoding them into a string first. The stream is not closed.
+   */
+  public static Object parseJSONFromStream(final InputStream stream) throws IOException {
+    final JsonParser parser = FACTORY.createJsonParser(stream);
+    parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    try {
+      return parseJSON(parser);
+    } finally {
+      parser.close();
+    }
   }
 
-  private static Object toObjectFromJSONNode(final JsonNode node) {
-    if (node.isObject()) {
-      final HashMap<String, Object> obj = new HashMap<>();
-      final Iterator<String> iter = node.getFieldNames();
-      while (iter.hasNext()) {
-        final String fieldName = iter.next();
-        final JsonNode subNode = node.get(fieldName);
-        final Object subObj = toObjectFromJSONNode(subNode);
-        obj.put(fieldName, subObj);
-      }
+  /**
+   * Read the next value of the parser into maps, lists and primitive wrappers, straight from the
+   * tokens rather than through a {@link JsonNode} tree.
+   */
+  private static Object parseJSON(final JsonParser parser) throws IOException {
+    final JsonToken token = parser.nextToken();
+    return token == null ? null : toObjectFromToken(parser, token);
+  }
 
-      return obj;
-    } else if (node.isArray()) {
-      final ArrayList<Object> array = new ArrayList<>();
-      final Iterator<JsonNode> iter = node.getElements();
-      while (iter.hasNext()) {
-        final JsonNode element = iter.next();
-        final Object subObject = toObjectFromJSONNode(element);
-        array.add(subObject);
-      }
-      return array;
-    } else if (node.isTextual()) {
-      return node.asText();
-    } else if (node.isNumber()) {
-      if (node.isInt()) {
-        return node.asInt();
-      } else if (node.isLong()) {
-        return node.asLong();
-      } else if (node.isDouble()) {
-        return node.asDouble();
-      } else {
-        System.err.println("ERROR What is this!? " + node.getNumberType());
+  private static Object toObjectFromToken(final JsonParser parser, final JsonToken token)
+      throws IOException {
+    switch (token) {
+      case START_OBJECT:
+        final HashMap<String, Object> obj = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          final String fieldName = parser.getCurrentName();
+          obj.put(fieldName, toObjectFromToken(parser, parser.nextToken()));
+        }
+        return obj;
+      case START_ARRAY:
+        final ArrayList<Object> array = new ArrayList<>();
+        JsonToken element;
+        while ((element = parser.nextToken()) != JsonToken.END_ARRAY) {
+          array.add(toObjectFromToken(parser, element));
+        }
+        return array;
+      case VALUE_STRING:
+        return parser.getText();
+      case VALUE_NUMBER_INT:
+        switch (parser.getNumberType()) {
+          case INT:
+            return parser.getIntValue();
+          case LONG:
+            return parser.getLongValue();
+          default:
+            System.err.println("ERROR What is this!? " + parser.getNumberType());
+            return null;
+        }
+      case VALUE_NUMBER_FLOAT:
+        return parser.getDoubleValue();
+      case VALUE_TRUE:
+        return true;
+      case VALUE_FALSE:
+        return false;
+      default:
         return null;
-      }
-    } else if (node.isBoolean()) {
-      return node.asBoolean();
-    } else {
-      return null;
     }
   }
 
@@ -311,11 +379,7 @@ public class JSONUtils {
    * @throws IOException
    */
   public static JsonNode readJsonString(final String json) throws IOException {
-    final ObjectMapper mapper = new ObjectMapper();
-    final JsonFactory factory = new JsonFactory();
-    final JsonParser parser = factory.createJsonParser(json);
-    final JsonNode node = mapper.readTree(parser);
-    return node;
+    return MAPPER.readTree(json);
   }
 
   /**
@@ -15,10 +15,19 @@
  */
 package azkaban.utils;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -68,4 +77,51 @@ public class JSONUtilsTest {
         (Map<String, String>) JSONUtils.parseJSONFromString(jsonStr);
     checkInAndOut(test, result);
   }
+
+  @Test
+  public void testParsedValueTypes() throws IOException {
+    final Map<String, Object> result = (Map<String, Object>) JSONUtils.parseJSONFromString(
+        "{\"int\":1,\"long\":12345678901,\"double\":1.5,\"bool\":true,\"null\":null,"
+            + "\"list\":[\"a\",{\"nested\":[]}]}");
+
+    assertThat(result.get("int")).isEqualTo(1);
+    assertThat(result.get("long")).isEqualTo(12345678901L);
+    assertThat(result.get("double")).isEqualTo(1.5);
+    assertThat(result.get("bool")).isEqualTo(true);
+    assertThat(result).containsKey("null");
+    assertThat(result.get("null")).isNull();
+    final List<Object> list = (List<Object>) result.get("list");
+    assertThat(list.get(0)).isEqualTo("a");
+    assertThat(((Map<String, Object>) list.get(1)).get("nested")).isEqualTo(Arrays.asList());
+  }
+
+  @Test
+  public void testStreamingWritersMatchToJSON() throws IOException {
+    final Map<String, Object> obj = new HashMap<>();
+    obj.put("name", "flow\u00e9");
+    obj.put("nodes", Arrays.asList(1, 12345678901L, "three"));
+    final String json = JSONUtils.toJSON(obj);
+
+    assertThat(new String(JSONUtils.toJSONBytes(obj), StandardCharsets.UTF_8)).isEqualTo(json);
+    final byte[] gzipped = JSONUtils.toGzipJSONBytes(obj);
+    assertThat(IOUtils.toString(new GZIPInputStream(new ByteArrayInputStream(gzipped)),
+        StandardCharsets.UTF_8)).isEqualTo(json);
+    assertThat(JSONUtils.parseJSONFromStream(
+        new GZIPInputStream(new ByteArrayInputStream(gzipped)))).isEqualTo(obj);
+  }
+
+  @Test
+  public void testWriteJSONLeavesStreamOpen() throws IOException {
+    final ByteArrayOutputStream stream = new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        throw new IllegalStateException("stream closed");
+      }
+    };
+    JSONUtils.writeJSON(Arrays.asList("a"), stream);
+    stream.write(' ');
+    JSONUtils.writeJSON(Arrays.asList("b"), stream);
+    assertThat(new String(stream.toByteArray(), StandardCharsets.UTF_8))
+        .isEqualTo("[\"a\"] [\"b\"]");
+  }
 }
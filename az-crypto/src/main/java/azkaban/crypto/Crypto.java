@@ -30,12 +30,21 @@ public class Crypto implements ICrypto {
 
   private static final ObjectMapper MAPPER = new ObjectMapper();
   private final Map<Version, ICrypto> cryptos;
+  private final DecryptedValueCache decryptedValues;
 
   public Crypto() {
+    this(null);
+  }
+
+  /**
+   * @param decryptedValues cache of the decrypted values, or null to decrypt on every call
+   */
+  public Crypto(final DecryptedValueCache decryptedValues) {
     this.cryptos = ImmutableMap.<Version, ICrypto>builder()
         .put(Version.V1_0, new CryptoV1())
         .put(Version.V1_1, new CryptoV1_1())
         .build();
+    this.decryptedValues = decryptedValues;
   }
 
   public static String encode(final String s) {
@@ -64,6 +73,14 @@ public class Crypto implements ICrypto {
         .checkArgument(!StringUtils.isEmpty(cipheredText), "cipheredText should not be empty");
     Preconditions.checkArgument(!StringUtils.isEmpty(passphrase), "passphrase should not be empty");
 
+    if (this.decryptedValues != null) {
+      return this.decryptedValues.get(cipheredText, passphrase,
+          () -> decryptUncached(cipheredText, passphrase));
+    }
+    return decryptUncached(cipheredText, passphrase);
+  }
+
+  private String decryptUncached(final String cipheredText, final String passphrase) {
     try {
       final String jsonStr = decode(cipheredText);
       final JsonNode json = MAPPER.readTree(jsonStr);
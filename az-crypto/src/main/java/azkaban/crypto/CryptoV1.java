@@ -17,7 +17,6 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Preconditions;
 import org.apache.log4j.Logger;
 import org.jasypt.encryption.pbe.PBEStringEncryptor;
-import org.jasypt.encryption.pbe.StandardPBEStringEncryptor;
 
 /**
  * Encrypts and decrypts using DES algorithm.
@@ -30,13 +29,14 @@ public class CryptoV1 implements ICrypto {
 
   private static final String CIPHERED_TEXT_KEY = "val";
   private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final PBEEncryptorPool ENCRYPTORS = new PBEEncryptorPool();
 
   @Override
   public String encrypt(final String plaintext, final String passphrase,
       final Version cryptoVersion) {
     Preconditions.checkArgument(Version.V1_0.equals(cryptoVersion));
 
-    final String cipheredText = newEncryptor(passphrase).encrypt(plaintext);
+    final String cipheredText = getEncryptor(passphrase).encrypt(plaintext);
     final ObjectNode node = MAPPER.createObjectNode();
     node.put(CIPHERED_TEXT_KEY, cipheredText);
     node.put(VERSION_IDENTIFIER, Version.V1_0.versionStr());
@@ -48,7 +48,7 @@ public class CryptoV1 implements ICrypto {
   public String decrypt(final String cipheredText, final String passphrase) {
     try {
       final JsonNode json = MAPPER.readTree(Crypto.decode(cipheredText));
-      return newEncryptor(passphrase).decrypt(json.get(CIPHERED_TEXT_KEY).asText());
+      return getEncryptor(passphrase).decrypt(json.get(CIPHERED_TEXT_KEY).asText());
     } catch (final Exception e) {
       throw new RuntimeException(e);
     }
@@ -57,9 +57,7 @@ public class CryptoV1 implements ICrypto {
   /**
    * DES algorithm
    */
-  private PBEStringEncryptor newEncryptor(final String passphrase) {
-    final StandardPBEStringEncryptor encryptor = new StandardPBEStringEncryptor();
-    encryptor.setPassword(passphrase);
-    return encryptor;
+  private PBEStringEncryptor getEncryptor(final String passphrase) {
+    return ENCRYPTORS.get(passphrase);
   }
 }
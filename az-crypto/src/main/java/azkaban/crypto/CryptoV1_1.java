@@ -19,7 +19,6 @@ import java.security.Provider;
 import org.apache.log4j.Logger;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.jasypt.encryption.pbe.PBEStringEncryptor;
-import org.jasypt.encryption.pbe.StandardPBEStringEncryptor;
 
 /**
  * Uses AES algorithm to encrypt and decrypt.
@@ -33,13 +32,17 @@ public class CryptoV1_1 implements ICrypto {
   private static final Provider PROVIDER = new BouncyCastleProvider();
 
   private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final PBEEncryptorPool ENCRYPTORS = new PBEEncryptorPool(encryptor -> {
+    encryptor.setProvider(PROVIDER);
+    encryptor.setAlgorithm(CRYPTO_ALGO);
+  });
 
   @Override
   public String encrypt(final String plaintext, final String passphrase,
       final Version cryptoVersion) {
     Preconditions.checkArgument(Version.V1_1.equals(cryptoVersion));
 
-    final String cipheredText = newEncryptor(passphrase).encrypt(plaintext);
+    final String cipheredText = getEncryptor(passphrase).encrypt(plaintext);
     final ObjectNode node = MAPPER.createObjectNode();
     node.put(CIPHERED_TEXT_KEY, cipheredText);
     node.put(VERSION_IDENTIFIER, Version.V1_1.versionStr());
@@ -52,7 +55,7 @@ public class CryptoV1_1 implements ICrypto {
     try {
       final String jsonStr = Crypto.decode(cipheredText);
       final JsonNode json = MAPPER.readTree(jsonStr);
-      return newEncryptor(passphrase).decrypt(json.get(CIPHERED_TEXT_KEY).asText());
+      return getEncryptor(passphrase).decrypt(json.get(CIPHERED_TEXT_KEY).asText());
     } catch (final Exception e) {
       throw new RuntimeException(e);
     }
@@ -61,11 +64,7 @@ public class CryptoV1_1 implements ICrypto {
   /**
    * AES algorithm
    */
-  private PBEStringEncryptor newEncryptor(final String passphrase) {
-    final StandardPBEStringEncryptor encryptor = new StandardPBEStringEncryptor();
-    encryptor.setPassword(passphrase);
-    encryptor.setProvider(PROVIDER);
-    encryptor.setAlgorithm(CRYPTO_ALGO);
-    return encryptor;
+  private PBEStringEncryptor getEncryptor(final String passphrase) {
+    return ENCRYPTORS.get(passphrase);
   }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2022 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied.
+ */
+package azkaban.crypto;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of decrypted values, so that a secret used by many jobs isn't decrypted, with its
+ * costly key derivation, every time.
+ *
+ * Values are keyed by a SHA-256 hash of the passphrase and the ciphered text, so neither is kept.
+ * They expire after a time to live, and are kept as char arrays which are overwritten when evicted
+ * or invalidated.
+ *
+ * Overwriting only clears the cache's own copy. Every call returns the value as a new String,
+ * which stays in the heap until it is garbage collected, as it would without the cache.
+ */
+public class DecryptedValueCache {
+
+  private final Cache<String, Secret> values;
+
+  public DecryptedValueCache(final long maxEntries, final long ttlMs) {
+    this.values = CacheBuilder.newBuilder()
+        .maximumSize(maxEntries)
+        .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+        .<String, Secret>removalListener(notification -> notification.getValue().wipe())
+        .build();
+  }
+
+  private static String getKey(final String cipheredText, final String passphrase) {
+    return Hashing.sha256().newHasher()
+        .putString(passphrase, StandardCharsets.UTF_8)
+        .putByte((byte) 0)
+        .putString(cipheredText, StandardCharsets.UTF_8)
+        .hash().toString();
+  }
+
+  /**
+   * @return the cached value of the ciphered text, or the value from the decryptor, which is then
+   * cached
+   */
+  public String get(final String cipheredText, final String passphrase,
+      final Supplier<String> decryptor) {
+    final String key = getKey(cipheredText, passphrase);
+    final Secret cached = this.values.getIfPresent(key);
+    if (cached != null) {
+      final String value = cached.reveal();
+      // null if evicted meanwhile
+      if (value != null) {
+        return value;
+      }
+    }
+
+    final String value = decryptor.get();
+    if (value != null) {
+      this.values.put(key, new Secret(value.toCharArray()));
+    }
+    return value;
+  }
+
+  public long size() {
+    this.values.cleanUp();
+    return this.values.size();
+  }
+
+  /**
+   * Evict, and overwrite, all the cached values.
+   */
+  public void invalidateAll() {
+    this.values.invalidateAll();
+  }
+
+  private static final class Secret {
+
+    private char[] chars;
+
+    private Secret(final char[] chars) {
+      this.chars = chars;
+    }
+
+    /**
+     * @return a new String of the value, which is not overwritten by {@link #wipe()}
+     */
+    private synchronized String reveal() {
+      return this.chars == null ? null : new String(this.chars);
+    }
+
+    private synchronized void wipe() {
+      if (this.chars != null) {
+        Arrays.fill(this.chars, '\0');
+        this.chars = null;
+      }
+    }
+  }
+}
@@ -28,6 +28,19 @@ public class Decryptions {
       FsAction.NONE,
       FsAction.NONE);
 
+  private final Crypto crypto;
+
+  public Decryptions() {
+    this(null);
+  }
+
+  /**
+   * @param decryptedValues cache of the decrypted values, or null to decrypt on every call
+   */
+  public Decryptions(final DecryptedValueCache decryptedValues) {
+    this.crypto = new Crypto(decryptedValues);
+  }
+
   public String decrypt(final String cipheredText, final String passphrasePath, final FileSystem fs)
       throws IOException {
     Preconditions.checkNotNull(cipheredText);
@@ -42,11 +55,10 @@ public class Decryptions {
     Preconditions.checkArgument(USER_READ_PERMISSION_ONLY.equals(fileStatus.getPermission()),
         "Passphrase file should only have read only permission on only user. " + passphrasePath);
 
-    final Crypto crypto = new Crypto();
     try (BufferedReader br = new BufferedReader(new InputStreamReader(fs.open(path),
         Charset.defaultCharset()))) {
       final String passphrase = br.readLine();
-      final String decrypted = crypto.decrypt(cipheredText, passphrase);
+      final String decrypted = this.crypto.decrypt(cipheredText, passphrase);
       Preconditions.checkNotNull(decrypted, "Was not able to decrypt");
       return decrypted;
     }
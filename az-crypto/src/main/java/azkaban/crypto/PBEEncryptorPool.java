@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2022 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied.
+ */
+package azkaban.crypto;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.jasypt.encryption.pbe.PBEStringEncryptor;
+import org.jasypt.encryption.pbe.PooledPBEStringEncryptor;
+
+/**
+ * Thread safe encryptors of the passphrases in use, so that an encryptor, its cipher and key
+ * factory are set up once per passphrase rather than on every call. Each is a pool of one
+ * encryptor per processor, so that concurrent calls don't wait for each other.
+ *
+ * The passphrases are kept hashed as keys, and their encryptors are dropped after an hour without
+ * use.
+ */
+class PBEEncryptorPool {
+
+  private static final int MAX_PASSPHRASES = 16;
+  private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
+  private final Consumer<PooledPBEStringEncryptor> configurer;
+  private final Cache<String, PBEStringEncryptor> encryptors = CacheBuilder.newBuilder()
+      .maximumSize(MAX_PASSPHRASES)
+      .expireAfterAccess(1, TimeUnit.HOURS)
+      .build();
+
+  /**
+   * Pool of encryptors of the default algorithm of jasypt.
+   */
+  PBEEncryptorPool() {
+    this(encryptor -> {
+    });
+  }
+
+  /**
+   * @param configurer sets the algorithm and provider of the new encryptors
+   */
+  PBEEncryptorPool(final Consumer<PooledPBEStringEncryptor> configurer) {
+    this.configurer = configurer;
+  }
+
+  PBEStringEncryptor get(final String passphrase) {
+    final String key = Hashing.sha256().hashString(passphrase, StandardCharsets.UTF_8).toString();
+    try {
+      return this.encryptors.get(key, () -> {
+        final PooledPBEStringEncryptor encryptor = new PooledPBEStringEncryptor();
+        encryptor.setPoolSize(POOL_SIZE);
+        encryptor.setPassword(passphrase);
+        this.configurer.accept(encryptor);
+        return encryptor;
+      });
+    } catch (final ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2022 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use
+ * this file except in compliance with the License. You may obtain a copy of the
+ * License at  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed
+ * under the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR
+ * CONDITIONS OF ANY KIND, either express or implied.
+ */
+package azkaban.crypto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DecryptedValueCacheTest {
+
+  private static final String CIPHERED_V1_1 =
+      "eyJ2ZXIiOiIxLjEiLCJ2YWwiOiJpaE9CM2VzTzBad2F4cHZBV2Z5YUVicHZLQzJBWDJZZnVzS3hVWFN2R3A0PSJ9";
+  private static final String PASSPHRASE = "test1234";
+
+  @Test
+  public void testValueIsDecryptedOnce() {
+    final DecryptedValueCache cache = new DecryptedValueCache(10, 60 * 1000);
+    final AtomicInteger decryptions = new AtomicInteger();
+
+    for (int i = 0; i < 3; i++) {
+      Assert.assertEquals("secret", cache.get("ciphered", PASSPHRASE, () -> {
+        decryptions.incrementAndGet();
+        return "secret";
+      }));
+    }
+    Assert.assertEquals(1, decryptions.get());
+
+    // a value is only served for the passphrase it was decrypted with
+    Assert.assertEquals("other", cache.get("ciphered", "another passphrase", () -> "other"));
+    Assert.assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void testInvalidatedAndExpiredValuesAreDecryptedAgain() throws Exception {
+    final DecryptedValueCache cache = new DecryptedValueCache(10, 60 * 1000);
+    final AtomicInteger decryptions = new AtomicInteger();
+    cache.get("ciphered", PASSPHRASE, () -> "v" + decryptions.incrementAndGet());
+
+    cache.invalidateAll();
+    Assert.assertEquals(0, cache.size());
+    Assert.assertEquals("v2",
+        cache.get("ciphered", PASSPHRASE, () -> "v" + decryptions.incrementAndGet()));
+
+    final DecryptedValueCache expiring = new DecryptedValueCache(10, 1);
+    expiring.get("ciphered", PASSPHRASE, () -> "v" + decryptions.incrementAndGet());
+    Thread.sleep(10);
+    Assert.assertEquals("v4",
+        expiring.get("ciphered", PASSPHRASE, () -> "v" + decryptions.incrementAndGet()));
+  }
+
+  @Test
+  public void testCryptoWithCache() {
+    final Crypto crypto = new Crypto(new DecryptedValueCache(10, 60 * 1000));
+
+    Assert.assertEquals("test", crypto.decrypt(CIPHERED_V1_1, PASSPHRASE));
+    Assert.assertEquals("test", crypto.decrypt(CIPHERED_V1_1, PASSPHRASE));
+    try {
+      crypto.decrypt(CIPHERED_V1_1, "wrong passphrase");
+      Assert.fail("Should have failed to decrypt with the wrong passphrase.");
+    } catch (final RuntimeException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testConcurrentDecryptions() throws Exception {
+    final Crypto crypto = new Crypto();
+    final String ciphered = crypto.encrypt("concurrent", PASSPHRASE, Version.V1_1);
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        results.add(executor.submit(() -> crypto.decrypt(ciphered, PASSPHRASE)));
+      }
+      for (final Future<String> result : results) {
+        Assert.assertEquals("concurrent", result.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -20,6 +20,9 @@ public class Constants {
   public static class DependencyPluginConfigKey {
     //Define where the Kafka brocker is located.
     public static final String KAKFA_BROKER_URL = "kafka.broker.url";
+    //Number of threads matching consumed records against the dependency rules, 0 to match them
+    //on the consumer thread.
+    public static final String MATCHER_THREADS = "kafka.matcher.threads";
   }
   
   /**
@@ -19,13 +19,12 @@ package trigger.kafka;
 import com.google.common.base.Joiner;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 
@@ -47,31 +46,28 @@ import java.util.regex.Pattern;
  *  }
  * }
  *
+ * Every record consumed is matched against all the rules of its topic, while dependencies are
+ * added and removed rarely. So the rules are compiled once, when first added, and the rules of a
+ * topic are an immutable map replaced as a whole on every change (copy-on-write): matching a
+ * record takes no lock and compiles nothing.
  */
 public class KafkaDepInstanceCollection {
 
-  private final Map<String, Map<String, List<KafkaDependencyInstanceContext>>> topicEventMap;
+  private final Map<String, Map<String, Rule>> topicEventMap;
 
   public KafkaDepInstanceCollection() {
-    this.topicEventMap = new HashMap<>();
+    this.topicEventMap = new ConcurrentHashMap<>();
   }
 
   public synchronized void add(final KafkaDependencyInstanceContext dep) {
     final String topic = dep.getTopicName();
-    Map<String, List<KafkaDependencyInstanceContext>> eventMap = this.topicEventMap.get(topic);
-    List<KafkaDependencyInstanceContext> depList;
-    if (eventMap == null) {
-      eventMap = new HashMap<>();
-      depList = new LinkedList<>();
-    } else {
-      depList = eventMap.get(dep.getRegexMatch());
-      if (depList == null) {
-        depList = new LinkedList<>();
-      }
-    }
-    depList.add(dep);
-    eventMap.put(dep.getRegexMatch(), depList);
-    this.topicEventMap.put(topic, eventMap);
+    final Map<String, Rule> eventMap = copyOf(this.topicEventMap.get(topic));
+    final Rule rule = eventMap.get(dep.getRegexMatch());
+    eventMap.put(dep.getRegexMatch(), rule == null
+        ? new Rule(new RegexKafkaDependencyMatcher(Pattern.compile(dep.getRegexMatch())),
+        Collections.singletonList(dep))
+        : rule.withDeps(append(rule.deps, dep)));
+    this.topicEventMap.put(topic, Collections.unmodifiableMap(eventMap));
   }
 
   public boolean hasTopic(final String topic) {
@@ -82,7 +78,7 @@ public class KafkaDepInstanceCollection {
    * Get a list of topics.
    * @return List of String of topics
    */
-  public synchronized List<String> getTopicList() {
+  public List<String> getTopicList() {
     final List<String> res = new ArrayList<>(this.topicEventMap.keySet());
     return res;
   }
@@ -92,16 +88,15 @@ public class KafkaDepInstanceCollection {
    * @param payload and topic
    * @return regexs that meet the customized requirement
    */
-  public synchronized Set<String> regexInTopic(final String topic, final String payload) {
-    final Set<String> res = new HashSet<>();
-    final Map<String, List<KafkaDependencyInstanceContext>> eventMap = this.topicEventMap.get(topic);
+  public Set<String> regexInTopic(final String topic, final String payload) {
+    final Map<String, Rule> eventMap = this.topicEventMap.get(topic);
     if (eventMap == null) {
       return Collections.emptySet();
     }
 
-    for (final Map.Entry<String, List<KafkaDependencyInstanceContext>> entry : eventMap.entrySet()) {
-      final RegexKafkaDependencyMatcher matcher = new RegexKafkaDependencyMatcher(Pattern.compile(entry.getKey()));
-      if (matcher.isMatch(payload)) {
+    final Set<String> res = new HashSet<>();
+    for (final Map.Entry<String, Rule> entry : eventMap.entrySet()) {
+      if (entry.getValue().matcher.isMatch(payload)) {
         res.add(entry.getKey());
       }
     }
@@ -109,58 +104,67 @@ public class KafkaDepInstanceCollection {
   }
 
   /**
-   * Returns dependencies with topic and dependency's event regular expression match
+   * Returns dependencies with topic and dependency's event regular expression match. The list is
+   * a snapshot, it is not changed by later adds and removes.
    */
-  public synchronized List<KafkaDependencyInstanceContext> getDepsByTopicAndEvent(final String topic,
+  public List<KafkaDependencyInstanceContext> getDepsByTopicAndEvent(final String topic,
       final String regex) {
-    final Map<String, List<KafkaDependencyInstanceContext>> regexMap = this.topicEventMap.get(topic);
+    final Map<String, Rule> regexMap = this.topicEventMap.get(topic);
     if (regexMap != null) {
-      return regexMap.get(regex);
+      final Rule rule = regexMap.get(regex);
+      return rule == null ? null : rule.deps;
     }
     return Collections.emptyList();
   }
 
   public synchronized void remove(final KafkaDependencyInstanceContext dep) {
-    final Map<String, List<KafkaDependencyInstanceContext>> regexMap = this.topicEventMap.get(dep.getTopicName());
-    if (regexMap != null) {
-      final List<KafkaDependencyInstanceContext> deps = regexMap.get(dep.getRegexMatch());
-      if (deps != null) {
-        final Iterator<KafkaDependencyInstanceContext> it = deps.iterator();
-        while (it.hasNext()) {
-          final KafkaDependencyInstanceContext curr = it.next();
-          if (curr == dep) {
-            it.remove();
-            break;
-          }
-        }
-        if (deps.isEmpty()) {
-          regexMap.remove(dep.getRegexMatch());
-        }
-        if (regexMap.isEmpty()) {
-          this.topicEventMap.remove(dep.getTopicName());
-        }
-      }
-    }
+    removeDeps(dep.getTopicName(), dep.getRegexMatch(), Collections.singletonList(dep));
   }
 
+  /**
+   * @return true if no topic was removed, i.e. the subscription does not need to change
+   */
   public synchronized boolean removeList(final String topic, final String event,
       final List<KafkaDependencyInstanceContext> list) {
-    final List<String> ori = new ArrayList<>(this.topicEventMap.keySet());
-    final Map<String, List<KafkaDependencyInstanceContext>> eventMap = this.topicEventMap.get(topic);
-    if (eventMap != null) {
-      final List<KafkaDependencyInstanceContext> deps = eventMap.get(event);
-      if (deps != null) {
-        deps.removeAll(list);
-      }
-      if (deps.isEmpty()) {
-        eventMap.remove(event);
-      }
-      if (eventMap.isEmpty()) {
-        this.topicEventMap.remove(topic);
-      }
+    final boolean hadTopic = this.topicEventMap.containsKey(topic);
+    removeDeps(topic, event, list);
+    return !hadTopic || this.topicEventMap.containsKey(topic);
+  }
+
+  private void removeDeps(final String topic, final String event,
+      final List<KafkaDependencyInstanceContext> toRemove) {
+    final Map<String, Rule> current = this.topicEventMap.get(topic);
+    if (current == null || !current.containsKey(event)) {
+      return;
     }
-    final List<String> res = new ArrayList<>(this.topicEventMap.keySet());
-    return res == ori;
+    final Rule rule = current.get(event);
+    final List<KafkaDependencyInstanceContext> deps = new ArrayList<>(rule.deps);
+    // dependencies are removed by identity
+    deps.removeIf(dep -> toRemove.stream().anyMatch(removed -> removed == dep));
+
+    final Map<String, Rule> eventMap = copyOf(current);
+    if (deps.isEmpty()) {
+      eventMap.remove(event);
+    } else {
+      eventMap.put(event, rule.withDeps(Collections.unmodifiableList(deps)));
+    }
+    if (eventMap.isEmpty()) {
+      this.topicEventMap.remove(topic);
+    } else {
+      this.topicEventMap.put(topic, Collections.unmodifiableMap(eventMap));
+    }
+  }
+
+  private static Map<String, Rule> copyOf(final Map<String, Rule> eventMap) {
+    return eventMap == null ? new LinkedHashMap<>() : new LinkedHashMap<>(eventMap);
+  }
+
+  private static List<KafkaDependencyInstanceContext> append(
+      final List<KafkaDependencyInstanceContext> deps, final KafkaDependencyInstanceContext dep) {
+    final List<KafkaDependencyInstanceContext> res = new ArrayList<>(deps.size() + 1);
+    res.addAll(deps);
+    res.add(dep);
+    return Collections.unmodifiableList(res);
   }
 
   @Override
@@ -168,4 +172,28 @@ public class KafkaDepInstanceCollection {
     final Joiner.MapJoiner mapJoiner = Joiner.on("\n").withKeyValueSeparator("=");
     return mapJoiner.join(this.topicEventMap);
   }
+
+  /**
+   * The compiled regex of a rule and the dependencies waiting for it.
+   */
+  private static class Rule {
+
+    private final RegexKafkaDependencyMatcher matcher;
+    private final List<KafkaDependencyInstanceContext> deps;
+
+    private Rule(final RegexKafkaDependencyMatcher matcher,
+        final List<KafkaDependencyInstanceContext> deps) {
+      this.matcher = matcher;
+      this.deps = deps;
+    }
+
+    private Rule withDeps(final List<KafkaDependencyInstanceContext> newDeps) {
+      return new Rule(this.matcher, newDeps);
+    }
+
+    @Override
+    public String toString() {
+      return this.deps.toString();
+    }
+  }
 }
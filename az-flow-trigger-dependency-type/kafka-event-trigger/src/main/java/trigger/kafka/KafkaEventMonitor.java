@@ -25,13 +25,17 @@ import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import org.apache.avro.generic.GenericData.Record;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import trigger.kafka.Constants.DependencyPluginConfigKey;
@@ -48,6 +52,8 @@ public class KafkaEventMonitor implements Runnable {
   private final KafkaDepInstanceCollection depInstances;
   private final ConcurrentLinkedQueue<String> subscribedTopics = new ConcurrentLinkedQueue<>();
   private Consumer<String, String> consumer;
+  // matches records against the rules in parallel, null to match on the consumer thread
+  private final ExecutorService matcherPool;
 
   public KafkaEventMonitor(final DependencyPluginConfig pluginConfig) {
     this.initKafkaClient(pluginConfig);
@@ -57,6 +63,17 @@ public class KafkaEventMonitor implements Runnable {
     }
 
     this.depInstances = new KafkaDepInstanceCollection();
+    this.matcherPool = createMatcherPool(pluginConfig.get(DependencyPluginConfigKey.MATCHER_THREADS));
+  }
+
+  private static ExecutorService createMatcherPool(final String matcherThreads) {
+    final int threads = matcherThreads == null ? 0 : Integer.parseInt(matcherThreads.trim());
+    if (threads <= 0) {
+      return null;
+    }
+    log.info("Matching kafka records on " + threads + " threads");
+    return Executors.newFixedThreadPool(threads,
+        new ThreadFactoryBuilder().setNameFormat("kafka-event-matcher-%d").setDaemon(true).build());
   }
 
   private void initKafkaClient(final DependencyPluginConfig pluginConfig) {
@@ -100,18 +117,7 @@ public class KafkaEventMonitor implements Runnable {
           this.consumerSubscriptionRebalance();
         }
         final ConsumerRecords<String, String> records = this.consumer.poll(10000);
-        final Record recordToProcess = null;
-        for (final ConsumerRecord<String, String> record : records) {
-          try {
-            final String payload = record.value();
-            final Set<String> matchedList = this.depInstances.regexInTopic(record.topic(), payload);
-            if (!matchedList.isEmpty()) {
-              this.triggerDependencies(matchedList, record);
-            }
-          } catch (final Exception ex) {
-            log.error("failure when parsing record " + recordToProcess, ex);
-          }
-        }
+        this.processRecords(records);
         if (!this.subscribedTopics.isEmpty()) {
           this.consumerSubscriptionRebalance();
         }
@@ -121,10 +127,56 @@ public class KafkaEventMonitor implements Runnable {
     } finally {
       // Failed to send SSL Close message.
       this.consumer.close();
+      if (this.matcherPool != null) {
+        this.matcherPool.shutdownNow();
+      }
       log.info("kafka consumer closed...");
     }
   }
 
+  /**
+   * Match the records against the dependency rules and trigger the matched dependencies. With a
+   * matcher pool, the records are matched in parallel, but the dependencies are still triggered
+   * on this thread and in the order of the records.
+   */
+  @VisibleForTesting
+  void processRecords(final Iterable<ConsumerRecord<String, String>> records)
+      throws InterruptedException {
+    if (this.matcherPool == null) {
+      for (final ConsumerRecord<String, String> record : records) {
+        try {
+          this.triggerIfMatched(record,
+              this.depInstances.regexInTopic(record.topic(), record.value()));
+        } catch (final Exception ex) {
+          log.error("failure when parsing record " + record, ex);
+        }
+      }
+      return;
+    }
+
+    final List<ConsumerRecord<String, String>> recordList = new ArrayList<>();
+    final List<Future<Set<String>>> matches = new ArrayList<>();
+    for (final ConsumerRecord<String, String> record : records) {
+      recordList.add(record);
+      matches.add(this.matcherPool
+          .submit(() -> this.depInstances.regexInTopic(record.topic(), record.value())));
+    }
+    for (int i = 0; i < recordList.size(); i++) {
+      try {
+        this.triggerIfMatched(recordList.get(i), matches.get(i).get());
+      } catch (final ExecutionException | RuntimeException ex) {
+        log.error("failure when parsing record " + recordList.get(i), ex);
+      }
+    }
+  }
+
+  private void triggerIfMatched(final ConsumerRecord<String, String> record,
+      final Set<String> matchedList) {
+    if (!matchedList.isEmpty()) {
+      this.triggerDependencies(matchedList, record);
+    }
+  }
+
   /**
    * Dynamically tune subscription only for the topic that dependencies need.
    */
@@ -151,6 +203,11 @@ public class KafkaEventMonitor implements Runnable {
     for (final String it : matchedList) {
       final List<KafkaDependencyInstanceContext> possibleAvailableDeps =
           this.depInstances.getDepsByTopicAndEvent(record.topic(), it);
+      if (possibleAvailableDeps == null || possibleAvailableDeps.isEmpty()) {
+        // records of a poll are matched up front, so an earlier record of the same poll may
+        // already have triggered and removed the dependencies of this rule
+        continue;
+      }
       for (final KafkaDependencyInstanceContext dep : possibleAvailableDeps) {
         dep.getCallback().onSuccess(dep);
         deleteList.add(dep);
@@ -16,15 +16,23 @@
 
 package trigger.kafka;
 
+import avro.shaded.com.google.common.collect.ImmutableMap;
+import azkaban.flowtrigger.DependencyInstanceCallback;
+import azkaban.flowtrigger.DependencyInstanceConfigImpl;
 import azkaban.flowtrigger.DependencyPluginConfig;
 import azkaban.flowtrigger.DependencyPluginConfigImpl;
 import java.text.ParseException;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static trigger.kafka.Constants.*;
 
 
 public class KafkaEventMonitorTest {
@@ -56,4 +64,50 @@ public class KafkaEventMonitorTest {
     testMonitor.consumerSubscriptionRebalance();
     assertThat(testMonitor.getMonitorSubscription()).doesNotContain("AzTest_Topic3");
   }
+
+  private static KafkaDependencyInstanceContext createContext(final String topic,
+      final String match, final String depName, final DependencyInstanceCallback callback) {
+    return new KafkaDependencyInstanceContext(new DependencyInstanceConfigImpl(
+        ImmutableMap.of(DependencyInstanceConfigKey.TOPIC, topic,
+            DependencyInstanceConfigKey.MATCH, match, DependencyInstanceConfigKey.NAME, depName)),
+        new KafkaDependencyCheck(), callback);
+  }
+
+  @Test
+  public void testPooledMatchingTriggersEachDependencyOnce() throws InterruptedException {
+    final Map<String, String> pluginConfigMap = new HashMap<>();
+    pluginConfigMap.put(DependencyPluginConfigKey.KAKFA_BROKER_URL, "localhost:9092");
+    pluginConfigMap.put(DependencyPluginConfigKey.MATCHER_THREADS, "4");
+    final KafkaEventMonitor testMonitor =
+        new KafkaEventMonitor(new DependencyPluginConfigImpl(pluginConfigMap));
+    final DependencyInstanceCallback callback = mock(DependencyInstanceCallback.class);
+
+    final KafkaDependencyInstanceContext hadoop1 =
+        createContext("AzTest_Topic1", "hadoop.*", "dep1", callback);
+    final KafkaDependencyInstanceContext hadoop2 =
+        createContext("AzTest_Topic1", "hadoop.*", "dep2", callback);
+    final KafkaDependencyInstanceContext spark =
+        createContext("AzTest_Topic1", "spark", "dep3", callback);
+    final KafkaDependencyInstanceContext anyEvent =
+        createContext("AzTest_Topic2", ".*", "dep4", callback);
+    testMonitor.add(hadoop1);
+    testMonitor.add(hadoop2);
+    testMonitor.add(spark);
+    testMonitor.add(anyEvent);
+
+    // all records are matched before the first one triggers: the second and third records
+    // still match hadoop.*, whose dependencies the first record already triggered and removed
+    final List<ConsumerRecord<String, String>> records = Arrays.asList(
+        new ConsumerRecord<>("AzTest_Topic1", 0, 0L, null, "hadoop-1"),
+        new ConsumerRecord<>("AzTest_Topic1", 0, 1L, null, "hadoop-2"),
+        new ConsumerRecord<>("AzTest_Topic1", 0, 2L, null, "spark on hadoop"),
+        new ConsumerRecord<>("AzTest_Topic2", 0, 0L, null, "anything"));
+    testMonitor.processRecords(records);
+
+    verify(callback, times(1)).onSuccess(hadoop1);
+    verify(callback, times(1)).onSuccess(hadoop2);
+    verify(callback, times(1)).onSuccess(spark);
+    verify(callback, times(1)).onSuccess(anyEvent);
+    verifyNoMoreInteractions(callback);
+  }
 }
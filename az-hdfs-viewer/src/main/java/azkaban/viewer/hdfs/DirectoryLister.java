@@ -0,0 +1,278 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.viewer.hdfs;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RemoteIterator;
+
+/**
+ * Lists one page of a directory, filtered and sorted on the server.
+ *
+ * The directory is read through {@link FileSystem#listStatusIterator(Path)}, which HDFS fetches
+ * from the NameNode in batches, and only the entries up to the end of the requested page are kept,
+ * so that a directory with a huge number of entries is neither listed in one call nor held in
+ * memory. When the listing cache is enabled, the whole listing of a directory is kept for a short
+ * time instead, so that going through its pages doesn't list it again.
+ */
+public class DirectoryLister {
+
+  private final int maxPageSize;
+  private final long cacheTtlMs;
+  private final int maxCachedStatuses;
+  // in least recently used first order, guarded by itself
+  private final LinkedHashMap<String, CachedListing> cache = new LinkedHashMap<>(16, 0.75f, true);
+  private int cachedStatuses = 0;
+
+  /**
+   * @param cacheTtlMs how long a listing is cached, 0 to disable the cache
+   * @param maxCachedStatuses max number of entries of all the cached listings
+   */
+  public DirectoryLister(final int maxPageSize, final long cacheTtlMs,
+      final int maxCachedStatuses) {
+    this.maxPageSize = maxPageSize;
+    this.cacheTtlMs = cacheTtlMs;
+    this.maxCachedStatuses = maxCachedStatuses;
+  }
+
+  /**
+   * @param cacheKey identifies the user listing the directory, since it may not see the same
+   * entries as others
+   * @param page page number, starting at 1
+   * @param filter case insensitive substring of the names to list, or null
+   */
+  public Listing list(final FileSystem fs, final String cacheKey, final Path path, final int page,
+      final int pageSize, final SortKey sortKey, final boolean ascending, final String filter)
+      throws IOException {
+    final int size = Math.max(1, Math.min(pageSize, this.maxPageSize));
+    final int pageNumber = Math.max(1, page);
+    final Comparator<FileStatus> comparator =
+        ascending ? sortKey.comparator : sortKey.comparator.reversed();
+    final String lowerCaseFilter =
+        filter == null || filter.isEmpty() ? null : filter.toLowerCase(Locale.ROOT);
+
+    final List<FileStatus> cached = this.cacheTtlMs > 0 ? getCached(fs, cacheKey, path) : null;
+    final Iterator<FileStatus> statuses =
+        cached != null ? cached.iterator() : new StatusIterator(fs.listStatusIterator(path));
+
+    // keep the first entries up to the end of the page in a heap whose head is the last of them
+    final long limit = (long) pageNumber * size;
+    final PriorityQueue<FileStatus> firstEntries = new PriorityQueue<>(comparator.reversed());
+    long total = 0;
+    long totalSize = 0;
+    try {
+      while (statuses.hasNext()) {
+        final FileStatus status = statuses.next();
+        if (lowerCaseFilter != null
+            && !status.getPath().getName().toLowerCase(Locale.ROOT).contains(lowerCaseFilter)) {
+          continue;
+        }
+        total++;
+        if (!status.isDirectory()) {
+          totalSize += status.getLen();
+        }
+        if (firstEntries.size() < limit) {
+          firstEntries.add(status);
+        } else if (comparator.compare(status, firstEntries.peek()) < 0) {
+          firstEntries.poll();
+          firstEntries.add(status);
+        }
+      }
+    } catch (final ListingException e) {
+      // e.g. AccessControlException
+      throw (IOException) e.getCause();
+    }
+
+    final List<FileStatus> pageStatuses = new ArrayList<>();
+    final long offset = limit - size;
+    while (firstEntries.size() > offset) {
+      pageStatuses.add(firstEntries.poll());
+    }
+    Collections.reverse(pageStatuses);
+    return new Listing(pageStatuses, total, totalSize, pageNumber, size);
+  }
+
+  private List<FileStatus> getCached(final FileSystem fs, final String cacheKey, final Path path)
+      throws IOException {
+    final String key = cacheKey + ":" + fs.makeQualified(path);
+    final long now = System.currentTimeMillis();
+    synchronized (this.cache) {
+      final CachedListing cached = this.cache.get(key);
+      if (cached != null && now - cached.time < this.cacheTtlMs) {
+        return cached.statuses;
+      }
+    }
+
+    final List<FileStatus> statuses = new ArrayList<>();
+    final RemoteIterator<FileStatus> it = fs.listStatusIterator(path);
+    while (it.hasNext()) {
+      statuses.add(it.next());
+    }
+    if (statuses.size() <= this.maxCachedStatuses) {
+      synchronized (this.cache) {
+        final CachedListing previous = this.cache.put(key, new CachedListing(statuses, now));
+        if (previous != null) {
+          this.cachedStatuses -= previous.statuses.size();
+        }
+        this.cachedStatuses += statuses.size();
+        for (final Iterator<CachedListing> eldest = this.cache.values().iterator();
+            this.cachedStatuses > this.maxCachedStatuses && eldest.hasNext(); ) {
+          this.cachedStatuses -= eldest.next().statuses.size();
+          eldest.remove();
+        }
+      }
+    }
+    return statuses;
+  }
+
+  public enum SortKey {
+    NAME(Comparator.comparing((FileStatus status) -> status.getPath().getName())),
+    // directories are listed without a size
+    SIZE(Comparator.comparingLong(status -> status.isDirectory() ? 0 : status.getLen())),
+    MTIME(Comparator.comparingLong(FileStatus::getModificationTime));
+
+    private final Comparator<FileStatus> comparator;
+
+    SortKey(final Comparator<FileStatus> comparator) {
+      // ties are ordered by path so that pages don't overlap
+      this.comparator = comparator.thenComparing(status -> status.getPath().toString());
+    }
+
+    /**
+     * @return the sort key of the name, NAME if unknown
+     */
+    public static SortKey fromName(final String name) {
+      for (final SortKey key : values()) {
+        if (key.name().equalsIgnoreCase(name)) {
+          return key;
+        }
+      }
+      return NAME;
+    }
+  }
+
+  /**
+   * One page of a directory listing.
+   */
+  public static class Listing {
+
+    private final List<FileStatus> statuses;
+    private final long total;
+    private final long totalSize;
+    private final int page;
+    private final int pageSize;
+
+    Listing(final List<FileStatus> statuses, final long total, final long totalSize,
+        final int page, final int pageSize) {
+      this.statuses = statuses;
+      this.total = total;
+      this.totalSize = totalSize;
+      this.page = page;
+      this.pageSize = pageSize;
+    }
+
+    /**
+     * @return the entries of the page
+     */
+    public List<FileStatus> getStatuses() {
+      return this.statuses;
+    }
+
+    /**
+     * @return the number of entries matching the filter in the directory
+     */
+    public long getTotal() {
+      return this.total;
+    }
+
+    /**
+     * @return the total size of the files matching the filter in the directory
+     */
+    public long getTotalSize() {
+      return this.totalSize;
+    }
+
+    public int getPage() {
+      return this.page;
+    }
+
+    public int getPageSize() {
+      return this.pageSize;
+    }
+
+    public long getPageCount() {
+      return Math.max(1, (this.total + this.pageSize - 1) / this.pageSize);
+    }
+  }
+
+  private static class CachedListing {
+
+    private final List<FileStatus> statuses;
+    private final long time;
+
+    private CachedListing(final List<FileStatus> statuses, final long time) {
+      this.statuses = statuses;
+      this.time = time;
+    }
+  }
+
+  /**
+   * Adapts a RemoteIterator, rethrowing its IOException unchecked.
+   */
+  private static class StatusIterator implements Iterator<FileStatus> {
+
+    private final RemoteIterator<FileStatus> it;
+
+    private StatusIterator(final RemoteIterator<FileStatus> it) {
+      this.it = it;
+    }
+
+    @Override
+    public boolean hasNext() {
+      try {
+        return this.it.hasNext();
+      } catch (final IOException e) {
+        throw new ListingException(e);
+      }
+    }
+
+    @Override
+    public FileStatus next() {
+      try {
+        return this.it.next();
+      } catch (final IOException e) {
+        throw new ListingException(e);
+      }
+    }
+  }
+
+  private static class ListingException extends RuntimeException {
+
+    private ListingException(final IOException cause) {
+      super(cause);
+    }
+  }
+}
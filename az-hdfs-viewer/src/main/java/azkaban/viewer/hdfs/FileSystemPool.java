@@ -0,0 +1,219 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.viewer.hdfs;
+
+import azkaban.security.commons.HadoopSecurityManagerException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.log4j.Logger;
+
+/**
+ * Pool of the FileSystem handles of the (real user, proxy user) pairs browsing HDFS, so that each
+ * request doesn't create, and close, its own NameNode connection.
+ *
+ * A handle is shared by the concurrent requests of the same pair. It is closed once it has been
+ * idle for longer than the idle timeout, once it is older than the max lifetime so that it doesn't
+ * outlive its credentials, or when it is the least recently used idle handle of a full pool. When
+ * the pool is full of handles in use, the extra handle is closed when released.
+ */
+public class FileSystemPool {
+
+  private static final Logger logger = Logger.getLogger(FileSystemPool.class);
+
+  private final int maxHandles;
+  private final long idleTimeoutMs;
+  private final long maxLifetimeMs;
+  // in least recently used first order, guarded by itself
+  private final LinkedHashMap<String, Handle> handles = new LinkedHashMap<>(16, 0.75f, true);
+
+  public FileSystemPool(final int maxHandles, final long idleTimeoutMs, final long maxLifetimeMs) {
+    this.maxHandles = maxHandles;
+    this.idleTimeoutMs = idleTimeoutMs;
+    this.maxLifetimeMs = maxLifetimeMs;
+  }
+
+  /**
+   * @return a handle on the FileSystem of the proxy user, to close once the request is done
+   */
+  public Handle borrow(final String realUser, final String proxyUser,
+      final FileSystemFactory factory) throws HadoopSecurityManagerException {
+    final String key = realUser + "/" + proxyUser;
+    final List<Handle> expired = new ArrayList<>();
+    try {
+      synchronized (this.handles) {
+        collectExpired(System.currentTimeMillis(), expired);
+        final Handle handle = this.handles.get(key);
+        if (handle != null) {
+          handle.users++;
+          return handle;
+        }
+      }
+
+      // create the FileSystem outside of the lock, it connects to the NameNode
+      final Handle handle = new Handle(this, key, factory.create(realUser, proxyUser));
+      synchronized (this.handles) {
+        final Handle existing = this.handles.get(key);
+        if (existing != null) {
+          // another request of the same users created one meanwhile
+          existing.users++;
+          expired.add(handle);
+          return existing;
+        }
+        if (this.handles.size() >= this.maxHandles) {
+          evictLeastRecentlyUsedIdle(expired);
+        }
+        handle.users++;
+        handle.pooled = this.handles.size() < this.maxHandles;
+        if (handle.pooled) {
+          this.handles.put(key, handle);
+        }
+        return handle;
+      }
+    } finally {
+      expired.forEach(FileSystemPool::closeQuietly);
+    }
+  }
+
+  /**
+   * Close the idle and expired handles.
+   */
+  public void evictExpired() {
+    final List<Handle> expired = new ArrayList<>();
+    synchronized (this.handles) {
+      collectExpired(System.currentTimeMillis(), expired);
+    }
+    expired.forEach(FileSystemPool::closeQuietly);
+  }
+
+  public int size() {
+    synchronized (this.handles) {
+      return this.handles.size();
+    }
+  }
+
+  public void close() {
+    final List<Handle> all;
+    synchronized (this.handles) {
+      all = new ArrayList<>(this.handles.values());
+      this.handles.clear();
+      all.forEach(handle -> handle.pooled = false);
+    }
+    // handles in use are closed when released
+    all.stream().filter(handle -> handle.users == 0).forEach(FileSystemPool::closeQuietly);
+  }
+
+  private void release(final Handle handle, final boolean broken) {
+    final boolean close;
+    synchronized (this.handles) {
+      handle.users--;
+      handle.lastUsed = System.currentTimeMillis();
+      if (broken && handle.pooled) {
+        this.handles.remove(handle.key, handle);
+        handle.pooled = false;
+      }
+      close = !handle.pooled && handle.users == 0;
+    }
+    if (close) {
+      closeQuietly(handle);
+    }
+  }
+
+  private void collectExpired(final long now, final List<Handle> expired) {
+    for (final Iterator<Handle> it = this.handles.values().iterator(); it.hasNext(); ) {
+      final Handle handle = it.next();
+      if (handle.users == 0 && (now - handle.lastUsed >= this.idleTimeoutMs
+          || now - handle.created >= this.maxLifetimeMs)) {
+        it.remove();
+        handle.pooled = false;
+        expired.add(handle);
+      }
+    }
+  }
+
+  private void evictLeastRecentlyUsedIdle(final List<Handle> evicted) {
+    for (final Iterator<Handle> it = this.handles.values().iterator(); it.hasNext(); ) {
+      final Handle handle = it.next();
+      if (handle.users == 0) {
+        it.remove();
+        handle.pooled = false;
+        evicted.add(handle);
+        return;
+      }
+    }
+  }
+
+  private static void closeQuietly(final Handle handle) {
+    try {
+      handle.fileSystem.close();
+    } catch (final IOException | RuntimeException e) {
+      logger.warn("Failed to close FileSystem of " + handle.key, e);
+    }
+  }
+
+  /**
+   * Creates the FileSystem of a proxy user.
+   */
+  public interface FileSystemFactory {
+
+    FileSystem create(String realUser, String proxyUser) throws HadoopSecurityManagerException;
+  }
+
+  /**
+   * A FileSystem borrowed from the pool, which must not be closed directly.
+   */
+  public static class Handle implements AutoCloseable {
+
+    private final FileSystemPool pool;
+    private final String key;
+    private final FileSystem fileSystem;
+    private final long created = System.currentTimeMillis();
+    // guarded by the handles of the pool
+    private long lastUsed = this.created;
+    private int users = 0;
+    private boolean pooled = false;
+    private boolean broken = false;
+
+    private Handle(final FileSystemPool pool, final String key, final FileSystem fileSystem) {
+      this.pool = pool;
+      this.key = key;
+      this.fileSystem = fileSystem;
+    }
+
+    public FileSystem getFileSystem() {
+      return this.fileSystem;
+    }
+
+    /**
+     * Don't reuse the FileSystem once released, e.g. after it failed to connect.
+     */
+    public void markBroken() {
+      this.broken = true;
+    }
+
+    /**
+     * Give the FileSystem back to the pool.
+     */
+    @Override
+    public void close() {
+      this.pool.release(this, this.broken);
+    }
+  }
+}
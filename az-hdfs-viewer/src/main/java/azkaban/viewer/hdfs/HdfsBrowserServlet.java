@@ -25,6 +25,7 @@ import azkaban.webapp.servlet.LoginAbstractAzkabanServlet;
 import azkaban.webapp.servlet.Page;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -49,8 +50,20 @@ public class HdfsBrowserServlet extends LoginAbstractAzkabanServlet {
   private static final String PROXY_USER_SESSION_KEY = "hdfs.browser.proxy.user";
   private static final String HADOOP_SECURITY_MANAGER_CLASS_PARAM = "hadoop.security.manager.class";
   private static final String HDFSVIEWER_ACCESS_DENIED_MESSAGE = "viewer.access_denied_message";
+  private static final String FS_POOL_MAX_SIZE = "viewer.fs.pool.max.size";
+  private static final String FS_POOL_IDLE_TIMEOUT_MS = "viewer.fs.pool.idle.timeout.ms";
+  private static final String FS_POOL_MAX_LIFETIME_MS = "viewer.fs.pool.max.lifetime.ms";
+  private static final String LISTING_MAX_PAGE_SIZE = "viewer.listing.max.page.size";
+  private static final String LISTING_CACHE_TTL_MS = "viewer.listing.cache.ttl.ms";
+  private static final String LISTING_CACHE_MAX_ENTRIES = "viewer.listing.cache.max.entries";
 
   private static final int DEFAULT_FILE_MAX_LINES = 1000;
+  private static final int DEFAULT_FS_POOL_MAX_SIZE = 64;
+  private static final long DEFAULT_FS_POOL_IDLE_TIMEOUT_MS = 5 * 60 * 1000L;
+  private static final long DEFAULT_FS_POOL_MAX_LIFETIME_MS = 60 * 60 * 1000L;
+  private static final int DEFAULT_PAGE_SIZE = 500;
+  private static final int DEFAULT_LISTING_MAX_PAGE_SIZE = 5000;
+  private static final int DEFAULT_LISTING_CACHE_MAX_ENTRIES = 500000;
   private static final Logger logger = Logger.getLogger(HdfsBrowserServlet.class);
   private final int fileMaxLines;
   private final int defaultStartLine;
@@ -67,6 +80,8 @@ public class HdfsBrowserServlet extends LoginAbstractAzkabanServlet {
   private final String viewerPath;
 
   private HadoopSecurityManager hadoopSecurityManager;
+  private FileSystemPool fileSystemPool;
+  private DirectoryLister directoryLister;
 
   public HdfsBrowserServlet(final Props props) {
     super(new ArrayList<>());
@@ -96,6 +111,16 @@ public class HdfsBrowserServlet extends LoginAbstractAzkabanServlet {
           + e.getCause());
     }
 
+    // the FileSystems are cached, and closed, by the pool rather than by the hadoop FileSystem cache
+    this.fileSystemPool = new FileSystemPool(
+        this.props.getInt(FS_POOL_MAX_SIZE, DEFAULT_FS_POOL_MAX_SIZE),
+        this.props.getLong(FS_POOL_IDLE_TIMEOUT_MS, DEFAULT_FS_POOL_IDLE_TIMEOUT_MS),
+        this.props.getLong(FS_POOL_MAX_LIFETIME_MS, DEFAULT_FS_POOL_MAX_LIFETIME_MS));
+    this.directoryLister = new DirectoryLister(
+        this.props.getInt(LISTING_MAX_PAGE_SIZE, DEFAULT_LISTING_MAX_PAGE_SIZE),
+        this.props.getLong(LISTING_CACHE_TTL_MS, 0),
+        this.props.getInt(LISTING_CACHE_MAX_ENTRIES, DEFAULT_LISTING_CACHE_MAX_ENTRIES));
+
     this.defaultViewer = new TextFileViewer();
 
     this.viewers.add(new HtmlFileViewer());
@@ -111,6 +136,14 @@ public class HdfsBrowserServlet extends LoginAbstractAzkabanServlet {
     logger.info("HDFS Browser initiated");
   }
 
+  @Override
+  public void destroy() {
+    if (this.fileSystemPool != null) {
+      this.fileSystemPool.close();
+    }
+    super.destroy();
+  }
+
   private HadoopSecurityManager loadHadoopSecurityManager(final Props props,
       final Logger logger) throws RuntimeException {
 
@@ -135,15 +168,16 @@ public class HdfsBrowserServlet extends LoginAbstractAzkabanServlet {
 
   /**
    * This method is used to get file system as proxy user. Real Identity is passed for audit
-   * purpose.
+   * purpose. The returned handle must be closed to give the file system back to the pool.
    * @param realIdentity
    * @param proxyUser
    * @return
    * @throws HadoopSecurityManagerException
    */
-  private FileSystem getFileSystem(final String realIdentity, final String proxyUser)
+  private FileSystemPool.Handle getFileSystem(final String realIdentity, final String proxyUser)
       throws HadoopSecurityManagerException {
-    return this.hadoopSecurityManager.getFSAsUser(realIdentity, proxyUser);
+    return this.fileSystemPool.borrow(realIdentity, proxyUser,
+        this.hadoopSecurityManager::getFSAsUser);
   }
 
   private void errorPage(final String user, final HttpServletRequest req,
@@ -275,14 +309,24 @@ public class HdfsBrowserServlet extends LoginAbstractAzkabanServlet {
       final HttpServletRequest req,
       final HttpServletResponse resp, final Session session) throws IOException,
       ServletException, IllegalArgumentException, IllegalStateException {
-    FileSystem fs = null;
+    final FileSystemPool.Handle handle;
     try {
-      fs = getFileSystem( loggedInUser, proxyUser);
+      handle = getFileSystem(loggedInUser, proxyUser);
     } catch (final HadoopSecurityManagerException e) {
       errorPage(proxyUser, req, resp, session, "Cannot get FileSystem.");
       return;
     }
+    try {
+      displayPath(handle, loggedInUser, proxyUser, req, resp, session);
+    } finally {
+      handle.close();
+    }
+  }
 
+  private void displayPath(final FileSystemPool.Handle handle, final String loggedInUser,
+      final String proxyUser, final HttpServletRequest req, final HttpServletResponse resp,
+      final Session session) throws IOException, ServletException {
+    final FileSystem fs = handle.getFileSystem();
     final Path path = getPath(req);
     if (logger.isDebugEnabled()) {
       logger.debug("path: '" + path.toString() + "'");
@@ -292,7 +336,6 @@ public class HdfsBrowserServlet extends LoginAbstractAzkabanServlet {
       if (!fs.exists(path)) {
         errorPage(proxyUser, req, resp, session, path.toUri().getPath()
             + " does not exist.");
-        fs.close();
         return;
       }
     } catch (final IOException ioe) {
@@ -301,25 +344,24 @@ public class HdfsBrowserServlet extends LoginAbstractAzkabanServlet {
       errorPage(proxyUser, req, resp, session, path.toUri().getPath()
           + " Encountered error while trying to detect if path '" + path
           + "' exists. Reason: " + ioe.getMessage());
-      fs.close();
+      handle.markBroken();
       return;
     }
 
     if (fs.isFile(path)) {
       displayFilePage(fs, proxyUser, req, resp, session, path);
     } else if (fs.getFileStatus(path).isDir()) {
-      displayDirPage(fs, proxyUser, req, resp, session, path);
+      displayDirPage(fs, loggedInUser + "/" + proxyUser, proxyUser, req, resp, session, path);
     } else {
       errorPage(proxyUser, req, resp, session,
           "It exists, it is not a file, and it is not a directory, what "
               + "is it precious?");
     }
-    fs.close();
   }
 
-  private void displayDirPage(final FileSystem fs, final String user,
+  private void displayDirPage(final FileSystem fs, final String cacheKey, final String user,
       final HttpServletRequest req, final HttpServletResponse resp, final Session session,
-      final Path path) throws IOException {
+      final Path path) throws IOException, ServletException {
 
     final Page page =
         newPage(req, resp, session,
@@ -336,17 +378,23 @@ public class HdfsBrowserServlet extends LoginAbstractAzkabanServlet {
     page.add("user", user);
     page.add("homedir", getHomeDir(fs));
 
+    final DirectoryLister.SortKey sortKey =
+        DirectoryLister.SortKey.fromName(getParam(req, "sort", "name"));
+    final boolean ascending = !"desc".equals(getParam(req, "order", "asc"));
+    final String filter = getParam(req, "filter", "");
+    page.add("sort", sortKey.name().toLowerCase());
+    page.add("order", ascending ? "asc" : "desc");
+    page.add("filter", filter);
+    page.add("filterQuery",
+        filter.isEmpty() ? "" : "&filter=" + URLEncoder.encode(filter, "UTF-8"));
+
     try {
-      final FileStatus[] subdirs = fs.listStatus(path);
-      page.add("subdirs", subdirs);
-      long size = 0;
-      for (int i = 0; i < subdirs.length; ++i) {
-        if (subdirs[i].isDir()) {
-          continue;
-        }
-        size += subdirs[i].getLen();
-      }
-      page.add("dirsize", size);
+      final DirectoryLister.Listing listing = this.directoryLister.list(fs, cacheKey, path,
+          getIntParam(req, "page", 1), getIntParam(req, "pageSize", DEFAULT_PAGE_SIZE),
+          sortKey, ascending, filter);
+      page.add("subdirs", listing.getStatuses());
+      page.add("listing", listing);
+      page.add("dirsize", listing.getTotalSize());
     } catch (final AccessControlException e) {
       final String error_message = this.props.getString(HDFSVIEWER_ACCESS_DENIED_MESSAGE);
       page.add("error_message", "Permission denied: " + error_message);
@@ -412,14 +460,15 @@ public class HdfsBrowserServlet extends LoginAbstractAzkabanServlet {
       final HttpServletResponse response, final Session session) throws ServletException,
       IOException {
     Map<String, Object> ret = new HashMap<>();
-    FileSystem fs = null;
+    final FileSystemPool.Handle handle;
     try {
-      try {
-        fs = getFileSystem( loggedInUser, proxyUser);
-      } catch (final HadoopSecurityManagerException e) {
-        errorAjax(response, ret, "Cannot get FileSystem.");
-        return;
-      }
+      handle = getFileSystem(loggedInUser, proxyUser);
+    } catch (final HadoopSecurityManagerException e) {
+      errorAjax(response, ret, "Cannot get FileSystem.");
+      return;
+    }
+    try {
+      final FileSystem fs = handle.getFileSystem();
 
       final String ajaxName = getParam(request, "ajax");
       Path path = null;
@@ -450,7 +499,7 @@ public class HdfsBrowserServlet extends LoginAbstractAzkabanServlet {
         this.writeJSON(response, ret);
       }
     } finally {
-      fs.close();
+      handle.close();
     }
   }
 
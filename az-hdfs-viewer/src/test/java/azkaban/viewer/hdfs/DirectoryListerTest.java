@@ -0,0 +1,122 @@
+package azkaban.viewer.hdfs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import azkaban.viewer.hdfs.DirectoryLister.Listing;
+import azkaban.viewer.hdfs.DirectoryLister.SortKey;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DirectoryListerTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private FileSystem fs;
+  private Path dir;
+
+  @Before
+  public void setUp() throws IOException {
+    this.fs = new LocalFileSystem();
+    this.fs.initialize(this.fs.getWorkingDirectory().toUri(), new Configuration());
+    // file-00 to file-24, file-i being i bytes long
+    final File root = this.temp.newFolder("dir");
+    for (int i = 0; i < 25; i++) {
+      try (final OutputStream out = new FileOutputStream(
+          new File(root, String.format("file-%02d", i)))) {
+        out.write(new byte[i]);
+      }
+    }
+    new File(root, "subdir").mkdir();
+    this.dir = new Path(root.getAbsolutePath());
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    this.fs.close();
+  }
+
+  private static List<String> names(final Listing listing) {
+    return listing.getStatuses().stream().map(status -> status.getPath().getName())
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testPagesSortedByName() throws IOException {
+    final DirectoryLister lister = new DirectoryLister(100, 0, 0);
+
+    final Listing first = lister.list(this.fs, "user", this.dir, 1, 10, SortKey.NAME, true, null);
+    assertThat(names(first)).containsExactly("file-00", "file-01", "file-02", "file-03",
+        "file-04", "file-05", "file-06", "file-07", "file-08", "file-09");
+    assertThat(first.getTotal()).isEqualTo(26);
+    assertThat(first.getTotalSize()).isEqualTo(300);
+    assertThat(first.getPageCount()).isEqualTo(3);
+
+    final Listing last = lister.list(this.fs, "user", this.dir, 3, 10, SortKey.NAME, true, null);
+    assertThat(names(last)).containsExactly("file-20", "file-21", "file-22", "file-23",
+        "file-24", "subdir");
+
+    final Listing beyond = lister.list(this.fs, "user", this.dir, 4, 10, SortKey.NAME, true, null);
+    assertThat(beyond.getStatuses()).isEmpty();
+    assertThat(beyond.getTotal()).isEqualTo(26);
+  }
+
+  @Test
+  public void testSortBySizeDescendingAndFilter() throws IOException {
+    final DirectoryLister lister = new DirectoryLister(100, 0, 0);
+
+    final Listing bySize = lister.list(this.fs, "user", this.dir, 1, 3, SortKey.SIZE, false, null);
+    assertThat(names(bySize)).containsExactly("file-24", "file-23", "file-22");
+
+    final Listing filtered = lister.list(this.fs, "user", this.dir, 1, 10, SortKey.NAME, true,
+        "FILE-1");
+    assertThat(names(filtered)).containsExactly("file-10", "file-11", "file-12", "file-13",
+        "file-14", "file-15", "file-16", "file-17", "file-18", "file-19");
+    assertThat(filtered.getTotal()).isEqualTo(10);
+    assertThat(filtered.getTotalSize()).isEqualTo(145);
+  }
+
+  @Test
+  public void testPageSizeIsCapped() throws IOException {
+    final DirectoryLister lister = new DirectoryLister(5, 0, 0);
+
+    final Listing listing = lister.list(this.fs, "user", this.dir, 1, 1000, SortKey.NAME, true,
+        null);
+    assertThat(listing.getPageSize()).isEqualTo(5);
+    assertThat(listing.getStatuses()).hasSize(5);
+    assertThat(listing.getPageCount()).isEqualTo(6);
+  }
+
+  @Test
+  public void testCachedListingIsReusedUntilItExpires() throws Exception {
+    final DirectoryLister lister = new DirectoryLister(100, 60 * 1000, 1000);
+    assertThat(lister.list(this.fs, "user", this.dir, 1, 100, SortKey.NAME, true, null)
+        .getTotal()).isEqualTo(26);
+
+    new File(this.dir.toUri().getPath(), "file-25").createNewFile();
+    assertThat(lister.list(this.fs, "user", this.dir, 1, 100, SortKey.NAME, true, null)
+        .getTotal()).isEqualTo(26);
+    // listings are cached per user
+    assertThat(lister.list(this.fs, "other", this.dir, 1, 100, SortKey.NAME, true, null)
+        .getTotal()).isEqualTo(27);
+
+    final DirectoryLister uncached = new DirectoryLister(100, 0, 1000);
+    final List<FileStatus> statuses = uncached.list(this.fs, "user", this.dir, 1, 100,
+        SortKey.MTIME, true, null).getStatuses();
+    assertThat(statuses).hasSize(27);
+  }
+}
@@ -0,0 +1,94 @@
+package azkaban.viewer.hdfs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import azkaban.viewer.hdfs.FileSystemPool.FileSystemFactory;
+import azkaban.viewer.hdfs.FileSystemPool.Handle;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hadoop.fs.FileSystem;
+import org.junit.Test;
+
+public class FileSystemPoolTest {
+
+  private final List<FileSystem> created = new ArrayList<>();
+  private final FileSystemFactory factory = (realUser, proxyUser) -> {
+    final FileSystem fs = mock(FileSystem.class);
+    this.created.add(fs);
+    return fs;
+  };
+
+  @Test
+  public void testHandleIsReusedBySameUsers() throws Exception {
+    final FileSystemPool pool = new FileSystemPool(10, 60 * 1000, 60 * 60 * 1000);
+
+    final Handle first = pool.borrow("azkaban", "alice", this.factory);
+    final Handle concurrent = pool.borrow("azkaban", "alice", this.factory);
+    first.close();
+    concurrent.close();
+    final Handle later = pool.borrow("azkaban", "alice", this.factory);
+    final Handle other = pool.borrow("azkaban", "bob", this.factory);
+    later.close();
+    other.close();
+
+    assertThat(first).isSameAs(concurrent).isSameAs(later);
+    assertThat(other).isNotSameAs(first);
+    assertThat(this.created).hasSize(2);
+    verify(this.created.get(0), never()).close();
+    assertThat(pool.size()).isEqualTo(2);
+
+    pool.close();
+    verify(this.created.get(0)).close();
+    verify(this.created.get(1)).close();
+  }
+
+  @Test
+  public void testIdleHandlesAreClosed() throws Exception {
+    final FileSystemPool pool = new FileSystemPool(10, 0, 60 * 60 * 1000);
+
+    final Handle inUse = pool.borrow("azkaban", "alice", this.factory);
+    pool.borrow("azkaban", "bob", this.factory).close();
+    pool.evictExpired();
+
+    verify(this.created.get(0), never()).close();
+    verify(this.created.get(1)).close();
+    assertThat(pool.size()).isEqualTo(1);
+    inUse.close();
+  }
+
+  @Test
+  public void testFullPoolEvictsIdleHandleOrClosesExtraHandle() throws Exception {
+    final FileSystemPool pool = new FileSystemPool(1, 60 * 1000, 60 * 60 * 1000);
+
+    pool.borrow("azkaban", "alice", this.factory).close();
+    final Handle bob = pool.borrow("azkaban", "bob", this.factory);
+    // alice's idle handle made room for bob's
+    verify(this.created.get(0)).close();
+
+    final Handle carol = pool.borrow("azkaban", "carol", this.factory);
+    carol.close();
+    // no room while bob's handle is in use
+    verify(this.created.get(2)).close();
+    verify(this.created.get(1), never()).close();
+
+    bob.close();
+    assertThat(pool.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void testBrokenHandleIsNotReused() throws Exception {
+    final FileSystemPool pool = new FileSystemPool(10, 60 * 1000, 60 * 60 * 1000);
+
+    final Handle broken = pool.borrow("azkaban", "alice", this.factory);
+    broken.markBroken();
+    broken.close();
+    verify(this.created.get(0)).close();
+
+    final Handle next = pool.borrow("azkaban", "alice", this.factory);
+    assertThat(next).isNotSameAs(broken);
+    next.close();
+  }
+}
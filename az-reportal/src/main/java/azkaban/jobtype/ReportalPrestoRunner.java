@@ -16,6 +16,7 @@
 
 package azkaban.jobtype;
 
+import azkaban.crypto.DecryptedValueCache;
 import azkaban.crypto.Decryptions;
 import azkaban.reportal.util.ReportalUtil;
 import com.google.common.base.Preconditions;
@@ -37,6 +38,13 @@ public class ReportalPrestoRunner extends ReportalAbstractRunner {
   public static final String DRIVER_URL = "presto.driver.jdbc.url";
   private static final String PRESTO_DRIVER_PROP_PREFIX = "presto.driver.";
   private static final String IMPERSONATED_USER_KEY = "presto.execute.user";
+  public static final String DECRYPTED_CACHE_ENABLED = "reportal.presto.decrypted.cache.enabled";
+  public static final String DECRYPTED_CACHE_MAX_ENTRIES =
+      "reportal.presto.decrypted.cache.max.entries";
+  public static final String DECRYPTED_CACHE_TTL_MS = "reportal.presto.decrypted.cache.ttl.ms";
+
+  // shared by the runners of this JVM, created by the first one which enables the cache
+  private static Decryptions cachingDecryptions = null;
 
   public ReportalPrestoRunner(final String jobName, final Properties props) {
     super(props);
@@ -46,15 +54,30 @@ public class ReportalPrestoRunner extends ReportalAbstractRunner {
     Preconditions.checkArgument(props.containsKey(DRIVER_URL), "missing " + DRIVER_URL);
   }
 
-  private String decrypt(final String encrypted, final String keyPath) throws IOException {
+  private Decryptions getDecryptions() {
+    if (!this.props.getBoolean(DECRYPTED_CACHE_ENABLED, false)) {
+      return new Decryptions();
+    }
+    synchronized (ReportalPrestoRunner.class) {
+      if (cachingDecryptions == null) {
+        cachingDecryptions = new Decryptions(new DecryptedValueCache(
+            this.props.getLong(DECRYPTED_CACHE_MAX_ENTRIES, 100),
+            this.props.getLong(DECRYPTED_CACHE_TTL_MS, 10 * 60 * 1000)));
+      }
+      return cachingDecryptions;
+    }
+  }
+
+  private String decrypt(final Decryptions decryptions, final String encrypted,
+      final String keyPath) throws IOException {
     final FileSystem fs = FileSystem.get(URI.create("file:///"), new Configuration());
-    return new Decryptions()
-        .decrypt(encrypted, keyPath, fs);
+    return decryptions.decrypt(encrypted, keyPath, fs);
   }
 
   private Properties getProperties() throws IOException {
     final Properties connProperties = new Properties();
     final Map<String, String> prestoProps = this.props.getMapByPrefix(PRESTO_DRIVER_PROP_PREFIX);
+    final Decryptions decryptions = getDecryptions();
 
     for (final Entry<String, String> entry : prestoProps.entrySet()) {
       final String key = entry.getKey();
@@ -64,7 +87,8 @@ public class ReportalPrestoRunner extends ReportalAbstractRunner {
         // value into jdbc connection props
         //"encrypted.password" => "password"
         final String jdbcProp = key.replaceFirst("encrypted.", "");
-        connProperties.put(jdbcProp, decrypt(value, prestoProps.get("jdbc.crypto.key.path")));
+        connProperties.put(jdbcProp,
+            decrypt(decryptions, value, prestoProps.get("jdbc.crypto.key.path")));
       } else if (!key.equals("jdbc.url") && !key.equals("jdbc.crypto.key.path")) {
         connProperties.put(key, value);
       }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.reportal.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the rows of a CSV file one at a time.
+ *
+ * Fields may be enclosed in double quotes, in which case they can contain commas and line breaks,
+ * and a double quote is escaped either by doubling it or by a backslash. A double quote within an
+ * unquoted field is kept as is. Empty lines are skipped.
+ */
+public class CsvReader implements Closeable {
+
+  private static final int NONE = -2;
+
+  private final Reader reader;
+  private int pushedBack = NONE;
+
+  public CsvReader(final Reader reader) {
+    this.reader = reader;
+  }
+
+  /**
+   * @return the fields of the next row, or null at the end of the file
+   */
+  public List<String> readRow() throws IOException {
+    int c = read();
+    while (c == '\n' || c == '\r') {
+      c = read();
+    }
+    if (c == -1) {
+      return null;
+    }
+
+    final List<String> row = new ArrayList<>();
+    final StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    while (true) {
+      if (quoted) {
+        if (c == -1) {
+          // unterminated quote, keep what was read
+          row.add(field.toString());
+          return row;
+        } else if (c == '"') {
+          final int next = read();
+          if (next == '"') {
+            field.append('"');
+          } else {
+            quoted = false;
+            unread(next);
+          }
+        } else if (c == '\\') {
+          final int next = read();
+          if (next == '"' || next == '\\') {
+            field.append((char) next);
+          } else {
+            field.append('\\');
+            unread(next);
+          }
+        } else {
+          field.append((char) c);
+        }
+      } else if (c == -1 || c == '\n' || c == '\r') {
+        if (c == '\r') {
+          final int next = read();
+          if (next != '\n') {
+            unread(next);
+          }
+        }
+        row.add(field.toString());
+        return row;
+      } else if (c == ',') {
+        row.add(field.toString());
+        field.setLength(0);
+      } else if (c == '"' && field.length() == 0) {
+        quoted = true;
+      } else {
+        field.append((char) c);
+      }
+      c = read();
+    }
+  }
+
+  /**
+   * Skip the given number of rows.
+   *
+   * @return the number of rows skipped, less than the given number at the end of the file
+   */
+  public int skipRows(final int count) throws IOException {
+    int skipped = 0;
+    while (skipped < count && readRow() != null) {
+      skipped++;
+    }
+    return skipped;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.reader.close();
+  }
+
+  private int read() throws IOException {
+    if (this.pushedBack != NONE) {
+      final int c = this.pushedBack;
+      this.pushedBack = NONE;
+      return c;
+    }
+    return this.reader.read();
+  }
+
+  private void unread(final int c) {
+    this.pushedBack = c;
+  }
+}
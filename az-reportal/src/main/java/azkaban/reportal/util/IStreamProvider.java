@@ -43,6 +43,11 @@ public interface IStreamProvider {
 
   public InputStream getFileInputStream(String pathString) throws Exception;
 
+  /**
+   * Returns the modification time of the file, in milliseconds since the epoch
+   */
+  public long getModificationTime(String pathString) throws Exception;
+
   public OutputStream getFileOutputStream(String pathString) throws Exception;
 
   public void cleanUp() throws IOException;
@@ -94,6 +94,13 @@ public class StreamProviderHDFS implements IStreamProvider {
     return new BufferedInputStream(this.hdfs.open(path));
   }
 
+  @Override
+  public long getModificationTime(final String pathString) throws Exception {
+    ensureHdfs();
+
+    return this.hdfs.getFileStatus(new Path(pathString)).getModificationTime();
+  }
+
   @Override
   public OutputStream getFileOutputStream(final String pathString) throws Exception {
     ensureHdfs();
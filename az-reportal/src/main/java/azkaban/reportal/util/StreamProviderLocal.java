@@ -21,6 +21,7 @@ import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -84,6 +85,15 @@ public class StreamProviderLocal implements IStreamProvider {
     return new BufferedInputStream(new FileInputStream(inputFile));
   }
 
+  @Override
+  public long getModificationTime(final String pathString) throws IOException {
+    final File file = new File(pathString);
+    if (!file.exists()) {
+      throw new FileNotFoundException(pathString);
+    }
+    return file.lastModified();
+  }
+
   @Override
   public OutputStream getFileOutputStream(final String pathString) throws IOException {
 
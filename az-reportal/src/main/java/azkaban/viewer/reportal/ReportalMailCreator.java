@@ -24,6 +24,7 @@ import azkaban.executor.ExecutorManagerException;
 import azkaban.executor.mail.DefaultMailCreator;
 import azkaban.executor.mail.MailCreator;
 import azkaban.project.Project;
+import azkaban.reportal.util.CsvReader;
 import azkaban.reportal.util.IStreamProvider;
 import azkaban.reportal.util.ReportalHelper;
 import azkaban.reportal.util.ReportalUtil;
@@ -38,6 +39,7 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
@@ -45,7 +47,6 @@ import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.Set;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringEscapeUtils;
@@ -309,9 +310,11 @@ public class ReportalMailCreator implements MailCreator {
         try {
           csvInputStream =
               new BufferedInputStream(new FileInputStream(tempOutputFile));
-          Scanner rowScanner = new Scanner(csvInputStream, StandardCharsets.UTF_8.toString());
+          CsvReader csvReader = new CsvReader(
+              new InputStreamReader(csvInputStream, StandardCharsets.UTF_8));
           int lineNumber = 0;
-          while (rowScanner.hasNextLine() && lineNumber <= NUM_PREVIEW_ROWS) {
+          List<String> data;
+          while (lineNumber <= NUM_PREVIEW_ROWS && (data = csvReader.readRow()) != null) {
             // For Hive jobs, the first line is the column names, so we ignore
             // it
             // when deciding whether the output is empty or not
@@ -320,25 +323,22 @@ public class ReportalMailCreator implements MailCreator {
               emptyResults = false;
             }
 
-            String csvLine = rowScanner.nextLine();
-            String[] data = csvLine.split("\",\"");
             message.println("<tr>");
-            for (String item : data) {
-              String column = item.replace("\"", "");
+            for (String column : data) {
               if (!renderResultsAsHtml) {
                 column = StringEscapeUtils.escapeHtml(column);
               }
               message.println("<td>" + column + "</td>");
             }
             message.println("</tr>");
-            if (lineNumber == NUM_PREVIEW_ROWS && rowScanner.hasNextLine()) {
+            if (lineNumber == NUM_PREVIEW_ROWS && csvReader.readRow() != null) {
               message.println("<tr>");
-              message.println("<td colspan=\"" + data.length + "\">...</td>");
+              message.println("<td colspan=\"" + data.size() + "\">...</td>");
               message.println("</tr>");
             }
             lineNumber++;
           }
-          rowScanner.close();
+          csvReader.close();
           message.println("</table>");
           message.println("</div>");
         } finally {
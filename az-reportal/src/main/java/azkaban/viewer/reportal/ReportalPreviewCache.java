@@ -0,0 +1,190 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.viewer.reportal;
+
+import azkaban.reportal.util.CsvReader;
+import azkaban.reportal.util.IStreamProvider;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Previews of the result files of Reportal executions, shared by all the viewers of a report.
+ *
+ * A preview holds the number of rows of a result file and its first rows, read in one pass over
+ * the file the first time it is viewed. It is keyed by execution, file name and modification time
+ * of the file, so that a rewritten file is read again. Concurrent viewers of a file which isn't
+ * cached yet wait for the same read. Past the maximum number of previews, the least recently
+ * viewed ones are dropped.
+ */
+public class ReportalPreviewCache {
+
+  private final int maxPreviews;
+  private final int maxCachedRows;
+  // in least recently used first order, guarded by itself
+  private final LinkedHashMap<String, CompletableFuture<Preview>> previews =
+      new LinkedHashMap<>(16, 0.75f, true);
+
+  /**
+   * @param maxCachedRows number of leading rows of a file kept in its preview
+   */
+  public ReportalPreviewCache(final int maxPreviews, final int maxCachedRows) {
+    this.maxPreviews = maxPreviews;
+    this.maxCachedRows = maxCachedRows;
+  }
+
+  private static CsvReader openCsv(final IStreamProvider streamProvider, final String filePath)
+      throws Exception {
+    return new CsvReader(new BufferedReader(new InputStreamReader(
+        streamProvider.getFileInputStream(filePath), StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * @return the preview of a result file of an execution, read if not cached
+   */
+  public Preview getPreview(final IStreamProvider streamProvider, final int execId,
+      final String filePath) throws Exception {
+    final long modificationTime = streamProvider.getModificationTime(filePath);
+    final String key = execId + ":" + filePath + ":" + modificationTime;
+
+    final CompletableFuture<Preview> future;
+    boolean load = false;
+    synchronized (this.previews) {
+      CompletableFuture<Preview> cached = this.previews.get(key);
+      if (cached == null) {
+        cached = new CompletableFuture<>();
+        this.previews.put(key, cached);
+        load = true;
+        evict();
+      }
+      future = cached;
+    }
+
+    if (load) {
+      try {
+        future.complete(read(streamProvider, filePath));
+      } catch (final Throwable e) {
+        // also on errors, so that the viewers waiting for this preview don't wait forever
+        synchronized (this.previews) {
+          this.previews.remove(key, future);
+        }
+        future.completeExceptionally(e);
+      }
+    }
+
+    try {
+      return future.get();
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw cause instanceof Exception ? (Exception) cause : e;
+    }
+  }
+
+  /**
+   * @return the rows of a result file from the offset, served from its preview when it holds them
+   */
+  public List<List<String>> getRows(final IStreamProvider streamProvider, final Preview preview,
+      final String filePath, final int offset, final int count) throws Exception {
+    final List<List<String>> cachedRows = preview.getRows();
+    if (offset >= preview.getRowCount()) {
+      return Collections.emptyList();
+    }
+    if (offset + count <= cachedRows.size() || cachedRows.size() == preview.getRowCount()) {
+      return cachedRows.subList(offset, Math.min(offset + count, cachedRows.size()));
+    }
+
+    // past the cached rows, which only happens for files larger than maxCachedRows
+    final List<List<String>> rows = new ArrayList<>(count);
+    try (final CsvReader csvReader = openCsv(streamProvider, filePath)) {
+      csvReader.skipRows(offset);
+      List<String> row;
+      while (rows.size() < count && (row = csvReader.readRow()) != null) {
+        rows.add(row);
+      }
+    }
+    return rows;
+  }
+
+  public int size() {
+    synchronized (this.previews) {
+      return this.previews.size();
+    }
+  }
+
+  private Preview read(final IStreamProvider streamProvider, final String filePath)
+      throws Exception {
+    final List<List<String>> rows = new ArrayList<>();
+    long rowCount = 0;
+    try (final CsvReader csvReader = openCsv(streamProvider, filePath)) {
+      List<String> row;
+      while ((row = csvReader.readRow()) != null) {
+        if (rows.size() < this.maxCachedRows) {
+          rows.add(row);
+        }
+        rowCount++;
+      }
+    }
+    return new Preview(Collections.unmodifiableList(rows), rowCount);
+  }
+
+  private void evict() {
+    final Iterator<CompletableFuture<Preview>> eldest = this.previews.values().iterator();
+    while (this.previews.size() > this.maxPreviews && eldest.hasNext()) {
+      // viewers waiting for a preview being read still get it
+      eldest.next();
+      eldest.remove();
+    }
+  }
+
+  /**
+   * Row count and leading rows of a result file.
+   */
+  public static class Preview {
+
+    private final List<List<String>> rows;
+    private final long rowCount;
+
+    Preview(final List<List<String>> rows, final long rowCount) {
+      this.rows = rows;
+      this.rowCount = rowCount;
+    }
+
+    /**
+     * @return the leading rows of the file
+     */
+    public List<List<String>> getRows() {
+      return this.rows;
+    }
+
+    /**
+     * @return the number of rows of the file
+     */
+    public long getRowCount() {
+      return this.rowCount;
+    }
+  }
+}
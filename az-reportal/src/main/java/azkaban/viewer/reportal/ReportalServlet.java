@@ -53,14 +53,12 @@ import java.io.FileFilter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 import java.util.Set;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
@@ -100,6 +98,7 @@ public class ReportalServlet extends LoginAbstractAzkabanServlet {
   private boolean shouldProxy;
   private int itemsPerPage = 20;
   private HadoopSecurityManager hadoopSecurityManager;
+  private final ReportalPreviewCache previewCache;
 
   public ReportalServlet(final Props props) {
     super(new ArrayList<>());
@@ -112,6 +111,9 @@ public class ReportalServlet extends LoginAbstractAzkabanServlet {
 
     this.max_allowed_schedule_dates = props.getInt("reportal.max.allowed.schedule.dates", 180);
     this.default_schedule_dates = props.getInt("reportal.default.schedule.dates", 30);
+    this.previewCache = new ReportalPreviewCache(
+        props.getInt("reportal.preview.cache.max.files", 100),
+        props.getInt("reportal.preview.cache.max.rows", 1000));
 
     this.reportalMailTempDirectory =
         new File(props.getString("reportal.mail.temp.dir", "/tmp/reportal"));
@@ -462,9 +464,11 @@ public class ReportalServlet extends LoginAbstractAzkabanServlet {
               fileList = ReportalHelper.filterCSVFile(fileList);
               Arrays.sort(fileList);
 
+              final String previewFile = getParam(req, "previewFile", null);
+              final int previewPage = getIntParam(req, "previewPage", 1);
               final List<Object> files =
-                  getFilePreviews(fileList, locationFull, streamProvider,
-                      reportal.renderResultsAsHtml);
+                  getFilePreviews(execId, fileList, locationFull, streamProvider,
+                      reportal.renderResultsAsHtml, previewFile, previewPage);
 
               page.add("files", files);
             } catch (final Exception e) {
@@ -534,55 +538,51 @@ public class ReportalServlet extends LoginAbstractAzkabanServlet {
 
   /**
    * Returns a list of file Objects that contain a "name" property with the file
-   * name, a "content" property with the lines in the file, and a "hasMore"
-   * property if the file contains more than NUM_PREVIEW_ROWS lines.
+   * name, a "content" property with the lines of the previewed page of the
+   * file, a "rowCount" property with the number of lines in the file, "page"
+   * and "pageCount" properties, and a "hasMore" property if the file contains
+   * more lines after the previewed page. The previewed page is previewPage for
+   * the previewFile, and the first page, of NUM_PREVIEW_ROWS lines, otherwise.
    */
-  private List<Object> getFilePreviews(final String[] fileList, final String locationFull,
-      final IStreamProvider streamProvider, final boolean renderResultsAsHtml) {
+  private List<Object> getFilePreviews(final int execId, final String[] fileList,
+      final String locationFull, final IStreamProvider streamProvider,
+      final boolean renderResultsAsHtml, final String previewFile, final int previewPage) {
     final List<Object> files = new ArrayList<>();
-    InputStream csvInputStream = null;
+    final int pageSize = ReportalMailCreator.NUM_PREVIEW_ROWS;
 
-    try {
-      for (final String fileName : fileList) {
-        final Map<String, Object> file = new HashMap<>();
-        file.put("name", fileName);
-
-        final String filePath = locationFull + "/" + fileName;
-        csvInputStream = streamProvider.getFileInputStream(filePath);
-        final Scanner rowScanner = new Scanner(csvInputStream, StandardCharsets.UTF_8.toString());
+    for (final String fileName : fileList) {
+      final String filePath = locationFull + "/" + fileName;
+      try {
+        final ReportalPreviewCache.Preview preview =
+            this.previewCache.getPreview(streamProvider, execId, filePath);
+        final long pageCount = Math.max(1, (preview.getRowCount() + pageSize - 1) / pageSize);
+        final int page = fileName.equals(previewFile)
+            ? (int) Math.max(1, Math.min(previewPage, pageCount)) : 1;
+        final int offset = (page - 1) * pageSize;
 
         final List<Object> lines = new ArrayList<>();
-        int lineNumber = 0;
-        while (rowScanner.hasNextLine()
-            && lineNumber < ReportalMailCreator.NUM_PREVIEW_ROWS) {
-          final String csvLine = rowScanner.nextLine();
-          final String[] data = csvLine.split("\",\"");
-          final List<String> line = new ArrayList<>();
-          for (final String item : data) {
-            String column = item.replace("\"", "");
-            if (!renderResultsAsHtml) {
-              column = StringEscapeUtils.escapeHtml(column);
-            }
-            line.add(column);
+        for (final List<String> row : this.previewCache.getRows(streamProvider, preview,
+            filePath, offset, pageSize)) {
+          final List<String> line = new ArrayList<>(row.size());
+          for (final String column : row) {
+            line.add(renderResultsAsHtml ? column : StringEscapeUtils.escapeHtml(column));
           }
           lines.add(line);
-          lineNumber++;
         }
 
+        final Map<String, Object> file = new HashMap<>();
+        file.put("name", fileName);
         file.put("content", lines);
-
-        if (rowScanner.hasNextLine()) {
+        file.put("rowCount", preview.getRowCount());
+        file.put("page", page);
+        file.put("pageCount", pageCount);
+        if (page < pageCount) {
           file.put("hasMore", true);
         }
-
         files.add(file);
-        rowScanner.close();
+      } catch (final Exception e) {
+        logger.debug("Error encountered while processing file " + filePath, e);
       }
-    } catch (final Exception e) {
-      logger.debug("Error encountered while processing files in "
-          + locationFull, e);
-    } finally {
-      IOUtils.closeQuietly(csvInputStream);
     }
 
     return files;
@@ -0,0 +1,51 @@
+package azkaban.reportal.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.Test;
+
+public class CsvReaderTest {
+
+  private static CsvReader reader(final String csv) {
+    return new CsvReader(new StringReader(csv));
+  }
+
+  @Test
+  public void testQuotedFields() throws IOException {
+    final CsvReader csvReader = reader("\"a\",\"b, c\",\"\"\r\n\"d\",\"e\"\n");
+
+    assertThat(csvReader.readRow()).containsExactly("a", "b, c", "");
+    assertThat(csvReader.readRow()).containsExactly("d", "e");
+    assertThat(csvReader.readRow()).isNull();
+  }
+
+  @Test
+  public void testUnquotedFieldsAndEmptyLines() throws IOException {
+    final CsvReader csvReader = reader("a,b,,c\n\n1,2,3,4");
+
+    assertThat(csvReader.readRow()).containsExactly("a", "b", "", "c");
+    assertThat(csvReader.readRow()).containsExactly("1", "2", "3", "4");
+    assertThat(csvReader.readRow()).isNull();
+  }
+
+  @Test
+  public void testEscapedQuotesAndLineBreaks() throws IOException {
+    final CsvReader csvReader = reader(
+        "\"say \"\"hi\"\"\",\"back\\\"slash\",\"C:\\dir\"\n\"two\nlines\",x\"y\n");
+
+    assertThat(csvReader.readRow()).containsExactly("say \"hi\"", "back\"slash", "C:\\dir");
+    assertThat(csvReader.readRow()).containsExactly("two\nlines", "x\"y");
+    assertThat(csvReader.readRow()).isNull();
+  }
+
+  @Test
+  public void testSkipRows() throws IOException {
+    final CsvReader csvReader = reader("1\n2\n3\n");
+
+    assertThat(csvReader.skipRows(2)).isEqualTo(2);
+    assertThat(csvReader.readRow()).containsExactly("3");
+    assertThat(csvReader.skipRows(5)).isZero();
+  }
+}
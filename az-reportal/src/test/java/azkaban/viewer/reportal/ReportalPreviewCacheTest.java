@@ -0,0 +1,133 @@
+package azkaban.viewer.reportal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import azkaban.reportal.util.IStreamProvider;
+import azkaban.reportal.util.StreamProviderLocal;
+import azkaban.viewer.reportal.ReportalPreviewCache.Preview;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ReportalPreviewCacheTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private IStreamProvider streamProvider;
+  private String filePath;
+
+  @Before
+  public void setUp() throws Exception {
+    this.streamProvider = spy(new StreamProviderLocal());
+    final File file = this.temp.newFile("result.csv");
+    writeRows(file, 120);
+    this.filePath = file.getAbsolutePath();
+  }
+
+  private static void writeRows(final File file, final int count) throws Exception {
+    final StringBuilder csv = new StringBuilder("\"id\",\"name\"\n");
+    for (int i = 1; i < count; i++) {
+      csv.append('"').append(i).append("\",\"row ").append(i).append("\"\n");
+    }
+    FileUtils.writeStringToFile(file, csv.toString(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testPreviewIsReadOnce() throws Exception {
+    final ReportalPreviewCache cache = new ReportalPreviewCache(10, 100);
+
+    final Preview preview = cache.getPreview(this.streamProvider, 1, this.filePath);
+    assertThat(cache.getPreview(this.streamProvider, 1, this.filePath)).isSameAs(preview);
+
+    assertThat(preview.getRowCount()).isEqualTo(120);
+    assertThat(preview.getRows()).hasSize(100);
+    assertThat(preview.getRows().get(0)).containsExactly("id", "name");
+    verify(this.streamProvider, times(1)).getFileInputStream(this.filePath);
+  }
+
+  @Test
+  public void testRowsPastTheCachedRowsAreRead() throws Exception {
+    final ReportalPreviewCache cache = new ReportalPreviewCache(10, 100);
+    final Preview preview = cache.getPreview(this.streamProvider, 1, this.filePath);
+
+    assertThat(cache.getRows(this.streamProvider, preview, this.filePath, 50, 50))
+        .hasSize(50).startsWith(Arrays.asList("50", "row 50"));
+    verify(this.streamProvider, times(1)).getFileInputStream(this.filePath);
+
+    final List<List<String>> lastPage =
+        cache.getRows(this.streamProvider, preview, this.filePath, 100, 50);
+    assertThat(lastPage).hasSize(20).endsWith(Arrays.asList("119", "row 119"));
+    assertThat(cache.getRows(this.streamProvider, preview, this.filePath, 150, 50)).isEmpty();
+  }
+
+  @Test
+  public void testRewrittenFileIsReadAgain() throws Exception {
+    final ReportalPreviewCache cache = new ReportalPreviewCache(10, 100);
+    assertThat(cache.getPreview(this.streamProvider, 1, this.filePath).getRowCount())
+        .isEqualTo(120);
+
+    final File file = new File(this.filePath);
+    writeRows(file, 10);
+    file.setLastModified(file.lastModified() + 10000);
+
+    assertThat(cache.getPreview(this.streamProvider, 1, this.filePath).getRowCount())
+        .isEqualTo(10);
+  }
+
+  @Test
+  public void testConcurrentViewersShareThePreview() throws Exception {
+    final ReportalPreviewCache cache = new ReportalPreviewCache(10, 100);
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<Preview>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        futures.add(executor.submit(() -> cache.getPreview(this.streamProvider, 1, this.filePath)));
+      }
+      final Preview preview = futures.get(0).get();
+      for (final Future<Preview> future : futures) {
+        assertThat(future.get()).isSameAs(preview);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    verify(this.streamProvider, times(1)).getFileInputStream(this.filePath);
+  }
+
+  @Test
+  public void testPreviewFailingWithAnErrorIsReadAgain() throws Exception {
+    final ReportalPreviewCache cache = new ReportalPreviewCache(10, 100);
+    doThrow(new OutOfMemoryError("preview")).doCallRealMethod()
+        .when(this.streamProvider).getFileInputStream(this.filePath);
+
+    assertThatThrownBy(() -> cache.getPreview(this.streamProvider, 1, this.filePath))
+        .isInstanceOf(OutOfMemoryError.class);
+    assertThat(cache.size()).isZero();
+    assertThat(cache.getPreview(this.streamProvider, 1, this.filePath).getRowCount())
+        .isEqualTo(120);
+  }
+
+  @Test
+  public void testLeastRecentlyViewedPreviewsAreDropped() throws Exception {
+    final ReportalPreviewCache cache = new ReportalPreviewCache(2, 100);
+    for (int execId = 1; execId <= 3; execId++) {
+      cache.getPreview(this.streamProvider, execId, this.filePath);
+    }
+    assertThat(cache.size()).isEqualTo(2);
+  }
+}
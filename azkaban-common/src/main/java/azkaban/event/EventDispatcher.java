@@ -0,0 +1,148 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.event;
+
+import com.codahale.metrics.Histogram;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Calls event listeners on a shared thread pool instead of the thread firing the events.
+ *
+ * Events are queued per dispatch key, e.g. the execution id of a flow, and the events of a key are
+ * delivered one at a time in the order they were fired, so listeners see them in order. Different
+ * keys are delivered in parallel.
+ */
+public class EventDispatcher implements Closeable {
+
+  // events delivered for a key before its queue yields the thread to the other keys
+  private static final int MAX_EVENTS_PER_RUN = 64;
+  private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+  private static final Logger logger = LoggerFactory.getLogger(EventDispatcher.class);
+
+  private final ExecutorService pool;
+  private final Histogram listenerLatency;
+  private final AtomicInteger queueDepth = new AtomicInteger();
+  // queues of the keys with events to deliver, a key has a queue iff a delivery is scheduled
+  private final Map<Object, Queue<Runnable>> queues = new HashMap<>();
+
+  /**
+   * @param listenerLatency histogram of the time spent in each listener call, in microseconds,
+   * can be null
+   */
+  public EventDispatcher(final int numThreads, final Histogram listenerLatency) {
+    this.pool = Executors.newFixedThreadPool(Math.max(1, numThreads),
+        new ThreadFactoryBuilder().setNameFormat("azk-event-dispatcher-%d").setDaemon(true)
+            .build());
+    this.listenerLatency = listenerLatency;
+  }
+
+  /**
+   * Queue the delivery of the event to the listeners, after the events previously queued with the
+   * same key.
+   */
+  public <T> void dispatch(final Object key, final T event,
+      final List<EventListener<T>> listeners) {
+    final Runnable delivery = () -> {
+      for (final EventListener<T> listener : listeners) {
+        final long start = System.nanoTime();
+        EventHandler.callListener(listener, event);
+        if (this.listenerLatency != null) {
+          this.listenerLatency.update(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+      }
+    };
+
+    final boolean schedule;
+    this.queueDepth.incrementAndGet();
+    synchronized (this.queues) {
+      Queue<Runnable> queue = this.queues.get(key);
+      schedule = queue == null;
+      if (schedule) {
+        queue = new ArrayDeque<>();
+        this.queues.put(key, queue);
+      }
+      queue.add(delivery);
+    }
+    if (schedule) {
+      schedule(key);
+    }
+  }
+
+  /**
+   * @return the number of events waiting to be delivered
+   */
+  public int getQueueDepth() {
+    return this.queueDepth.get();
+  }
+
+  private void schedule(final Object key) {
+    try {
+      this.pool.execute(() -> deliver(key));
+    } catch (final RejectedExecutionException e) {
+      // closed, deliver on the caller's thread rather than dropping the events
+      deliver(key);
+    }
+  }
+
+  private void deliver(final Object key) {
+    for (int i = 0; i < MAX_EVENTS_PER_RUN; i++) {
+      final Runnable delivery;
+      synchronized (this.queues) {
+        delivery = this.queues.get(key).poll();
+        if (delivery == null) {
+          this.queues.remove(key);
+          return;
+        }
+      }
+      this.queueDepth.decrementAndGet();
+      delivery.run();
+    }
+    schedule(key);
+  }
+
+  /**
+   * Stop accepting deliveries on the pool, waiting for the queued events to be delivered.
+   */
+  @Override
+  public void close() {
+    this.pool.shutdown();
+    try {
+      if (!this.pool.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        logger.warn("Dropping " + getQueueDepth() + " events not delivered after "
+            + CLOSE_TIMEOUT_SECONDS + " seconds");
+        this.pool.shutdownNow();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      this.pool.shutdownNow();
+    }
+  }
+}
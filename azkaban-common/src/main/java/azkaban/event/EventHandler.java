@@ -16,14 +16,25 @@
 package azkaban.event;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArraySet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Calls the registered listeners with the fired events, on the firing thread by default.
+ *
+ * With an {@link EventDispatcher}, the listeners are called on the dispatcher threads, in the
+ * order of the events fired with the same dispatch key; {@link SynchronousEventListener}s are
+ * still called on the firing thread.
+ */
 public class EventHandler<T> {
 
-  private final HashSet<EventListener<T>> listeners = new HashSet<>();
+  // iterated on every event, modified rarely
+  private final CopyOnWriteArraySet<EventListener<T>> listeners = new CopyOnWriteArraySet<>();
   private static final Logger logger = LoggerFactory.getLogger(EventHandler.class);
+  private volatile EventDispatcher eventDispatcher;
+  private volatile Object dispatchKey;
 
   public EventHandler() {
   }
@@ -40,16 +51,52 @@ public class EventHandler<T> {
     return this;
   }
 
+  /**
+   * Dispatch the events asynchronously, ordered with the other events of the dispatch key.
+   *
+   * @param eventDispatcher the dispatcher, null to call the listeners on the firing thread
+   */
+  public void setEventDispatcher(final EventDispatcher eventDispatcher, final Object dispatchKey) {
+    this.dispatchKey = dispatchKey;
+    this.eventDispatcher = eventDispatcher;
+  }
+
+  public EventDispatcher getEventDispatcher() {
+    return this.eventDispatcher;
+  }
+
+  public Object getDispatchKey() {
+    return this.dispatchKey;
+  }
+
   public void fireEventListeners(final T event) {
-    final ArrayList<EventListener> listeners =
-        new ArrayList<>(this.listeners);
-    for (final EventListener listener : listeners) {
-      try {
-        listener.handleEvent(event);
-      } catch (RuntimeException e) {
-        logger.warn("Error while calling handleEvent for: " + listener.getClass());
-        logger.warn(e.getMessage(), e);
+    final EventDispatcher dispatcher = this.eventDispatcher;
+    if (dispatcher == null) {
+      for (final EventListener<T> listener : this.listeners) {
+        callListener(listener, event);
       }
+      return;
+    }
+
+    final List<EventListener<T>> asyncListeners = new ArrayList<>();
+    for (final EventListener<T> listener : this.listeners) {
+      if (listener instanceof SynchronousEventListener) {
+        callListener(listener, event);
+      } else {
+        asyncListeners.add(listener);
+      }
+    }
+    if (!asyncListeners.isEmpty()) {
+      dispatcher.dispatch(this.dispatchKey, event, asyncListeners);
+    }
+  }
+
+  static <T> void callListener(final EventListener<T> listener, final T event) {
+    try {
+      listener.handleEvent(event);
+    } catch (RuntimeException e) {
+      logger.warn("Error while calling handleEvent for: " + listener.getClass());
+      logger.warn(e.getMessage(), e);
     }
   }
 
@@ -67,6 +67,7 @@ public abstract class AbstractExecutorManagerAdapter extends EventHandler implem
   private static final Logger logger = Logger.getLogger(AbstractExecutorManagerAdapter.class);
   protected final Props azkProps;
   protected boolean offlineLogsLoaderEnabled;
+  private final boolean applicationIdIndexEnabled;
   protected final ProjectManager projectManager;
   protected final ExecutorLoader executorLoader;
   protected final ExecutionLogsLoader nearlineExecutionLogsLoader;
@@ -93,6 +94,8 @@ public abstract class AbstractExecutorManagerAdapter extends EventHandler implem
     this.azkProps = azkProps;
     this.offlineLogsLoaderEnabled = this.azkProps.getBoolean(AZKABAN_OFFLINE_LOGS_LOADER_ENABLED,
         false);
+    this.applicationIdIndexEnabled = this.azkProps.getBoolean(
+        ConfigurationKeys.AZKABAN_APPLICATION_ID_INDEX_ENABLED, false);
     this.projectManager = projectManager;
     this.executorLoader = executorLoader;
     this.nearlineExecutionLogsLoader = nearlineExecutionLogsLoader;
@@ -423,6 +426,13 @@ public abstract class AbstractExecutorManagerAdapter extends EventHandler implem
     return this.executorLoader.fetchJobHistory(project.getId(), jobId, skip, size);
   }
 
+  @Override
+  public List<ExecutableJobInfo> getExecutableJobs(final Project project,
+      final String jobId, final JobHistoryCursor after, final int size)
+      throws ExecutorManagerException {
+    return this.executorLoader.fetchJobHistory(project.getId(), jobId, after, size);
+  }
+
   @Override
   public int getNumberOfJobExecutions(final Project project, final String jobId)
       throws ExecutorManagerException {
@@ -763,6 +773,9 @@ public abstract class AbstractExecutorManagerAdapter extends EventHandler implem
    * the set returned by this method the application ids are in the same order they appear in the
    * log.
    *
+   * The ids indexed by the executor when the job attempt completed are used when present, the log
+   * is only scanned for running jobs and for executions from before the index.
+   *
    * @param exFlow  The executable flow.
    * @param jobId   The job id.
    * @param attempt The job execution attempt.
@@ -770,6 +783,19 @@ public abstract class AbstractExecutorManagerAdapter extends EventHandler implem
    */
   Set<String> getApplicationIds(final ExecutableFlow exFlow, final String jobId,
       final int attempt) {
+    if (this.applicationIdIndexEnabled) {
+      try {
+        final Set<String> indexed = this.executorLoader
+            .fetchApplicationIds(exFlow.getExecutionId(), jobId, attempt);
+        if (indexed != null) {
+          return indexed;
+        }
+      } catch (final ExecutorManagerException e) {
+        logger.warn("Failed to get indexed application IDs for execution "
+            + exFlow.getExecutionId() + ", job " + jobId + ", attempt " + attempt
+            + ", scanning the log", e);
+      }
+    }
     final Set<String> applicationIds = new LinkedHashSet<>();
     int offset = 0;
     try {
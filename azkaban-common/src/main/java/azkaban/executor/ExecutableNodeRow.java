@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.executor;
+
+/**
+ * Snapshot of the execution_jobs columns of a node, taken when the node changed, so that the row
+ * can be written later without reading the node again.
+ */
+public class ExecutableNodeRow {
+
+  private final ExecutableNode node;
+  private final int execId;
+  private final int projectId;
+  private final int version;
+  private final String flowId;
+  private final String jobId;
+  private final long startTime;
+  private final long endTime;
+  private final Status status;
+  private final int attempt;
+  private final byte[] params;
+
+  /**
+   * @param params encoded input params for an insert, or output params for an update, see
+   * {@link ExecutionJobDao#encodeProps(azkaban.utils.Props)}
+   */
+  public ExecutableNodeRow(final ExecutableNode node, final byte[] params) {
+    final ExecutableFlow flow = node.getExecutableFlow();
+    this.node = node;
+    this.execId = flow.getExecutionId();
+    this.projectId = flow.getProjectId();
+    this.version = flow.getVersion();
+    this.flowId = node.getParentFlow().getFlowPath();
+    this.jobId = node.getId();
+    this.startTime = node.getStartTime();
+    this.endTime = node.getEndTime();
+    this.status = node.getStatus();
+    this.attempt = node.getAttempt();
+    this.params = params;
+  }
+
+  private ExecutableNodeRow(final ExecutableNodeRow row, final byte[] params) {
+    this.node = row.node;
+    this.execId = row.execId;
+    this.projectId = row.projectId;
+    this.version = row.version;
+    this.flowId = row.flowId;
+    this.jobId = row.jobId;
+    this.startTime = row.startTime;
+    this.endTime = row.endTime;
+    this.status = row.status;
+    this.attempt = row.attempt;
+    this.params = params;
+  }
+
+  /**
+   * @return a copy of this row with other params, e.g. once they are encoded
+   */
+  public ExecutableNodeRow withParams(final byte[] params) {
+    return new ExecutableNodeRow(this, params);
+  }
+
+  /**
+   * @return the node the row was taken from, its state may have changed since.
+   */
+  public ExecutableNode getNode() {
+    return this.node;
+  }
+
+  public int getExecId() {
+    return this.execId;
+  }
+
+  public int getProjectId() {
+    return this.projectId;
+  }
+
+  public int getVersion() {
+    return this.version;
+  }
+
+  public String getFlowId() {
+    return this.flowId;
+  }
+
+  public String getJobId() {
+    return this.jobId;
+  }
+
+  public long getStartTime() {
+    return this.startTime;
+  }
+
+  public long getEndTime() {
+    return this.endTime;
+  }
+
+  public Status getStatus() {
+    return this.status;
+  }
+
+  public int getAttempt() {
+    return this.attempt;
+  }
+
+  public byte[] getParams() {
+    return this.params;
+  }
+}
@@ -554,6 +554,43 @@ public final class ExecutableRamp implements IRefreshable<ExecutableRamp> {
     }
   }
 
+  /**
+   * Fold only the cached counts carried by a previously taken {@link #snapshot()} into the
+   * totals, so results cached while the snapshot was being persisted stay cached for the next
+   * flush.
+   */
+  synchronized public void cacheSaved(@NotNull final ExecutableRamp flushed) {
+    lock.lock();
+    try {
+      this.state.numOfTrail += flushed.state.cachedNumOfTrail;
+      this.state.numOfSuccess += flushed.state.cachedNumOfSuccess;
+      this.state.numOfFailure += flushed.state.cachedNumOfFailure;
+      this.state.numOfIgnored += flushed.state.cachedNumOfIgnored;
+      this.state.cachedNumOfTrail -= flushed.state.cachedNumOfTrail;
+      this.state.cachedNumOfSuccess -= flushed.state.cachedNumOfSuccess;
+      this.state.cachedNumOfFailure -= flushed.state.cachedNumOfFailure;
+      this.state.cachedNumOfIgnored -= flushed.state.cachedNumOfIgnored;
+      this.state.isSynchronized = (this.state.cachedNumOfTrail == 0)
+          && (this.state.cachedNumOfSuccess == 0)
+          && (this.state.cachedNumOfFailure == 0)
+          && (this.state.cachedNumOfIgnored == 0);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Consistent copy of the ramp taken under its lock, used as the unit of persistence.
+   */
+  public ExecutableRamp snapshot() {
+    lock.lock();
+    try {
+      return this.clone();
+    } finally {
+      lock.unlock();
+    }
+  }
+
   @Override
   public ExecutableRamp refresh(ExecutableRamp source) {
     lock.lock();
@@ -632,17 +632,27 @@ public class ExecutionControllerUtils {
    */
   public static Set<String> findApplicationIdsFromLog(final String logData) {
     final Set<String> applicationIds = new LinkedHashSet<>();
-    final Matcher matcher = APPLICATION_ID_PATTERN.matcher(logData);
-
-    while (matcher.find()) {
-      final String appId = matcher.group(1);
-      applicationIds.add(appId);
-    }
+    addApplicationIdsFromLog(logData, applicationIds);
 
     logger.info("Application Ids found: " + applicationIds.toString());
     return applicationIds;
   }
 
+  /**
+   * Add the application ids the log data contains to the set, in the order they appear, without
+   * logging them: used on every line of job output.
+   *
+   * @param logData The log data.
+   * @param applicationIds The set of application ids found so far.
+   */
+  public static void addApplicationIdsFromLog(final CharSequence logData,
+      final Set<String> applicationIds) {
+    final Matcher matcher = APPLICATION_ID_PATTERN.matcher(logData);
+    while (matcher.find()) {
+      applicationIds.add(matcher.group(1));
+    }
+  }
+
   /**
    * Create a string by combining the cluster name with the execution Id.
    *
@@ -141,8 +141,9 @@ public class ExecutionFlowDao {
   List<ExecutableFlow> fetchFlowHistory(final int skip, final int num)
       throws ExecutorManagerException {
     try {
-      return this.dbOperator.query(FetchExecutableFlows.FETCH_ALL_EXECUTABLE_FLOW_HISTORY,
-          new FetchExecutableFlows(), skip, num);
+      return this.dbOperator.queryReplicaSafe(
+          FetchExecutableFlows.FETCH_ALL_EXECUTABLE_FLOW_HISTORY, new FetchExecutableFlows(), skip,
+          num);
     } catch (final SQLException e) {
       throw new ExecutorManagerException("Error fetching flow History", e);
     }
@@ -152,7 +153,7 @@ public class ExecutionFlowDao {
       final int skip, final int num)
       throws ExecutorManagerException {
     try {
-      return this.dbOperator.query(FetchExecutableFlows.FETCH_EXECUTABLE_FLOW_HISTORY,
+      return this.dbOperator.queryReplicaSafe(FetchExecutableFlows.FETCH_EXECUTABLE_FLOW_HISTORY,
           new FetchExecutableFlows(), projectId, flowId, skip, num);
     } catch (final SQLException e) {
       throw new ExecutorManagerException("Error fetching flow history", e);
@@ -263,7 +264,7 @@ public class ExecutionFlowDao {
       final int skip, final int num, final Status status)
       throws ExecutorManagerException {
     try {
-      return this.dbOperator.query(FetchExecutableFlows.FETCH_EXECUTABLE_FLOW_BY_STATUS,
+      return this.dbOperator.queryReplicaSafe(FetchExecutableFlows.FETCH_EXECUTABLE_FLOW_BY_STATUS,
           new FetchExecutableFlows(), projectId, flowId, status.getNumVal(), skip, num);
     } catch (final SQLException e) {
       throw new ExecutorManagerException("Error fetching active flows", e);
@@ -359,7 +360,7 @@ public class ExecutionFlowDao {
     }
 
     try {
-      return this.dbOperator.query(query, new FetchExecutableFlows(), params.toArray());
+      return this.dbOperator.queryReplicaSafe(query, new FetchExecutableFlows(), params.toArray());
     } catch (final SQLException e) {
       throw new ExecutorManagerException("Error fetching active flows", e);
     }
@@ -379,13 +380,9 @@ public class ExecutionFlowDao {
     byte[] data = null;
     try {
       // If this action fails, the execution must be failed.
-      final String json = JSONUtils.toJSON(flow.toObject());
-      final byte[] stringData = json.getBytes("UTF-8");
-      data = stringData;
-      // Todo kunkun-tang: use a common method to transform stringData to data.
-      if (encType == EncodingType.GZIP) {
-        data = GZIPUtils.gzipBytes(stringData);
-      }
+      final Object flowObject = flow.toObject();
+      data = encType == EncodingType.GZIP ? JSONUtils.toGzipJSONBytes(flowObject)
+          : JSONUtils.toJSONBytes(flowObject);
     } catch (final IOException e) {
       flow.setStatus(Status.FAILED);
       updateExecutableFlowStatusInDB(flow);
@@ -17,6 +17,7 @@
 package azkaban.executor;
 
 import azkaban.db.DatabaseOperator;
+import azkaban.db.EncodingType;
 import azkaban.utils.GZIPUtils;
 import azkaban.utils.JSONUtils;
 import azkaban.utils.Pair;
@@ -27,9 +28,12 @@ import java.io.IOException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.apache.commons.dbutils.ResultSetHandler;
@@ -47,60 +51,129 @@ public class ExecutionJobDao {
     this.dbOperator = databaseOperator;
   }
 
-  public void uploadExecutableNode(final ExecutableNode node, final Props inputProps)
-      throws ExecutorManagerException {
-    final String INSERT_EXECUTION_NODE = "INSERT INTO execution_jobs "
-        + "(exec_id, project_id, version, flow_id, job_id, start_time, "
-        + "end_time, status, input_params, attempt) VALUES (?,?,?,?,?,?,?,?,?,?)";
-
-    byte[] inputParam = null;
-    if (inputProps != null) {
-      try {
-        final String jsonString =
-            JSONUtils.toJSON(PropsUtils.toHierarchicalMap(inputProps));
-        inputParam = GZIPUtils.gzipString(jsonString, "UTF-8");
-      } catch (final IOException e) {
-        throw new ExecutorManagerException("Error encoding input params");
-      }
+  private static final String INSERT_EXECUTION_NODE = "INSERT INTO execution_jobs "
+      + "(exec_id, project_id, version, flow_id, job_id, start_time, "
+      + "end_time, status, input_params, attempt) VALUES (?,?,?,?,?,?,?,?,?,?)";
+  private static final String UPDATE_EXECUTION_NODE = "UPDATE execution_jobs "
+      + "SET start_time=?, end_time=?, status=?, output_params=? "
+      + "WHERE exec_id=? AND flow_id=? AND job_id=? AND attempt=?";
+  private static final String INSERT_APPLICATION_IDS = "INSERT INTO execution_job_application_ids "
+      + "(exec_id, job_id, attempt, application_ids, upload_time) VALUES (?,?,?,?,?)";
+  private static final String DELETE_APPLICATION_IDS = "DELETE FROM execution_job_application_ids "
+      + "WHERE exec_id=? AND job_id=? AND attempt=?";
+  private static final String FETCH_APPLICATION_IDS = "SELECT application_ids "
+      + "FROM execution_job_application_ids WHERE exec_id=? AND job_id=? AND attempt=?";
+
+  /**
+   * Encode props the way they are stored in the input_params and output_params columns.
+   *
+   * @return the gzipped json of the props, null if props is null
+   */
+  public static byte[] encodeProps(final Props props) throws ExecutorManagerException {
+    if (props == null) {
+      return null;
     }
+    try {
+      return JSONUtils.toGzipJSONBytes(PropsUtils.toHierarchicalMap(props));
+    } catch (final IOException e) {
+      throw new ExecutorManagerException("Error encoding params", e);
+    }
+  }
 
-    final ExecutableFlow flow = node.getExecutableFlow();
-    final String flowId = node.getParentFlow().getFlowPath();
-    logger.info("Uploading flowId " + flowId);
+  public void uploadExecutableNode(final ExecutableNode node, final Props inputProps)
+      throws ExecutorManagerException {
+    final ExecutableNodeRow row = new ExecutableNodeRow(node, encodeProps(inputProps));
+    logger.info("Uploading flowId " + row.getFlowId());
     try {
-      this.dbOperator.update(INSERT_EXECUTION_NODE, flow.getExecutionId(),
-          flow.getProjectId(), flow.getVersion(), flowId, node.getId(),
-          node.getStartTime(), node.getEndTime(), node.getStatus().getNumVal(),
-          inputParam, node.getAttempt());
+      this.dbOperator.update(INSERT_EXECUTION_NODE, insertParams(row));
     } catch (final SQLException e) {
       throw new ExecutorManagerException("Error writing job " + node.getId(), e);
     }
   }
 
   public void updateExecutableNode(final ExecutableNode node) throws ExecutorManagerException {
-    final String UPSERT_EXECUTION_NODE = "UPDATE execution_jobs "
-        + "SET start_time=?, end_time=?, status=?, output_params=? "
-        + "WHERE exec_id=? AND flow_id=? AND job_id=? AND attempt=?";
+    final ExecutableNodeRow row = new ExecutableNodeRow(node, encodeProps(node.getOutputProps()));
+    try {
+      this.dbOperator.update(UPDATE_EXECUTION_NODE, updateParams(row));
+    } catch (final SQLException e) {
+      throw new ExecutorManagerException("Error updating job " + node.getId(), e);
+    }
+  }
 
-    byte[] outputParam = null;
-    final Props outputProps = node.getOutputProps();
-    if (outputProps != null) {
-      try {
-        final String jsonString =
-            JSONUtils.toJSON(PropsUtils.toHierarchicalMap(outputProps));
-        outputParam = GZIPUtils.gzipString(jsonString, "UTF-8");
-      } catch (final IOException e) {
-        throw new ExecutorManagerException("Error encoding input params");
-      }
+  /**
+   * Insert and then update job rows with one JDBC batch each, in a single transaction. If the
+   * transaction fails, the rows are written one at a time so that one bad row does not lose the
+   * others.
+   *
+   * @param inserts rows to insert, their params are the input params
+   * @param updates rows to update, their params are the output params
+   */
+  public void writeExecutableNodes(final List<ExecutableNodeRow> inserts,
+      final List<ExecutableNodeRow> updates) throws ExecutorManagerException {
+    if (inserts.isEmpty() && updates.isEmpty()) {
+      return;
     }
+    final Object[][] insertParams = inserts.stream().map(ExecutionJobDao::insertParams)
+        .toArray(Object[][]::new);
+    final Object[][] updateParams = updates.stream().map(ExecutionJobDao::updateParams)
+        .toArray(Object[][]::new);
     try {
-      this.dbOperator.update(UPSERT_EXECUTION_NODE, node.getStartTime(), node
-          .getEndTime(), node.getStatus().getNumVal(), outputParam, node
-          .getExecutableFlow().getExecutionId(), node.getParentFlow()
-          .getFlowPath(), node.getId(), node.getAttempt());
+      this.dbOperator.transaction(transOperator -> {
+        if (insertParams.length > 0) {
+          transOperator.batch(INSERT_EXECUTION_NODE, insertParams);
+        }
+        if (updateParams.length > 0) {
+          transOperator.batch(UPDATE_EXECUTION_NODE, updateParams);
+        }
+        return null;
+      });
+      return;
     } catch (final SQLException e) {
-      throw new ExecutorManagerException("Error updating job " + node.getId(), e);
+      logger.warn("Error writing a batch of " + inserts.size() + " job inserts and "
+          + updates.size() + " job updates, writing them one by one", e);
+    }
+
+    final List<String> failedJobs = new ArrayList<>();
+    for (int i = 0; i < insertParams.length; i++) {
+      try {
+        this.dbOperator.update(INSERT_EXECUTION_NODE, insertParams[i]);
+      } catch (final SQLException e) {
+        if (isIntegrityConstraintViolation(e)) {
+          // written by an earlier batch which failed on other rows, and is now retried
+          logger.warn("Job " + inserts.get(i).getJobId() + " was already written");
+          continue;
+        }
+        logger.error("Error writing job " + inserts.get(i).getJobId(), e);
+        failedJobs.add(inserts.get(i).getJobId());
+      }
     }
+    for (int i = 0; i < updateParams.length; i++) {
+      try {
+        this.dbOperator.update(UPDATE_EXECUTION_NODE, updateParams[i]);
+      } catch (final SQLException e) {
+        logger.error("Error updating job " + updates.get(i).getJobId(), e);
+        failedJobs.add(updates.get(i).getJobId());
+      }
+    }
+    if (!failedJobs.isEmpty()) {
+      throw new ExecutorManagerException("Error writing jobs " + failedJobs);
+    }
+  }
+
+  private static boolean isIntegrityConstraintViolation(final SQLException e) {
+    // SQL state class 23 is integrity constraint violation, e.g. a duplicate primary key
+    return e.getSQLState() != null && e.getSQLState().startsWith("23");
+  }
+
+  private static Object[] insertParams(final ExecutableNodeRow row) {
+    return new Object[]{row.getExecId(), row.getProjectId(), row.getVersion(), row.getFlowId(),
+        row.getJobId(), row.getStartTime(), row.getEndTime(), row.getStatus().getNumVal(),
+        row.getParams(), row.getAttempt()};
+  }
+
+  private static Object[] updateParams(final ExecutableNodeRow row) {
+    return new Object[]{row.getStartTime(), row.getEndTime(), row.getStatus().getNumVal(),
+        row.getParams(), row.getExecId(), row.getFlowId(), row.getJobId(), row.getAttempt()};
   }
 
   public List<ExecutableJobInfo> fetchJobInfoAttempts(final int execId, final String jobId)
@@ -173,13 +246,61 @@ public class ExecutionJobDao {
     }
   }
 
+  /**
+   * Index the application ids found in the log of a job attempt, replacing a previous index of the
+   * attempt. An attempt without application ids is left out of the index.
+   */
+  public void uploadApplicationIds(final int execId, final String jobId, final int attempt,
+      final Collection<String> applicationIds) throws ExecutorManagerException {
+    final String joined = String.join(",", applicationIds);
+    try {
+      this.dbOperator.transaction(transOperator -> {
+        transOperator.update(DELETE_APPLICATION_IDS, execId, jobId, attempt);
+        if (!applicationIds.isEmpty()) {
+          transOperator.update(INSERT_APPLICATION_IDS, execId, jobId, attempt, joined,
+              System.currentTimeMillis());
+        }
+        transOperator.getConnection().commit();
+        return null;
+      });
+    } catch (final SQLException e) {
+      throw new ExecutorManagerException("Error indexing application ids of " + execId + " "
+          + jobId + " " + attempt, e);
+    }
+  }
+
+  /**
+   * @return the indexed application ids of a job attempt in log order, or null if the attempt was
+   * not indexed or has no application ids
+   */
+  public Set<String> fetchApplicationIds(final int execId, final String jobId, final int attempt)
+      throws ExecutorManagerException {
+    final ResultSetHandler<Set<String>> handler = rs -> {
+      if (!rs.next()) {
+        return null;
+      }
+      final Set<String> applicationIds = new LinkedHashSet<>();
+      final String joined = rs.getString(1);
+      if (joined != null && !joined.isEmpty()) {
+        Collections.addAll(applicationIds, joined.split(","));
+      }
+      return applicationIds;
+    };
+    try {
+      return this.dbOperator.query(FETCH_APPLICATION_IDS, handler, execId, jobId, attempt);
+    } catch (final SQLException e) {
+      throw new ExecutorManagerException("Error fetching application ids of " + execId + " "
+          + jobId + " " + attempt, e);
+    }
+  }
+
   public List<ExecutableJobInfo> fetchJobHistory(final int projectId,
       final String jobId,
       final int skip,
       final int size) throws ExecutorManagerException {
     try {
       final List<ExecutableJobInfo> info =
-          this.dbOperator.query(FetchExecutableJobHandler.FETCH_PROJECT_EXECUTABLE_NODE,
+          this.dbOperator.queryReplicaSafe(FetchExecutableJobHandler.FETCH_PROJECT_EXECUTABLE_NODE,
               new FetchExecutableJobHandler(), projectId, jobId, skip, size);
       if (info == null || info.isEmpty()) {
         return null;
@@ -191,6 +312,27 @@ public class ExecutionJobDao {
     }
   }
 
+  /**
+   * Fetch the runs of a job after a position in its history, seeking through the index rather than
+   * skipping the rows of the previous pages.
+   */
+  public List<ExecutableJobInfo> fetchJobHistory(final int projectId, final String jobId,
+      final JobHistoryCursor after, final int size) throws ExecutorManagerException {
+    try {
+      final List<ExecutableJobInfo> info = this.dbOperator.queryReplicaSafe(
+          FetchExecutableJobHandler.FETCH_PROJECT_EXECUTABLE_NODE_AFTER,
+          new FetchExecutableJobHandler(), projectId, jobId, after.getExecId(),
+          after.getExecId(), after.getFlowId(), after.getFlowId(), after.getAttempt(), size);
+      if (info == null || info.isEmpty()) {
+        return null;
+      } else {
+        return info;
+      }
+    } catch (final SQLException e) {
+      throw new ExecutorManagerException("Error querying job info " + jobId, e);
+    }
+  }
+
   public List<Object> fetchAttachments(final int execId, final String jobId, final int attempt)
       throws ExecutorManagerException {
     try {
@@ -243,7 +385,14 @@ public class ExecutionJobDao {
         "SELECT exec_id, project_id, version, flow_id, job_id, "
             + "start_time, end_time, status, attempt FROM execution_jobs "
             + "WHERE project_id=? AND job_id=? "
-            + "ORDER BY exec_id DESC LIMIT ?, ? ";
+            + "ORDER BY exec_id DESC, flow_id DESC, attempt DESC LIMIT ?, ? ";
+    // the exec_id <= ? range is what is looked up in the ex_job_id index
+    private static final String FETCH_PROJECT_EXECUTABLE_NODE_AFTER =
+        "SELECT exec_id, project_id, version, flow_id, job_id, "
+            + "start_time, end_time, status, attempt FROM execution_jobs "
+            + "WHERE project_id=? AND job_id=? AND exec_id<=? "
+            + "AND (exec_id<? OR flow_id<? OR (flow_id=? AND attempt<?)) "
+            + "ORDER BY exec_id DESC, flow_id DESC, attempt DESC LIMIT ? ";
 
     @Override
     public List<ExecutableJobInfo> handle(final ResultSet rs) throws SQLException {
@@ -298,17 +447,12 @@ public class ExecutionJobDao {
         Props outputProps = null;
         try {
           if (input != null) {
-            final String jsonInputString = GZIPUtils.unGzipString(input, "UTF-8");
-            inputProps =
-                PropsUtils.fromHierarchicalMap((Map<String, Object>) JSONUtils
-                    .parseJSONFromString(jsonInputString));
-
+            inputProps = PropsUtils.fromHierarchicalMap((Map<String, Object>) GZIPUtils
+                .transformBytesToObject(input, EncodingType.GZIP));
           }
           if (output != null) {
-            final String jsonOutputString = GZIPUtils.unGzipString(output, "UTF-8");
-            outputProps =
-                PropsUtils.fromHierarchicalMap((Map<String, Object>) JSONUtils
-                    .parseJSONFromString(jsonOutputString));
+            outputProps = PropsUtils.fromHierarchicalMap((Map<String, Object>) GZIPUtils
+                .transformBytesToObject(output, EncodingType.GZIP));
           }
         } catch (final IOException e) {
           throw new SQLException("Error decoding param data", e);
@@ -320,11 +464,8 @@ public class ExecutionJobDao {
         Props props = null;
         try {
           if (params != null) {
-            final String jsonProps = GZIPUtils.unGzipString(params, "UTF-8");
-
-            props =
-                PropsUtils.fromHierarchicalMap((Map<String, Object>) JSONUtils
-                    .parseJSONFromString(jsonProps));
+            props = PropsUtils.fromHierarchicalMap((Map<String, Object>) GZIPUtils
+                .transformBytesToObject(params, EncodingType.GZIP));
           }
         } catch (final IOException e) {
           throw new SQLException("Error decoding param data", e);
@@ -57,7 +57,7 @@ public class ExecutionLogsDao {
       final int startByte, final int length) throws ExecutorManagerException {
     final FetchLogsHandler handler = new FetchLogsHandler(startByte, length + startByte);
     try {
-      return this.dbOperator.query(FetchLogsHandler.FETCH_LOGS, handler,
+      return this.dbOperator.queryReplicaSafe(FetchLogsHandler.FETCH_LOGS, handler,
           execId, name, attempt, startByte, startByte + length);
     } catch (final SQLException e) {
       throw new ExecutorManagerException("Error fetching logs " + execId
@@ -152,11 +152,21 @@ public class ExecutionLogsDao {
     return totalRecordsRemoved;
   }
 
+  /**
+   * Remove a batch of old execution logs, and a batch of the application ids indexed from them.
+   * An attempt has a single application ids row and at least one log row, so removing at most as
+   * many application ids rows keeps up with the logs.
+   *
+   * @return the number of execution logs rows removed
+   */
   int removeExecutionLogsBatch(final long millis, final int recordCleanupLimit)
       throws ExecutorManagerException {
     final String DELETE_BY_TIME =
         "DELETE FROM execution_logs WHERE upload_time < ? LIMIT ?";
+    final String DELETE_APPLICATION_IDS_BY_TIME =
+        "DELETE FROM execution_job_application_ids WHERE upload_time < ? LIMIT ?";
     try {
+      this.dbOperator.update(DELETE_APPLICATION_IDS_BY_TIME, millis, recordCleanupLimit);
       return this.dbOperator.update(DELETE_BY_TIME, millis, recordCleanupLimit);
     } catch (final SQLException e) {
       logger.error("delete execution logs failed", e);
@@ -19,11 +19,15 @@ import azkaban.db.DatabaseOperator;
 import com.google.common.collect.ImmutableMap;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -726,4 +730,88 @@ public class ExecutionRampDao {
       );
     }
   }
+
+  private static final String UPDATE_EXECUTABLE_RAMP_COUNTERS = "UPDATE ramp SET "
+      + "numOfTrail = numOfTrail + ?, "
+      + "numOfFailure = numOfFailure + ?, "
+      + "numOfSuccess = numOfSuccess + ?, "
+      + "numOfIgnored = numOfIgnored + ?, "
+      + "rampStage = CASE WHEN rampStage > ? THEN rampStage ELSE ? END, "
+      + "endTime = CASE WHEN endTime > ? THEN endTime ELSE ? END, "
+      + "lastUpdatedTime = CASE WHEN lastUpdatedTime > ? THEN lastUpdatedTime ELSE ? END, "
+      + "isPaused = CASE WHEN ? = 1 THEN 1 ELSE isPaused END "
+      + "WHERE rampId = ?";
+
+  /**
+   * Flush the cached counters of several ramps in one batch. Same semantics as
+   * {@link #updateExecutableRamp(ExecutableRamp)}, applied to every ramp.
+   *
+   * @return the ids of the ramps whose row was updated. A ramp missing from it was not saved, e.g.
+   * because its row was deleted, and its counters must stay cached.
+   */
+  public Set<String> updateExecutableRamps(final Collection<ExecutableRamp> executableRamps)
+      throws ExecutorManagerException {
+    final Set<String> saved = new HashSet<>();
+    if (executableRamps.isEmpty()) {
+      return saved;
+    }
+    final List<ExecutableRamp> ramps = new ArrayList<>(executableRamps);
+    final Object[][] parameters = ramps.stream()
+        .map(ramp -> new Object[]{
+            ramp.getCachedCount(ExecutableRamp.CountType.TRAIL),
+            ramp.getCachedCount(ExecutableRamp.CountType.FAILURE),
+            ramp.getCachedCount(ExecutableRamp.CountType.SUCCESS),
+            ramp.getCachedCount(ExecutableRamp.CountType.IGNORED),
+            ramp.getStage(), ramp.getStage(),
+            ramp.getEndTime(), ramp.getEndTime(),
+            ramp.getLastUpdatedTime(), ramp.getLastUpdatedTime(),
+            ramp.isPaused() ? 1 : 0,
+            ramp.getId()})
+        .toArray(Object[][]::new);
+    final int[] updated;
+    try {
+      updated = this.dbOperator.batch(UPDATE_EXECUTABLE_RAMP_COUNTERS, parameters);
+    } catch (final SQLException e) {
+      throw new ExecutorManagerException(
+          String.format("Error on batch update of %d ramps", parameters.length), e);
+    }
+    for (int i = 0; i < updated.length && i < ramps.size(); i++) {
+      if (updated[i] > 0 || updated[i] == Statement.SUCCESS_NO_INFO) {
+        saved.add(ramps.get(i).getId());
+      }
+    }
+    return saved;
+  }
+
+  /**
+   * Upsert the cached-only flow items of several ramps in one batch, Map.key = rampId. A flow
+   * that already has a treatment (e.g. SELECTED before it failed and was EXCLUDED) is updated
+   * rather than rejected by the primary key.
+   */
+  public void updateExecutedRampFlows(final Map<String, ExecutableRampExceptionalItems> itemsByRamp)
+      throws ExecutorManagerException {
+    final Object[][] parameters = itemsByRamp.entrySet().stream()
+        .flatMap(entry -> entry.getValue().getCachedItems().stream()
+            .map(item -> new Object[]{
+                entry.getKey(),
+                item.getKey(),
+                item.getValue().getStatus().getKey(),
+                item.getValue().getTimeStamp()}))
+        .toArray(Object[][]::new);
+    if (parameters.length == 0) {
+      return;
+    }
+    final String sqlCommand = this.dbOperator.getDataSource().allowsOnDuplicateKey()
+        ? "INSERT INTO ramp_exceptional_flow_items (rampId, flowId, treatment, timestamp) "
+            + "VALUES(?,?,?,?) "
+            + "ON DUPLICATE KEY UPDATE treatment = VALUES(treatment), timestamp = VALUES(timestamp)"
+        : "MERGE INTO ramp_exceptional_flow_items (rampId, flowId, treatment, timestamp) "
+            + "KEY (rampId, flowId) VALUES(?,?,?,?)";
+    try {
+      this.dbOperator.batch(sqlCommand, parameters);
+    } catch (final SQLException e) {
+      throw new ExecutorManagerException(
+          String.format("Error on update into ramp, by command [%s]", sqlCommand), e);
+    }
+  }
 }
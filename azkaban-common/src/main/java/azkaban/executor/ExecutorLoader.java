@@ -23,6 +23,7 @@ import azkaban.utils.Props;
 import com.google.common.collect.ImmutableMap;
 import java.io.File;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -295,9 +296,38 @@ public interface ExecutorLoader {
   List<ExecutableJobInfo> fetchJobHistory(int projectId, String jobId,
       int skip, int size) throws ExecutorManagerException;
 
+  /**
+   * @return the next runs of the job after the cursor, or null if there are none
+   */
+  List<ExecutableJobInfo> fetchJobHistory(int projectId, String jobId,
+      JobHistoryCursor after, int size) throws ExecutorManagerException;
+
   void updateExecutableNode(ExecutableNode node)
       throws ExecutorManagerException;
 
+  /**
+   * Insert and then update a batch of job rows, see {@link #uploadExecutableNode} and
+   * {@link #updateExecutableNode}.
+   */
+  void writeExecutableNodes(List<ExecutableNodeRow> inserts, List<ExecutableNodeRow> updates)
+      throws ExecutorManagerException;
+
+  /**
+   * Index the Hadoop/Spark application ids found in the log of a job attempt.
+   *
+   * @param jobId the nested id of the job
+   */
+  void uploadApplicationIds(int execId, String jobId, int attempt,
+      Collection<String> applicationIds) throws ExecutorManagerException;
+
+  /**
+   * @param jobId the nested id of the job
+   * @return the indexed application ids of a job attempt in log order, or null if the attempt was
+   * not indexed or has no application ids
+   */
+  Set<String> fetchApplicationIds(int execId, String jobId, int attempt)
+      throws ExecutorManagerException;
+
   int fetchNumExecutableFlows(int projectId, String flowId)
       throws ExecutorManagerException;
 
@@ -362,6 +392,20 @@ public interface ExecutorLoader {
 
   void updateExecutableRamp(ExecutableRamp executableRamp) throws ExecutorManagerException;
 
+  /**
+   * Persist the cached counters of several ramps in a single batch.
+   *
+   * @return the ids of the ramps which were saved, the counters of the others must stay cached
+   */
+  Set<String> updateExecutableRamps(Collection<ExecutableRamp> executableRamps)
+      throws ExecutorManagerException;
+
+  /**
+   * Upsert the cached-only flow items of several ramps in a single batch, Map.key = rampId.
+   */
+  void updateExecutedRampFlows(Map<String, ExecutableRampExceptionalItems> itemsByRamp)
+      throws ExecutorManagerException;
+
   /**
    * Update version set id for the given execution id.
    * @param executionId
@@ -92,6 +92,9 @@ public interface ExecutorManagerAdapter {
   public List<ExecutableJobInfo> getExecutableJobs(Project project,
       String jobId, int skip, int size) throws ExecutorManagerException;
 
+  public List<ExecutableJobInfo> getExecutableJobs(Project project,
+      String jobId, JobHistoryCursor after, int size) throws ExecutorManagerException;
+
   public int getNumberOfJobExecutions(Project project, String jobId)
       throws ExecutorManagerException;
 
@@ -25,6 +25,7 @@ import azkaban.utils.Props;
 import com.google.common.collect.ImmutableMap;
 import java.io.File;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -172,6 +173,18 @@ public class JdbcExecutorLoader implements ExecutorLoader {
     return this.numExecutionsDao.fetchNumExecutableFlows();
   }
 
+  @Override
+  public void uploadApplicationIds(final int execId, final String jobId, final int attempt,
+      final Collection<String> applicationIds) throws ExecutorManagerException {
+    this.executionJobDao.uploadApplicationIds(execId, jobId, attempt, applicationIds);
+  }
+
+  @Override
+  public Set<String> fetchApplicationIds(final int execId, final String jobId, final int attempt)
+      throws ExecutorManagerException {
+    return this.executionJobDao.fetchApplicationIds(execId, jobId, attempt);
+  }
+
   @Override
   public int fetchNumExecutableFlows(final int projectId, final String flowId)
       throws ExecutorManagerException {
@@ -254,6 +267,12 @@ public class JdbcExecutorLoader implements ExecutorLoader {
     this.executionJobDao.updateExecutableNode(node);
   }
 
+  @Override
+  public void writeExecutableNodes(final List<ExecutableNodeRow> inserts,
+      final List<ExecutableNodeRow> updates) throws ExecutorManagerException {
+    this.executionJobDao.writeExecutableNodes(inserts, updates);
+  }
+
   @Override
   public List<ExecutableJobInfo> fetchJobInfoAttempts(final int execId, final String jobId)
       throws ExecutorManagerException {
@@ -294,6 +313,12 @@ public class JdbcExecutorLoader implements ExecutorLoader {
     return this.executionJobDao.fetchJobHistory(projectId, jobId, skip, size);
   }
 
+  @Override
+  public List<ExecutableJobInfo> fetchJobHistory(final int projectId, final String jobId,
+      final JobHistoryCursor after, final int size) throws ExecutorManagerException {
+    return this.executionJobDao.fetchJobHistory(projectId, jobId, after, size);
+  }
+
   @Override
   public List<Object> fetchAttachments(final int execId, final String jobId, final int attempt)
       throws ExecutorManagerException {
@@ -436,6 +461,18 @@ public class JdbcExecutorLoader implements ExecutorLoader {
     this.executionRampDao.updateExecutableRamp(executableRamp);
   }
 
+  @Override
+  public Set<String> updateExecutableRamps(final Collection<ExecutableRamp> executableRamps)
+      throws ExecutorManagerException {
+    return this.executionRampDao.updateExecutableRamps(executableRamps);
+  }
+
+  @Override
+  public void updateExecutedRampFlows(final Map<String, ExecutableRampExceptionalItems> itemsByRamp)
+      throws ExecutorManagerException {
+    this.executionRampDao.updateExecutedRampFlows(itemsByRamp);
+  }
+
   @Override
   public void unsetExecutorIdForExecution(final int executionId) throws ExecutorManagerException {
     this.executionFlowDao.unsetExecutorIdForExecution(executionId);
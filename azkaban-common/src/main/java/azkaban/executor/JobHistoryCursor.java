@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.executor;
+
+/**
+ * Position in the history of a job, ordered by execution id, flow id and attempt descending, from
+ * which the next page of the history is fetched. Seeking to the position through the index of
+ * execution_jobs costs the same for any page, whereas skipping rows with an offset costs more for
+ * every page.
+ */
+public class JobHistoryCursor {
+
+  private final int execId;
+  private final String flowId;
+  private final int attempt;
+
+  public JobHistoryCursor(final int execId, final String flowId, final int attempt) {
+    this.execId = execId;
+    this.flowId = flowId;
+    this.attempt = attempt;
+  }
+
+  /**
+   * @return the position after the given job run
+   */
+  public static JobHistoryCursor after(final ExecutableJobInfo info) {
+    return new JobHistoryCursor(info.getExecId(), info.getFlowId(), info.getAttempt());
+  }
+
+  /**
+   * Parse the cursor formatted by {@link #toString()}.
+   *
+   * @throws IllegalArgumentException if the cursor is malformed
+   */
+  public static JobHistoryCursor parse(final String cursor) {
+    final String[] parts = cursor.split(":", 3);
+    if (parts.length != 3) {
+      throw new IllegalArgumentException("Invalid job history cursor " + cursor);
+    }
+    try {
+      return new JobHistoryCursor(Integer.parseInt(parts[0]), parts[2],
+          Integer.parseInt(parts[1]));
+    } catch (final NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid job history cursor " + cursor, e);
+    }
+  }
+
+  public int getExecId() {
+    return this.execId;
+  }
+
+  public String getFlowId() {
+    return this.flowId;
+  }
+
+  public int getAttempt() {
+    return this.attempt;
+  }
+
+  /**
+   * @return the cursor as execId:attempt:flowId
+   */
+  @Override
+  public String toString() {
+    return this.execId + ":" + this.attempt + ":" + this.flowId;
+  }
+}
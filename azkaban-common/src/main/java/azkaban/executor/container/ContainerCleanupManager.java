@@ -18,7 +18,6 @@ package azkaban.executor.container;
 import static azkaban.Constants.ConfigurationKeys.*;
 import static azkaban.Constants.ContainerizedDispatchManagerProperties;
 import static azkaban.utils.YarnUtils.YARN_CONF_DIRECTORY_PROPERTY;
-import static azkaban.utils.YarnUtils.createYarnClient;
 import static azkaban.utils.YarnUtils.getAllAliveAppReportsByExecIDs;
 
 import azkaban.Constants.FlowParameters;
@@ -33,11 +32,13 @@ import azkaban.executor.Status;
 import azkaban.metrics.ContainerizationMetrics;
 import azkaban.utils.Pair;
 import azkaban.utils.Props;
+import azkaban.utils.YarnClientPool;
 import azkaban.utils.YarnUtils;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -45,16 +46,18 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.apache.hadoop.yarn.api.records.ApplicationReport;
-import org.apache.hadoop.yarn.client.api.YarnClient;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -81,14 +84,20 @@ public class ContainerCleanupManager {
   private static final int DEFAULT_AZKABAN_FLOW_RECENT_TERMINATION_MINS = 15;
   private static final int DEFAULT_AZKABAN_YARN_BATCH_KILL_TIMEOUT_IN_MINUTE = 10;
   private static final int DEFAULT_AZKABAN_YARN_BATCH_KILL_PARALLELISM = 5;
+  private static final int DEFAULT_AZKABAN_YARN_APP_KILL_TIMEOUT_IN_SECOND = 60;
 
   private final long executionCleanupIntervalMin;
   private final long containerCleanupIntervalMin;
   private final long yarnAppCleanupIntervalMin;
   private final int yarnAppKillTimeoutMin;
   private final int yarnAppKillParallelism;
+  private final long yarnAppKillTimeoutSec;
 
   private final ScheduledExecutorService cleanupService;
+  // Long-lived across cleanup cycles: the RM connections and kill threads are reused instead of
+  // being re-created for every cycle and every application.
+  private final ThreadPoolExecutor yarnKillExecutor;
+  private final YarnClientPool yarnClientPool;
   private final ExecutorLoader executorLoader;
   private final ContainerizedImpl containerizedImpl;
   private final ContainerizedDispatchManager containerizedDispatchManager;
@@ -134,6 +143,20 @@ public class ContainerCleanupManager {
     this.yarnAppKillParallelism = azkProps.getInt(
         ContainerizedDispatchManagerProperties.CONTAINERIZED_YARN_APPLICATION_CLEANUP_PARALLELISM,
         DEFAULT_AZKABAN_YARN_BATCH_KILL_PARALLELISM);
+    this.yarnAppKillTimeoutSec = azkProps.getLong(
+        ContainerizedDispatchManagerProperties.CONTAINERIZED_YARN_APPLICATION_KILL_TIMEOUT_SEC,
+        DEFAULT_AZKABAN_YARN_APP_KILL_TIMEOUT_IN_SECOND);
+    this.yarnClientPool = new YarnClientPool(
+        azkProps.getInt(
+            ContainerizedDispatchManagerProperties.CONTAINERIZED_YARN_CLIENT_POOL_MAX_SIZE,
+            YarnClientPool.DEFAULT_MAX_SIZE),
+        azkProps.getLong(
+            ContainerizedDispatchManagerProperties.CONTAINERIZED_YARN_CLIENT_POOL_IDLE_MIN,
+            YarnClientPool.DEFAULT_IDLE_MIN));
+    this.yarnKillExecutor = new ThreadPoolExecutor(this.yarnAppKillParallelism,
+        this.yarnAppKillParallelism, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder().setNameFormat("azk-yarn-app-kill-%d").setDaemon(true).build());
+    this.yarnKillExecutor.allowCoreThreadTimeOut(true);
     // Get all the validity durations for the validityMap
     int maxDispatchingValidity = azkProps.getInt(
         AZKABAN_MAX_FLOW_DISPATCHING_MINS, DEFAULT_AZKABAN_MAX_FLOW_DISPATCHING_MINS);
@@ -396,12 +419,12 @@ public class ContainerCleanupManager {
     org.apache.log4j.Logger apacheLogger =
         org.apache.log4j.Logger.getLogger(ContainerCleanupManager.class);
 
+    // One tag-filtered listing per cluster per cycle, on the pooled login-user client
     List<ApplicationReport> aliveApplications;
-    try {
-      logger.debug("Getting all yarn apps for cluster:" + cluster.getClusterId());
-      YarnClient yarnClient = createYarnClient(cluster.getProperties(), apacheLogger);
+    logger.debug("Getting all yarn apps for cluster:" + cluster.getClusterId());
+    try (YarnClientPool.Lease lease = this.yarnClientPool.getClient(cluster, apacheLogger)) {
       aliveApplications = getAllAliveAppReportsByExecIDs(
-          yarnClient, toBeCleanedContainers, apacheLogger);
+          lease.getClient(), toBeCleanedContainers, apacheLogger);
       logger.info("aliveApplications.size() = " + aliveApplications.size());
       logger.info("appsToBeKilled = " +
           aliveApplications.stream().map(app -> app.getApplicationId().toString())
@@ -409,50 +432,58 @@ public class ContainerCleanupManager {
     } catch (Exception e) {
       logger.error("fail to get yarn applications by execution IDs from cluster "
           + cluster.getClusterId() + ", exiting", e);
+      this.yarnClientPool.invalidate(cluster);
       containerizationMetrics.markYarnGetApplicationsFail();
       return;
     }
+    if (aliveApplications.isEmpty()) {
+      return;
+    }
+    containerizationMetrics.markYarnApplicationsFound(aliveApplications.size());
+
+    // Submit all the kills to the shared bounded pool, then collect them against one deadline
+    List<Pair<String, Future<?>>> kills = new ArrayList<>(aliveApplications.size());
+    for (ApplicationReport app : aliveApplications) {
+      kills.add(new Pair<>(String.valueOf(app.getApplicationId()),
+          this.yarnKillExecutor.submit(() -> YarnUtils.killApplicationAsProxyUser(
+              this.yarnClientPool, cluster, app, apacheLogger))));
+    }
 
-    // Use a fix thread pool to concurrently kill yarn apps
-    Map<String, Boolean> appsSuccessfulKilled = new ConcurrentHashMap<>();
-    aliveApplications.forEach(
-        app -> appsSuccessfulKilled.put(app.getApplicationId().toString(), false));
-
-    ExecutorService yarnKillThreadPool = Executors.newFixedThreadPool(
-        this.yarnAppKillParallelism);
-    aliveApplications.forEach(app ->
-        yarnKillThreadPool.execute(new Runnable() {
-          @Override
-          public void run() {
-            try {
-              YarnUtils.killApplicationAsProxyUser(cluster, app, apacheLogger);
-              appsSuccessfulKilled.put(app.getApplicationId().toString(), true);
-            } catch (Exception e) {
-              logger.warn("Error killing yarn application: " + app.getApplicationId(), e);
-            }
-          }
-        })
-    );
-    // wait for them to finish for up to a <timeout value> period of time
-    try {
-      yarnKillThreadPool.shutdown();
-      if (yarnKillThreadPool.awaitTermination(this.yarnAppKillTimeoutMin, TimeUnit.MINUTES)) {
-        logger.info("Yarn application killing threads all successfully terminated");
-      } else {
-        logger.info("Yarn application killing threads not all terminated as expected");
+    List<String> killed = new ArrayList<>();
+    List<String> failed = new ArrayList<>();
+    List<String> timedOut = new ArrayList<>();
+    long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(
+        this.yarnAppKillTimeoutMin);
+    for (Pair<String, Future<?>> kill : kills) {
+      // each kill gets at most its own timeout, and never waits beyond the batch deadline
+      long waitMs = Math.min(TimeUnit.SECONDS.toMillis(this.yarnAppKillTimeoutSec),
+          Math.max(0L, deadline - System.currentTimeMillis()));
+      try {
+        kill.getSecond().get(waitMs, TimeUnit.MILLISECONDS);
+        killed.add(kill.getFirst());
+      } catch (TimeoutException e) {
+        kill.getSecond().cancel(true);
+        timedOut.add(kill.getFirst());
+      } catch (ExecutionException e) {
+        logger.warn("Error killing yarn application: " + kill.getFirst(), e.getCause());
+        failed.add(kill.getFirst());
+      } catch (InterruptedException e) {
+        logger.warn("Interrupted while awaiting the yarn application kills", e);
+        kills.forEach(k -> k.getSecond().cancel(true));
+        Thread.currentThread().interrupt();
+        return;
       }
-    } catch (InterruptedException e) {
-      logger.warn("Error awaiting the termination of all the Yarn application killing threads",
-          e);
     }
 
     // report the kill results
-    logger.info(
-        "Successfully killed yarn applications: " + appsSuccessfulKilled.entrySet().stream()
-            .filter(Entry::getValue).map(Entry::getKey).collect(Collectors.joining(",")));
-    if (appsSuccessfulKilled.containsValue(false)) {
-      List<String> failed = appsSuccessfulKilled.entrySet().stream()
-          .filter(entry -> !entry.getValue()).map(Entry::getKey).collect(Collectors.toList());
+    logger.info("Successfully killed yarn applications: " + String.join(",", killed));
+    containerizationMetrics.markYarnApplicationKilled(killed.size());
+    if (!timedOut.isEmpty()) {
+      logger.warn("Timed out killing Yarn applications: " + String.join(",", timedOut));
+      containerizationMetrics.markYarnApplicationKillTimeout(timedOut.size());
+      failed.addAll(timedOut);
+    }
+    if (!failed.isEmpty()) {
       logger.warn("Failed to kill Yarn applications: " + String.join(",", failed));
       containerizationMetrics.markYarnApplicationKillFail(failed.size());
     }
@@ -597,5 +628,7 @@ public class ContainerCleanupManager {
       this.cleanupService.shutdownNow();
       Thread.currentThread().interrupt();
     }
+    this.yarnKillExecutor.shutdownNow();
+    this.yarnClientPool.close();
   }
 }
@@ -197,6 +197,9 @@ public class CommonJobProperties {
   public static final String JOBTYPE_CLUSTER_COMPONENTS_DEPENDENCIES = "jobtype.dependency.components";
   public static final String JOB_CLUSTER_COMPONENTS_DEPENDENCIES = "job.dependency.components";
   public static final String JOBTYPE_CLUSTER_COMPONENTS_DEPENDENCIES_EXCLUDED = "jobtype.dependency.components.excluded";
+  // When true, every job gets its own JobClassLoader instead of sharing the prepared one of its
+  // jobtype. Set in a jobtype's plugin.properties, or in the executor's global properties.
+  public static final String JOBTYPE_CLASSLOADER_ISOLATED = "jobtype.classloader.isolated";
   public static final String TARGET_CLUSTER_CLASSPATH = "azkaban.job.cluster.classpaths";
   public static final String TARGET_CLUSTER_NATIVE_LIB = "azkaban.job.cluster.nativelib";
   public static final String TARGET_CLUSTER_ID = "azkaban.job.cluster.id";
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.jmx;
+
+import azkaban.db.DBMetrics;
+import java.util.List;
+
+/**
+ * Exposes the DB statements with the highest latency.
+ */
+public class JmxDBStatements implements JmxDBStatementsMBean {
+
+  private final DBMetrics dbMetrics;
+
+  public JmxDBStatements(final DBMetrics dbMetrics) {
+    this.dbMetrics = dbMetrics;
+  }
+
+  @Override
+  public List<String> getSlowestStatements() {
+    return this.dbMetrics.getSlowestStatements();
+  }
+
+  @Override
+  public long getSlowQueryThresholdMs() {
+    return this.dbMetrics.getSlowQueryThresholdMs();
+  }
+}
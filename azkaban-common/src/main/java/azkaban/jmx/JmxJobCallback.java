@@ -1,12 +1,12 @@
 package azkaban.jmx;
 
-import org.apache.http.impl.client.FutureRequestExecutionMetrics;
+import azkaban.jobcallback.JobCallbackMetrics;
 
 public class JmxJobCallback implements JmxJobCallbackMBean {
 
-  private final FutureRequestExecutionMetrics jobCallbackMetrics;
+  private final JobCallbackMetrics jobCallbackMetrics;
 
-  public JmxJobCallback(final FutureRequestExecutionMetrics jobCallbackMetrics) {
+  public JmxJobCallback(final JobCallbackMetrics jobCallbackMetrics) {
     this.jobCallbackMetrics = jobCallbackMetrics;
   }
 
@@ -17,17 +17,27 @@ public class JmxJobCallback implements JmxJobCallbackMBean {
 
   @Override
   public long getNumSuccessfulJobCallbacks() {
-    return this.jobCallbackMetrics.getSuccessfulConnectionCount();
+    return this.jobCallbackMetrics.getSuccessfulCount();
   }
 
   @Override
   public long getNumFailedJobCallbacks() {
-    return this.jobCallbackMetrics.getFailedConnectionCount();
+    return this.jobCallbackMetrics.getFailedCount();
   }
 
   @Override
   public long getNumActiveJobCallbacks() {
-    return this.jobCallbackMetrics.getActiveConnectionCount();
+    return this.jobCallbackMetrics.getInFlightCount();
+  }
+
+  @Override
+  public long getNumQueuedJobCallbacks() {
+    return this.jobCallbackMetrics.getQueuedCount();
+  }
+
+  @Override
+  public long getNumRetriedJobCallbacks() {
+    return this.jobCallbackMetrics.getRetryCount();
   }
 
 }
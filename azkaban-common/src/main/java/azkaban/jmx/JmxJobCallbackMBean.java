@@ -16,4 +16,10 @@ public interface JmxJobCallbackMBean {
   @DisplayName("OPERATION: getNumActiveJobCallbacks")
   public long getNumActiveJobCallbacks();
 
+  @DisplayName("OPERATION: getNumQueuedJobCallbacks")
+  public long getNumQueuedJobCallbacks();
+
+  @DisplayName("OPERATION: getNumRetriedJobCallbacks")
+  public long getNumRetriedJobCallbacks();
+
 }
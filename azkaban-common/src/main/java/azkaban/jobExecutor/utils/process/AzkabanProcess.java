@@ -26,6 +26,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import org.apache.commons.io.IOUtils;
 import org.apache.log4j.Level;
@@ -34,12 +35,21 @@ import org.apache.log4j.Logger;
 /**
  * An improved version of java.lang.Process.
  *
- * Output is read by separate threads to avoid deadlock and logged to log4j loggers.
+ * Output is read by separate threads to avoid deadlock and logged to log4j loggers: either a
+ * shared {@link ProcessOutputPump}, if one has been set, or two gobbler threads per process.
  */
 public class AzkabanProcess {
 
   public static String KILL_COMMAND = "kill";
 
+  // When set, log gobblers run on threads of this factory (e.g. virtual threads) instead of on
+  // dedicated platform threads.
+  private static volatile ThreadFactory logGobblerThreadFactory = null;
+  // When set, output of all processes is pumped by this shared pump instead of gobbler threads
+  private static volatile ProcessOutputPump outputPump = null;
+  private static final int OUTPUT_TAIL_BYTES = 8 * 1024;
+  private static final long OUTPUT_DRAIN_WAIT_MS = 5000;
+
   private final String workingDir;
   private final List<String> cmd;
   private final Map<String, String> env;
@@ -74,6 +84,14 @@ public class AzkabanProcess {
     this.effectiveUser = effectiveUser;
   }
 
+  public static void setLogGobblerThreadFactory(final ThreadFactory threadFactory) {
+    logGobblerThreadFactory = threadFactory;
+  }
+
+  public static void setOutputPump(final ProcessOutputPump pump) {
+    outputPump = pump;
+  }
+
   /**
    * Execute this process, blocking until it has completed.
    */
@@ -97,29 +115,8 @@ public class AzkabanProcess {
 
       this.startupLatch.countDown();
 
-      final LogGobbler outputGobbler =
-          new LogGobbler(
-              new InputStreamReader(this.process.getInputStream(), StandardCharsets.UTF_8),
-              this.logger, Level.INFO, 30);
-      final LogGobbler errorGobbler =
-          new LogGobbler(
-              new InputStreamReader(this.process.getErrorStream(), StandardCharsets.UTF_8),
-              this.logger, Level.ERROR, 30);
-
-      outputGobbler.start();
-      errorGobbler.start();
-      int exitCode = -1;
-      try {
-        exitCode = this.process.waitFor();
-      } catch (final InterruptedException e) {
-        this.logger.info("Process interrupted. Exit code is " + exitCode, e);
-      }
-
-      this.completeLatch.countDown();
-
-      // try to wait for everything to get logged out before exiting
-      outputGobbler.awaitCompletion(5000);
-      errorGobbler.awaitCompletion(5000);
+      final ProcessOutputPump pump = outputPump;
+      final int exitCode = pump != null ? runWithPump(pump) : runWithGobblers();
 
       if (exitCode != 0) {
         throw new ProcessFailureException(exitCode);
@@ -132,6 +129,59 @@ public class AzkabanProcess {
     }
   }
 
+  private int runWithPump(final ProcessOutputPump pump) {
+    final ProcessOutputPump.PumpedStream output = pump.register(this.process.getInputStream(),
+        this.logger, Level.INFO, OUTPUT_TAIL_BYTES);
+    final ProcessOutputPump.PumpedStream error = pump.register(this.process.getErrorStream(),
+        this.logger, Level.ERROR, OUTPUT_TAIL_BYTES);
+    final int exitCode = waitForExit();
+
+    // try to wait for everything to get logged out before exiting
+    output.sourceExited();
+    error.sourceExited();
+    output.awaitCompletion(OUTPUT_DRAIN_WAIT_MS);
+    error.awaitCompletion(OUTPUT_DRAIN_WAIT_MS);
+    return exitCode;
+  }
+
+  private int runWithGobblers() {
+    final LogGobbler outputGobbler =
+        new LogGobbler(
+            new InputStreamReader(this.process.getInputStream(), StandardCharsets.UTF_8),
+            this.logger, Level.INFO, 30);
+    final LogGobbler errorGobbler =
+        new LogGobbler(
+            new InputStreamReader(this.process.getErrorStream(), StandardCharsets.UTF_8),
+            this.logger, Level.ERROR, 30);
+
+    final ThreadFactory gobblerThreadFactory = logGobblerThreadFactory;
+    if (gobblerThreadFactory != null) {
+      outputGobbler.start(gobblerThreadFactory);
+      errorGobbler.start(gobblerThreadFactory);
+    } else {
+      outputGobbler.start();
+      errorGobbler.start();
+    }
+    final int exitCode = waitForExit();
+
+    // try to wait for everything to get logged out before exiting
+    outputGobbler.awaitCompletion(OUTPUT_DRAIN_WAIT_MS);
+    errorGobbler.awaitCompletion(OUTPUT_DRAIN_WAIT_MS);
+    return exitCode;
+  }
+
+  private int waitForExit() {
+    int exitCode = -1;
+    try {
+      exitCode = this.process.waitFor();
+    } catch (final InterruptedException e) {
+      this.logger.info("Process interrupted. Exit code is " + exitCode, e);
+    }
+
+    this.completeLatch.countDown();
+    return exitCode;
+  }
+
   /**
    * Await the completion of this process
    *
@@ -0,0 +1,332 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.jobExecutor.utils.process;
+
+import azkaban.utils.ByteRingBuffer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+
+/**
+ * Pumps the output of many child processes on a small, fixed number of threads, instead of two
+ * {@link azkaban.utils.LogGobbler} threads per process.
+ *
+ * Process pipes are not selectable channels, so each pump thread polls the non-blocking
+ * {@link InputStream#available()} of the streams assigned to it and only reads what is already
+ * there; an idle pump thread backs off up to {@link #MAX_IDLE_SLEEP_MS}. Output is read in large
+ * chunks into a reused buffer and split into lines at the byte level, the recent tail is kept as a
+ * {@link ByteRingBuffer}. Each line is decoded into a reused {@link CharBuffer} which is logged as
+ * the message, and not decoded at all when its level is disabled.
+ *
+ * Once the process has exited, the JDK drains what is left in the pipe into memory, so a stream
+ * whose source exited and that has nothing available is complete.
+ */
+public class ProcessOutputPump implements Closeable {
+
+  static final long MAX_IDLE_SLEEP_MS = 20;
+  private static final int READ_BUFFER_SIZE = 64 * 1024;
+  // longer lines are logged in pieces of this size
+  private static final int MAX_LINE_BYTES = 1024 * 1024;
+
+  private static final Logger logger = Logger.getLogger(ProcessOutputPump.class);
+
+  private final PumpThread[] pumpThreads;
+  private final AtomicInteger nextThread = new AtomicInteger();
+
+  public ProcessOutputPump(final int numThreads) {
+    this.pumpThreads = new PumpThread[Math.max(1, numThreads)];
+    for (int i = 0; i < this.pumpThreads.length; i++) {
+      this.pumpThreads[i] = new PumpThread("azk-process-output-pump-" + i);
+      this.pumpThreads[i].start();
+    }
+  }
+
+  /**
+   * Start pumping the stream, logging each line to the logger at the given level.
+   *
+   * @param tailBytes size of the buffer keeping the most recent output
+   */
+  public PumpedStream register(final InputStream inputStream, final Logger streamLogger,
+      final Level level, final int tailBytes) {
+    final PumpedStream stream = new PumpedStream(inputStream, streamLogger, level, tailBytes);
+    final int index = Math.floorMod(this.nextThread.getAndIncrement(), this.pumpThreads.length);
+    this.pumpThreads[index].add(stream);
+    return stream;
+  }
+
+  /**
+   * @return the number of streams currently being pumped
+   */
+  public int getStreamCount() {
+    int count = 0;
+    for (final PumpThread thread : this.pumpThreads) {
+      count += thread.streams.size() + thread.added.size();
+    }
+    return count;
+  }
+
+  @Override
+  public void close() {
+    for (final PumpThread thread : this.pumpThreads) {
+      thread.running = false;
+      thread.interrupt();
+    }
+  }
+
+  private static class PumpThread extends Thread {
+
+    private final ConcurrentLinkedQueue<PumpedStream> added = new ConcurrentLinkedQueue<>();
+    private final List<PumpedStream> streams = new ArrayList<>();
+    private final byte[] readBuffer = new byte[READ_BUFFER_SIZE];
+    private volatile boolean running = true;
+
+    PumpThread(final String name) {
+      super(name);
+      setDaemon(true);
+    }
+
+    void add(final PumpedStream stream) {
+      this.added.add(stream);
+      synchronized (this) {
+        this.notifyAll();
+      }
+    }
+
+    @Override
+    public void run() {
+      long idleSleepMs = 1;
+      while (this.running) {
+        PumpedStream stream;
+        while ((stream = this.added.poll()) != null) {
+          this.streams.add(stream);
+        }
+
+        boolean progress = false;
+        final Iterator<PumpedStream> it = this.streams.iterator();
+        while (it.hasNext()) {
+          final int read = it.next().pump(this.readBuffer);
+          if (read < 0) {
+            it.remove();
+          } else if (read > 0) {
+            progress = true;
+          }
+        }
+
+        try {
+          if (progress) {
+            idleSleepMs = 1;
+          } else if (this.streams.isEmpty()) {
+            synchronized (this) {
+              if (this.added.isEmpty()) {
+                this.wait(1000);
+              }
+            }
+          } else {
+            Thread.sleep(idleSleepMs);
+            idleSleepMs = Math.min(idleSleepMs * 2, MAX_IDLE_SLEEP_MS);
+          }
+        } catch (final InterruptedException e) {
+          if (!this.running) {
+            break;
+          }
+        }
+      }
+      // complete whatever is left so nobody waits forever
+      this.streams.forEach(PumpedStream::finish);
+      this.added.forEach(PumpedStream::finish);
+    }
+  }
+
+  /**
+   * A stream registered with the pump.
+   */
+  public static class PumpedStream {
+
+    private final InputStream inputStream;
+    private final Logger streamLogger;
+    private final Level level;
+    private final ByteRingBuffer tail;
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private byte[] line = new byte[256];
+    private int lineLength = 0;
+    // UTF-8 never decodes to more chars than bytes
+    private CharBuffer chars = CharBuffer.allocate(256);
+    private volatile boolean sourceExited = false;
+
+    private PumpedStream(final InputStream inputStream, final Logger streamLogger,
+        final Level level, final int tailBytes) {
+      this.inputStream = inputStream;
+      this.streamLogger = streamLogger;
+      this.level = level;
+      this.tail = new ByteRingBuffer(tailBytes);
+    }
+
+    /**
+     * Signal that the process writing to the stream has exited: once nothing is available any
+     * more the stream is complete.
+     */
+    public void sourceExited() {
+      this.sourceExited = true;
+    }
+
+    /**
+     * Wait for the stream to be completely pumped.
+     *
+     * @return true if complete
+     */
+    public boolean awaitCompletion(final long waitMs) {
+      try {
+        return this.completed.await(waitMs, TimeUnit.MILLISECONDS);
+      } catch (final InterruptedException e) {
+        logger.info("Interrupted while waiting for process output.", e);
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+
+    public boolean isComplete() {
+      return this.completed.getCount() == 0;
+    }
+
+    public String getRecentLog(final int maxLines) {
+      return this.tail.getRecentLines(maxLines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read what is available without blocking.
+     *
+     * @return the number of bytes read, or -1 once the stream is complete
+     */
+    int pump(final byte[] buffer) {
+      if (isComplete()) {
+        return -1;
+      }
+      try {
+        final int available = this.inputStream.available();
+        if (available <= 0) {
+          if (this.sourceExited) {
+            finish();
+            return -1;
+          }
+          return 0;
+        }
+        final int read = this.inputStream.read(buffer, 0, Math.min(available, buffer.length));
+        if (read < 0) {
+          finish();
+          return -1;
+        }
+        consume(buffer, read);
+        return read;
+      } catch (final IOException e) {
+        // closed underneath us, e.g. after the process was killed
+        if (!this.sourceExited && this.streamLogger != null) {
+          this.streamLogger.error("Error reading from logging stream:", e);
+        }
+        finish();
+        return -1;
+      }
+    }
+
+    private void consume(final byte[] buffer, final int length) {
+      this.tail.write(buffer, 0, length);
+      int lineStart = 0;
+      for (int i = 0; i < length; i++) {
+        if (buffer[i] == '\n') {
+          append(buffer, lineStart, i - lineStart);
+          emitLine();
+          lineStart = i + 1;
+        }
+      }
+      append(buffer, lineStart, length - lineStart);
+    }
+
+    private void append(final byte[] buffer, final int offset, final int length) {
+      if (length <= 0) {
+        return;
+      }
+      if (this.lineLength + length > this.line.length) {
+        if (this.lineLength + length > MAX_LINE_BYTES) {
+          emitLine();
+          if (length > MAX_LINE_BYTES) {
+            log(buffer, offset, length);
+            return;
+          }
+        }
+        final byte[] grown = new byte[Math.min(MAX_LINE_BYTES,
+            Math.max(this.line.length * 2, this.lineLength + length))];
+        System.arraycopy(this.line, 0, grown, 0, this.lineLength);
+        this.line = grown;
+      }
+      System.arraycopy(buffer, offset, this.line, this.lineLength, length);
+      this.lineLength += length;
+    }
+
+    private void emitLine() {
+      int length = this.lineLength;
+      if (length > 0 && this.line[length - 1] == '\r') {
+        length--;
+      }
+      log(this.line, 0, length);
+      this.lineLength = 0;
+    }
+
+    /**
+     * Log the bytes as a line. The appenders render the message while it is logged, so the char
+     * buffer is reused for the next line.
+     */
+    private void log(final byte[] bytes, final int offset, final int length) {
+      if (this.streamLogger == null || !this.streamLogger.isEnabledFor(this.level)) {
+        return;
+      }
+      if (this.chars.capacity() < length) {
+        this.chars = CharBuffer.allocate(Math.max(length, this.chars.capacity() * 2));
+      }
+      this.chars.clear();
+      this.decoder.reset();
+      this.decoder.decode(ByteBuffer.wrap(bytes, offset, length), this.chars, true);
+      this.decoder.flush(this.chars);
+      this.chars.flip();
+      this.streamLogger.log(this.level, this.chars);
+    }
+
+    void finish() {
+      if (isComplete()) {
+        return;
+      }
+      if (this.lineLength > 0) {
+        emitLine();
+      }
+      this.completed.countDown();
+    }
+  }
+}
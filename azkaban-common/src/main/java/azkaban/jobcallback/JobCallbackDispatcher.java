@@ -0,0 +1,302 @@
+package azkaban.jobcallback;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.log4j.Logger;
+
+/**
+ * Sends job callback HTTP requests without blocking the caller.
+ *
+ * Requests are sent by a pool of sender threads, at most maxPerHost at a time to the same
+ * host:port so that a slow callback endpoint cannot take all the senders, the other requests to
+ * that host wait in a queue. A request not answered within the response wait timeout is aborted. A
+ * request which failed, or got a 5xx response, is sent again after a delay scheduled on a timer,
+ * doubled on each attempt, until maxAttempts attempts were made.
+ *
+ * Responses and retries are logged to the job logger while the job log is still open, and to the
+ * server log once the job has closed it, since callbacks are often answered after the job ended.
+ */
+public class JobCallbackDispatcher {
+
+  private static final Logger logger = Logger.getLogger(JobCallbackDispatcher.class);
+  private static final int MAX_RESPONSE_LINE_TO_PRINT = 50;
+
+  private final HttpClient httpClient;
+  private final ExecutorService senders;
+  private final ScheduledExecutorService timer;
+  private final int maxPerHost;
+  private final int maxAttempts;
+  private final long retryIntervalMs;
+  private final long responseWaitTimeoutMs;
+  private final JobCallbackMetrics metrics = new JobCallbackMetrics();
+  // guarded by itself
+  private final Map<String, HostQueue> hostQueues = new HashMap<>();
+
+  public JobCallbackDispatcher(final HttpClient httpClient, final int numSenders,
+      final int maxPerHost, final int maxAttempts, final long retryIntervalMs,
+      final long responseWaitTimeoutMs) {
+    this.httpClient = httpClient;
+    this.maxPerHost = Math.max(1, maxPerHost);
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.retryIntervalMs = retryIntervalMs;
+    this.responseWaitTimeoutMs = responseWaitTimeoutMs;
+    this.senders = Executors.newFixedThreadPool(Math.max(1, numSenders),
+        new ThreadFactoryBuilder().setNameFormat("azk-callback-pool-%d").setDaemon(true).build());
+    this.timer = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("azk-callback-timer").setDaemon(true).build());
+  }
+
+  public JobCallbackMetrics getMetrics() {
+    return this.metrics;
+  }
+
+  /**
+   * Queue the requests and return without waiting for them to be sent.
+   */
+  public void dispatch(final String jobId, final Logger logger,
+      final List<HttpRequestBase> httpRequests) {
+    for (final HttpRequestBase httpRequest : httpRequests) {
+      logger.debug("Job callback http request for " + jobId + ": " + httpRequest.toString());
+      logger.debug("headers [");
+      for (final Header header : httpRequest.getAllHeaders()) {
+        logger.debug(String.format("  %s : %s", header.getName(), header.getValue()));
+      }
+      logger.debug("]");
+
+      this.metrics.markRequest();
+      enqueue(new Callback(jobId, logger, httpRequest));
+    }
+  }
+
+  public void shutdown() {
+    this.timer.shutdownNow();
+    this.senders.shutdownNow();
+  }
+
+  private void enqueue(final Callback callback) {
+    final HostQueue hostQueue;
+    synchronized (this.hostQueues) {
+      hostQueue = this.hostQueues.computeIfAbsent(callback.host, HostQueue::new);
+      if (hostQueue.inFlight >= this.maxPerHost) {
+        hostQueue.pending.add(callback);
+        this.metrics.addQueued(1);
+        return;
+      }
+      hostQueue.inFlight++;
+    }
+    submit(hostQueue, callback);
+  }
+
+  private void submit(final HostQueue hostQueue, final Callback callback) {
+    try {
+      this.senders.execute(() -> send(hostQueue, callback));
+    } catch (final RejectedExecutionException e) {
+      callback.logger().warn("Dropping job callback for " + callback.jobId
+          + ", the dispatcher is shut down");
+      this.metrics.markFailure();
+      release(hostQueue);
+    }
+  }
+
+  private void send(final HostQueue hostQueue, final Callback callback) {
+    final HttpRequestBase request = callback.request;
+    callback.attempt++;
+    this.metrics.addInFlight(1);
+    ScheduledFuture<?> abort = null;
+    boolean retry;
+    try {
+      // a request can be sent again once reset
+      request.reset();
+      if (this.responseWaitTimeoutMs > 0) {
+        abort = this.timer.schedule(request::abort, this.responseWaitTimeoutMs,
+            TimeUnit.MILLISECONDS);
+      }
+      final int statusCode = this.httpClient.execute(request,
+          new LoggingResponseHandler(callback.logger(), callback.jobId));
+      callback.logger()
+          .info("http callback status code for " + callback.jobId + ": " + statusCode);
+      retry = statusCode >= 500;
+    } catch (final Throwable e) {
+      callback.logger().warn("Failed to execute job callback for: " + callback.jobId
+          + ". Current attempt: " + callback.attempt + "/" + this.maxAttempts, e);
+      retry = true;
+    } finally {
+      if (abort != null) {
+        abort.cancel(false);
+      }
+      this.metrics.addInFlight(-1);
+      release(hostQueue);
+    }
+
+    if (!retry) {
+      this.metrics.markSuccess();
+    } else if (callback.attempt >= this.maxAttempts) {
+      this.metrics.markFailure();
+      callback.logger().warn("Giving up on job callback for " + callback.jobId + " after "
+          + callback.attempt + " attempts");
+    } else {
+      scheduleRetry(callback);
+    }
+  }
+
+  private void scheduleRetry(final Callback callback) {
+    final long delayMs = this.retryIntervalMs << Math.min(callback.attempt - 1, 16);
+    this.metrics.markRetry();
+    try {
+      this.timer.schedule(() -> enqueue(callback), delayMs, TimeUnit.MILLISECONDS);
+    } catch (final RejectedExecutionException e) {
+      this.metrics.markFailure();
+      logger.warn("Not retrying job callback for " + callback.jobId
+          + ", the dispatcher is shut down");
+    }
+  }
+
+  private void release(final HostQueue hostQueue) {
+    final Callback next;
+    synchronized (this.hostQueues) {
+      next = hostQueue.pending.poll();
+      if (next == null) {
+        hostQueue.inFlight--;
+        if (hostQueue.inFlight == 0) {
+          this.hostQueues.remove(hostQueue.host);
+        }
+        return;
+      }
+      this.metrics.addQueued(-1);
+    }
+    // the slot is handed over to the next callback of the host
+    submit(hostQueue, next);
+  }
+
+  private static String getHost(final HttpRequestBase request) {
+    try {
+      return URIUtils.extractHost(request.getURI()).toHostString();
+    } catch (final RuntimeException e) {
+      return String.valueOf(request.getURI());
+    }
+  }
+
+  private static final class Callback {
+
+    private final String jobId;
+    private final Logger jobLogger;
+    private final HttpRequestBase request;
+    private final String host;
+    // only updated by the sender of the current attempt
+    private volatile int attempt = 0;
+
+    private Callback(final String jobId, final Logger logger, final HttpRequestBase request) {
+      this.jobId = jobId;
+      this.jobLogger = logger;
+      this.request = request;
+      this.host = getHost(request);
+    }
+
+    /**
+     * @return the job logger while it still has appenders, the server logger once the job has
+     * removed them
+     */
+    private Logger logger() {
+      return this.jobLogger.getAllAppenders().hasMoreElements() ? this.jobLogger
+          : JobCallbackDispatcher.logger;
+    }
+  }
+
+  private static final class HostQueue {
+
+    private final String host;
+    private final Queue<Callback> pending = new ArrayDeque<>();
+    private int inFlight = 0;
+
+    private HostQueue(final String host) {
+      this.host = host;
+    }
+  }
+
+  /**
+   * Response handler for logging job callback response using the given logger instance
+   *
+   * @author hluu
+   */
+  private static final class LoggingResponseHandler implements
+      ResponseHandler<Integer> {
+
+    private final Logger logger;
+    private final String jobId;
+
+    public LoggingResponseHandler(final Logger logger, final String jobId) {
+      if (logger == null) {
+        throw new NullPointerException("Argument logger can't be null");
+      }
+      this.logger = logger;
+      this.jobId = jobId;
+    }
+
+    @Override
+    public Integer handleResponse(final HttpResponse response)
+        throws ClientProtocolException, IOException {
+
+      final int statusCode = response.getStatusLine().getStatusCode();
+      BufferedReader bufferedReader = null;
+
+      try {
+        final HttpEntity responseEntity = response.getEntity();
+        if (responseEntity != null) {
+          bufferedReader =
+              new BufferedReader(new InputStreamReader(
+                  responseEntity.getContent(), StandardCharsets.UTF_8));
+
+          String line = "";
+          int lineCount = 0;
+          this.logger.info("HTTP response for " + this.jobId + " [");
+          while ((line = bufferedReader.readLine()) != null) {
+            this.logger.info(line);
+            lineCount++;
+            if (lineCount > MAX_RESPONSE_LINE_TO_PRINT) {
+              break;
+            }
+          }
+          this.logger.info("]");
+        } else {
+          this.logger.info("No response for " + this.jobId);
+        }
+
+      } catch (final Throwable t) {
+        this.logger.warn(
+            "Encountered error while logging out job callback response", t);
+      } finally {
+        if (bufferedReader != null) {
+          try {
+            bufferedReader.close();
+          } catch (final IOException ex) {
+            // don't care
+          }
+        }
+      }
+      return statusCode;
+
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package azkaban.jobcallback;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the job callbacks sent by {@link JobCallbackDispatcher}.
+ */
+public class JobCallbackMetrics {
+
+  private final AtomicLong requestCount = new AtomicLong();
+  private final AtomicLong successfulCount = new AtomicLong();
+  private final AtomicLong failedCount = new AtomicLong();
+  private final AtomicLong retryCount = new AtomicLong();
+  private final AtomicLong inFlightCount = new AtomicLong();
+  private final AtomicLong queuedCount = new AtomicLong();
+
+  /**
+   * @return the number of callbacks dispatched
+   */
+  public long getRequestCount() {
+    return this.requestCount.get();
+  }
+
+  /**
+   * @return the number of callbacks which got a response
+   */
+  public long getSuccessfulCount() {
+    return this.successfulCount.get();
+  }
+
+  /**
+   * @return the number of callbacks given up on after all their attempts failed
+   */
+  public long getFailedCount() {
+    return this.failedCount.get();
+  }
+
+  /**
+   * @return the number of re-sends of failed callbacks
+   */
+  public long getRetryCount() {
+    return this.retryCount.get();
+  }
+
+  /**
+   * @return the number of callbacks being sent
+   */
+  public long getInFlightCount() {
+    return this.inFlightCount.get();
+  }
+
+  /**
+   * @return the number of callbacks waiting for the concurrency limit of their host
+   */
+  public long getQueuedCount() {
+    return this.queuedCount.get();
+  }
+
+  void markRequest() {
+    this.requestCount.incrementAndGet();
+  }
+
+  void markSuccess() {
+    this.successfulCount.incrementAndGet();
+  }
+
+  void markFailure() {
+    this.failedCount.incrementAndGet();
+  }
+
+  void markRetry() {
+    this.retryCount.incrementAndGet();
+  }
+
+  void addInFlight(final int delta) {
+    this.inFlightCount.addAndGet(delta);
+  }
+
+  void addQueued(final int delta) {
+    this.queuedCount.addAndGet(delta);
+  }
+}
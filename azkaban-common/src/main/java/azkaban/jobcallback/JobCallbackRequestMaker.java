@@ -2,43 +2,28 @@ package azkaban.jobcallback;
 
 import static azkaban.Constants.JobCallbackProperties.JOBCALLBACK_CONNECTION_REQUEST_TIMEOUT;
 import static azkaban.Constants.JobCallbackProperties.JOBCALLBACK_CONNECTION_TIMEOUT;
+import static azkaban.Constants.JobCallbackProperties.JOBCALLBACK_MAX_ATTEMPTS;
+import static azkaban.Constants.JobCallbackProperties.JOBCALLBACK_MAX_CONNECTIONS_PER_HOST;
 import static azkaban.Constants.JobCallbackProperties.JOBCALLBACK_RESPONSE_WAIT_TIMEOUT;
+import static azkaban.Constants.JobCallbackProperties.JOBCALLBACK_RETRY_INTERVAL_MS;
 import static azkaban.Constants.JobCallbackProperties.JOBCALLBACK_SOCKET_TIMEOUT;
 import static azkaban.Constants.JobCallbackProperties.JOBCALLBACK_THREAD_POOL_SIZE;
 
 import azkaban.utils.Props;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.SocketTimeoutException;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
-import org.apache.http.Header;
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.HttpClient;
-import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpRequestBase;
-import org.apache.http.client.protocol.HttpClientContext;
-import org.apache.http.impl.client.FutureRequestExecutionMetrics;
-import org.apache.http.impl.client.FutureRequestExecutionService;
 import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.client.HttpRequestFutureTask;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.log4j.Logger;
 
 /**
  * Responsible for making the job callback HTTP requests.
  *
  * One of the requirements is to log out the request information and response using the given
- * logger, which should be the job logger.
+ * logger, which should be the job logger. The requests are sent by a {@link JobCallbackDispatcher},
+ * so that a slow callback target does not delay the job.
  *
  * @author hluu
  */
@@ -48,16 +33,16 @@ public class JobCallbackRequestMaker {
 
   private static final int DEFAULT_TIME_OUT_MS = 3000;
   private static final int DEFAULT_RESPONSE_WAIT_TIME_OUT_MS = 5000;
-  private static final int MAX_RESPONSE_LINE_TO_PRINT = 50;
-  private static final int MAX_CALLBACK_RETRY_COUNT = 3;
-  private static final int CALLBACK_RETRY_INTERVAL_MS = 5000; // 5s
+  private static final int DEFAULT_MAX_ATTEMPTS = 3;
+  private static final int DEFAULT_RETRY_INTERVAL_MS = 5000; // 5s
 
   private static final int DEFAULT_THREAD_POOL_SIZE = 10;
+  private static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 5;
 
   private static JobCallbackRequestMaker instance;
   private static boolean isInitialized = false;
 
-  private final FutureRequestExecutionService futureRequestExecutionService;
+  private final JobCallbackDispatcher dispatcher;
   private int responseWaitTimeoutMS = -1;
 
   private JobCallbackRequestMaker(final Props props) {
@@ -82,19 +67,28 @@ public class JobCallbackRequestMaker {
 
     logger.info("Global request configuration " + requestConfig.toString());
 
-    final HttpClient httpClient =
-        HttpClientBuilder.create().setDefaultRequestConfig(requestConfig)
-            .build();
-
     final int jobCallbackThreadPoolSize =
         props.getInt(JOBCALLBACK_THREAD_POOL_SIZE, DEFAULT_THREAD_POOL_SIZE);
     logger.info("Jobcall thread pool size: " + jobCallbackThreadPoolSize);
+    final int maxConnectionsPerHost =
+        props.getInt(JOBCALLBACK_MAX_CONNECTIONS_PER_HOST, DEFAULT_MAX_CONNECTIONS_PER_HOST);
+    final int maxAttempts = props.getInt(JOBCALLBACK_MAX_ATTEMPTS, DEFAULT_MAX_ATTEMPTS);
+    final int retryIntervalMs =
+        props.getInt(JOBCALLBACK_RETRY_INTERVAL_MS, DEFAULT_RETRY_INTERVAL_MS);
+
+    // shared by all the callbacks, pooling the connections to each host
+    final PoolingHttpClientConnectionManager connectionManager =
+        new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(jobCallbackThreadPoolSize);
+    connectionManager.setDefaultMaxPerRoute(maxConnectionsPerHost);
+
+    final HttpClient httpClient =
+        HttpClientBuilder.create().setDefaultRequestConfig(requestConfig)
+            .setConnectionManager(connectionManager)
+            .build();
 
-    final ExecutorService executorService =
-        Executors.newFixedThreadPool(jobCallbackThreadPoolSize,
-            new ThreadFactoryBuilder().setNameFormat("azk-callback-pool-%d").build());
-    this.futureRequestExecutionService =
-        new FutureRequestExecutionService(httpClient, executorService);
+    this.dispatcher = new JobCallbackDispatcher(httpClient, jobCallbackThreadPoolSize,
+        maxConnectionsPerHost, maxAttempts, retryIntervalMs, this.responseWaitTimeoutMS);
   }
 
   public static void initialize(final Props props) {
@@ -124,129 +118,19 @@ public class JobCallbackRequestMaker {
     return instance;
   }
 
-  public FutureRequestExecutionMetrics getJobcallbackMetrics() {
-    return this.futureRequestExecutionService.metrics();
+  public JobCallbackMetrics getJobcallbackMetrics() {
+    return this.dispatcher.getMetrics();
   }
 
+  /**
+   * Send the requests asynchronously, the caller does not wait for them to complete.
+   */
   public void makeHttpRequest(final String jobId, final Logger logger,
       final List<HttpRequestBase> httpRequestList) {
     if (httpRequestList == null || httpRequestList.isEmpty()) {
       logger.info("No HTTP requests to make for: " + jobId);
       return;
     }
-
-    for (final HttpRequestBase httpRequest : httpRequestList) {
-      logger.debug("Job callback http request for " + jobId + ": " + httpRequest.toString());
-      logger.debug("headers [");
-      for (final Header header : httpRequest.getAllHeaders()) {
-        logger.debug(String.format("  %s : %s", header.getName(),
-            header.getValue()));
-      }
-      logger.debug("]");
-
-      final HttpRequestFutureTask<Integer> task =
-          this.futureRequestExecutionService.execute(httpRequest,
-              HttpClientContext.create(), new LoggingResponseHandler(logger));
-
-      for (int retryAttempt = 1; retryAttempt <= MAX_CALLBACK_RETRY_COUNT; retryAttempt++) {
-        try {
-          // get with timeout
-          final Integer statusCode =
-              task.get(this.responseWaitTimeoutMS, TimeUnit.MILLISECONDS);
-
-          logger.info("http callback status code for " + jobId + ": " + statusCode);
-          break;
-        } catch (final TimeoutException timeOutEx) {
-          logger
-              .warn("Job callback target took longer "
-                      + (this.responseWaitTimeoutMS / 1000) + " seconds to respond for: " + jobId +
-                      ". Current retry attempt: " + retryAttempt + "/" + MAX_CALLBACK_RETRY_COUNT, timeOutEx);
-        } catch (final ExecutionException ee) {
-          if (ee.getCause() instanceof SocketTimeoutException) {
-            logger.warn("Job callback target took longer "
-                + (this.responseWaitTimeoutMS / 1000) + " seconds to respond" +
-                ". Current retry attempt: " + retryAttempt + "/" + MAX_CALLBACK_RETRY_COUNT, ee);
-          } else {
-            logger.warn(
-                "Failed to execute job callback for: " + jobId +
-                    ". Current retry attempt: " + retryAttempt + "/" + MAX_CALLBACK_RETRY_COUNT, ee);
-          }
-        } catch (final Throwable e) {
-          logger.warn(
-              "Failed to execute job callback for: " + jobId +
-                  ". Current retry attempt: " + retryAttempt + "/" + MAX_CALLBACK_RETRY_COUNT, e);
-        }
-
-        try {
-          Thread.sleep(CALLBACK_RETRY_INTERVAL_MS);
-        } catch (final InterruptedException e) {
-          logger.error("Sleep interrupted", e);
-        }
-      }
-    }
+    this.dispatcher.dispatch(jobId, logger, httpRequestList);
   }
-
-  /**
-   * Response handler for logging job callback response using the given logger instance
-   *
-   * @author hluu
-   */
-  private static final class LoggingResponseHandler implements
-      ResponseHandler<Integer> {
-
-    private final Logger logger;
-
-    public LoggingResponseHandler(final Logger logger) {
-      if (logger == null) {
-        throw new NullPointerException("Argument logger can't be null");
-      }
-      this.logger = logger;
-    }
-
-    @Override
-    public Integer handleResponse(final HttpResponse response)
-        throws ClientProtocolException, IOException {
-
-      final int statusCode = response.getStatusLine().getStatusCode();
-      BufferedReader bufferedReader = null;
-
-      try {
-        final HttpEntity responseEntity = response.getEntity();
-        if (responseEntity != null) {
-          bufferedReader =
-              new BufferedReader(new InputStreamReader(
-                  responseEntity.getContent(), StandardCharsets.UTF_8));
-
-          String line = "";
-          int lineCount = 0;
-          this.logger.info("HTTP response [");
-          while ((line = bufferedReader.readLine()) != null) {
-            this.logger.info(line);
-            lineCount++;
-            if (lineCount > MAX_RESPONSE_LINE_TO_PRINT) {
-              break;
-            }
-          }
-          this.logger.info("]");
-        } else {
-          this.logger.info("No response");
-        }
-
-      } catch (final Throwable t) {
-        this.logger.warn(
-            "Encountered error while logging out job callback response", t);
-      } finally {
-        if (bufferedReader != null) {
-          try {
-            bufferedReader.close();
-          } catch (final IOException ex) {
-            // don't care
-          }
-        }
-      }
-      return statusCode;
-
-    }
-  }
-
 }
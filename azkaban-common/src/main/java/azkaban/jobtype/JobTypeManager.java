@@ -45,6 +45,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
@@ -102,12 +103,67 @@ public class JobTypeManager {
       }
     }
 
+    prepareJobClasses(plugins);
+
     // Swap the plugin set. If exception is thrown, then plugin isn't swapped.
+    // The prepared job classes of the previous set are dropped with it.
     synchronized (this) {
       this.pluginSet = plugins;
     }
   }
 
+  /**
+   * Pre-load the job class of every plugin jobtype in its shared classloader, so that the first
+   * jobs after a (re)load don't pay for it. Classes for cluster-specific context classloaders are
+   * prepared on first use.
+   */
+  private void prepareJobClasses(final JobTypePluginSet plugins) {
+    for (final String jobType : plugins.getJobTypes()) {
+      final Props pluginLoadProps = getPluginLoadProps(plugins, jobType);
+      if (isClassLoaderIsolated(pluginLoadProps)
+          || plugins.getPluginClassLoaderURLs(jobType).length == 0) {
+        continue;
+      }
+      try {
+        loadJobTypeClass(plugins, jobType, "jobtype-" + jobType,
+            Arrays.asList(plugins.getPluginClassLoaderURLs(jobType)), this.parentLoader,
+            pluginLoadProps);
+      } catch (final Exception e) {
+        LOGGER.warn("Unable to prepare the job class of jobtype " + jobType
+            + ", it will be loaded on first use", e);
+      }
+    }
+  }
+
+  private boolean isClassLoaderIsolated(final Props pluginLoadProps) {
+    final boolean defaultIsolated = this.globalProperties != null
+        && this.globalProperties.getBoolean(CommonJobProperties.JOBTYPE_CLASSLOADER_ISOLATED,
+        false);
+    return pluginLoadProps != null
+        ? pluginLoadProps.getBoolean(CommonJobProperties.JOBTYPE_CLASSLOADER_ISOLATED,
+        defaultIsolated)
+        : defaultIsolated;
+  }
+
+  /**
+   * Resolve the job class of the jobtype. By default the class is loaded once per (jobtype, job
+   * context classloader) through a JobClassLoader shared by all jobs of the jobtype, and reused
+   * until plugins are reloaded. Jobtypes with {@link CommonJobProperties#JOBTYPE_CLASSLOADER_ISOLATED}
+   * set get a new JobClassLoader for every job instead.
+   */
+  private Class<?> loadJobTypeClass(final JobTypePluginSet pluginSet, final String jobType,
+      final String jobId, final List<URL> jobClassLoaderUrls,
+      final ClassLoader jobContextClassLoader, final Props pluginLoadProps) throws Exception {
+    final String jobTypeClassName = pluginSet.getPluginClassName(jobType);
+    final Callable<Class<?>> loader = () -> new JobClassLoader(
+        jobClassLoaderUrls.toArray(new URL[jobClassLoaderUrls.size()]),
+        jobContextClassLoader, jobId).loadClass(jobTypeClassName);
+    if (isClassLoaderIsolated(pluginLoadProps)) {
+      return loader.call();
+    }
+    return pluginSet.getOrLoadJobClass(jobContextClassLoader, jobType, loader);
+  }
+
   private void loadDefaultTypes(final JobTypePluginSet plugins)
       throws JobTypeManagerException {
     LOGGER.info("Loading plugin default job types");
@@ -416,14 +472,10 @@ public class JobTypeManager {
       }
       logger.info(String.format("JobClassLoader URLs: %s", jobClassLoaderUrls.stream()
           .map(URL::toString).collect(Collectors.joining(", "))));
-      final ClassLoader jobClassLoader = new JobClassLoader(
-          jobClassLoaderUrls.toArray(new URL[jobClassLoaderUrls.size()]),
-          jobContextClassLoader, jobId);
-
 
       // load the jobtype from JobClassLoader
-      final String jobTypeClassName = pluginSet.getPluginClassName(jobType);
-      final Class<? extends Object> jobTypeClass = jobClassLoader.loadClass(jobTypeClassName);
+      final Class<? extends Object> jobTypeClass = loadJobTypeClass(pluginSet, jobType, jobId,
+          jobClassLoaderUrls, jobContextClassLoader, pluginLoadProps);
       if (jobTypeClass == null) {
         throw new JobExecutionException(String.format("Job type [%s] "
                 + "is unrecognized. Could not construct job [%s] of type [%s].",
@@ -17,13 +17,18 @@ package azkaban.jobtype;
 
 import azkaban.utils.Props;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang.StringUtils;
 
 /**
@@ -33,7 +38,8 @@ import org.apache.commons.lang.StringUtils;
  * by default to the plugin.
  *
  * This class is not thread safe, so adding to this class should only be populated and controlled by
- * the JobTypeManager
+ * the JobTypeManager. The exception is the cache of prepared job classes, which is filled lazily
+ * by concurrent jobs and is dropped together with the plugin set when plugins are reloaded.
  */
 public class JobTypePluginSet {
   private static final URL[] EMPTY_URLS = new URL[0];
@@ -54,6 +60,11 @@ public class JobTypePluginSet {
   private Props commonJobProps;
   private Props commonLoadProps;
 
+  // Job classes resolved through a shared JobClassLoader, per job context classloader (one per
+  // cluster) and jobtype. Weak keys compare classloaders by identity.
+  private final Cache<ClassLoader, Map<String, Class<?>>> jobClassCache =
+      CacheBuilder.newBuilder().weakKeys().build();
+
   /**
    * Base constructor
    */
@@ -138,6 +149,41 @@ public class JobTypePluginSet {
     this.jobToClassName.put(jobTypeName, jobTypeClassName);
   }
 
+  /**
+   * @return the names of all the registered jobtypes
+   */
+  public Set<String> getJobTypes() {
+    return Collections.unmodifiableSet(this.jobToClassName.keySet());
+  }
+
+  /**
+   * Get the job class of the jobtype prepared for the given job context classloader, loading it
+   * with the loader on first use. Concurrent first uses of the same jobtype load it only once.
+   */
+  public Class<?> getOrLoadJobClass(final ClassLoader contextClassLoader,
+      final String jobTypeName, final Callable<Class<?>> loader) throws Exception {
+    final Map<String, Class<?>> classes =
+        this.jobClassCache.get(contextClassLoader, ConcurrentHashMap::new);
+    Class<?> jobClass = classes.get(jobTypeName);
+    if (jobClass == null) {
+      synchronized (classes) {
+        jobClass = classes.get(jobTypeName);
+        if (jobClass == null) {
+          jobClass = loader.call();
+          classes.put(jobTypeName, jobClass);
+        }
+      }
+    }
+    return jobClass;
+  }
+
+  /**
+   * @return the number of prepared job classes
+   */
+  public long getCachedJobClassCount() {
+    return this.jobClassCache.asMap().values().stream().mapToLong(Map::size).sum();
+  }
+
   /**
    * Gets the plugin job class name
    */
@@ -119,6 +119,21 @@ public interface ContainerizationMetrics {
    */
   void markYarnApplicationKillFail(long n);
 
+  /**
+   * Record number of alive yarn applications found for terminated executions
+   */
+  void markYarnApplicationsFound(long n);
+
+  /**
+   * Record number of yarn applications successfully killed
+   */
+  void markYarnApplicationKilled(long n);
+
+  /**
+   * Record number of yarn application kills abandoned after exceeding the kill timeout
+   */
+  void markYarnApplicationKillTimeout(long n);
+
   void sendCleanupContainerHeartBeat();
 
   void sendCleanupStaleFlowHeartBeat();
@@ -39,7 +39,8 @@ public class ContainerizationMetricsImpl implements ContainerizationMetrics {
       appContainerStarting, podReady, podInitFailure, podAppFailure;
   private Meter flowSubmitToExecutor, flowSubmitToContainer;
   private Meter executionStopped, oomKilled, containerDispatchFail, vpaRecommenderFail,
-      yarnGetApplicationsFail, yarnApplicationKillFail;
+      yarnGetApplicationsFail, yarnApplicationKillFail, yarnApplicationsFound,
+      yarnApplicationKilled, yarnApplicationKillTimeout;
   private Meter cleanupStaleFlowHeartBeat, cleanupContainerHeartBeat, cleanupYarnAppHeartBeat;
   private Timer cleanupStaleFlowTimer, cleanupContainerTimer, cleanupYarnAppTimer;
   private Histogram timeToDispatch;
@@ -71,6 +72,10 @@ public class ContainerizationMetricsImpl implements ContainerizationMetrics {
     this.vpaRecommenderFail = this.metricsManager.addMeter("VPA-Recommender-Fail-Meter");
     this.yarnGetApplicationsFail = this.metricsManager.addMeter("Yarn-Get-Applications-Fail-Meter");
     this.yarnApplicationKillFail = this.metricsManager.addMeter("Yarn-Application-Kill-Fail-Meter");
+    this.yarnApplicationsFound = this.metricsManager.addMeter("Yarn-Applications-Found-Meter");
+    this.yarnApplicationKilled = this.metricsManager.addMeter("Yarn-Application-Killed-Meter");
+    this.yarnApplicationKillTimeout = this.metricsManager.addMeter(
+        "Yarn-Application-Kill-Timeout-Meter");
     this.cleanupStaleFlowHeartBeat = this.metricsManager.addMeter("Cleanup-Stale-Flow-Heartbeat"
         + "-Meter");
     this.cleanupContainerHeartBeat = this.metricsManager.addMeter("Cleanup-Container-Heartbeat"
@@ -198,6 +203,21 @@ public class ContainerizationMetricsImpl implements ContainerizationMetrics {
     yarnApplicationKillFail.mark(n);
   }
 
+  @Override
+  public void markYarnApplicationsFound(long n) {
+    yarnApplicationsFound.mark(n);
+  }
+
+  @Override
+  public void markYarnApplicationKilled(long n) {
+    yarnApplicationKilled.mark(n);
+  }
+
+  @Override
+  public void markYarnApplicationKillTimeout(long n) {
+    yarnApplicationKillTimeout.mark(n);
+  }
+
   @Override
   public void sendCleanupStaleFlowHeartBeat() {
     cleanupStaleFlowHeartBeat.mark();
@@ -110,6 +110,18 @@ public class DummyContainerizationMetricsImpl implements ContainerizationMetrics
   public void markYarnApplicationKillFail(long n) {
   }
 
+  @Override
+  public void markYarnApplicationsFound(long n) {
+  }
+
+  @Override
+  public void markYarnApplicationKilled(long n) {
+  }
+
+  @Override
+  public void markYarnApplicationKillTimeout(long n) {
+  }
+
   @Override
   public void sendCleanupContainerHeartBeat() {
 
@@ -45,6 +45,7 @@ import azkaban.utils.Utils;
 import azkaban.utils.ValidatorUtils;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -312,8 +313,21 @@ class AzkabanProjectLoader {
       this.projectStorageManager.uploadProject(project, newProjectVersion, archive,
           startupDependencies, uploader, uploaderIPAddr);
 
-      log.info("Uploading flow to db for project {} with zip {}", project.getName(), archive.getName());
-      this.projectLoader.uploadFlows(project, newProjectVersion, flows.values());
+      if (loader instanceof DirectoryFlowLoader) {
+        final DirectoryFlowLoader directoryFlowLoader = (DirectoryFlowLoader) loader;
+        final List<Props> properties = new ArrayList<>(
+            directoryFlowLoader.getJobPropsMap().values());
+        properties.addAll(directoryFlowLoader.getPropsList());
+        log.info("Uploading flows and properties to db for project {} with zip {}",
+            project.getName(), archive.getName());
+        this.projectLoader.uploadProjectMetadata(project, newProjectVersion, flows.values(),
+            properties);
+      } else if (loader instanceof DirectoryYamlFlowLoader) {
+        log.info("Uploading flow to db for project {} with zip {}", project.getName(), archive.getName());
+        this.projectLoader.uploadFlows(project, newProjectVersion, flows.values());
+      } else {
+        throw new ProjectManagerException("Invalid type of flow loader.");
+      }
       project.setFlows(flows);
 
       final ConcurrentHashMap<String, FlowResourceRecommendation> flowResourceRecommendationMap =
@@ -334,19 +348,8 @@ class AzkabanProjectLoader {
         });
       }
 
-      if (loader instanceof DirectoryFlowLoader) {
-        final DirectoryFlowLoader directoryFlowLoader = (DirectoryFlowLoader) loader;
-        log.info("Uploading Job properties for project {} with zip {}", project.getName(), archive.getName());
-        this.projectLoader.uploadProjectProperties(project, newProjectVersion, new ArrayList<>(
-            directoryFlowLoader.getJobPropsMap().values()));
-        log.info("Uploading Props properties for project {} with zip {}", project.getName(), archive.getName());
-        this.projectLoader.uploadProjectProperties(project, newProjectVersion,
-            directoryFlowLoader.getPropsList());
-
-      } else if (loader instanceof DirectoryYamlFlowLoader) {
+      if (loader instanceof DirectoryYamlFlowLoader) {
         uploadFlowFilesRecursively(projectDir, project, newProjectVersion);
-      } else {
-        throw new ProjectManagerException("Invalid type of flow loader.");
       }
 
       // Set the project version after upload of project files happens to ensure newer version
@@ -410,4 +413,21 @@ class AzkabanProjectLoader {
     return this.projectStorageManager.getProjectFile(project.getId(), version);
   }
 
+  public ProjectFileHandler getProjectFileMetadata(final Project project, int version)
+      throws ProjectManagerException {
+    if (version == -1) {
+      version = this.projectLoader.getLatestProjectVersion(project);
+    }
+    return this.projectStorageManager.getProjectFileMetadata(project.getId(), version);
+  }
+
+  public long getProjectFileSize(final ProjectFileHandler projectFileHandler) {
+    return this.projectStorageManager.getProjectFileSize(projectFileHandler);
+  }
+
+  public InputStream openProjectFile(final ProjectFileHandler projectFileHandler,
+      final long offset) {
+    return this.projectStorageManager.openProjectFile(projectFileHandler, offset);
+  }
+
 }
@@ -288,7 +288,10 @@ class JdbcProjectHandlerSet {
   public static class ProjectLogsResultHandler implements ResultSetHandler<List<ProjectLogEvent>> {
 
     public static String SELECT_PROJECT_EVENTS_ORDER =
-        "SELECT project_id, event_type, event_time, username, message FROM project_events WHERE project_id=? ORDER BY event_time DESC LIMIT ? OFFSET ?";
+        "SELECT project_id, event_type, event_time, username, message, id FROM project_events WHERE project_id=? ORDER BY event_time DESC, id DESC LIMIT ? OFFSET ?";
+    // seeks to the events before (event_time, id) through the log index
+    public static String SELECT_PROJECT_EVENTS_BEFORE =
+        "SELECT project_id, event_type, event_time, username, message, id FROM project_events WHERE project_id=? AND event_time<=? AND (event_time<? OR id<?) ORDER BY event_time DESC, id DESC LIMIT ?";
 
     @Override
     public List<ProjectLogEvent> handle(final ResultSet rs) throws SQLException {
@@ -303,11 +306,11 @@ class JdbcProjectHandlerSet {
         final long eventTime = rs.getLong(3);
         final String username = rs.getString(4);
         final String message = rs.getString(5);
+        final long id = rs.getLong(6);
 
         final ProjectLogEvent event =
             new ProjectLogEvent(projectId, ProjectLogEvent.EventType.fromInteger(eventType),
-                eventTime, username,
-                message);
+                eventTime, username, message, id);
         events.add(event);
       } while (rs.next());
 
@@ -337,6 +340,22 @@ class JdbcProjectHandlerSet {
     }
   }
 
+  public static class ProjectFileChunkSizeResultHandler implements
+      ResultSetHandler<List<Integer>> {
+
+    public static String SELECT_PROJECT_CHUNK_SIZES =
+        "SELECT chunk, size FROM project_files WHERE project_id=? AND version=? ORDER BY chunk ASC";
+
+    @Override
+    public List<Integer> handle(final ResultSet rs) throws SQLException {
+      final List<Integer> sizes = new ArrayList<>();
+      while (rs.next()) {
+        sizes.add(rs.getInt(2));
+      }
+      return sizes;
+    }
+  }
+
   public static class ProjectVersionResultHandler implements
       ResultSetHandler<List<ProjectFileHandler>> {
 
@@ -19,6 +19,7 @@ package azkaban.project;
 import static azkaban.Constants.*;
 import static azkaban.project.JdbcProjectHandlerSet.IntHandler;
 import static azkaban.project.JdbcProjectHandlerSet.ProjectFileChunkResultHandler;
+import static azkaban.project.JdbcProjectHandlerSet.ProjectFileChunkSizeResultHandler;
 import static azkaban.project.JdbcProjectHandlerSet.ProjectFlowsResultHandler;
 import static azkaban.project.JdbcProjectHandlerSet.ProjectLogsResultHandler;
 import static azkaban.project.JdbcProjectHandlerSet.ProjectPropertiesResultsHandler;
@@ -52,10 +53,13 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -84,10 +88,25 @@ public class JdbcProjectImpl implements ProjectLoader {
 
   public static final String MAX_FLOW_FILE_SIZE_KEY = "max.flow.file.size.mb";
 
+  // Flows and properties of a project upload are inserted with JDBC batches, in transactions of
+  // at most this many rows and bytes.
+  public static final String METADATA_UPLOAD_BATCH_SIZE_KEY = "project.metadata.upload.batch.size";
+  public static final String METADATA_UPLOAD_TRANSACTION_MAX_MB_KEY =
+      "project.metadata.upload.transaction.max.mb";
+  private static final int METADATA_UPLOAD_BATCH_SIZE_DEFAULT = 200;
+  private static final int METADATA_UPLOAD_TRANSACTION_MAX_MB_DEFAULT = 16;
+
+  private static final String INSERT_FLOW =
+      "INSERT INTO project_flows (project_id, version, flow_id, modified_time, encoding_type, json) values (?,?,?,?,?,?)";
+  private static final String INSERT_PROPERTIES =
+      "INSERT INTO project_properties (project_id, version, name, modified_time, encoding_type, property) values (?,?,?,?,?,?)";
+
   private final DatabaseOperator dbOperator;
   private final File tempDir;
   private final EncodingType defaultEncodingType = EncodingType.GZIP;
   private final int maxFlowFileSizeInBytes;
+  private final int metadataUploadBatchSize;
+  private final long metadataUploadTransactionMaxBytes;
   private static boolean uploadProjectLockFeatureEnabled = false;
 
   @Inject
@@ -106,6 +125,10 @@ public class JdbcProjectImpl implements ProjectLoader {
     maxFlowFileSizeInBytes = maxFlowFileSizeInMB * 1024 * 1024;
     uploadProjectLockFeatureEnabled = props.get(AZKABAN_UPLOAD_PRIVILEGE_USER) != null;
     logger.info("Maximum size of the flow file in bytes is " + maxFlowFileSizeInBytes);
+    this.metadataUploadBatchSize = Math.max(1,
+        props.getInt(METADATA_UPLOAD_BATCH_SIZE_KEY, METADATA_UPLOAD_BATCH_SIZE_DEFAULT));
+    this.metadataUploadTransactionMaxBytes = props.getLong(METADATA_UPLOAD_TRANSACTION_MAX_MB_KEY,
+        METADATA_UPLOAD_TRANSACTION_MAX_MB_DEFAULT) * 1024 * 1024;
   }
 
   @Override
@@ -444,6 +467,92 @@ public class JdbcProjectImpl implements ProjectLoader {
     }
   }
 
+  /**
+   * Reads the chunks of a project file from the db a few at a time, as the stream is consumed.
+   */
+  private class ProjectFileChunkInputStream extends InputStream {
+
+    // chunks fetched per query, as getUploadedFile does
+    private static final int CHUNKS_PER_QUERY = 5;
+
+    private final int projectId;
+    private final int version;
+    private final int numChunks;
+    private final Deque<byte[]> fetched = new ArrayDeque<>();
+    private int nextChunk;
+    private int skipInFirstChunk;
+    private byte[] chunk = null;
+    private int position = 0;
+
+    private ProjectFileChunkInputStream(final int projectId, final int version,
+        final int numChunks, final int startChunk, final int skipInFirstChunk) {
+      this.projectId = projectId;
+      this.version = version;
+      this.numChunks = numChunks;
+      this.nextChunk = startChunk;
+      this.skipInFirstChunk = skipInFirstChunk;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (!ensureChunk()) {
+        return -1;
+      }
+      return this.chunk[this.position++] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (!ensureChunk()) {
+        return -1;
+      }
+      final int n = Math.min(len, this.chunk.length - this.position);
+      System.arraycopy(this.chunk, this.position, b, off, n);
+      this.position += n;
+      return n;
+    }
+
+    private boolean ensureChunk() throws IOException {
+      while (this.chunk == null || this.position >= this.chunk.length) {
+        if (this.fetched.isEmpty() && !fetchChunks()) {
+          this.chunk = null;
+          return false;
+        }
+        this.chunk = this.fetched.poll();
+        this.position = Math.min(this.skipInFirstChunk, this.chunk.length);
+        this.skipInFirstChunk = 0;
+      }
+      return true;
+    }
+
+    private boolean fetchChunks() throws IOException {
+      if (this.nextChunk >= this.numChunks) {
+        return false;
+      }
+      final int toChunk = Math.min(this.nextChunk + CHUNKS_PER_QUERY, this.numChunks);
+      final List<byte[]> data;
+      try {
+        data = JdbcProjectImpl.this.dbOperator
+            .query(ProjectFileChunkResultHandler.SELECT_PROJECT_CHUNKS_FILE,
+                new ProjectFileChunkResultHandler(), this.projectId, this.version,
+                this.nextChunk, toChunk);
+      } catch (final SQLException e) {
+        throw new IOException("Query for chunks " + this.nextChunk + " to " + toChunk
+            + " of project " + this.projectId + " version " + this.version + " failed.", e);
+      }
+      if (data.size() != toChunk - this.nextChunk) {
+        throw new IOException("Chunks " + this.nextChunk + " to " + toChunk + " of project "
+            + this.projectId + " version " + this.version + " are missing.");
+      }
+      this.fetched.addAll(data);
+      this.nextChunk = toChunk;
+      return true;
+    }
+  }
+
   @Override
   public ProjectFileHandler getUploadedFile(final int projectId, final int version)
       throws ProjectManagerException {
@@ -525,6 +634,51 @@ public class JdbcProjectImpl implements ProjectLoader {
     return projHandler;
   }
 
+  @Override
+  public long getUploadedFileSize(final int projectId, final int version)
+      throws ProjectManagerException {
+    long size = 0;
+    for (final int chunkSize : fetchChunkSizes(projectId, version)) {
+      size += chunkSize;
+    }
+    return size;
+  }
+
+  @Override
+  public InputStream getUploadedFileStream(final int projectId, final int version,
+      final long offset) throws ProjectManagerException {
+    final List<Integer> chunkSizes = fetchChunkSizes(projectId, version);
+    final int numChunks = chunkSizes.size();
+    if (numChunks <= 0) {
+      throw new ProjectManagerException(String.format("Got numChunks=%s for version %s of project "
+              + "%s - seems like this version has been cleaned up already, because enough newer "
+              + "versions have been uploaded. To increase the retention of project versions, set "
+              + "%s", numChunks, version, projectId,
+          ConfigurationKeys.PROJECT_VERSION_RETENTION));
+    }
+    // find the chunk holding the offset, the chunks before it are never fetched
+    int startChunk = 0;
+    long skip = offset;
+    while (startChunk < numChunks && skip >= chunkSizes.get(startChunk)) {
+      skip -= chunkSizes.get(startChunk);
+      startChunk++;
+    }
+    return new ProjectFileChunkInputStream(projectId, version, numChunks, startChunk,
+        (int) skip);
+  }
+
+  private List<Integer> fetchChunkSizes(final int projectId, final int version)
+      throws ProjectManagerException {
+    try {
+      return this.dbOperator.query(ProjectFileChunkSizeResultHandler.SELECT_PROJECT_CHUNK_SIZES,
+          new ProjectFileChunkSizeResultHandler(), projectId, version);
+    } catch (final SQLException e) {
+      logger.error("Query for chunk sizes of project " + projectId + " failed.", e);
+      throw new ProjectManagerException(
+          "Query for chunk sizes of project " + projectId + " failed.", e);
+    }
+  }
+
   @Override
   public void changeProjectVersion(final Project project, final int version, final String user)
       throws ProjectManagerException {
@@ -590,6 +744,13 @@ public class JdbcProjectImpl implements ProjectLoader {
     return data;
   }
 
+  /**
+   * Encode the object as json straight into the stored bytes, without the intermediate string.
+   */
+  private static byte[] encodeJson(final EncodingType type, final Object obj) throws IOException {
+    return type == EncodingType.GZIP ? JSONUtils.toGzipJSONBytes(obj) : JSONUtils.toJSONBytes(obj);
+  }
+
   private void updateProjectSettings(final Project project, final EncodingType encType)
       throws ProjectManagerException {
     final String UPDATE_PROJECT_SETTINGS = "UPDATE projects SET enc_type=?, settings_blob=? WHERE id=?";
@@ -675,7 +836,8 @@ public class JdbcProjectImpl implements ProjectLoader {
     List<ProjectLogEvent> events = null;
     try {
       events = this.dbOperator
-          .query(ProjectLogsResultHandler.SELECT_PROJECT_EVENTS_ORDER, logHandler, project.getId(),
+          .queryReplicaSafe(ProjectLogsResultHandler.SELECT_PROJECT_EVENTS_ORDER, logHandler,
+              project.getId(),
               num,
               skip);
     } catch (final SQLException e) {
@@ -686,6 +848,19 @@ public class JdbcProjectImpl implements ProjectLoader {
     return events;
   }
 
+  @Override
+  public List<ProjectLogEvent> getProjectEvents(final Project project, final int num,
+      final long time, final long id) throws ProjectManagerException {
+    try {
+      return this.dbOperator
+          .queryReplicaSafe(ProjectLogsResultHandler.SELECT_PROJECT_EVENTS_BEFORE,
+              new ProjectLogsResultHandler(), project.getId(), time, time, id, num);
+    } catch (final SQLException e) {
+      logger.error("Error getProjectEvents, project " + project.getName(), e);
+      throw new ProjectManagerException("Error getProjectEvents, project " + project.getName(), e);
+    }
+  }
+
   @Override
   public void updateDescription(final Project project, final String description, final String user)
       throws ProjectManagerException {
@@ -720,14 +895,103 @@ public class JdbcProjectImpl implements ProjectLoader {
   @Override
   public void uploadFlows(final Project project, final int version, final Collection<Flow> flows)
       throws ProjectManagerException {
-    // We do one at a time instead of batch... because well, the batch could be
-    // large.
+    insertInBatches(INSERT_FLOW, project, version, encodeFlows(flows), "flows");
+  }
+
+  @Override
+  public void uploadProjectMetadata(final Project project, final int version,
+      final Collection<Flow> flows, final List<Props> properties) throws ProjectManagerException {
+    final long startMs = System.currentTimeMillis();
+    final List<Pair<String, byte[]>> encodedFlows = encodeFlows(flows);
+    final List<Pair<String, byte[]>> encodedProperties = encodeProperties(properties);
+    insertInBatches(INSERT_FLOW, project, version, encodedFlows, "flows");
+    insertInBatches(INSERT_PROPERTIES, project, version, encodedProperties, "properties");
+    logger.info("Uploaded " + flows.size() + " flows and " + properties.size()
+        + " properties of project " + project.getName() + " version " + version + " in "
+        + (System.currentTimeMillis() - startMs) + " ms");
+  }
+
+  /**
+   * Serialize and compress the flows in parallel.
+   *
+   * @return pairs of flow id and encoded flow, in the iteration order of the flows
+   */
+  private List<Pair<String, byte[]>> encodeFlows(final Collection<Flow> flows)
+      throws ProjectManagerException {
+    try {
+      return flows.parallelStream().map(flow -> {
+        try {
+          return new Pair<>(flow.getId(),
+              encodeJson(this.defaultEncodingType, flow.toObject()));
+        } catch (final IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }).collect(Collectors.toList());
+    } catch (final UncheckedIOException e) {
+      throw new ProjectManagerException("Flow Upload failed.", e.getCause());
+    }
+  }
+
+  /**
+   * Serialize and compress the properties in parallel.
+   *
+   * @return pairs of source and encoded properties, in the order of the list
+   */
+  private List<Pair<String, byte[]>> encodeProperties(final List<Props> properties)
+      throws ProjectManagerException {
     try {
-      for (final Flow flow : flows) {
-        uploadFlow(project, version, flow, this.defaultEncodingType);
+      return properties.parallelStream().map(props -> {
+        try {
+          return new Pair<>(props.getSource(), getBytes(props));
+        } catch (final IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }).collect(Collectors.toList());
+    } catch (final UncheckedIOException e) {
+      throw new ProjectManagerException("Error uploading project property file", e.getCause());
+    }
+  }
+
+  /**
+   * Insert the encoded rows with JDBC batches. Each transaction holds at most
+   * {@link #metadataUploadBatchSize} rows and, unless a single row is bigger,
+   * {@link #metadataUploadTransactionMaxBytes} bytes, so that a large project does not hold a
+   * huge transaction open. The rows are not visible to executions until the project version is
+   * changed, which the caller does after all the metadata is uploaded.
+   */
+  private void insertInBatches(final String insertSql, final Project project, final int version,
+      final List<Pair<String, byte[]>> encoded, final String description)
+      throws ProjectManagerException {
+    int start = 0;
+    while (start < encoded.size()) {
+      int end = start;
+      long bytes = 0;
+      while (end < encoded.size() && end - start < this.metadataUploadBatchSize) {
+        final int size = encoded.get(end).getSecond().length;
+        if (end > start && bytes + size > this.metadataUploadTransactionMaxBytes) {
+          break;
+        }
+        bytes += size;
+        end++;
       }
-    } catch (final IOException e) {
-      throw new ProjectManagerException("Flow Upload failed.", e);
+
+      final long modifiedTime = System.currentTimeMillis();
+      final List<Pair<String, byte[]>> chunk = encoded.subList(start, end);
+      final Object[][] params = new Object[chunk.size()][];
+      for (int i = 0; i < chunk.size(); i++) {
+        params[i] = new Object[]{project.getId(), version, chunk.get(i).getFirst(), modifiedTime,
+            this.defaultEncodingType.getNumVal(), chunk.get(i).getSecond()};
+      }
+      try {
+        this.dbOperator.transaction(transOperator -> transOperator.batch(insertSql, params));
+      } catch (final SQLException e) {
+        logger.error("Error inserting " + description, e);
+        throw new ProjectManagerException("Error inserting " + description + " " + start + " to "
+            + (end - 1) + " of project " + project.getName() + " version " + version, e);
+      }
+      logger.info("Inserted " + description + " " + start + " to " + (end - 1) + " of project "
+          + project.getName() + " version " + version + ", " + bytes + " bytes");
+      start = end;
     }
   }
 
@@ -747,8 +1011,7 @@ public class JdbcProjectImpl implements ProjectLoader {
       throws ProjectManagerException {
     logger.info("Uploading flow " + flow.getId());
     try {
-      final String json = JSONUtils.toJSON(flow.toObject());
-      final byte[] data = convertJsonToBytes(this.defaultEncodingType, json);
+      final byte[] data = encodeJson(this.defaultEncodingType, flow.toObject());
       logger.info("Flow upload " + flow.getId() + " is byte size " + data.length);
       final String UPDATE_FLOW =
           "UPDATE project_flows SET encoding_type=?,json=? WHERE project_id=? AND version=? AND flow_id=?";
@@ -768,12 +1031,9 @@ public class JdbcProjectImpl implements ProjectLoader {
   private void uploadFlow(final Project project, final int version, final Flow flow,
       final EncodingType encType)
       throws ProjectManagerException, IOException {
-    final String json = JSONUtils.toJSON(flow.toObject());
-    final byte[] data = convertJsonToBytes(encType, json);
+    final byte[] data = encodeJson(encType, flow.toObject());
 
     logger.info("Flow upload " + flow.getId() + " in project " + project.getName() + " is byte size " + data.length);
-    final String INSERT_FLOW =
-        "INSERT INTO project_flows (project_id, version, flow_id, modified_time, encoding_type, json) values (?,?,?,?,?,?)";
     try {
       this.dbOperator
           .update(INSERT_FLOW, project.getId(), version, flow.getId(), System.currentTimeMillis(),
@@ -820,13 +1080,8 @@ public class JdbcProjectImpl implements ProjectLoader {
   public void uploadProjectProperties(final Project project,
       final int projectVersionOverride, final List<Props> properties)
       throws ProjectManagerException {
-    for (final Props props : properties) {
-      try {
-        uploadProjectProperty(project, projectVersionOverride, props.getSource(), props);
-      } catch (final IOException e) {
-        throw new ProjectManagerException("Error uploading project property file", e);
-      }
-    }
+    insertInBatches(INSERT_PROPERTIES, project, projectVersionOverride,
+        encodeProperties(properties), "properties");
   }
 
   @Override
@@ -951,9 +1206,6 @@ public class JdbcProjectImpl implements ProjectLoader {
   private void uploadProjectProperty(final Project project, final int projectVersionOverride,
       final String name, final Props props)
       throws ProjectManagerException, IOException {
-    final String INSERT_PROPERTIES =
-        "INSERT INTO project_properties (project_id, version, name, modified_time, encoding_type, property) values (?,?,?,?,?,?)";
-
     final byte[] propsData = getBytes(props);
     try {
       this.dbOperator.update(INSERT_PROPERTIES, project.getId(), projectVersionOverride, name,
@@ -967,12 +1219,7 @@ public class JdbcProjectImpl implements ProjectLoader {
   }
 
   private byte[] getBytes(final Props props) throws IOException {
-    final String propertyJSON = PropsUtils.toJSONString(props, true);
-    byte[] data = propertyJSON.getBytes("UTF-8");
-    if (this.defaultEncodingType == EncodingType.GZIP) {
-      data = GZIPUtils.gzipBytes(data);
-    }
-    return data;
+    return encodeJson(this.defaultEncodingType, PropsUtils.toStringMap(props, true));
   }
 
   @Override
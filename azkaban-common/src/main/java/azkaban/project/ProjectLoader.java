@@ -25,6 +25,7 @@ import azkaban.utils.Props;
 import azkaban.utils.SecurityTag;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -97,6 +98,13 @@ public interface ProjectLoader {
   List<ProjectLogEvent> getProjectEvents(Project project, int num,
       int skip) throws ProjectManagerException;
 
+  /**
+   * Returns the events of a project before the event of the given time and id, sorted from the
+   * most recent.
+   */
+  List<ProjectLogEvent> getProjectEvents(Project project, int num, long time, long id)
+      throws ProjectManagerException;
+
   /**
    * Will upload the files and return the version number of the file uploaded.
    */
@@ -121,6 +129,18 @@ public interface ProjectLoader {
    */
   ProjectFileHandler fetchProjectMetaData(int projectId, int version);
 
+  /**
+   * Get the size in bytes of a file that's uploaded, from the sizes of its chunks.
+   */
+  long getUploadedFileSize(int projectId, int version) throws ProjectManagerException;
+
+  /**
+   * Open a stream over a file that's uploaded, starting at the given offset. Chunks are fetched
+   * one at a time as the stream is read, the file is not assembled on local disk.
+   */
+  InputStream getUploadedFileStream(int projectId, int version, long offset)
+      throws ProjectManagerException;
+
   /**
    * Get file that's uploaded.
    */
@@ -142,6 +162,13 @@ public interface ProjectLoader {
   void uploadFlows(Project project, int version, Collection<Flow> flows)
       throws ProjectManagerException;
 
+  /**
+   * Uploads all computed flows and properties of a new project version in bulk. The project
+   * version must be changed only after this returns.
+   */
+  void uploadProjectMetadata(Project project, int version, Collection<Flow> flows,
+      List<Props> properties) throws ProjectManagerException;
+
   /**
    * Upload just one flow.
    */
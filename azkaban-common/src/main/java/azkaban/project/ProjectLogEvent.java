@@ -23,15 +23,23 @@ public class ProjectLogEvent {
   private final long time;
   private final EventType type;
   private final String message;
+  // orders the events of the same time, 0 when unknown
+  private final long id;
 
   public ProjectLogEvent(final int projectId, final EventType type, final long time,
       final String user,
       final String message) {
+    this(projectId, type, time, user, message, 0);
+  }
+
+  public ProjectLogEvent(final int projectId, final EventType type, final long time,
+      final String user, final String message, final long id) {
     this.projectId = projectId;
     this.user = user;
     this.time = time;
     this.type = type;
     this.message = message;
+    this.id = id;
   }
 
   public int getProjectId() {
@@ -54,6 +62,10 @@ public class ProjectLogEvent {
     return this.message;
   }
 
+  public long getId() {
+    return this.id;
+  }
+
   /**
    * Log event type messages. Do not change the numeric representation of each enum.
    *
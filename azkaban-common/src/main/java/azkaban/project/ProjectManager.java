@@ -42,6 +42,7 @@ import com.google.common.base.Joiner;
 import com.google.common.io.Files;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -302,6 +303,14 @@ public class ProjectManager {
     return this.projectLoader.getProjectEvents(project, results, skip);
   }
 
+  /**
+   * @see ProjectLoader#getProjectEvents(Project, int, long, long)
+   */
+  public List<ProjectLogEvent> getProjectEventLogs(final Project project,
+      final int results, final long time, final long id) throws ProjectManagerException {
+    return this.projectLoader.getProjectEvents(project, results, time, id);
+  }
+
   public Props getPropertiesFromFlowFile(final Flow flow, final String jobName, final String
       flowFileName, final int flowVersion) throws ProjectManagerException {
     File tempDir = null;
@@ -537,6 +546,32 @@ public class ProjectManager {
     return this.azkabanProjectLoader.getProjectFile(project, version);
   }
 
+  /**
+   * Get the metadata of a project file without fetching the file, see
+   * {@link #openProjectFile(ProjectFileHandler, long)}.
+   *
+   * @param version the project version, -1 for the latest one
+   */
+  public ProjectFileHandler getProjectFileMetadata(final Project project, final int version)
+      throws ProjectManagerException {
+    return this.azkabanProjectLoader.getProjectFileMetadata(project, version);
+  }
+
+  /**
+   * @return the size in bytes of the project file, -1 if unknown
+   */
+  public long getProjectFileSize(final ProjectFileHandler projectFileHandler) {
+    return this.azkabanProjectLoader.getProjectFileSize(projectFileHandler);
+  }
+
+  /**
+   * Stream the project file from storage, starting at the given offset.
+   */
+  public InputStream openProjectFile(final ProjectFileHandler projectFileHandler,
+      final long offset) {
+    return this.azkabanProjectLoader.openProjectFile(projectFileHandler, offset);
+  }
+
   public Map<String, ValidationReport> uploadProject(final Project project,
       final File archive, final String fileType, final User uploader, final Props additionalProps,
       final String uploaderIPAddr)
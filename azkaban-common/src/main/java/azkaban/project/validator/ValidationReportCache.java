@@ -0,0 +1,184 @@
+package azkaban.project.validator;
+
+import azkaban.utils.HashUtils;
+import azkaban.utils.JSONUtils;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.log4j.Logger;
+
+/**
+ * Reports of {@link ProjectValidatorCacheable} validators, persisted as one json file per report
+ * in a local directory, so that uploading an unchanged project again skips these validators.
+ *
+ * A report is keyed by the compound cache key of the validators, a hash of the content of the
+ * project directory and the validator name. Reports which modified or removed files are not cached,
+ * since reusing them would not apply the changes again. Past the maximum number of entries, the
+ * least recently used reports are deleted.
+ */
+public class ValidationReportCache {
+
+  private static final Logger logger = Logger.getLogger(ValidationReportCache.class);
+  private static final String SUFFIX = ".json";
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final File cacheDir;
+  private final int maxEntries;
+
+  public ValidationReportCache(final File cacheDir, final int maxEntries) {
+    this.cacheDir = cacheDir;
+    this.maxEntries = maxEntries;
+    if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+      throw new ValidatorManagerException("Cannot create validation report cache directory "
+          + cacheDir);
+    }
+  }
+
+  /**
+   * @return the cache key of the report of a validator on a project
+   */
+  public static String getKey(final String compoundCacheKey, final String contentHash,
+      final String validatorName) {
+    return HashUtils.SHA1.getHashStr(compoundCacheKey + ":" + contentHash + ":" + validatorName);
+  }
+
+  /**
+   * @return a hash of the relative paths and content of all the files under the directory
+   */
+  public static String hashDirectory(final File dir) throws IOException {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance(HashUtils.SHA1.getName());
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    hashDirectory(dir, "", digest, new byte[BUFFER_SIZE]);
+    return HashUtils.bytesHashToString(digest.digest()).toLowerCase();
+  }
+
+  private static void hashDirectory(final File dir, final String prefix,
+      final MessageDigest digest, final byte[] buffer) throws IOException {
+    final File[] files = dir.listFiles();
+    if (files == null) {
+      throw new IOException("Cannot list directory " + dir);
+    }
+    Arrays.sort(files, Comparator.comparing(File::getName));
+    for (final File file : files) {
+      final String path = prefix + file.getName();
+      digest.update(path.getBytes(StandardCharsets.UTF_8));
+      if (file.isDirectory()) {
+        digest.update((byte) '/');
+        hashDirectory(file, path + "/", digest, buffer);
+      } else {
+        digest.update((byte) 0);
+        try (final InputStream in = new FileInputStream(file)) {
+          int read;
+          while ((read = in.read(buffer)) > 0) {
+            digest.update(buffer, 0, read);
+          }
+        }
+        digest.update((byte) 0);
+      }
+    }
+  }
+
+  /**
+   * @return the cached report, or null
+   */
+  public ValidationReport get(final String key) {
+    final File file = getFile(key);
+    if (!file.isFile()) {
+      return null;
+    }
+    try {
+      final ValidationReport report = fromJson(
+          (Map<String, Object>) JSONUtils.parseJSONFromFile(file));
+      // keep recently used reports when evicting
+      file.setLastModified(System.currentTimeMillis());
+      return report;
+    } catch (final IOException | RuntimeException e) {
+      logger.warn("Ignoring unreadable cached validation report " + file, e);
+      return null;
+    }
+  }
+
+  /**
+   * Cache the report, unless it modified or removed files.
+   */
+  public void put(final String key, final ValidationReport report) {
+    if (!report.getModifiedFiles().isEmpty() || !report.getRemovedFiles().isEmpty()) {
+      return;
+    }
+    final File file = getFile(key);
+    try {
+      final File tmp = File.createTempFile(key, ".tmp", this.cacheDir);
+      try {
+        JSONUtils.toJSON(toJson(report), tmp);
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        tmp.delete();
+      }
+    } catch (final IOException e) {
+      logger.warn("Failed to cache validation report " + file, e);
+      return;
+    }
+    evict();
+  }
+
+  private void evict() {
+    final File[] files = this.cacheDir.listFiles((dir, name) -> name.endsWith(SUFFIX));
+    if (files == null || files.length <= this.maxEntries) {
+      return;
+    }
+    Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+    for (int i = 0; i < files.length - this.maxEntries; i++) {
+      files[i].delete();
+    }
+  }
+
+  private File getFile(final String key) {
+    return new File(this.cacheDir, key + SUFFIX);
+  }
+
+  private static Map<String, Object> toJson(final ValidationReport report) {
+    final Map<String, Object> json = new HashMap<>();
+    json.put("status", report.getStatus().name());
+    json.put("info", new ArrayList<>(report.getInfoMsgs()));
+    json.put("warn", new ArrayList<>(report.getWarningMsgs()));
+    json.put("error", new ArrayList<>(report.getErrorMsgs()));
+    return json;
+  }
+
+  private static ValidationReport fromJson(final Map<String, Object> json) {
+    final ValidationReport report = new ValidationReport();
+    report.getInfoMsgs().addAll(toStrings(json.get("info")));
+    report.getWarningMsgs().addAll(toStrings(json.get("warn")));
+    report.getErrorMsgs().addAll(toStrings(json.get("error")));
+    report._status = ValidationStatus.valueOf((String) json.get("status"));
+    return report;
+  }
+
+  private static List<String> toStrings(final Object list) {
+    final List<String> strings = new ArrayList<>();
+    if (list != null) {
+      for (final Object o : (Collection<?>) list) {
+        strings.add((String) o);
+      }
+    }
+    return strings;
+  }
+}
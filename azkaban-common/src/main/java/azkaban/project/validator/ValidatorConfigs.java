@@ -40,6 +40,39 @@ public class ValidatorConfigs {
    **/
   public static final String VALIDATOR_AUTO_FIX_PROMPT_LINK_PARAM = "project.validators.fix.link";
 
+  /**
+   * Key for the config param specifying how many validators run concurrently on a project. The
+   * validators must then be independent, i.e. not modify files the others read
+   **/
+  public static final String VALIDATOR_THREADS_PARAM = "project.validators.threads";
+  /**
+   * Run the validators one after the other by default
+   **/
+  public static final int DEFAULT_VALIDATOR_THREADS = 1;
+  /**
+   * Key for the config param specifying how long a validator may run before the project fails
+   * validation, in seconds
+   **/
+  public static final String VALIDATOR_TIMEOUT_SECONDS_PARAM = "project.validators.timeout.seconds";
+  /**
+   * No validator timeout by default
+   **/
+  public static final long DEFAULT_VALIDATOR_TIMEOUT_SECONDS = 0;
+  /**
+   * Key for the config param specifying the directory caching the reports of cacheable
+   * validators, no cache when missing
+   **/
+  public static final String REPORT_CACHE_DIR_PARAM = "project.validators.report.cache.dir";
+  /**
+   * Key for the config param specifying the maximum number of cached reports
+   **/
+  public static final String REPORT_CACHE_MAX_ENTRIES_PARAM =
+      "project.validators.report.cache.max.entries";
+  /**
+   * Default maximum number of cached reports
+   **/
+  public static final int DEFAULT_REPORT_CACHE_MAX_ENTRIES = 10000;
+
   private ValidatorConfigs() {
   } // Prevents instantiation
 }
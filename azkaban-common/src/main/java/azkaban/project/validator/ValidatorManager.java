@@ -2,6 +2,7 @@ package azkaban.project.validator;
 
 import azkaban.project.Project;
 import azkaban.utils.Props;
+import java.io.Closeable;
 import java.io.File;
 import java.util.List;
 import java.util.Map;
@@ -12,7 +13,7 @@ import org.apache.log4j.Logger;
  * validator configuration file. Once these validators are loaded, the ValidatorManager will use the
  * registered validators to verify each uploaded project before persisting it.
  */
-public interface ValidatorManager {
+public interface ValidatorManager extends Closeable {
 
   /**
    * Load the validators using the given properties. Each validator is also given the specified
@@ -42,4 +43,11 @@ public interface ValidatorManager {
    * Get combined cacheKey for all validators (hash of all hashes)
    */
   String getCacheKey(Project project, File projectDir, Props props);
+
+  /**
+   * Release the resources of the validators, the manager can not be used afterwards.
+   */
+  @Override
+  default void close() {
+  }
 }
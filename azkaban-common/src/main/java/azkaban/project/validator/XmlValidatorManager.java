@@ -3,17 +3,28 @@ package azkaban.project.validator;
 import azkaban.project.Project;
 import azkaban.utils.HashUtils;
 import azkaban.utils.Props;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -39,6 +50,12 @@ import org.xml.sax.SAXException;
  *   </validator>
  * </azkaban-validators>
  * }</pre>
+ *
+ * <p>The validators run one after the other unless project.validators.threads is set, and may be
+ * given a timeout with project.validators.timeout.seconds, which starts when each validator starts
+ * running. When project.validators.report.cache.dir
+ * is set, the reports of the {@link ProjectValidatorCacheable} validators are cached, see
+ * {@link ValidationReportCache}.
  */
 public class XmlValidatorManager implements ValidatorManager {
 
@@ -49,6 +66,10 @@ public class XmlValidatorManager implements ValidatorManager {
   private ValidatorClassLoader validatorLoader;
   private final String validatorDirPath;
   private Map<String, ProjectValidator> validators;
+  private final long validatorTimeoutMs;
+  // null when the validators run sequentially on the calling thread
+  private final ExecutorService validatorPool;
+  private final ValidationReportCache reportCache;
 
   /**
    * Load the validator plugins from the validator directory (default being validators/) into the
@@ -65,6 +86,25 @@ public class XmlValidatorManager implements ValidatorManager {
           + " does not exist or is not a directory.");
     }
 
+    final int validatorThreads = props.getInt(ValidatorConfigs.VALIDATOR_THREADS_PARAM,
+        ValidatorConfigs.DEFAULT_VALIDATOR_THREADS);
+    this.validatorTimeoutMs = TimeUnit.SECONDS.toMillis(props.getLong(
+        ValidatorConfigs.VALIDATOR_TIMEOUT_SECONDS_PARAM,
+        ValidatorConfigs.DEFAULT_VALIDATOR_TIMEOUT_SECONDS));
+    if (validatorThreads > 1 || this.validatorTimeoutMs > 0) {
+      this.validatorPool = Executors.newFixedThreadPool(Math.max(1, validatorThreads),
+          new ThreadFactoryBuilder().setNameFormat("azk-project-validator-%d").setDaemon(true)
+              .build());
+    } else {
+      this.validatorPool = null;
+    }
+    this.reportCache = props.containsKey(ValidatorConfigs.REPORT_CACHE_DIR_PARAM)
+        ? new ValidationReportCache(new File(props.getString(
+        ValidatorConfigs.REPORT_CACHE_DIR_PARAM)), props.getInt(
+        ValidatorConfigs.REPORT_CACHE_MAX_ENTRIES_PARAM,
+        ValidatorConfigs.DEFAULT_REPORT_CACHE_MAX_ENTRIES))
+        : null;
+
     // Initialize the class loader.
     initClassLoader();
 
@@ -230,14 +270,7 @@ public class XmlValidatorManager implements ValidatorManager {
   @Override
   public Map<String, ValidationReport> validate(final Project project, final File projectDir, final Props additionalProps) {
     final Props nonNullAdditionalProps = additionalProps == null ? new Props() : additionalProps;
-
-    final Map<String, ValidationReport> reports = new LinkedHashMap<>();
-    for (final Entry<String, ProjectValidator> validator : this.validators.entrySet()) {
-      reports.put(validator.getKey(), validator.getValue().validateProject(project, projectDir, nonNullAdditionalProps));
-      logger.info("Validation status of validator " + validator.getKey() + " is "
-          + reports.get(validator.getKey()).getStatus());
-    }
-    return reports;
+    return runValidators(this.validators, project, projectDir, nonNullAdditionalProps);
   }
 
   @Override
@@ -245,15 +278,156 @@ public class XmlValidatorManager implements ValidatorManager {
       final Props additionalProps, final String validatorName) {
     final Props nonNullAdditionalProps = additionalProps == null ? new Props() : additionalProps;
 
-    final Map<String, ValidationReport> reports = new LinkedHashMap<>();
     final ProjectValidator validator = this.validators.get(validatorName);
-    if (null != validator) {
-      reports.put(validatorName, validator.validateProject(project, projectDir, nonNullAdditionalProps));
-      logger.info("Validation status of validator " + validatorName + " is " + reports.get(validatorName).getStatus());
+    if (null == validator) {
+      return new LinkedHashMap<>();
+    }
+    final Map<String, ProjectValidator> toRun = new LinkedHashMap<>();
+    toRun.put(validatorName, validator);
+    return runValidators(toRun, project, projectDir, nonNullAdditionalProps);
+  }
+
+  /**
+   * Run the validators, on the pool when there is one, and reuse the cached reports of the
+   * cacheable validators.
+   *
+   * @return the reports, in the order of the validators
+   */
+  private Map<String, ValidationReport> runValidators(
+      final Map<String, ProjectValidator> toRun, final Project project, final File projectDir,
+      final Props props) {
+    final Map<String, String> cacheKeys = getReportCacheKeys(toRun, project, projectDir, props);
+    final Map<String, ValidationReport> reports = new LinkedHashMap<>();
+    final Map<String, Future<ValidationReport>> pending = new LinkedHashMap<>();
+    final Set<String> cachedReports = new HashSet<>();
+    // When each validator started running on the pool, its timeout starts then and not while it
+    // is queued behind the others.
+    final Map<String, Long> startTimes = new ConcurrentHashMap<>();
+    // Validators cancelled on timeout, with the cancellation time, to log the ones that keep
+    // running and hold a pool thread anyway.
+    final Map<String, Long> cancelled = new ConcurrentHashMap<>();
+    for (final Entry<String, ProjectValidator> validator : toRun.entrySet()) {
+      final String cacheKey = cacheKeys.get(validator.getKey());
+      final ValidationReport cached = cacheKey == null ? null : this.reportCache.get(cacheKey);
+      if (cached != null) {
+        logger.info("Using the cached report of validator " + validator.getKey());
+        reports.put(validator.getKey(), cached);
+        cachedReports.add(validator.getKey());
+      } else if (this.validatorPool == null) {
+        reports.put(validator.getKey(),
+            validator.getValue().validateProject(project, projectDir, props));
+      } else {
+        // keep the validators order in the reports
+        reports.put(validator.getKey(), null);
+        pending.put(validator.getKey(), this.validatorPool.submit(() -> {
+          startTimes.put(validator.getKey(), System.currentTimeMillis());
+          try {
+            return validator.getValue().validateProject(project, projectDir, props);
+          } finally {
+            final Long cancelTime = cancelled.get(validator.getKey());
+            if (cancelTime != null) {
+              logger.warn("Validator " + validator.getKey() + " ignored its cancellation and "
+                  + "finished " + (System.currentTimeMillis() - cancelTime) + " ms after it");
+            }
+          }
+        }));
+      }
+    }
+    for (final Entry<String, Future<ValidationReport>> future : pending.entrySet()) {
+      reports.put(future.getKey(),
+          awaitReport(future.getKey(), future.getValue(), startTimes, cancelled));
+    }
+
+    for (final Entry<String, ValidationReport> report : reports.entrySet()) {
+      logger.info("Validation status of validator " + report.getKey() + " is "
+          + report.getValue().getStatus());
+      final String cacheKey = cacheKeys.get(report.getKey());
+      // the report of a validator which timed out was not returned by it, and is not cached
+      if (cacheKey != null && !cachedReports.contains(report.getKey())
+          && !cancelled.containsKey(report.getKey())) {
+        this.reportCache.put(cacheKey, report.getValue());
+      }
     }
     return reports;
   }
 
+  private ValidationReport awaitReport(final String validatorName,
+      final Future<ValidationReport> future, final Map<String, Long> startTimes,
+      final Map<String, Long> cancelled) {
+    try {
+      if (this.validatorTimeoutMs <= 0) {
+        return future.get();
+      }
+      while (true) {
+        final Long startTime = startTimes.get(validatorName);
+        final long waitMs = startTime == null ? this.validatorTimeoutMs
+            : startTime + this.validatorTimeoutMs - System.currentTimeMillis();
+        try {
+          return future.get(Math.max(0, waitMs), TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+          // still queued, or started while waiting: keep waiting until its own timeout
+          if (startTime != null) {
+            throw e;
+          }
+        }
+      }
+    } catch (final TimeoutException e) {
+      cancelled.put(validatorName, System.currentTimeMillis());
+      future.cancel(true);
+      logger.error("Validator " + validatorName + " timed out");
+      final ValidationReport report = new ValidationReport();
+      report.addErrorMsgs(Collections.singleton("Validator " + validatorName
+          + " did not complete within " + this.validatorTimeoutMs / 1000 + " seconds."));
+      return report;
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new ValidatorManagerException(e.getCause());
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      future.cancel(true);
+      throw new ValidatorManagerException(e);
+    }
+  }
+
+  /**
+   * @return the report cache keys of the cacheable validators, empty without a cache
+   */
+  private Map<String, String> getReportCacheKeys(final Map<String, ProjectValidator> toRun,
+      final Project project, final File projectDir, final Props props) {
+    final Map<String, String> keys = new HashMap<>();
+    if (this.reportCache == null || toRun.values().stream()
+        .noneMatch(v -> v instanceof ProjectValidatorCacheable)) {
+      return keys;
+    }
+    final String contentHash;
+    try {
+      contentHash = ValidationReportCache.hashDirectory(projectDir);
+    } catch (final IOException e) {
+      logger.warn("Cannot hash project directory " + projectDir + ", not using cached reports", e);
+      return keys;
+    }
+    final String compoundKey = getCacheKey(project, projectDir, props);
+    for (final Entry<String, ProjectValidator> validator : toRun.entrySet()) {
+      if (validator.getValue() instanceof ProjectValidatorCacheable) {
+        keys.put(validator.getKey(),
+            ValidationReportCache.getKey(compoundKey, contentHash, validator.getKey()));
+      }
+    }
+    return keys;
+  }
+
+  /**
+   * Shut down the validator pool, interrupting the validators still running.
+   */
+  @Override
+  public void close() {
+    if (this.validatorPool != null) {
+      this.validatorPool.shutdownNow();
+    }
+  }
+
   @Override
   public List<String> getValidatorsInfo() {
     final List<String> info = new ArrayList<>();
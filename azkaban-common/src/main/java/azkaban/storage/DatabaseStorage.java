@@ -17,7 +17,6 @@
 
 package azkaban.storage;
 
-import azkaban.project.ProjectFileHandler;
 import azkaban.project.ProjectLoader;
 import azkaban.spi.Dependency;
 import azkaban.spi.Storage;
@@ -46,11 +45,23 @@ public class DatabaseStorage implements Storage {
   @Override
   public InputStream getProject(final String key) {
     throw new UnsupportedOperationException(
-        "Not implemented yet. Use get(projectId, version) instead");
+        "Not implemented yet. Use getProject(key, projectId, version, offset) instead");
   }
 
-  public ProjectFileHandler getProject(final int projectId, final int version) {
-    return this.projectLoader.getUploadedFile(projectId, version);
+  @Override
+  public InputStream getProject(final String key, final int projectId, final int version,
+      final long offset) {
+    return this.projectLoader.getUploadedFileStream(projectId, version, offset);
+  }
+
+  @Override
+  public long getProjectSize(final String key, final int projectId, final int version) {
+    return this.projectLoader.getUploadedFileSize(projectId, version);
+  }
+
+  @Override
+  public boolean putProjectRecordsVersion() {
+    return true;
   }
 
   @Override
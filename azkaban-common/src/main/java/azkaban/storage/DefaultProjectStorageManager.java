@@ -34,9 +34,11 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
 import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.log4j.Logger;
 
@@ -78,7 +80,7 @@ public class DefaultProjectStorageManager implements ProjectStorageManager {
       final User uploader,
       final String uploaderIPAddr) {
     byte[] md5 = null;
-    if (!(this.storage instanceof DatabaseStorage)) {
+    if (!this.storage.putProjectRecordsVersion()) {
       md5 = computeHash(localFile);
     }
     final ProjectStorageMetadata metadata = new ProjectStorageMetadata(
@@ -89,9 +91,8 @@ public class DefaultProjectStorageManager implements ProjectStorageManager {
     /* upload to storage */
     final String resourceId = this.storage.putProject(metadata, localFile);
 
-    /* Add metadata to db */
-    // TODO spyne: remove hack. Database storage should go through the same flow
-    if (!(this.storage instanceof DatabaseStorage)) {
+    /* Add metadata to db, unless the storage already did */
+    if (!this.storage.putProjectRecordsVersion()) {
       this.projectLoader.addProjectVersion(
           project.getId(),
           version,
@@ -130,20 +131,16 @@ public class DefaultProjectStorageManager implements ProjectStorageManager {
   public ProjectFileHandler getProjectFile(final int projectId, final int version) {
     log.info(
         String.format("Fetching project file. project ID: %d version: %d", projectId, version));
-    // TODO spyne: remove huge hack ! There should not be any special handling for Database Storage.
-    if (this.storage instanceof DatabaseStorage) {
-      return ((DatabaseStorage) this.storage).getProject(projectId, version);
-    }
 
     /* Fetch meta data from db */
     final ProjectFileHandler pfh = this.projectLoader.fetchProjectMetaData(projectId, version);
+    if (pfh == null) {
+      return null;
+    }
 
     /* Fetch project file from storage and copy to local file */
-    final String resourceId = requireNonNull(pfh.getResourceId(),
-        String.format("URI is null. project ID: %d version: %d",
-            pfh.getProjectId(), pfh.getVersion()));
-
-    try (final InputStream is = this.storage.getProject(resourceId)) {
+    try (final InputStream is = this.storage.getProject(pfh.getResourceId(), projectId, version,
+        0)) {
       final File file = createTempOutputFile(pfh);
 
       /* Copy from storage to output stream */
@@ -163,6 +160,39 @@ public class DefaultProjectStorageManager implements ProjectStorageManager {
     }
   }
 
+  @Override
+  public ProjectFileHandler getProjectFileMetadata(final int projectId, final int version) {
+    return this.projectLoader.fetchProjectMetaData(projectId, version);
+  }
+
+  @Override
+  public long getProjectFileSize(final ProjectFileHandler pfh) {
+    try {
+      return this.storage
+          .getProjectSize(pfh.getResourceId(), pfh.getProjectId(), pfh.getVersion());
+    } catch (final IOException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  @Override
+  public InputStream openProjectFile(final ProjectFileHandler pfh, final long offset) {
+    log.info(String.format("Opening project file. project ID: %d version: %d offset: %d",
+        pfh.getProjectId(), pfh.getVersion(), offset));
+    final InputStream is;
+    try {
+      is = this.storage
+          .getProject(pfh.getResourceId(), pfh.getProjectId(), pfh.getVersion(), offset);
+    } catch (final IOException e) {
+      throw new StorageException(e);
+    }
+    // only a read of the whole file can be checked against its md5
+    if (offset == 0 && pfh.getMD5Hash() != null) {
+      return new ChecksumValidatingInputStream(is, pfh);
+    }
+    return is;
+  }
+
   private void validateChecksum(final File file, final ProjectFileHandler pfh) throws IOException {
     final byte[] hash = HashUtils.MD5.getHashBytes(file);
     checkState(HashUtils.isSameHash(pfh.getMD5Hash(), hash),
@@ -172,6 +202,53 @@ public class DefaultProjectStorageManager implements ProjectStorageManager {
     );
   }
 
+  /**
+   * Computes the md5 of the file as it is read, and fails the read which reaches the end of the
+   * file if it does not match the md5 recorded for the version.
+   */
+  private static class ChecksumValidatingInputStream extends DigestInputStream {
+
+    private final ProjectFileHandler pfh;
+    private boolean validated = false;
+
+    private ChecksumValidatingInputStream(final InputStream in, final ProjectFileHandler pfh) {
+      super(in, DigestUtils.getMd5Digest());
+      this.pfh = pfh;
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int b = super.read();
+      if (b == -1) {
+        validate();
+      }
+      return b;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      final int n = super.read(b, off, len);
+      if (n == -1) {
+        validate();
+      }
+      return n;
+    }
+
+    private void validate() throws IOException {
+      if (this.validated) {
+        return;
+      }
+      this.validated = true;
+      final byte[] hash = getMessageDigest().digest();
+      if (!HashUtils.isSameHash(this.pfh.getMD5Hash(), hash)) {
+        throw new IOException(String.format(
+            "MD5 HASH Failed. project ID: %d version: %d Expected: %s Actual: %s",
+            this.pfh.getProjectId(), this.pfh.getVersion(),
+            HashUtils.bytesHashToString(this.pfh.getMD5Hash()), HashUtils.bytesHashToString(hash)));
+      }
+    }
+  }
+
   private File createTempOutputFile(final ProjectFileHandler projectFileHandler)
       throws IOException {
     return File.createTempFile(
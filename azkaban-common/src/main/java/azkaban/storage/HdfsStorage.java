@@ -100,6 +100,12 @@ public class HdfsStorage implements Storage {
     return this.hdfsFileContext.open(projectFilePath);
   }
 
+  @Override
+  public long getProjectSize(final String key) throws IOException {
+    this.hdfsAuth.authorize();
+    return this.hdfsFileContext.getFileStatus(fullProjectPath(key)).getLen();
+  }
+
   // IOUtils.closeStreams() is an alternative to this, but it doesn't log exceptions by default
   // and making it use the log4j Logger could be tricky.
   private static void closeStreamsQuietly(final Closeable... streams) {
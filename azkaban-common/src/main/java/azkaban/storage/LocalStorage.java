@@ -82,6 +82,12 @@ public class LocalStorage implements Storage {
     return new FileInputStream(getFileInRoot(key));
   }
 
+  @Override
+  public long getProjectSize(final String key) {
+    final File file = getFileInRoot(key);
+    return file.isFile() ? file.length() : -1;
+  }
+
   @Override
   public String putProject(final ProjectStorageMetadata metadata, final File localFile) {
     final File projectDir = new File(this.rootDirectory, String.valueOf(metadata.getProjectId()));
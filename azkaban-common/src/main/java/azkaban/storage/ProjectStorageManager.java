@@ -21,6 +21,7 @@ import azkaban.project.Project;
 import azkaban.project.ProjectFileHandler;
 import azkaban.user.User;
 import java.io.File;
+import java.io.InputStream;
 import java.util.List;
 
 
@@ -62,4 +63,24 @@ public interface ProjectStorageManager {
    * @return Handler object containing hooks to fetched project file
    */
   ProjectFileHandler getProjectFile(final int projectId, final int version);
+
+  /**
+   * Fetch the metadata of a project file, without fetching the file itself.
+   *
+   * @return Handler object without local file, null if the version does not exist
+   */
+  ProjectFileHandler getProjectFileMetadata(final int projectId, final int version);
+
+  /**
+   * @return the size in bytes of the project file, -1 if the storage can not tell it
+   */
+  long getProjectFileSize(final ProjectFileHandler projectFileHandler);
+
+  /**
+   * Open a stream over the project file in storage, without copying it to a local file. The
+   * caller must close the stream.
+   *
+   * @param offset number of bytes to skip from the beginning of the file
+   */
+  InputStream openProjectFile(final ProjectFileHandler projectFileHandler, final long offset);
 }
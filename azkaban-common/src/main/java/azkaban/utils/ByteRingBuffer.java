@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.utils;
+
+import java.nio.charset.Charset;
+
+/**
+ * Fixed size buffer keeping the most recent bytes written to it. Unlike
+ * {@link CircularBuffer}, appending costs no allocation: the tail of a stream is kept as raw bytes
+ * and only decoded into lines when it is asked for.
+ */
+public class ByteRingBuffer {
+
+  private final byte[] buffer;
+  private long written = 0;
+
+  public ByteRingBuffer(final int capacity) {
+    this.buffer = new byte[capacity];
+  }
+
+  public synchronized void write(final byte[] bytes, final int offset, final int length) {
+    if (this.buffer.length == 0) {
+      return;
+    }
+    int off = offset;
+    int len = length;
+    // only the last capacity bytes can survive
+    if (len > this.buffer.length) {
+      off += len - this.buffer.length;
+      this.written += len - this.buffer.length;
+      len = this.buffer.length;
+    }
+    final int pos = (int) (this.written % this.buffer.length);
+    final int first = Math.min(len, this.buffer.length - pos);
+    System.arraycopy(bytes, off, this.buffer, pos, first);
+    System.arraycopy(bytes, off + first, this.buffer, 0, len - first);
+    this.written += len;
+  }
+
+  /**
+   * @return the buffered bytes, oldest first
+   */
+  public synchronized byte[] toByteArray() {
+    final int size = (int) Math.min(this.written, this.buffer.length);
+    final byte[] result = new byte[size];
+    final int start = (int) ((this.written - size) % Math.max(1, this.buffer.length));
+    final int first = Math.min(size, this.buffer.length - start);
+    System.arraycopy(this.buffer, start, result, 0, first);
+    System.arraycopy(this.buffer, 0, result, first, size - first);
+    return result;
+  }
+
+  /**
+   * @return up to maxLines most recent complete or partial lines, joined by the platform line
+   * separator. The oldest line may be truncated if it did not entirely fit in the buffer.
+   */
+  public String getRecentLines(final int maxLines, final Charset charset) {
+    final String[] lines = new String(toByteArray(), charset).split("\r?\n");
+    final int from = Math.max(0, lines.length - maxLines);
+    final StringBuilder sb = new StringBuilder();
+    for (int i = from; i < lines.length; i++) {
+      if (i > from) {
+        sb.append(System.getProperty("line.separator"));
+      }
+      sb.append(lines[i]);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * @return the total number of bytes ever written
+   */
+  public synchronized long getBytesWritten() {
+    return this.written;
+  }
+}
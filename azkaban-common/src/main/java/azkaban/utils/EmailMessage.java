@@ -166,6 +166,44 @@ public class EmailMessage {
 
   public void sendEmail() throws MessagingException {
     checkSettings();
+    final JavaxMailSender sender = this.creator.createSender(createMailProperties());
+    final Message message = createMessage(sender);
+    retryConnectToSMTPServer(sender);
+    retrySendMessage(sender, message);
+    sender.close();
+  }
+
+  /**
+   * Send the email on a connection of the pool, or on a new connection which is then returned to
+   * the pool, so that consecutive emails don't each connect to the SMTP server.
+   *
+   * The pool checks that a borrowed connection is still alive, so a failure on a pooled connection
+   * happens while sending. It is not retried on a new connection, since the server may already
+   * have accepted part of the email and retrying could deliver it twice.
+   */
+  public void sendEmail(final JavaxMailSenderPool pool) throws MessagingException {
+    checkSettings();
+    final String key = getConnectionKey();
+    final JavaxMailSender pooled = pool.borrow(key);
+    if (pooled != null) {
+      try {
+        final Message message = createMessage(pooled);
+        pooled.sendMessage(message, message.getRecipients(Message.RecipientType.TO));
+        pool.release(key, pooled);
+        return;
+      } catch (final MessagingException | RuntimeException e) {
+        pool.invalidate(pooled);
+        throw e;
+      }
+    }
+    final JavaxMailSender sender = this.creator.createSender(createMailProperties());
+    final Message message = createMessage(sender);
+    retryConnectToSMTPServer(sender);
+    retrySendMessage(sender, message);
+    pool.release(key, sender);
+  }
+
+  private Properties createMailProperties() {
     final Properties props = new Properties();
     if (this._usesAuth) {
       props.put("mail.smtp.auth", "true");
@@ -180,8 +218,18 @@ public class EmailMessage {
     props.put("mail.smtp.connectiontimeout", _connectionTimeout);
     props.put("mail.smtp.starttls.enable", this._tls);
     props.put("mail.smtp.ssl.trust", this._mailHost);
+    return props;
+  }
+
+  /**
+   * @return a key identifying the SMTP connection settings of this email
+   */
+  String getConnectionKey() {
+    return this._mailHost + ":" + this._mailPort + ":" + this._tls + ":"
+        + (this._usesAuth ? this._mailUser + ":" + String.valueOf(this._mailPassword).hashCode() : "");
+  }
 
-    final JavaxMailSender sender = this.creator.createSender(props);
+  private Message createMessage(final JavaxMailSender sender) throws MessagingException {
     final Message message = sender.createMessage();
 
     final InternetAddress from = new InternetAddress(this._fromAddress, false);
@@ -211,10 +259,7 @@ public class EmailMessage {
     } else {
       message.setContent(this._body.toString(), this._mimeType);
     }
-
-    retryConnectToSMTPServer(sender);
-    retrySendMessage(sender, message);
-    sender.close();
+    return message;
   }
 
   private void connectToSMTPServer(final JavaxMailSender s) throws MessagingException {
@@ -299,4 +344,16 @@ public class EmailMessage {
     return this._mailPort;
   }
 
+  public List<String> getToAddress() {
+    return this._toAddress;
+  }
+
+  public String getMimeType() {
+    return this._mimeType;
+  }
+
+  public boolean hasAttachments() {
+    return !this._attachments.isEmpty();
+  }
+
 }
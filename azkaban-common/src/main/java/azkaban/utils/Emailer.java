@@ -72,11 +72,21 @@ public class Emailer extends AbstractMailer implements Alerter {
   private final String azkabanName;
   private final ExecutorLoader executorLoader;
   private final List<HTMLFormElement> htmlParameters;
+  // sends the emails asynchronously, null to send them on the calling thread
+  private final MailDeliveryQueue deliveryQueue;
 
-  @Inject
   public Emailer(final Props props, final CommonMetrics commonMetrics,
       final EmailMessageCreator messageCreator, final ExecutorLoader executorLoader) {
+    this(props, commonMetrics, messageCreator, executorLoader, null);
+  }
+
+  @Inject
+  public Emailer(final Props props, final CommonMetrics commonMetrics,
+      final EmailMessageCreator messageCreator, final ExecutorLoader executorLoader,
+      final MailDeliveryQueue deliveryQueue) {
     super(props, messageCreator);
+    this.deliveryQueue =
+        deliveryQueue != null && deliveryQueue.isEnabled() ? deliveryQueue : null;
     this.executorLoader = requireNonNull(executorLoader, "executorLoader is null.");
     this.commonMetrics = requireNonNull(commonMetrics, "commonMetrics is null.");
     this.azkabanName = props.getString("azkaban.name", "azkaban");
@@ -297,6 +307,10 @@ public class Emailer extends AbstractMailer implements Alerter {
   public void sendEmail(final EmailMessage message, final boolean mailCreated,
       final String operation) {
     if (mailCreated) {
+      if (this.deliveryQueue != null) {
+        this.deliveryQueue.submit(message, operation);
+        return;
+      }
       try {
         message.sendEmail();
         logger.info("Sent " + operation);
@@ -43,6 +43,13 @@ public class JavaxMailSender {
     this.t.sendMessage(message, recipients);
   }
 
+  /**
+   * SMTP transports send a NOOP to the server, so this also detects a dropped connection.
+   */
+  public boolean isConnected() {
+    return this.t.isConnected();
+  }
+
   public void close() throws MessagingException {
     this.t.close();
   }
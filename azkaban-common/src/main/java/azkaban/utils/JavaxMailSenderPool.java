@@ -0,0 +1,138 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import javax.mail.MessagingException;
+import org.apache.log4j.Logger;
+
+/**
+ * Idle connected SMTP senders, per connection settings, so that emails sent in a row reuse the
+ * connection instead of connecting and authenticating for each email.
+ *
+ * Senders idle for longer than the idle timeout are closed, since SMTP servers drop idle
+ * connections. A sender is also checked to still be connected when it is borrowed.
+ */
+public class JavaxMailSenderPool {
+
+  private static final Logger logger = Logger.getLogger(JavaxMailSenderPool.class);
+
+  private final int maxIdlePerKey;
+  private final long idleTimeoutMs;
+  // guarded by itself
+  private final Map<String, Deque<IdleSender>> idleSenders = new HashMap<>();
+  private boolean closed = false;
+
+  public JavaxMailSenderPool(final int maxIdlePerKey, final long idleTimeoutMs) {
+    this.maxIdlePerKey = maxIdlePerKey;
+    this.idleTimeoutMs = idleTimeoutMs;
+  }
+
+  /**
+   * @return a connected sender, or null if there is no idle sender for the connection settings
+   */
+  public JavaxMailSender borrow(final String key) {
+    while (true) {
+      final IdleSender idle;
+      synchronized (this.idleSenders) {
+        final Deque<IdleSender> senders = this.idleSenders.get(key);
+        idle = senders == null ? null : senders.pollFirst();
+      }
+      if (idle == null) {
+        return null;
+      }
+      if (System.currentTimeMillis() - idle.idleSince < this.idleTimeoutMs
+          && idle.sender.isConnected()) {
+        return idle.sender;
+      }
+      closeQuietly(idle.sender);
+    }
+  }
+
+  /**
+   * Give back a connected sender once its email is sent.
+   */
+  public void release(final String key, final JavaxMailSender sender) {
+    synchronized (this.idleSenders) {
+      final Deque<IdleSender> senders = this.idleSenders
+          .computeIfAbsent(key, k -> new ArrayDeque<>());
+      if (!this.closed && senders.size() < this.maxIdlePerKey) {
+        senders.addFirst(new IdleSender(sender, System.currentTimeMillis()));
+        return;
+      }
+    }
+    closeQuietly(sender);
+  }
+
+  /**
+   * Close a sender which failed instead of giving it back.
+   */
+  public void invalidate(final JavaxMailSender sender) {
+    closeQuietly(sender);
+  }
+
+  /**
+   * Close the senders idle for longer than the idle timeout.
+   */
+  public void evictIdle() {
+    final long now = System.currentTimeMillis();
+    synchronized (this.idleSenders) {
+      for (final Deque<IdleSender> senders : this.idleSenders.values()) {
+        for (final Iterator<IdleSender> it = senders.iterator(); it.hasNext(); ) {
+          final IdleSender idle = it.next();
+          if (now - idle.idleSince >= this.idleTimeoutMs) {
+            it.remove();
+            closeQuietly(idle.sender);
+          }
+        }
+      }
+    }
+  }
+
+  public void close() {
+    synchronized (this.idleSenders) {
+      this.closed = true;
+      for (final Deque<IdleSender> senders : this.idleSenders.values()) {
+        senders.forEach(idle -> closeQuietly(idle.sender));
+      }
+      this.idleSenders.clear();
+    }
+  }
+
+  private static void closeQuietly(final JavaxMailSender sender) {
+    try {
+      sender.close();
+    } catch (final MessagingException | RuntimeException e) {
+      logger.debug("Failed to close SMTP connection", e);
+    }
+  }
+
+  private static class IdleSender {
+
+    private final JavaxMailSender sender;
+    private final long idleSince;
+
+    private IdleSender(final JavaxMailSender sender, final long idleSince) {
+      this.sender = sender;
+      this.idleSince = idleSince;
+    }
+  }
+}
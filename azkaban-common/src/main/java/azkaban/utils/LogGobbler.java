@@ -20,6 +20,7 @@ import com.google.common.base.Joiner;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.util.concurrent.ThreadFactory;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 
@@ -29,6 +30,8 @@ public class LogGobbler extends Thread {
   private final Logger logger;
   private final Level loggingLevel;
   private final CircularBuffer<String> buffer;
+  // The thread actually reading the stream: this one, or one created by a thread factory
+  private volatile Thread readerThread = this;
 
   public LogGobbler(final Reader inputReader, final Logger logger,
       final Level level, final int bufferLines) {
@@ -73,9 +76,18 @@ public class LogGobbler extends Thread {
     }
   }
 
+  /**
+   * Start reading on a thread created by the given factory (e.g. a virtual thread) rather than on
+   * this thread.
+   */
+  public void start(final ThreadFactory threadFactory) {
+    this.readerThread = threadFactory.newThread(this);
+    this.readerThread.start();
+  }
+
   public void awaitCompletion(final long waitMs) {
     try {
-      join(waitMs);
+      this.readerThread.join(waitMs);
     } catch (final InterruptedException e) {
       info("I/O thread interrupted.", e);
     }
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.utils;
+
+import static azkaban.Constants.ConfigurationKeys.MAIL_DELIVERY_ASYNC_ENABLED;
+import static azkaban.Constants.ConfigurationKeys.MAIL_DELIVERY_QUEUE_CAPACITY;
+import static azkaban.Constants.ConfigurationKeys.MAIL_DELIVERY_SHUTDOWN_TIMEOUT_MS;
+import static azkaban.Constants.ConfigurationKeys.MAIL_DELIVERY_THREADS;
+import static azkaban.Constants.ConfigurationKeys.MAIL_DIGEST_WINDOW_MS;
+import static azkaban.Constants.ConfigurationKeys.MAIL_SMTP_POOL_IDLE_TIMEOUT_MS;
+
+import azkaban.metrics.CommonMetrics;
+import azkaban.metrics.MetricsManager;
+import com.codahale.metrics.Histogram;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.mail.internet.AddressException;
+import org.apache.log4j.Logger;
+
+/**
+ * Sends emails from a bounded queue, so that raising an alert, e.g. when finalizing a flow, does
+ * not wait for the SMTP server. The senders reuse their SMTP connections through a {@link
+ * JavaxMailSenderPool}. When the queue is full, the email is sent by the thread raising the
+ * alert, as it was before the queue.
+ *
+ * When the digest window is set, emails without attachments sent to the same recipients within
+ * the window are sent as a single email, so that an outage failing many flows at once doesn't
+ * flood the recipients and the SMTP server.
+ *
+ * The sender threads are daemon threads, so {@link #close()} must be called before the JVM exits
+ * to send the queued emails and the digests still held.
+ */
+@Singleton
+public class MailDeliveryQueue {
+
+  public static final String QUEUE_DEPTH_GAUGE_NAME = "mail-delivery-queue-depth";
+  public static final String DELIVERY_LATENCY_HISTOGRAM_NAME = "mail-delivery-latency-ms";
+
+  private static final Logger logger = Logger.getLogger(MailDeliveryQueue.class);
+  private static final String HTML_MIME_TYPE = "text/html";
+
+  private final boolean enabled;
+  private final long digestWindowMs;
+  private final long shutdownTimeoutMs;
+  private final EmailMessageCreator messageCreator;
+  private final CommonMetrics commonMetrics;
+  private final Histogram deliveryLatencyMs;
+  private final JavaxMailSenderPool senderPool;
+  private final ThreadPoolExecutor senders;
+  private final ScheduledExecutorService timer;
+  // emails waiting for the digest window of their recipients to end, guarded by itself
+  private final Map<String, List<Pending>> digests = new LinkedHashMap<>();
+  private int digestedCount = 0;
+  private boolean closed = false;
+
+  @Inject
+  public MailDeliveryQueue(final Props props, final EmailMessageCreator messageCreator,
+      final CommonMetrics commonMetrics, final MetricsManager metricsManager) {
+    this.enabled = props.getBoolean(MAIL_DELIVERY_ASYNC_ENABLED, true);
+    this.digestWindowMs = props.getLong(MAIL_DIGEST_WINDOW_MS, 0);
+    this.shutdownTimeoutMs = props.getLong(MAIL_DELIVERY_SHUTDOWN_TIMEOUT_MS, 30_000L);
+    this.messageCreator = messageCreator;
+    this.commonMetrics = commonMetrics;
+    final int threads = Math.max(1, props.getInt(MAIL_DELIVERY_THREADS, 2));
+    final long idleTimeoutMs = props.getLong(MAIL_SMTP_POOL_IDLE_TIMEOUT_MS, 30_000L);
+    this.senderPool = new JavaxMailSenderPool(threads, idleTimeoutMs);
+    this.senders = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, props.getInt(MAIL_DELIVERY_QUEUE_CAPACITY, 1000))),
+        new ThreadFactoryBuilder().setNameFormat("azk-mail-delivery-%d").setDaemon(true).build(),
+        (task, executor) -> {
+          if (!executor.isShutdown()) {
+            logger.warn("Mail delivery queue is full, sending on the alerting thread");
+          }
+          task.run();
+        });
+    this.timer = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("azk-mail-delivery-timer").setDaemon(true)
+            .build());
+    if (this.enabled) {
+      this.timer.scheduleWithFixedDelay(this.senderPool::evictIdle, idleTimeoutMs, idleTimeoutMs,
+          TimeUnit.MILLISECONDS);
+    }
+    metricsManager.addGauge(QUEUE_DEPTH_GAUGE_NAME, this::getQueueDepth);
+    this.deliveryLatencyMs = metricsManager.addHistogram(DELIVERY_LATENCY_HISTOGRAM_NAME);
+  }
+
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  /**
+   * @return the number of emails waiting to be sent, including those waiting for their digest
+   */
+  public int getQueueDepth() {
+    synchronized (this.digests) {
+      return this.senders.getQueue().size() + this.digestedCount;
+    }
+  }
+
+  /**
+   * Queue the email and return without waiting for it to be sent.
+   */
+  public void submit(final EmailMessage message, final String operation) {
+    final Pending pending = new Pending(message, operation, System.currentTimeMillis());
+    if (this.digestWindowMs <= 0 || message.hasAttachments()) {
+      this.senders.execute(() -> deliver(message, operation, pending));
+      return;
+    }
+    final String key = getDigestKey(message);
+    synchronized (this.digests) {
+      if (this.closed) {
+        // the timer is stopped, send right away
+        this.senders.execute(() -> deliver(message, operation, pending));
+        return;
+      }
+      List<Pending> digest = this.digests.get(key);
+      if (digest == null) {
+        digest = new ArrayList<>();
+        this.digests.put(key, digest);
+        this.timer.schedule(() -> flushDigest(key), this.digestWindowMs, TimeUnit.MILLISECONDS);
+      }
+      digest.add(pending);
+      this.digestedCount++;
+    }
+  }
+
+  /**
+   * Send the digests still held and wait, up to the shutdown timeout, for the queued emails to be
+   * sent. Emails submitted afterwards are sent on the calling thread.
+   */
+  public void close() {
+    final List<String> keys;
+    synchronized (this.digests) {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+      keys = new ArrayList<>(this.digests.keySet());
+    }
+    this.timer.shutdownNow();
+    keys.forEach(this::flushDigest);
+    this.senders.shutdown();
+    try {
+      if (!this.senders.awaitTermination(this.shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+        logger.error("Mail delivery queue did not drain within " + this.shutdownTimeoutMs
+            + " ms, " + this.senders.getQueue().size() + " emails were not sent");
+      }
+    } catch (final InterruptedException e) {
+      logger.warn("Interrupted while draining the mail delivery queue");
+      Thread.currentThread().interrupt();
+    }
+    this.senderPool.close();
+  }
+
+  private void flushDigest(final String key) {
+    final List<Pending> digest;
+    synchronized (this.digests) {
+      digest = this.digests.remove(key);
+      if (digest == null) {
+        return;
+      }
+      this.digestedCount -= digest.size();
+    }
+    if (digest.size() == 1) {
+      final Pending pending = digest.get(0);
+      this.senders.execute(() -> deliver(pending.message, pending.operation, pending));
+    } else {
+      final EmailMessage message = createDigest(digest);
+      final String operation = "digest of " + digest.size() + " emails to "
+          + message.getToAddress();
+      this.senders.execute(() -> deliver(message, operation, digest.toArray(new Pending[0])));
+    }
+  }
+
+  private EmailMessage createDigest(final List<Pending> digest) {
+    final EmailMessage first = digest.get(0).message;
+    final boolean html = HTML_MIME_TYPE.equals(first.getMimeType());
+    final StringBuilder body = new StringBuilder();
+    for (final Pending pending : digest) {
+      if (html) {
+        body.append("<h3>").append(pending.message.getSubject()).append("</h3>")
+            .append(pending.message.getBody()).append("<hr/>");
+      } else {
+        body.append(pending.message.getSubject()).append("\n\n")
+            .append(pending.message.getBody()).append("\n\n----\n\n");
+      }
+    }
+    final EmailMessage message = this.messageCreator.createMessage();
+    message.addAllToAddress(first.getToAddress());
+    message.setSubject(first.getSubject() + " (and " + (digest.size() - 1) + " more)");
+    message.setBody(body.toString(), first.getMimeType());
+    return message;
+  }
+
+  private static String getDigestKey(final EmailMessage message) {
+    return message.getConnectionKey() + "|" + message.getMimeType() + "|"
+        + new TreeSet<>(message.getToAddress());
+  }
+
+  private void deliver(final EmailMessage message, final String operation,
+      final Pending... pendings) {
+    try {
+      message.sendEmail(this.senderPool);
+      logger.info("Sent " + operation);
+      this.commonMetrics.markSendEmailSuccess();
+    } catch (final Exception e) {
+      logger.error("Failed to send " + operation, e);
+      if (!(e instanceof AddressException)) {
+        this.commonMetrics.markSendEmailFail();
+      }
+    }
+    final long now = System.currentTimeMillis();
+    for (final Pending pending : pendings) {
+      this.deliveryLatencyMs.update(now - pending.submitTime);
+    }
+  }
+
+  private static class Pending {
+
+    private final EmailMessage message;
+    private final String operation;
+    private final long submitTime;
+
+    private Pending(final EmailMessage message, final String operation, final long submitTime) {
+      this.message = message;
+      this.operation = operation;
+      this.submitTime = submitTime;
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread-per-task executor whose concurrency is bounded by a semaphore instead of a pool size.
+ *
+ * Meant to be used with virtual threads: every submitted task gets its own (cheap) thread right
+ * away, and the thread waits on the semaphore until one of the permits frees up. Tasks waiting for
+ * a permit therefore cost no carrier thread, and at most {@code permits} tasks run at a time.
+ */
+public class SemaphoreBoundedExecutor extends AbstractExecutorService {
+
+  private final Semaphore permits;
+  private final ThreadFactory threadFactory;
+  private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+  private volatile boolean shutdown = false;
+
+  public SemaphoreBoundedExecutor(final int permits, final ThreadFactory threadFactory) {
+    this.permits = new Semaphore(permits, true);
+    this.threadFactory = threadFactory;
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    if (this.shutdown) {
+      throw new RejectedExecutionException("Executor has been shut down");
+    }
+    final Thread[] self = new Thread[1];
+    final Thread thread = this.threadFactory.newThread(() -> {
+      try {
+        this.permits.acquire();
+        try {
+          command.run();
+        } finally {
+          this.permits.release();
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        this.threads.remove(self[0]);
+        synchronized (this.threads) {
+          this.threads.notifyAll();
+        }
+      }
+    });
+    self[0] = thread;
+    this.threads.add(thread);
+    thread.start();
+  }
+
+  /**
+   * @return the number of tasks currently holding a permit
+   */
+  public int getActiveCount() {
+    return this.threads.size() - getQueuedCount();
+  }
+
+  /**
+   * @return the number of tasks waiting for a permit
+   */
+  public int getQueuedCount() {
+    return this.permits.getQueueLength();
+  }
+
+  @Override
+  public void shutdown() {
+    this.shutdown = true;
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    this.shutdown = true;
+    for (final Thread thread : this.threads) {
+      thread.interrupt();
+    }
+    return new ArrayList<>();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return this.shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return this.shutdown && this.threads.isEmpty();
+  }
+
+  @Override
+  public boolean awaitTermination(final long timeout, final TimeUnit unit)
+      throws InterruptedException {
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+    synchronized (this.threads) {
+      while (!isTerminated()) {
+        final long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remainingMs <= 0) {
+          return false;
+        }
+        this.threads.wait(remainingMs);
+      }
+    }
+    return true;
+  }
+}
@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import org.apache.log4j.Logger;
@@ -51,8 +52,14 @@ public class TrackingThreadPool extends ThreadPoolExecutor {
   public TrackingThreadPool(final int corePoolSize, final int maximumPoolSize,
       final long keepAliveTime, final TimeUnit unit, final BlockingQueue<Runnable> workQueue,
       final ThreadPoolExecutingListener listener) {
-    super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue,
+    this(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, listener,
         new ThreadFactoryBuilder().setNameFormat("azk-tracking-pool-%d").build());
+  }
+
+  public TrackingThreadPool(final int corePoolSize, final int maximumPoolSize,
+      final long keepAliveTime, final TimeUnit unit, final BlockingQueue<Runnable> workQueue,
+      final ThreadPoolExecutingListener listener, final ThreadFactory threadFactory) {
+    super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory);
     if (listener != null) {
       this.executingListener = listener;
     }
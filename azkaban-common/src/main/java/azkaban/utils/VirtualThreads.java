@@ -0,0 +1,113 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.utils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import org.apache.log4j.Logger;
+
+/**
+ * Access to virtual threads (JDK 21+) without requiring them at compile time. The code base is
+ * built for Java 8, so the {@code Thread.ofVirtual()} builder is looked up reflectively. On older
+ * runtimes {@link #isAvailable()} returns false and {@link #threadFactory(String)} falls back to
+ * named platform threads.
+ */
+public class VirtualThreads {
+
+  /**
+   * System property read by the JDK to print a stack trace when a virtual thread blocks while
+   * pinned to its carrier (e.g. inside a synchronized block). Valid values are "short" and "full".
+   */
+  public static final String TRACE_PINNED_THREADS_PROPERTY = "jdk.tracePinnedThreads";
+
+  private static final Logger logger = Logger.getLogger(VirtualThreads.class);
+
+  private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+
+  private VirtualThreads() {
+  }
+
+  /**
+   * @return true if the running JVM can create virtual threads
+   */
+  public static boolean isAvailable() {
+    return OF_VIRTUAL != null;
+  }
+
+  /**
+   * Create a factory of virtual threads named {@code <namePrefix><n>}, or of daemon platform
+   * threads with the same names if virtual threads are not available.
+   */
+  public static ThreadFactory threadFactory(final String namePrefix) {
+    if (isAvailable()) {
+      try {
+        // Resolve the methods on the public Thread.Builder interface, the implementation
+        // classes are not accessible.
+        final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+        Object builder = OF_VIRTUAL.invoke(null);
+        builder = builderClass.getMethod("name", String.class, long.class)
+            .invoke(builder, namePrefix, 0L);
+        return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+      } catch (final ReflectiveOperationException | RuntimeException e) {
+        logger.warn("Unable to create a virtual thread factory, using platform threads", e);
+      }
+    }
+    return new ThreadFactoryBuilder().setNameFormat(namePrefix + "%d").setDaemon(true).build();
+  }
+
+  /**
+   * @return true if the thread is a virtual thread
+   */
+  public static boolean isVirtual(final Thread thread) {
+    final Method isVirtual = findMethod(Thread.class, "isVirtual");
+    if (isVirtual == null) {
+      return false;
+    }
+    try {
+      return (Boolean) isVirtual.invoke(thread);
+    } catch (final ReflectiveOperationException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Ask the JDK to report virtual threads that block while pinned to their carrier thread. The
+   * JDK reads the setting once, when the first virtual thread is created, so this must be called
+   * before any virtual thread is started. An explicit -Djdk.tracePinnedThreads on the command line
+   * takes precedence.
+   *
+   * @param mode "short" or "full"; anything else disables the tracing
+   */
+  public static void tracePinnedThreads(final String mode) {
+    if (!"short".equals(mode) && !"full".equals(mode)) {
+      return;
+    }
+    if (System.getProperty(TRACE_PINNED_THREADS_PROPERTY) == null) {
+      System.setProperty(TRACE_PINNED_THREADS_PROPERTY, mode);
+    }
+    logger.info("Pinned virtual threads will be reported to stdout, mode: "
+        + System.getProperty(TRACE_PINNED_THREADS_PROPERTY));
+  }
+
+  private static Method findMethod(final Class<?> clazz, final String name) {
+    try {
+      return clazz.getMethod(name);
+    } catch (final NoSuchMethodException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.utils;
+
+import static azkaban.utils.YarnUtils.YARN_CONF_DIRECTORY_PROPERTY;
+
+import azkaban.cluster.Cluster;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import java.io.Closeable;
+import java.security.PrivilegedExceptionAction;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.security.UserGroupInformation;
+import org.apache.hadoop.yarn.client.api.YarnClient;
+import org.apache.log4j.Logger;
+
+/**
+ * Keeps started {@link YarnClient}s alive across calls so that periodic tasks (e.g. the yarn
+ * application cleanup) do not re-create the RM connection for every cycle and every application.
+ *
+ * <p>Two kinds of clients are pooled: one client per cluster running as the login user, used to
+ * list applications, and one client per (cluster, application user), created inside the proxy
+ * user's doAs block, used to kill applications on behalf of their owner. Idle clients are stopped
+ * after the configured idle time, and the pool is bounded so that a burst of distinct users cannot
+ * grow it without limit.
+ *
+ * <p>Clients are handed out as {@link Lease}s, to be closed once the call is done. A client
+ * removed from the pool while leased, e.g. evicted by the size bound, is only stopped when its
+ * last lease is closed.
+ */
+public class YarnClientPool implements Closeable {
+
+  public static final int DEFAULT_MAX_SIZE = 200;
+  public static final long DEFAULT_IDLE_MIN = 30;
+
+  private static final Logger logger = Logger.getLogger(YarnClientPool.class);
+  private static final String KEY_SEPARATOR = "#";
+
+  private final Cache<String, PooledClient> clients;
+
+  public YarnClientPool() {
+    this(DEFAULT_MAX_SIZE, DEFAULT_IDLE_MIN);
+  }
+
+  public YarnClientPool(final int maxSize, final long idleMinutes) {
+    this.clients = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterAccess(idleMinutes, TimeUnit.MINUTES)
+        .removalListener((RemovalListener<String, PooledClient>) notification -> {
+          logger.info("Removing pooled yarn client " + notification.getKey() + ", cause: "
+              + notification.getCause());
+          notification.getValue().evict();
+        })
+        .build();
+  }
+
+  /**
+   * Lease (or create and start) the yarn client of the cluster, running as the login user.
+   */
+  public Lease getClient(final Cluster cluster, final Logger log) throws ExecutionException {
+    return lease(clusterKey(cluster),
+        () -> YarnUtils.createYarnClient(cluster.getProperties(), log));
+  }
+
+  /**
+   * Lease (or create and start) the yarn client of the cluster, running as a proxy of the given
+   * user. The client is created inside the proxy user's doAs so that the RM connection carries
+   * that user's identity.
+   */
+  public Lease getProxyClient(final Cluster cluster, final String user, final Logger log)
+      throws ExecutionException {
+    return lease(clusterKey(cluster) + KEY_SEPARATOR + user, () -> {
+      final UserGroupInformation proxyUser = UserGroupInformation.createProxyUser(
+          user, UserGroupInformation.getLoginUser());
+      return proxyUser.doAs((PrivilegedExceptionAction<YarnClient>) () ->
+          YarnUtils.createYarnClient(cluster.getProperties(), log));
+    });
+  }
+
+  @VisibleForTesting
+  Lease lease(final String key, final Callable<YarnClient> factory) throws ExecutionException {
+    while (true) {
+      final PooledClient pooled = this.clients.get(key, () -> new PooledClient(factory.call()));
+      if (pooled.acquire()) {
+        return new Lease(pooled);
+      }
+      // Removed from the pool since it was looked up, the next lookup creates a new client.
+    }
+  }
+
+  /**
+   * Drop the login-user client of the cluster, e.g. after an RPC failure, so the next call
+   * reconnects.
+   */
+  public void invalidate(final Cluster cluster) {
+    this.clients.invalidate(clusterKey(cluster));
+  }
+
+  /**
+   * Drop the proxy client of the cluster for the given user.
+   */
+  public void invalidate(final Cluster cluster, final String user) {
+    this.clients.invalidate(clusterKey(cluster) + KEY_SEPARATOR + user);
+  }
+
+  public long size() {
+    this.clients.cleanUp();
+    return this.clients.size();
+  }
+
+  @Override
+  public void close() {
+    this.clients.invalidateAll();
+    this.clients.cleanUp();
+  }
+
+  private static String clusterKey(final Cluster cluster) {
+    return cluster.getProperties().getString(YARN_CONF_DIRECTORY_PROPERTY,
+        cluster.getClusterId());
+  }
+
+  private static void stopQuietly(final YarnClient client) {
+    if (client == null) {
+      return;
+    }
+    try {
+      client.stop();
+    } catch (final Exception e) {
+      logger.warn("Failed to stop yarn client", e);
+    }
+  }
+
+  /**
+   * A pooled client with the number of leases currently using it.
+   */
+  private static final class PooledClient {
+
+    private final YarnClient client;
+    private int leases = 0;
+    private boolean evicted = false;
+
+    private PooledClient(final YarnClient client) {
+      this.client = client;
+    }
+
+    private synchronized boolean acquire() {
+      if (this.evicted) {
+        return false;
+      }
+      this.leases++;
+      return true;
+    }
+
+    private synchronized void release() {
+      this.leases--;
+      if (this.evicted && this.leases == 0) {
+        stopQuietly(this.client);
+      }
+    }
+
+    private synchronized void evict() {
+      this.evicted = true;
+      if (this.leases == 0) {
+        stopQuietly(this.client);
+      }
+    }
+  }
+
+  /**
+   * Use of a pooled client, to be closed once done with it. Closing it twice has no effect.
+   */
+  public static final class Lease implements Closeable {
+
+    private final PooledClient pooled;
+    private boolean closed = false;
+
+    private Lease(final PooledClient pooled) {
+      this.pooled = pooled;
+    }
+
+    public YarnClient getClient() {
+      return this.pooled.client;
+    }
+
+    @Override
+    public synchronized void close() {
+      if (!this.closed) {
+        this.closed = true;
+        this.pooled.release();
+      }
+    }
+  }
+}
@@ -191,6 +191,22 @@ public class YarnUtils {
     }
   }
 
+  /**
+   * Kill the application on behalf of its owner, reusing the owner's pooled proxy client. A failed
+   * client is evicted from the pool so that the next attempt reconnects.
+   */
+  public static void killApplicationAsProxyUser(final YarnClientPool clientPool,
+      final Cluster cluster, final ApplicationReport app, final Logger log) {
+    try (YarnClientPool.Lease lease = clientPool.getProxyClient(cluster, app.getUser(), log)) {
+      lease.getClient().killApplication(app.getApplicationId());
+      log.info("successfully killed application: " + app.getApplicationId());
+    } catch (final Exception e) {
+      clientPool.invalidate(cluster, app.getUser());
+      log.warn("Fail to killApplication as proxy user " + app.getUser(), e);
+      throw new RuntimeException("Fail to killApplication as proxy user " + app.getUser(), e);
+    }
+  }
+
   /**
    * Create, initialize and start a YarnClient connecting to the Yarn Cluster (resource manager),
    * using the resources passed in with props.
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.UniformReservoir;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EventDispatcherTest {
+
+  private EventDispatcher dispatcher;
+  private Histogram latency;
+
+  @Before
+  public void setUp() {
+    this.latency = new Histogram(new UniformReservoir());
+    this.dispatcher = new EventDispatcher(4, this.latency);
+  }
+
+  @After
+  public void tearDown() {
+    this.dispatcher.close();
+  }
+
+  @Test
+  public void testEventsOfAKeyAreDeliveredInOrder() {
+    final List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+    final EventHandler<Integer> handler = new EventHandler<>();
+    handler.addListener(received::add);
+    handler.setEventDispatcher(this.dispatcher, 1);
+
+    for (int i = 0; i < 1000; i++) {
+      handler.fireEventListeners(i);
+    }
+
+    await().atMost(10, TimeUnit.SECONDS).until(() -> received.size() == 1000);
+    for (int i = 0; i < 1000; i++) {
+      assertThat(received.get(i)).isEqualTo(i);
+    }
+    assertThat(this.dispatcher.getQueueDepth()).isZero();
+    assertThat(this.latency.getCount()).isEqualTo(1000);
+  }
+
+  @Test
+  public void testSlowListenerDoesNotBlockTheFiringThread() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<String> received = Collections.synchronizedList(new ArrayList<>());
+    final EventHandler<String> handler = new EventHandler<>();
+    handler.addListener(event -> {
+      try {
+        release.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      received.add(event);
+    });
+    handler.addListener((SynchronousEventListener<String>) event -> received.add("sync-" + event));
+    handler.setEventDispatcher(this.dispatcher, "flow");
+
+    handler.fireEventListeners("a");
+    handler.fireEventListeners("b");
+
+    // the synchronous listener was called on this thread, the slow one is still queued
+    assertThat(received).containsExactly("sync-a", "sync-b");
+    // "a" is being delivered, "b" waits behind it
+    await().atMost(10, TimeUnit.SECONDS).until(() -> this.dispatcher.getQueueDepth() == 1);
+
+    release.countDown();
+    await().atMost(10, TimeUnit.SECONDS).until(() -> received.size() == 4);
+    assertThat(received.subList(2, 4)).containsExactly("a", "b");
+  }
+
+  @Test
+  public void testWithoutDispatcherListenersAreCalledSynchronously() {
+    final List<String> received = new ArrayList<>();
+    final EventHandler<String> handler = new EventHandler<>();
+    handler.addListener(received::add);
+    handler.addListener(event -> {
+      throw new IllegalStateException("failing listener");
+    });
+
+    handler.fireEventListeners("a");
+    assertThat(received).containsExactly("a");
+  }
+}
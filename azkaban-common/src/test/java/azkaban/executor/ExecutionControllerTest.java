@@ -22,6 +22,7 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -44,6 +45,7 @@ import azkaban.utils.TestUtils;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -293,6 +295,63 @@ public class ExecutionControllerTest {
     Assert.assertEquals(0, this.controller.getApplicationIds(this.flow1, "job1", 0).size());
   }
 
+  /**
+   * Test that indexed application ids are preferred over scanning the log.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void testGetApplicationIdsFromIndex() throws Exception {
+    this.props.put(ConfigurationKeys.AZKABAN_APPLICATION_ID_INDEX_ENABLED, "true");
+    this.controller = new ExecutionController(this.props, null, this.executorLoader,
+        this.nearlineExecutionLogsLoader, this.offlineExecutionLogsLoader, this.commonMetrics,
+        this.apiGateway, this.alertHolder, this.executorHealthChecker, this.eventListener,
+        this.containerizationMetrics);
+    when(this.executorLoader.fetchActiveFlowByExecId(this.flow1.getExecutionId()))
+        .thenReturn(new Pair<>(this.ref1, this.flow1));
+    when(this.apiGateway.callWithReference(any(), eq(ConnectorParams.LOG_ACTION), any()))
+        .then(getLogChunksMock("Submitted application_12345_6789."));
+    when(this.executorLoader.fetchApplicationIds(this.flow1.getExecutionId(), "job1", 0))
+        .thenReturn(ImmutableSet.of("98765_4321", "12345_6789"));
+
+    assertThat(this.controller.getApplicationIds(this.flow1, "job1", 0))
+        .containsExactly("98765_4321", "12345_6789");
+    verify(this.apiGateway, never())
+        .callWithReference(any(), eq(ConnectorParams.LOG_ACTION), any());
+
+    // An attempt indexed without application ids doesn't fall back to the log either.
+    when(this.executorLoader.fetchApplicationIds(this.flow1.getExecutionId(), "job1", 1))
+        .thenReturn(ImmutableSet.of());
+    assertThat(this.controller.getApplicationIds(this.flow1, "job1", 1)).isEmpty();
+    verify(this.apiGateway, never())
+        .callWithReference(any(), eq(ConnectorParams.LOG_ACTION), any());
+
+    // Attempts missing from the index, or an index that can't be read, scan the log.
+    assertThat(this.controller.getApplicationIds(this.flow1, "job1", 2))
+        .containsExactly("12345_6789");
+    when(this.executorLoader.fetchApplicationIds(this.flow1.getExecutionId(), "job1", 3))
+        .thenThrow(new ExecutorManagerException("index unavailable"));
+    assertThat(this.controller.getApplicationIds(this.flow1, "job1", 3))
+        .containsExactly("12345_6789");
+  }
+
+  /**
+   * Test that the index is not read when it is disabled, as it is by default.
+   *
+   * @throws Exception the exception
+   */
+  @Test
+  public void testGetApplicationIdsIndexDisabled() throws Exception {
+    when(this.executorLoader.fetchActiveFlowByExecId(this.flow1.getExecutionId()))
+        .thenReturn(new Pair<>(this.ref1, this.flow1));
+    when(this.apiGateway.callWithReference(any(), eq(ConnectorParams.LOG_ACTION), any()))
+        .then(getLogChunksMock("Submitted application_12345_6789."));
+
+    assertThat(this.controller.getApplicationIds(this.flow1, "job1", 0))
+        .containsExactly("12345_6789");
+    verify(this.executorLoader, never()).fetchApplicationIds(anyInt(), anyString(), anyInt());
+  }
+
   private Answer<Object> getLogChunksMock(final String logData) {
     return invocationOnMock -> {
       String offsetStr = null, lengthStr = null;
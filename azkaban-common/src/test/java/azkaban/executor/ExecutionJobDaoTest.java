@@ -0,0 +1,159 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import azkaban.db.DatabaseOperator;
+import azkaban.test.Utils;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ExecutionJobDaoTest {
+
+  private static final int PROJECT_ID = 1;
+  private static final String JOB_ID = "job";
+  private static DatabaseOperator dbOperator;
+  private ExecutionJobDao executionJobDao;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    dbOperator = Utils.initTestDB();
+  }
+
+  @AfterClass
+  public static void destroyDB() {
+    try {
+      dbOperator.update("DROP ALL OBJECTS");
+      dbOperator.update("SHUTDOWN");
+    } catch (final SQLException e) {
+      e.printStackTrace();
+    }
+  }
+
+  @Before
+  public void setup() throws SQLException {
+    this.executionJobDao = new ExecutionJobDao(dbOperator);
+    // 20 executions of the job, with a retry in every third one and the job also in an embedded
+    // flow in every fifth one
+    for (int execId = 1; execId <= 20; execId++) {
+      insertJobRun(execId, "flow", 0);
+      if (execId % 3 == 0) {
+        insertJobRun(execId, "flow", 1);
+      }
+      if (execId % 5 == 0) {
+        insertJobRun(execId, "flow:embedded", 0);
+      }
+    }
+    insertJobRun(21, "flow", 0, "otherJob");
+  }
+
+  @After
+  public void clearDB() throws SQLException {
+    dbOperator.update("DELETE FROM execution_jobs");
+    dbOperator.update("DELETE FROM execution_job_application_ids");
+  }
+
+  private static void insertJobRun(final int execId, final String flowId, final int attempt)
+      throws SQLException {
+    insertJobRun(execId, flowId, attempt, JOB_ID);
+  }
+
+  private static void insertJobRun(final int execId, final String flowId, final int attempt,
+      final String jobId) throws SQLException {
+    dbOperator.update("INSERT INTO execution_jobs "
+            + "(exec_id, project_id, version, flow_id, job_id, attempt, start_time, end_time, "
+            + "status) VALUES (?,?,?,?,?,?,?,?,?)", execId, PROJECT_ID, 1, flowId, jobId, attempt,
+        execId * 1000L, execId * 1000L + 500, Status.SUCCEEDED.getNumVal());
+  }
+
+  private static List<String> keys(final List<ExecutableJobInfo> infos) {
+    return infos.stream().map(info -> JobHistoryCursor.after(info).toString())
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testCursorPagesMatchOffsetPages() throws Exception {
+    final int pageSize = 4;
+    final List<String> offsetPages = new ArrayList<>();
+    List<ExecutableJobInfo> page;
+    for (int skip = 0;
+        (page = this.executionJobDao.fetchJobHistory(PROJECT_ID, JOB_ID, skip, pageSize)) != null;
+        skip += pageSize) {
+      offsetPages.addAll(keys(page));
+    }
+
+    final List<String> cursorPages = new ArrayList<>();
+    page = this.executionJobDao.fetchJobHistory(PROJECT_ID, JOB_ID, 0, pageSize);
+    while (page != null) {
+      assertThat(page.size()).isLessThanOrEqualTo(pageSize);
+      cursorPages.addAll(keys(page));
+      page = this.executionJobDao.fetchJobHistory(PROJECT_ID, JOB_ID,
+          JobHistoryCursor.after(page.get(page.size() - 1)), pageSize);
+    }
+
+    // 20 runs, 6 retries and 4 runs in the embedded flow
+    assertThat(cursorPages).hasSize(30).doesNotHaveDuplicates().isEqualTo(offsetPages);
+    assertThat(cursorPages.subList(0, 4))
+        .containsExactly("20:0:flow:embedded", "20:0:flow", "19:0:flow", "18:1:flow");
+  }
+
+  @Test
+  public void testCursorRoundTrip() {
+    final JobHistoryCursor cursor = JobHistoryCursor.parse("15:2:flow:embedded");
+    assertThat(cursor.getExecId()).isEqualTo(15);
+    assertThat(cursor.getAttempt()).isEqualTo(2);
+    assertThat(cursor.getFlowId()).isEqualTo("flow:embedded");
+    assertThat(cursor.toString()).isEqualTo("15:2:flow:embedded");
+  }
+
+  @Test
+  public void testApplicationIdsRoundTrip() throws Exception {
+    assertThat(this.executionJobDao.fetchApplicationIds(1, JOB_ID, 0)).isNull();
+
+    this.executionJobDao.uploadApplicationIds(1, JOB_ID, 0,
+        Arrays.asList("98765_4321", "12345_6789"));
+    this.executionJobDao.uploadApplicationIds(1, JOB_ID, 1, Collections.emptyList());
+    assertThat(this.executionJobDao.fetchApplicationIds(1, JOB_ID, 0))
+        .containsExactly("98765_4321", "12345_6789");
+    // Attempts without application ids take no row.
+    assertThat(this.executionJobDao.fetchApplicationIds(1, JOB_ID, 1)).isNull();
+    assertThat(dbOperator.query("SELECT COUNT(*) FROM execution_job_application_ids",
+        rs -> rs.next() ? rs.getInt(1) : 0)).isEqualTo(1);
+    assertThat(this.executionJobDao.fetchApplicationIds(1, "otherJob", 0)).isNull();
+    assertThat(this.executionJobDao.fetchApplicationIds(2, JOB_ID, 0)).isNull();
+  }
+
+  @Test
+  public void testUploadApplicationIdsTwiceReplacesIndex() throws Exception {
+    this.executionJobDao.uploadApplicationIds(1, JOB_ID, 0, Arrays.asList("12345_6789"));
+    this.executionJobDao.uploadApplicationIds(1, JOB_ID, 0,
+        Arrays.asList("12345_6789", "98765_4321"));
+    assertThat(this.executionJobDao.fetchApplicationIds(1, JOB_ID, 0))
+        .containsExactly("12345_6789", "98765_4321");
+    assertThat(dbOperator.query("SELECT COUNT(*) FROM execution_job_application_ids",
+        rs -> rs.next() ? rs.getInt(1) : 0)).isEqualTo(1);
+  }
+}
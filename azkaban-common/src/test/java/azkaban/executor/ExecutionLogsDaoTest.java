@@ -24,6 +24,7 @@ import azkaban.test.executions.ExecutionsTestUtil;
 import azkaban.utils.FileIOUtils.LogData;
 import java.io.File;
 import java.sql.SQLException;
+import java.util.Arrays;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -60,6 +61,7 @@ public class ExecutionLogsDaoTest {
   public void clearDB() {
     try {
       dbOperator.update("delete from execution_logs");
+      dbOperator.update("delete from execution_job_application_ids");
     } catch (final SQLException e) {
       e.printStackTrace();
     }
@@ -149,4 +151,16 @@ public class ExecutionLogsDaoTest {
     totalRemovedRecords = executionLogsDao.removeExecutionLogsByTime(currentTimeMillis2, 2);
     assertThat(totalRemovedRecords).isEqualTo(4);
   }
+
+  @Test
+  public void testLogCleanupRemovesApplicationIds() throws Exception {
+    final File logDir = ExecutionsTestUtil.getFlowDir(LOG_TEST_DIR_NAME);
+    final ExecutionJobDao executionJobDao = new ExecutionJobDao(dbOperator);
+    executionJobDao.uploadApplicationIds(1, "largeFiles", 0, Arrays.asList("12345_6789"));
+    this.executionLogsDao.uploadLogFile(1, "largeFiles", 0,
+        new File[]{new File(logDir, "largeLog1.log")});
+
+    this.executionLogsDao.removeExecutionLogsByTime(System.currentTimeMillis() + 1000, 2);
+    assertThat(executionJobDao.fetchApplicationIds(1, "largeFiles", 0)).isNull();
+  }
 }
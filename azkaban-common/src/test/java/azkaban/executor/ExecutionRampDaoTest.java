@@ -372,4 +372,109 @@ public class ExecutionRampDaoTest {
     assertThat(record.get("dali").getItems().get("project.flow").getTimeStamp())
         .isEqualTo(timeStamp);
   }
+
+  @Test
+  public void testUpdateExecutableRamps() throws ExecutorManagerException {
+    for (final String rampId : ImmutableList.of("dali", "spark")) {
+      this.executionRampDao.insertAction("ramp", ImmutableMap.<String, Object>builder()
+          .put("rampId", rampId)
+          .put("isActive", 1)
+          .put("rampPolicy", "SimpleAutoRampPolicy")
+          .put("startTime", 0L)
+          .put("maxFailureToPause", 1)
+          .build());
+    }
+
+    final ExecutableRampMap record = this.executionRampDao.fetchExecutableRampMap();
+    record.get("dali").cacheResult(ExecutableRamp.Action.SUCCEEDED);
+    record.get("dali").cacheResult(ExecutableRamp.Action.IGNORED);
+    record.get("spark").cacheResult(ExecutableRamp.Action.FAILED);
+    record.get("spark").cacheResult(ExecutableRamp.Action.FAILED);
+
+    assertThat(this.executionRampDao.updateExecutableRamps(
+        ImmutableList.of(record.get("dali").snapshot(), record.get("spark").snapshot())))
+        .containsExactlyInAnyOrder("dali", "spark");
+
+    final ExecutableRampMap updatedRecord = this.executionRampDao.fetchExecutableRampMap();
+    assertThat(updatedRecord.get("dali").getCount(ExecutableRamp.CountType.TRAIL)).isEqualTo(2);
+    assertThat(updatedRecord.get("dali").getCount(ExecutableRamp.CountType.SUCCESS)).isEqualTo(1);
+    assertThat(updatedRecord.get("dali").getCount(ExecutableRamp.CountType.IGNORED)).isEqualTo(1);
+    assertThat(updatedRecord.get("dali").isPaused()).isFalse();
+    assertThat(updatedRecord.get("spark").getCount(ExecutableRamp.CountType.TRAIL)).isEqualTo(2);
+    assertThat(updatedRecord.get("spark").getCount(ExecutableRamp.CountType.FAILURE)).isEqualTo(2);
+    assertThat(updatedRecord.get("spark").isPaused()).isTrue();
+  }
+
+  @Test
+  public void testUpdateExecutableRampsSkipsDeletedRamps() throws Exception {
+    for (final String rampId : new String[]{"dali", "spark"}) {
+      this.executionRampDao.insertAction("ramp", ImmutableMap.<String, Object>builder()
+          .put("rampId", rampId)
+          .put("isActive", 1)
+          .put("rampPolicy", "SimpleAutoRampPolicy")
+          .put("startTime", 0L)
+          .build());
+    }
+    final ExecutableRampMap record = this.executionRampDao.fetchExecutableRampMap();
+    record.get("dali").cacheResult(ExecutableRamp.Action.SUCCEEDED);
+    record.get("spark").cacheResult(ExecutableRamp.Action.SUCCEEDED);
+    dbOperator.update("DELETE FROM ramp WHERE rampId = ?", "spark");
+
+    assertThat(this.executionRampDao.updateExecutableRamps(
+        ImmutableList.of(record.get("dali").snapshot(), record.get("spark").snapshot())))
+        .containsExactly("dali");
+  }
+
+  @Test
+  public void testCacheSavedKeepsResultsCachedDuringFlush() throws ExecutorManagerException {
+    this.executionRampDao.insertAction("ramp", ImmutableMap.<String, Object>builder()
+        .put("rampId", "dali")
+        .put("isActive", 1)
+        .put("rampPolicy", "SimpleAutoRampPolicy")
+        .put("startTime", 0L)
+        .build());
+
+    final ExecutableRamp ramp = this.executionRampDao.fetchExecutableRampMap().get("dali");
+    ramp.cacheResult(ExecutableRamp.Action.SUCCEEDED);
+    final ExecutableRamp flushed = ramp.snapshot();
+    ramp.cacheResult(ExecutableRamp.Action.FAILED);
+
+    this.executionRampDao.updateExecutableRamps(ImmutableList.of(flushed));
+    ramp.cacheSaved(flushed);
+
+    assertThat(ramp.getCount(ExecutableRamp.CountType.TRAIL)).isEqualTo(1);
+    assertThat(ramp.getCachedCount(ExecutableRamp.CountType.TRAIL)).isEqualTo(1);
+    assertThat(ramp.getCachedCount(ExecutableRamp.CountType.FAILURE)).isEqualTo(1);
+    assertThat(ramp.isChanged()).isTrue();
+  }
+
+  @Test
+  public void testUpdateExecutedRampFlowsBatch() throws ExecutorManagerException {
+    long timeStamp = System.currentTimeMillis();
+    this.executionRampDao.updateExecutedRampFlows("dali", ExecutableRampExceptionalItems
+        .createInstance()
+        .add("project.flow", ExecutableRampStatus.SELECTED, timeStamp, true));
+
+    // An existing flow is updated in place, flows already saved are skipped
+    final ExecutableRampExceptionalItems daliItems = ExecutableRampExceptionalItems
+        .createInstance()
+        .add("project.flow", ExecutableRampStatus.EXCLUDED, timeStamp + 1, true)
+        .add("project.saved", ExecutableRampStatus.SELECTED, timeStamp, false);
+    final ExecutableRampExceptionalItems sparkItems = ExecutableRampExceptionalItems
+        .createInstance()
+        .add("project.flow", ExecutableRampStatus.EXCLUDED, timeStamp, true);
+    this.executionRampDao.updateExecutedRampFlows(
+        ImmutableMap.of("dali", daliItems, "spark", sparkItems));
+
+    final ExecutableRampExceptionalFlowItemsMap record =
+        this.executionRampDao.fetchExecutableRampExceptionalFlowItemsMap();
+
+    assertThat(record.get("dali").getItems().size()).isEqualTo(1);
+    assertThat(record.get("dali").getItems().get("project.flow").getStatus())
+        .isEqualByComparingTo(ExecutableRampStatus.EXCLUDED);
+    assertThat(record.get("dali").getItems().get("project.flow").getTimeStamp())
+        .isEqualTo(timeStamp + 1);
+    assertThat(record.get("spark").getItems().get("project.flow").getStatus())
+        .isEqualByComparingTo(ExecutableRampStatus.EXCLUDED);
+  }
 }
@@ -27,8 +27,10 @@ import java.io.File;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -58,6 +60,7 @@ public class MockExecutorLoader implements ExecutorLoader {
   List<Executor> executors = new ArrayList<>();
   int executorIdCounter = 0;
   Map<Integer, ArrayList<ExecutorLogEvent>> executorEvents = new ConcurrentHashMap<>();
+  Map<String, Set<String>> applicationIds = new ConcurrentHashMap<>();
 
   @Override
   public void uploadExecutableFlow(final ExecutableFlow flow) throws ExecutorManagerException {
@@ -204,6 +207,30 @@ public class MockExecutorLoader implements ExecutorLoader {
     this.flowUpdateCount++;
   }
 
+  @Override
+  public void writeExecutableNodes(final List<ExecutableNodeRow> inserts,
+      final List<ExecutableNodeRow> updates) throws ExecutorManagerException {
+    for (final ExecutableNodeRow row : inserts) {
+      uploadExecutableNode(row.getNode(), null);
+    }
+    for (final ExecutableNodeRow row : updates) {
+      updateExecutableNode(row.getNode());
+    }
+  }
+
+  @Override
+  public void uploadApplicationIds(final int execId, final String jobId, final int attempt,
+      final Collection<String> applicationIds) throws ExecutorManagerException {
+    this.applicationIds.put(execId + "." + jobId + "." + attempt,
+        new LinkedHashSet<>(applicationIds));
+  }
+
+  @Override
+  public Set<String> fetchApplicationIds(final int execId, final String jobId, final int attempt)
+      throws ExecutorManagerException {
+    return this.applicationIds.get(execId + "." + jobId + "." + attempt);
+  }
+
   @Override
   public int fetchNumExecutableFlows(final int projectId, final String flowId)
       throws ExecutorManagerException {
@@ -263,6 +290,12 @@ public class MockExecutorLoader implements ExecutorLoader {
     return null;
   }
 
+  @Override
+  public List<ExecutableJobInfo> fetchJobHistory(final int projectId, final String jobId,
+      final JobHistoryCursor after, final int size) throws ExecutorManagerException {
+    return null;
+  }
+
   @Override
   public int fetchNumExecutableNodes(final int projectId, final String jobId)
       throws ExecutorManagerException {
@@ -587,6 +620,18 @@ public class MockExecutorLoader implements ExecutorLoader {
 
   }
 
+  @Override
+  public Set<String> updateExecutableRamps(final Collection<ExecutableRamp> executableRamps)
+      throws ExecutorManagerException {
+    return executableRamps.stream().map(ExecutableRamp::getId).collect(Collectors.toSet());
+  }
+
+  @Override
+  public void updateExecutedRampFlows(final Map<String, ExecutableRampExceptionalItems> itemsByRamp)
+      throws ExecutorManagerException {
+
+  }
+
   @Override
   public int updateVersionSetId(int executionId, int versionSetId) throws ExecutorManagerException {
     return 0;
@@ -16,6 +16,7 @@
 package azkaban.executor.container;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
@@ -36,6 +37,7 @@ import azkaban.executor.ExecutorLoader;
 import azkaban.executor.ExecutorManagerException;
 import azkaban.executor.OnContainerizedExecutionEventListener;
 import azkaban.executor.Status;
+import azkaban.metrics.ContainerizationMetrics;
 import azkaban.metrics.DummyContainerizationMetricsImpl;
 import azkaban.utils.Props;
 import azkaban.utils.YarnUtils;
@@ -270,7 +272,7 @@ public class ContainerCleanupManagerTest {
         ImmutableList.of(ap1, ap2, ap3)
     );
     PowerMockito.doNothing().when(YarnUtils.class,
-        "killApplicationAsProxyUser", any(), any(), any());
+        "killApplicationAsProxyUser", any(), any(), any(), any());
 
     this.cleaner.cleanUpYarnApplicationsInCluster(
         ImmutableSet.of(), new Cluster("abc", new Props()));
@@ -290,12 +292,12 @@ public class ContainerCleanupManagerTest {
         ImmutableList.of(ap1, ap2, ap3)
     );
     PowerMockito.doNothing().when(YarnUtils.class,
-        "killApplicationAsProxyUser", any(), eq(ap1), any());
+        "killApplicationAsProxyUser", any(), any(), eq(ap1), any());
     PowerMockito.doNothing().when(YarnUtils.class,
-        "killApplicationAsProxyUser", any(), eq(ap2), any());
+        "killApplicationAsProxyUser", any(), any(), eq(ap2), any());
     // exception
     PowerMockito.doThrow(new RuntimeException("ops")).when(YarnUtils.class,
-        "killApplicationAsProxyUser", any(), eq(ap1), any());
+        "killApplicationAsProxyUser", any(), any(), eq(ap1), any());
 
     this.cleaner.cleanUpYarnApplicationsInCluster(
         ImmutableSet.of(), new Cluster("abc", new Props()));
@@ -311,9 +313,41 @@ public class ContainerCleanupManagerTest {
         .thenThrow(new IOException("ops"));
 //    // this will never be called
 //    PowerMockito.doNothing().when(YarnUtils.class,
-//        "killApplicationAsProxyUser", any(), any(), any());
+//        "killApplicationAsProxyUser", any(), any(), any(), any());
 
     this.cleaner.cleanUpYarnApplicationsInCluster(
         ImmutableSet.of(), new Cluster("abc", new Props()));
   }
+
+  @Test
+  public void testCleanUpYarnApplicationsReusesPooledClientAndReportsResults()
+      throws Exception {
+    PowerMockito.mockStatic(YarnUtils.class);
+    YarnClient mockClient = mock(YarnClient.class);
+    when(YarnUtils.createYarnClient(any(), any())).thenReturn(mockClient);
+    ApplicationReport ap1 = mock(ApplicationReport.class),
+        ap2 = mock(ApplicationReport.class);
+    when(YarnUtils.getAllAliveAppReportsByExecIDs(any(), any(), any())).thenReturn(
+        ImmutableList.of(ap1, ap2)
+    );
+    PowerMockito.doThrow(new RuntimeException("ops")).when(YarnUtils.class,
+        "killApplicationAsProxyUser", any(), any(), eq(ap2), any());
+    ContainerizationMetrics mockMetrics = mock(ContainerizationMetrics.class);
+    ContainerCleanupManager cleaner = new ContainerCleanupManager(this.props,
+        this.executorLoader, this.clusterRouter, this.containerImpl,
+        this.containerizedDispatchManager, mockMetrics);
+
+    Cluster cluster = new Cluster("abc", new Props());
+    cleaner.cleanUpYarnApplicationsInCluster(ImmutableSet.of(1), cluster);
+    cleaner.cleanUpYarnApplicationsInCluster(ImmutableSet.of(2), cluster);
+    cleaner.shutdown();
+
+    // the listing client is created once and reused by the second cycle
+    PowerMockito.verifyStatic(YarnUtils.class, times(1));
+    YarnUtils.createYarnClient(any(), any());
+    verify(mockMetrics, times(2)).markYarnApplicationsFound(2);
+    verify(mockMetrics, times(2)).markYarnApplicationKilled(1);
+    verify(mockMetrics, times(2)).markYarnApplicationKillFail(1);
+    verify(mockMetrics, never()).markYarnApplicationKillTimeout(anyLong());
+  }
 }
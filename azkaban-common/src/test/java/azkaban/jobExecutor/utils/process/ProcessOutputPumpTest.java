@@ -0,0 +1,134 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.jobExecutor.utils.process;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProcessOutputPumpTest {
+
+  private ProcessOutputPump pump;
+  private Logger logger;
+  private CollectingAppender appender;
+
+  @Before
+  public void setUp() {
+    this.pump = new ProcessOutputPump(2);
+    this.logger = Logger.getLogger("ProcessOutputPumpTest-" + System.nanoTime());
+    this.logger.setAdditivity(false);
+    this.appender = new CollectingAppender();
+    this.logger.addAppender(this.appender);
+  }
+
+  @After
+  public void tearDown() {
+    this.pump.close();
+    AzkabanProcess.setOutputPump(null);
+  }
+
+  @Test
+  public void testSplitsLinesAndKeepsTail() {
+    final ProcessOutputPump.PumpedStream stream = this.pump.register(
+        new ByteArrayInputStream("one\r\ntwo\n\nthree".getBytes(StandardCharsets.UTF_8)),
+        this.logger, Level.INFO, 9);
+    stream.sourceExited();
+
+    assertThat(stream.awaitCompletion(5000)).isTrue();
+    assertThat(this.appender.messages).containsExactly("one", "two", "", "three");
+    // only the last 9 bytes are kept
+    assertThat(stream.getRecentLog(2)).isEqualTo(System.lineSeparator() + "three");
+  }
+
+  @Test
+  public void testDecodesEachLine() {
+    this.logger.setLevel(Level.INFO);
+    final ProcessOutputPump.PumpedStream info = this.pump.register(
+        new ByteArrayInputStream("caf\u00e9\na longer line\nok\n".getBytes(StandardCharsets.UTF_8)),
+        this.logger, Level.INFO, 64);
+    final ProcessOutputPump.PumpedStream debug = this.pump.register(
+        new ByteArrayInputStream("not logged\n".getBytes(StandardCharsets.UTF_8)),
+        this.logger, Level.DEBUG, 64);
+    info.sourceExited();
+    debug.sourceExited();
+
+    assertThat(info.awaitCompletion(5000)).isTrue();
+    assertThat(debug.awaitCompletion(5000)).isTrue();
+    assertThat(this.appender.messages).containsExactly("caf\u00e9", "a longer line", "ok");
+    // the output of a disabled level is still kept
+    assertThat(debug.getRecentLog(1)).isEqualTo("not logged");
+  }
+
+  @Test
+  public void testManyStreamsShareThePumpThreads() {
+    final List<ProcessOutputPump.PumpedStream> streams = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      final ProcessOutputPump.PumpedStream stream = this.pump.register(
+          new ByteArrayInputStream(("line-" + i + "\n").getBytes(StandardCharsets.UTF_8)),
+          this.logger, Level.INFO, 64);
+      stream.sourceExited();
+      streams.add(stream);
+    }
+
+    for (final ProcessOutputPump.PumpedStream stream : streams) {
+      assertThat(stream.awaitCompletion(5000)).isTrue();
+    }
+    assertThat(this.appender.messages).hasSize(50);
+  }
+
+  @Test
+  public void testProcessOutputIsPumped() throws Exception {
+    AzkabanProcess.setOutputPump(this.pump);
+    final AzkabanProcess process = new AzkabanProcess(
+        Arrays.asList("bash", "-c", "for i in $(seq 1 1000); do echo line-$i; done"),
+        Collections.emptyMap(), System.getProperty("java.io.tmpdir"), this.logger);
+    process.run();
+
+    assertThat(this.appender.messages).contains("line-1", "line-1000");
+    assertThat(this.appender.messages.stream().filter(m -> m.startsWith("line-"))).hasSize(1000);
+  }
+
+  private static class CollectingAppender extends AppenderSkeleton {
+
+    private final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    protected void append(final LoggingEvent event) {
+      this.messages.add(event.getRenderedMessage());
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public boolean requiresLayout() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package azkaban.jobcallback;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.log4j.Logger;
+import org.junit.After;
+import org.junit.Test;
+
+public class JobCallbackDispatcherTest {
+
+  private static final Logger logger = Logger.getLogger(JobCallbackDispatcherTest.class);
+
+  private final HttpClient httpClient = mock(HttpClient.class);
+  private JobCallbackDispatcher dispatcher;
+
+  @After
+  public void tearDown() {
+    if (this.dispatcher != null) {
+      this.dispatcher.shutdown();
+    }
+  }
+
+  private static List<HttpRequestBase> requests(final String url) {
+    return Collections.singletonList(new HttpGet(url));
+  }
+
+  @Test
+  public void testFailedCallbackIsSentAgain() throws Exception {
+    when(this.httpClient.execute(any(HttpUriRequest.class), any(ResponseHandler.class)))
+        .thenThrow(new IOException("connection refused"))
+        .thenReturn(503)
+        .thenReturn(200);
+    this.dispatcher = new JobCallbackDispatcher(this.httpClient, 2, 1, 3, 10, 0);
+
+    this.dispatcher.dispatch("job", logger, requests("http://localhost:1/callback"));
+
+    final JobCallbackMetrics metrics = this.dispatcher.getMetrics();
+    await().atMost(10, TimeUnit.SECONDS).until(() -> metrics.getSuccessfulCount() == 1);
+    verify(this.httpClient, times(3))
+        .execute(any(HttpUriRequest.class), any(ResponseHandler.class));
+    assertThat(metrics.getRetryCount()).isEqualTo(2);
+    assertThat(metrics.getFailedCount()).isZero();
+    assertThat(metrics.getInFlightCount()).isZero();
+  }
+
+  @Test
+  public void testGivesUpAfterMaxAttempts() throws Exception {
+    when(this.httpClient.execute(any(HttpUriRequest.class), any(ResponseHandler.class)))
+        .thenThrow(new IOException("connection refused"));
+    this.dispatcher = new JobCallbackDispatcher(this.httpClient, 2, 1, 2, 10, 0);
+
+    this.dispatcher.dispatch("job", logger, requests("http://localhost:1/callback"));
+
+    final JobCallbackMetrics metrics = this.dispatcher.getMetrics();
+    await().atMost(10, TimeUnit.SECONDS).until(() -> metrics.getFailedCount() == 1);
+    verify(this.httpClient, times(2))
+        .execute(any(HttpUriRequest.class), any(ResponseHandler.class));
+    assertThat(metrics.getSuccessfulCount()).isZero();
+  }
+
+  @Test
+  public void testDispatchDoesNotWaitAndLimitsConcurrencyPerHost() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicInteger concurrent = new AtomicInteger();
+    final AtomicInteger maxConcurrent = new AtomicInteger();
+    when(this.httpClient.execute(any(HttpUriRequest.class), any(ResponseHandler.class)))
+        .thenAnswer(invocation -> {
+          maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+          try {
+            release.await();
+          } finally {
+            concurrent.decrementAndGet();
+          }
+          return 200;
+        });
+    this.dispatcher = new JobCallbackDispatcher(this.httpClient, 8, 2, 1, 10, 0);
+
+    final List<HttpRequestBase> slowHost = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      slowHost.add(new HttpGet("http://slow:8080/callback/" + i));
+    }
+    // returns although no callback can complete yet
+    this.dispatcher.dispatch("job", logger, slowHost);
+    this.dispatcher.dispatch("job", logger, requests("http://other:8080/callback"));
+
+    final JobCallbackMetrics metrics = this.dispatcher.getMetrics();
+    await().atMost(10, TimeUnit.SECONDS).until(() -> metrics.getInFlightCount() == 3);
+    assertThat(metrics.getQueuedCount()).isEqualTo(3);
+
+    release.countDown();
+    await().atMost(10, TimeUnit.SECONDS).until(() -> metrics.getSuccessfulCount() == 6);
+    assertThat(maxConcurrent.get()).isEqualTo(3);
+    assertThat(metrics.getQueuedCount()).isZero();
+  }
+}
@@ -186,6 +186,45 @@ public class JobTypeManagerTest {
     assertNull(props.get(CommonJobProperties.TARGET_CLUSTER_NATIVE_LIB));
   }
 
+  /**
+   * Test that the job class is resolved once per jobtype and dropped on plugin reload
+   */
+  @Test
+  public void testJobClassIsCachedUntilReload() throws Exception {
+    final Props jobProps = new Props();
+    jobProps.put("type", "anothertestjob");
+    final JobTypeManager.JobParams first =
+        this.manager.createJobParams("job1", new Props(null, jobProps), this.logger);
+    final JobTypeManager.JobParams second =
+        this.manager.createJobParams("job2", new Props(null, jobProps), this.logger);
+
+    assertTrue(first.jobClass == second.jobClass);
+    final JobTypePluginSet pluginSet = this.manager.getJobTypePluginSet();
+    assertTrue(pluginSet.getCachedJobClassCount() >= 1);
+
+    this.manager.loadPlugins();
+    assertFalse(pluginSet == this.manager.getJobTypePluginSet());
+    this.manager.createJobParams("job3", new Props(null, jobProps), this.logger);
+    assertTrue(this.manager.getJobTypePluginSet().getCachedJobClassCount() >= 1);
+  }
+
+  /**
+   * Test that jobtypes can opt out of the shared job classloader
+   */
+  @Test
+  public void testIsolatedJobClassLoaderIsNotCached() throws Exception {
+    final Props globalProps = new Props();
+    globalProps.put(CommonJobProperties.JOBTYPE_CLASSLOADER_ISOLATED, "true");
+    final JobTypeManager isolatedManager = new JobTypeManager(this.testPluginDirPath,
+        globalProps, this.getClass().getClassLoader());
+    final Props jobProps = new Props();
+    jobProps.put("type", "anothertestjob");
+
+    final Job job = isolatedManager.buildJobExecutor("job1", jobProps, this.logger);
+    assertTrue(job instanceof FakeJavaJob);
+    assertEquals(0, isolatedManager.getJobTypePluginSet().getCachedJobClassCount());
+  }
+
   /**
    * Test building classes 2
    */
@@ -34,6 +34,7 @@ import azkaban.utils.SecurityTag;
 import com.google.common.io.Files;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -41,6 +42,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -144,6 +146,29 @@ public class JdbcProjectImplTest {
     Assert.assertEquals(fileHandler.getUploader(), "uploadUser1");
   }
 
+  @Test
+  public void testUploadedFileStream() throws Exception {
+    createThreeProjects();
+    final Project project = this.loader.fetchProjectByName("mytestProject");
+    final File testFile = new File(getClass().getClassLoader().getResource(SAMPLE_FILE).getFile());
+    final int newVersion = this.loader.getLatestProjectVersion(project) + 1;
+    this.loader.uploadProjectFile(project.getId(), newVersion, testFile, "uploadUser1",
+        IPv4);
+
+    final byte[] expected = FileUtils.readFileToByteArray(testFile);
+    Assert.assertEquals(expected.length,
+        this.loader.getUploadedFileSize(project.getId(), newVersion));
+    try (final InputStream is = this.loader.getUploadedFileStream(project.getId(), newVersion,
+        0)) {
+      Assert.assertArrayEquals(expected, IOUtils.toByteArray(is));
+    }
+    try (final InputStream is = this.loader.getUploadedFileStream(project.getId(), newVersion,
+        10)) {
+      Assert.assertArrayEquals(Arrays.copyOfRange(expected, 10, expected.length),
+          IOUtils.toByteArray(is));
+    }
+  }
+
   @Test(expected = ProjectManagerException.class)
   public void testUploadFlowFileWithConfigurableFlowFileSize() {
     /* creating local objects so that the instance variables are not affected */
@@ -325,6 +350,34 @@ public class JdbcProjectImplTest {
     Assert.assertEquals(events.get(0).getMessage(), "create a message bla");
   }
 
+  @Test
+  public void testGetEventsFromTime() throws Exception {
+    createThreeProjects();
+    final Project project = this.loader.fetchProjectByName("mytestProject");
+    // two events at each of the times 1000 to 1004
+    for (int i = 0; i < 10; i++) {
+      dbOperator.update("INSERT INTO project_events "
+              + "(project_id, event_type, event_time, username, message) values (?,?,?,?,?)",
+          project.getId(), ProjectLogEvent.EventType.UPLOADED.getNumVal(), 1000L + i / 2,
+          "testUser1", "event " + i);
+    }
+
+    final List<ProjectLogEvent> firstPage = this.loader.getProjectEvents(project, 3, 0);
+    Assert.assertEquals(3, firstPage.size());
+    Assert.assertEquals(1003L, firstPage.get(2).getTime());
+
+    // pages ending among the events of the same time neither repeat nor miss any of them
+    final List<String> messages = new ArrayList<>();
+    List<ProjectLogEvent> page = firstPage;
+    while (!page.isEmpty()) {
+      page.forEach(event -> messages.add(event.getMessage()));
+      final ProjectLogEvent last = page.get(page.size() - 1);
+      page = this.loader.getProjectEvents(project, 3, last.getTime(), last.getId());
+    }
+    Assert.assertEquals(Arrays.asList("event 9", "event 8", "event 7", "event 6", "event 5",
+        "event 4", "event 3", "event 2", "event 1", "event 0"), messages);
+  }
+
   @Test
   public void testUpdateDescription() throws Exception {
     createThreeProjects();
@@ -489,6 +542,33 @@ public class JdbcProjectImplTest {
     Assert.assertEquals(projectToFlowResourceRecommendations.get(project3).size(), 0);
   }
 
+  @Test
+  public void testUploadProjectMetadataInBatches() throws Exception {
+    final Props batchProps = new Props();
+    batchProps.put(JdbcProjectImpl.METADATA_UPLOAD_BATCH_SIZE_KEY, 7);
+    final ProjectLoader batchLoader = new JdbcProjectImpl(batchProps, dbOperator);
+
+    final List<Flow> flows = new ArrayList<>();
+    final List<Props> properties = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      flows.add(new Flow("flow" + i));
+      final Props jobProps = new Props();
+      jobProps.setSource("job" + i + ".job");
+      jobProps.put("command", "echo " + i);
+      properties.add(jobProps);
+    }
+
+    createThreeProjects();
+    final Project project = batchLoader.fetchProjectByName("mytestProject");
+    batchLoader.uploadProjectMetadata(project, project.getVersion(), flows, properties);
+
+    Assert.assertEquals(50, batchLoader.fetchAllProjectFlows(project).size());
+    final Map<String, Props> propsMap = batchLoader
+        .fetchProjectProperties(project.getId(), project.getVersion());
+    Assert.assertEquals(50, propsMap.size());
+    Assert.assertEquals("echo 49", propsMap.get("job49.job").get("command"));
+  }
+
   @Test
   public void testFetchProjectProperties() throws Exception {
     final Props props1 = new Props();
@@ -563,6 +643,10 @@ public class JdbcProjectImplTest {
     assertThat(thrown).isInstanceOf(ProjectManagerException.class);
     assertThat(thrown).hasMessageStartingWith(String.format("Got numChunks=0 for version %s of "
         + "project %s - seems like this version has been cleaned up", version, project));
+    final Throwable thrownByStream =
+        catchThrowable(() -> this.loader.getUploadedFileStream(project, version, 0));
+    assertThat(thrownByStream).isInstanceOf(ProjectManagerException.class);
+    assertThat(thrownByStream).hasMessage(thrown.getMessage());
   }
 
   @Test
@@ -1,5 +1,6 @@
 package azkaban.project.validator;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.*;
 
@@ -10,16 +11,32 @@ import com.google.common.io.Resources;
 import java.io.File;
 import java.lang.reflect.Field;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.internal.util.reflection.FieldSetter;
 
 
 public class XmlValidatorManagerTest {
 
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
   private final Props baseProps = new Props();
 
+  private static void setValidators(final XmlValidatorManager manager,
+      final Map<String, ProjectValidator> validators) throws Exception {
+    final Field validatorsField = manager.getClass().getDeclaredField("validators");
+    validatorsField.setAccessible(true);
+    FieldSetter.setField(manager, validatorsField, validators);
+  }
+
   /**
    * Test that no validator directory exists when there is no xml configuration.
    */
@@ -127,4 +144,159 @@ public class XmlValidatorManagerTest {
     // Make sure we get the cache key we expected (the SHA1 of the one cache key returned)
     assertEquals(expectedResultingCacheKey, manager.getCacheKey(project, projectDir, props));
   }
+
+  @Test
+  public void testValidatorsRunConcurrentlyWithTimeout() throws Exception {
+    final Project project = mock(Project.class);
+    final File projectDir = mock(File.class);
+    final Props props = new Props();
+    props.put(ValidatorConfigs.VALIDATOR_THREADS_PARAM, 2);
+    props.put(ValidatorConfigs.VALIDATOR_TIMEOUT_SECONDS_PARAM, 1);
+    final XmlValidatorManager manager = new XmlValidatorManager(props);
+
+    final ProjectValidator slowValidator = mock(ProjectValidator.class);
+    when(slowValidator.validateProject(project, projectDir, props)).thenAnswer(invocation -> {
+      Thread.sleep(60_000);
+      return new ValidationReport();
+    });
+    final ProjectValidator fastValidator = mock(ProjectValidator.class);
+    final ValidationReport fastReport = new ValidationReport();
+    fastReport.addWarningMsgs(Collections.singleton("warning"));
+    when(fastValidator.validateProject(project, projectDir, props)).thenReturn(fastReport);
+
+    final Map<String, ProjectValidator> validators = new LinkedHashMap<>();
+    validators.put("SLOW", slowValidator);
+    validators.put("FAST", fastValidator);
+    setValidators(manager, validators);
+
+    final Map<String, ValidationReport> reports = manager.validate(project, projectDir, props);
+    assertThat(reports.keySet()).containsExactly("SLOW", "FAST");
+    assertEquals(ValidationStatus.ERROR, reports.get("SLOW").getStatus());
+    assertEquals(fastReport, reports.get("FAST"));
+  }
+
+  @Test
+  public void testTimeoutStartsWhenTheValidatorRuns() throws Exception {
+    final Project project = mock(Project.class);
+    final File projectDir = mock(File.class);
+    final Props props = new Props();
+    props.put(ValidatorConfigs.VALIDATOR_THREADS_PARAM, 1);
+    props.put(ValidatorConfigs.VALIDATOR_TIMEOUT_SECONDS_PARAM, 1);
+    final XmlValidatorManager manager = new XmlValidatorManager(props);
+
+    final ProjectValidator firstValidator = mock(ProjectValidator.class);
+    final ProjectValidator secondValidator = mock(ProjectValidator.class);
+    for (final ProjectValidator validator : new ProjectValidator[]{firstValidator,
+        secondValidator}) {
+      when(validator.validateProject(project, projectDir, props)).thenAnswer(invocation -> {
+        Thread.sleep(700);
+        return new ValidationReport();
+      });
+    }
+    final Map<String, ProjectValidator> validators = new LinkedHashMap<>();
+    validators.put("FIRST", firstValidator);
+    validators.put("SECOND", secondValidator);
+    setValidators(manager, validators);
+
+    try {
+      // SECOND is queued behind FIRST on the only thread, and finishes 1.4 s after the start
+      final Map<String, ValidationReport> reports = manager.validate(project, projectDir, props);
+      assertEquals(ValidationStatus.PASS, reports.get("FIRST").getStatus());
+      assertEquals(ValidationStatus.PASS, reports.get("SECOND").getStatus());
+    } finally {
+      manager.close();
+    }
+  }
+
+  @Test
+  public void testTimedOutReportIsNotCached() throws Exception {
+    final Project project = mock(Project.class);
+    final File projectDir = this.temp.newFolder("project");
+    FileUtils.writeStringToFile(new File(projectDir, "basic.flow"), "nodes: []",
+        StandardCharsets.UTF_8);
+    final Props props = new Props();
+    props.put(ValidatorConfigs.REPORT_CACHE_DIR_PARAM, this.temp.newFolder("cache").getPath());
+    props.put(ValidatorConfigs.VALIDATOR_TIMEOUT_SECONDS_PARAM, 1);
+    final XmlValidatorManager manager = new XmlValidatorManager(props);
+
+    final ProjectValidatorCacheable validator = mock(ProjectValidatorCacheable.class);
+    when(validator.getCacheKey(project, projectDir, props)).thenReturn("abc123");
+    when(validator.validateProject(project, projectDir, props)).thenAnswer(invocation -> {
+      Thread.sleep(60_000);
+      return new ValidationReport();
+    }).thenReturn(new ValidationReport());
+    setValidators(manager, Collections.singletonMap("CACHEABLE", validator));
+
+    try {
+      assertEquals(ValidationStatus.ERROR,
+          manager.validate(project, projectDir, props).get("CACHEABLE").getStatus());
+      assertEquals(ValidationStatus.PASS,
+          manager.validate(project, projectDir, props).get("CACHEABLE").getStatus());
+      verify(validator, times(2)).validateProject(project, projectDir, props);
+    } finally {
+      manager.close();
+    }
+  }
+
+  @Test
+  public void testTimeoutAppliesToEachRunningValidator() throws Exception {
+    final Project project = mock(Project.class);
+    final File projectDir = mock(File.class);
+    final Props props = new Props();
+    props.put(ValidatorConfigs.VALIDATOR_THREADS_PARAM, 2);
+    props.put(ValidatorConfigs.VALIDATOR_TIMEOUT_SECONDS_PARAM, 1);
+    final XmlValidatorManager manager = new XmlValidatorManager(props);
+
+    final ProjectValidator firstValidator = mock(ProjectValidator.class);
+    when(firstValidator.validateProject(project, projectDir, props)).thenAnswer(invocation -> {
+      Thread.sleep(700);
+      return new ValidationReport();
+    });
+    final ProjectValidator slowValidator = mock(ProjectValidator.class);
+    when(slowValidator.validateProject(project, projectDir, props)).thenAnswer(invocation -> {
+      Thread.sleep(60_000);
+      return new ValidationReport();
+    });
+
+    final Map<String, ProjectValidator> validators = new LinkedHashMap<>();
+    validators.put("FIRST", firstValidator);
+    validators.put("SLOW", slowValidator);
+    setValidators(manager, validators);
+
+    final long start = System.currentTimeMillis();
+    final Map<String, ValidationReport> reports = manager.validate(project, projectDir, props);
+    manager.close();
+    // SLOW started with FIRST, waiting on it after FIRST doesn't start a new timeout
+    assertThat(System.currentTimeMillis() - start).isLessThan(1_500);
+    assertEquals(ValidationStatus.PASS, reports.get("FIRST").getStatus());
+    assertEquals(ValidationStatus.ERROR, reports.get("SLOW").getStatus());
+  }
+
+  @Test
+  public void testCacheableReportsAreReusedForUnchangedProjects() throws Exception {
+    final Project project = mock(Project.class);
+    final File projectDir = this.temp.newFolder("project");
+    final File flowFile = new File(projectDir, "basic.flow");
+    FileUtils.writeStringToFile(flowFile, "nodes: []", StandardCharsets.UTF_8);
+    final Props props = new Props();
+    props.put(ValidatorConfigs.REPORT_CACHE_DIR_PARAM, this.temp.newFolder("cache").getPath());
+    final XmlValidatorManager manager = new XmlValidatorManager(props);
+
+    final ProjectValidatorCacheable validator = mock(ProjectValidatorCacheable.class);
+    when(validator.getCacheKey(project, projectDir, props)).thenReturn("abc123");
+    final ValidationReport report = new ValidationReport();
+    report.addWarningMsgs(Collections.singleton("warning"));
+    report.addWarnLevelInfoMsg("info");
+    when(validator.validateProject(project, projectDir, props)).thenReturn(report);
+    setValidators(manager, Collections.singletonMap("CACHEABLE", validator));
+
+    assertEquals(report, manager.validate(project, projectDir, props).get("CACHEABLE"));
+    assertEquals(report, manager.validate(project, projectDir, props).get("CACHEABLE"));
+    verify(validator, times(1)).validateProject(project, projectDir, props);
+
+    // a changed project is validated again
+    FileUtils.writeStringToFile(flowFile, "nodes: [a]", StandardCharsets.UTF_8);
+    assertEquals(report, manager.validate(project, projectDir, props).get("CACHEABLE"));
+    verify(validator, times(2)).validateProject(project, projectDir, props);
+  }
 }
@@ -17,6 +17,7 @@
 
 package azkaban.storage;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -47,4 +48,13 @@ public class DatabaseStorageTest {
     verify(this.projectLoader).uploadProjectFile(projectId, version, file,
         uploader, IPv4);
   }
+
+  @Test
+  public void testGetProjectByVersion() throws Exception {
+    assertThat(this.databaseStorage.putProjectRecordsVersion()).isTrue();
+    this.databaseStorage.getProject(null, 1234, 1, 10);
+    verify(this.projectLoader).getUploadedFileStream(1234, 1, 10);
+    this.databaseStorage.getProjectSize(null, 1234, 1);
+    verify(this.projectLoader).getUploadedFileSize(1234, 1);
+  }
 }
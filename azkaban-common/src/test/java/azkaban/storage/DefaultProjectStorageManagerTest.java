@@ -0,0 +1,120 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.storage;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import azkaban.project.Project;
+import azkaban.project.ProjectFileHandler;
+import azkaban.project.ProjectLoader;
+import azkaban.spi.Storage;
+import azkaban.user.User;
+import azkaban.utils.HashUtils;
+import azkaban.utils.Props;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DefaultProjectStorageManagerTest {
+
+  private static final byte[] CONTENT = "project zip".getBytes(UTF_8);
+
+  @Rule
+  public final TemporaryFolder temp = new TemporaryFolder();
+
+  private final Storage storage = mock(Storage.class);
+  private final ProjectLoader projectLoader = mock(ProjectLoader.class);
+  private DefaultProjectStorageManager manager;
+
+  @Before
+  public void setUp() throws Exception {
+    final Props props = new Props();
+    props.put("project.temp.dir", this.temp.newFolder().getAbsolutePath());
+    this.manager = new DefaultProjectStorageManager(props, this.storage, this.projectLoader,
+        mock(StorageCleaner.class));
+  }
+
+  private ProjectFileHandler handler(final byte[] md5) throws Exception {
+    final ProjectFileHandler pfh = new ProjectFileHandler(1, 2, 0, "user", "zip", "p.zip", 1,
+        md5, null, "1/1-hash.zip", null);
+    when(this.storage.getProject("1/1-hash.zip", 1, 2, 0))
+        .thenReturn(new ByteArrayInputStream(CONTENT));
+    when(this.storage.getProject("1/1-hash.zip", 1, 2, 5))
+        .thenReturn(new ByteArrayInputStream(CONTENT, 5, CONTENT.length - 5));
+    return pfh;
+  }
+
+  @Test
+  public void testOpenProjectFileValidatesChecksum() throws Exception {
+    final ProjectFileHandler pfh = handler(HashUtils.MD5.getHashBytes("project zip"));
+    try (final InputStream is = this.manager.openProjectFile(pfh, 0)) {
+      assertThat(IOUtils.toByteArray(is)).isEqualTo(CONTENT);
+    }
+  }
+
+  @Test
+  public void testOpenProjectFileFailsOnChecksumMismatch() throws Exception {
+    final ProjectFileHandler pfh = handler(HashUtils.MD5.getHashBytes("other zip"));
+    try (final InputStream is = this.manager.openProjectFile(pfh, 0)) {
+      assertThatThrownBy(() -> IOUtils.toByteArray(is))
+          .isInstanceOf(IOException.class)
+          .hasMessageContaining("MD5 HASH Failed");
+    }
+  }
+
+  @Test
+  public void testRangedReadIsNotValidated() throws Exception {
+    final ProjectFileHandler pfh = handler(HashUtils.MD5.getHashBytes("other zip"));
+    try (final InputStream is = this.manager.openProjectFile(pfh, 5)) {
+      assertThat(IOUtils.toByteArray(is)).isEqualTo("ct zip".getBytes(UTF_8));
+    }
+  }
+
+  @Test
+  public void testGetProjectFileFailsOnChecksumMismatch() throws Exception {
+    final ProjectFileHandler pfh = handler(HashUtils.MD5.getHashBytes("other zip"));
+    when(this.projectLoader.fetchProjectMetaData(1, 2)).thenReturn(pfh);
+    assertThatThrownBy(() -> this.manager.getProjectFile(1, 2))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("MD5 HASH Failed");
+  }
+
+  @Test
+  public void testUploadSkipsVersionRecordedByStorage() throws Exception {
+    when(this.storage.putProjectRecordsVersion()).thenReturn(true);
+    final File file = this.temp.newFile("p.zip");
+    this.manager.uploadProject(new Project(1, "p"), 2, file, null, new User("user"), null);
+    verify(this.storage).putProject(any(), any());
+    verify(this.projectLoader, never()).addProjectVersion(anyInt(), anyInt(), any(), any(),
+        anyString(), any(), any(), any());
+  }
+}
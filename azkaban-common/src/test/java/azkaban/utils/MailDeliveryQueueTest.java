@@ -0,0 +1,180 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import azkaban.Constants.ConfigurationKeys;
+import azkaban.metrics.CommonMetrics;
+import azkaban.metrics.MetricsManager;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.internet.InternetAddress;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class MailDeliveryQueueTest {
+
+  private static final String TO_ADDRESS = "to@example.com";
+
+  private EmailMessageCreator creator;
+  private JavaxMailSender mailSender;
+  private Message mimeMessage;
+  private CommonMetrics commonMetrics;
+  private MetricsManager metricsManager;
+  private MailDeliveryQueue queue;
+
+  @Before
+  public void setUp() throws Exception {
+    this.creator = mock(EmailMessageCreator.class);
+    this.mailSender = mock(JavaxMailSender.class);
+    this.mimeMessage = mock(Message.class);
+    when(this.creator.createMessage()).thenAnswer(invocation -> newMessage());
+    when(this.creator.createSender(any())).thenReturn(this.mailSender);
+    when(this.mailSender.createMessage()).thenReturn(this.mimeMessage);
+    when(this.mailSender.isConnected()).thenReturn(true);
+    when(this.mimeMessage.getRecipients(Message.RecipientType.TO))
+        .thenReturn(new Address[]{new InternetAddress(TO_ADDRESS, false)});
+    this.metricsManager = new MetricsManager(new MetricRegistry());
+    this.commonMetrics = new CommonMetrics(this.metricsManager);
+  }
+
+  @After
+  public void tearDown() {
+    if (this.queue != null) {
+      this.queue.close();
+    }
+  }
+
+  private EmailMessage newMessage() {
+    final EmailMessage message = new EmailMessage("example.com", 25, "user", "pass",
+        this.creator);
+    message.setFromAddress("from@example.com");
+    message.setTLS("false");
+    message.setAuth(false);
+    return message;
+  }
+
+  private EmailMessage newMessage(final String subject) {
+    final EmailMessage message = newMessage();
+    message.addToAddress(TO_ADDRESS);
+    message.setSubject(subject);
+    message.setBody("body of " + subject, "text/html");
+    return message;
+  }
+
+  private MailDeliveryQueue createQueue(final long digestWindowMs) {
+    final Props props = new Props();
+    props.put(ConfigurationKeys.MAIL_DELIVERY_THREADS, 1);
+    props.put(ConfigurationKeys.MAIL_DIGEST_WINDOW_MS, digestWindowMs);
+    return new MailDeliveryQueue(props, this.creator, this.commonMetrics, this.metricsManager);
+  }
+
+  @Test
+  public void testSubmitDoesNotWaitAndReusesConnection() throws Exception {
+    this.queue = createQueue(0);
+    final CountDownLatch smtpServerResponds = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      smtpServerResponds.await();
+      return null;
+    }).when(this.mailSender).connect();
+
+    this.queue.submit(newMessage("first"), "first email");
+    this.queue.submit(newMessage("second"), "second email");
+    // both emails are queued while the SMTP server doesn't respond
+    assertThat(this.queue.getQueueDepth()).isGreaterThanOrEqualTo(1);
+
+    smtpServerResponds.countDown();
+    verify(this.mailSender, timeout(5000).times(2)).sendMessage(any(), any());
+    // the connection of the first email is reused for the second one
+    verify(this.creator, times(1)).createSender(any());
+    verify(this.mailSender, times(1)).connect();
+    final Histogram latency = this.metricsManager
+        .addHistogram(MailDeliveryQueue.DELIVERY_LATENCY_HISTOGRAM_NAME);
+    await().atMost(5, TimeUnit.SECONDS).until(() -> latency.getCount() == 2);
+  }
+
+  @Test
+  public void testEmailsToSameRecipientsAreDigested() throws Exception {
+    this.queue = createQueue(200);
+
+    this.queue.submit(newMessage("flow1 failed"), "email 1");
+    this.queue.submit(newMessage("flow2 failed"), "email 2");
+    this.queue.submit(newMessage("flow3 failed"), "email 3");
+    assertThat(this.queue.getQueueDepth()).isEqualTo(3);
+
+    verify(this.mailSender, timeout(5000)).sendMessage(any(), any());
+    final ArgumentCaptor<String> subject = ArgumentCaptor.forClass(String.class);
+    verify(this.mimeMessage).setSubject(subject.capture());
+    assertThat(subject.getValue()).isEqualTo("flow1 failed (and 2 more)");
+    final ArgumentCaptor<Object> body = ArgumentCaptor.forClass(Object.class);
+    verify(this.mimeMessage).setContent(body.capture(), anyString());
+    assertThat((String) body.getValue()).contains("body of flow1 failed", "body of flow2 failed",
+        "body of flow3 failed");
+    verify(this.mailSender, times(1)).sendMessage(any(), any());
+  }
+
+  @Test
+  public void testCloseSendsHeldDigests() throws Exception {
+    this.queue = createQueue(60_000);
+
+    this.queue.submit(newMessage("flow1 failed"), "email 1");
+    this.queue.submit(newMessage("flow2 failed"), "email 2");
+    this.queue.close();
+
+    // sent before close returns, well before the digest window ends
+    verify(this.mailSender, times(1)).sendMessage(any(), any());
+    assertThat(this.queue.getQueueDepth()).isEqualTo(0);
+
+    // emails submitted after close are sent on the calling thread
+    this.queue.submit(newMessage("flow3 failed"), "email 3");
+    verify(this.mailSender, times(2)).sendMessage(any(), any());
+  }
+
+  @Test
+  public void testFailureOnPooledConnectionIsNotResent() throws Exception {
+    this.queue = createQueue(0);
+    this.queue.submit(newMessage("first"), "first email");
+    verify(this.mailSender, timeout(5000)).sendMessage(any(), any());
+
+    doThrow(new MessagingException("connection reset while sending")).when(this.mailSender)
+        .sendMessage(any(), any());
+    this.queue.submit(newMessage("second"), "second email");
+    this.queue.close();
+
+    // the second email failed on the pooled connection and is not sent again on a new one
+    verify(this.mailSender, times(2)).sendMessage(any(), any());
+    verify(this.creator, times(1)).createSender(any());
+  }
+}
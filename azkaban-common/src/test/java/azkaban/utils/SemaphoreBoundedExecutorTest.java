@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import azkaban.test.TestUtils;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class SemaphoreBoundedExecutorTest {
+
+  @Test
+  public void testConcurrencyIsBoundedByPermits() throws Exception {
+    final SemaphoreBoundedExecutor executor = new SemaphoreBoundedExecutor(2,
+        VirtualThreads.threadFactory("test-job-"));
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(5);
+
+    for (int i = 0; i < 5; i++) {
+      executor.execute(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+          release.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+        done.countDown();
+      });
+    }
+
+    TestUtils.await().until(() -> executor.getQueuedCount() == 3);
+    assertThat(executor.getActiveCount()).isEqualTo(2);
+    release.countDown();
+    assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(maxRunning.get()).isEqualTo(2);
+
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(executor.isTerminated()).isTrue();
+  }
+
+  @Test(expected = RejectedExecutionException.class)
+  public void testRejectsAfterShutdown() {
+    final SemaphoreBoundedExecutor executor = new SemaphoreBoundedExecutor(1,
+        VirtualThreads.threadFactory("test-job-"));
+    executor.shutdown();
+    executor.execute(() -> {
+    });
+  }
+}
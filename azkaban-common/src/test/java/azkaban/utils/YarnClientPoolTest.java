@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.utils;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.apache.hadoop.yarn.client.api.YarnClient;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class YarnClientPoolTest {
+
+  @Test
+  public void testClientReusedAcrossLeases() throws Exception {
+    final YarnClient client = mock(YarnClient.class);
+    try (final YarnClientPool pool = new YarnClientPool(10, 30)) {
+      try (final YarnClientPool.Lease first = pool.lease("cluster", () -> client)) {
+        Assert.assertSame(client, first.getClient());
+      }
+      final YarnClient unused = mock(YarnClient.class);
+      try (final YarnClientPool.Lease second = pool.lease("cluster", () -> unused)) {
+        Assert.assertSame(client, second.getClient());
+      }
+      verify(client, never()).stop();
+    }
+    verify(client).stop();
+  }
+
+  @Test
+  public void testEvictedClientStoppedWhenLastLeaseClosed() throws Exception {
+    final YarnClient first = mock(YarnClient.class);
+    final YarnClient second = mock(YarnClient.class);
+    final YarnClient bob = mock(YarnClient.class);
+    try (final YarnClientPool pool = new YarnClientPool(1, 30)) {
+      final YarnClientPool.Lease inUse = pool.lease("alice", () -> first);
+      final YarnClientPool.Lease other = pool.lease("alice", () -> second);
+      Assert.assertSame(first, other.getClient());
+
+      // The size bound evicts the leased client, which must keep working until released
+      pool.lease("bob", () -> bob).close();
+      Assert.assertEquals(1, pool.size());
+      verify(first, never()).stop();
+
+      inUse.close();
+      verify(first, never()).stop();
+      other.close();
+      other.close();
+      verify(first, times(1)).stop();
+
+      // The next lease creates a new client
+      try (final YarnClientPool.Lease next = pool.lease("alice", () -> second)) {
+        Assert.assertSame(second, next.getClient());
+      }
+    }
+  }
+
+  @Test
+  public void testCloseStopsIdleClients() throws Exception {
+    final YarnClient client = mock(YarnClient.class);
+    final YarnClientPool pool = new YarnClientPool(10, 30);
+    pool.lease("cluster", () -> client).close();
+    pool.close();
+    verify(client).stop();
+    Assert.assertEquals(0, pool.size());
+  }
+}
@@ -16,9 +16,13 @@
 
 package azkaban.db;
 
+import azkaban.Constants.ConfigurationKeys;
 import azkaban.metrics.MetricsManager;
+import azkaban.utils.Props;
 import com.codahale.metrics.Meter;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -28,6 +32,9 @@ import javax.inject.Singleton;
 @Singleton
 public class DBMetrics {
 
+  public static final long DEFAULT_SLOW_QUERY_THRESHOLD_MS = 1000;
+  public static final int DEFAULT_SLOW_QUERY_TOP_N = 10;
+
   private final AtomicLong dbConnectionTime = new AtomicLong(0L);
   private final MetricsManager metricsManager;
   private Meter dbConnectionMeter;
@@ -35,10 +42,23 @@ public class DBMetrics {
   private Meter queryFailMeter;
   private Meter updateFailMeter;
   private Meter transactionFailMeter;
+  private Meter replicaQueryMeter;
+  private Meter replicaFallbackMeter;
+  private final DBStatementStats statementStats;
+  private final int slowQueryTopN;
 
-  @Inject
   public DBMetrics(final MetricsManager metricsManager) {
+    this(metricsManager, new Props());
+  }
+
+  @Inject
+  public DBMetrics(final MetricsManager metricsManager, final Props props) {
     this.metricsManager = metricsManager;
+    this.statementStats = new DBStatementStats(metricsManager,
+        props.getLong(ConfigurationKeys.AZKABAN_DB_SLOW_QUERY_THRESHOLD_MS,
+            DEFAULT_SLOW_QUERY_THRESHOLD_MS));
+    this.slowQueryTopN = props.getInt(ConfigurationKeys.AZKABAN_DB_SLOW_QUERY_TOP_N,
+        DEFAULT_SLOW_QUERY_TOP_N);
     setupAllMetrics();
   }
 
@@ -49,6 +69,29 @@ public class DBMetrics {
     this.updateFailMeter = this.metricsManager.addMeter("DB-Fail-Update-meter");
     this.transactionFailMeter = this.metricsManager.addMeter("DB-Fail-Transaction-meter");
     this.metricsManager.addGauge("dbConnectionTime", this.dbConnectionTime::get);
+    this.replicaQueryMeter = this.metricsManager.addMeter("DB-Replica-Query-meter");
+    this.replicaFallbackMeter = this.metricsManager.addMeter("DB-Replica-Fallback-meter");
+  }
+
+  /**
+   * Expose the replication lag of the read replica, -1 when unknown.
+   */
+  void addReplicaLagGauge(final Supplier<Long> lagSeconds) {
+    this.metricsManager.addGauge("DB-Replica-Lag-seconds", lagSeconds);
+  }
+
+  /**
+   * Mark a replica-safe query served by the read replica.
+   */
+  void markReplicaQuery() {
+    this.replicaQueryMeter.mark();
+  }
+
+  /**
+   * Mark a replica-safe query served by the primary, because the replica lags or failed.
+   */
+  void markReplicaFallback() {
+    this.replicaFallbackMeter.mark();
   }
 
   /**
@@ -97,4 +140,37 @@ public class DBMetrics {
   void setDBConnectionTime(final long milliseconds) {
     this.dbConnectionTime.set(milliseconds);
   }
+
+  /**
+   * Record the latency of a statement run with the given parameters.
+   */
+  void recordStatement(final String sql, final long startNanos, final Object[] params) {
+    this.statementStats.record(sql, System.nanoTime() - startNanos, params);
+  }
+
+  /**
+   * Record the latency of a batch of statements.
+   */
+  void recordBatch(final String sql, final long startNanos, final Object[][] params) {
+    this.statementStats.recordBatch(sql, System.nanoTime() - startNanos, params);
+  }
+
+  /**
+   * Record the latency of a whole transaction, its statements are recorded separately.
+   */
+  void recordTransaction(final long startNanos) {
+    this.statementStats.recordTransaction(System.nanoTime() - startNanos);
+  }
+
+  /**
+   * @return the configured number of statements with the highest 99th percentile latency, one
+   * line per statement, worst first
+   */
+  public List<String> getSlowestStatements() {
+    return this.statementStats.getSlowestStatements(this.slowQueryTopN);
+  }
+
+  public long getSlowQueryThresholdMs() {
+    return this.statementStats.getSlowThresholdMs();
+  }
 }
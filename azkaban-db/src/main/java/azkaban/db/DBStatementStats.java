@@ -0,0 +1,234 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.db;
+
+import azkaban.metrics.MetricsManager;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Snapshot;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.apache.log4j.Logger;
+
+/**
+ * Latency of the statements run through {@link DatabaseOperator} and {@link
+ * DatabaseTransOperator}, per normalized statement.
+ *
+ * Statements are normalized by collapsing white space and replacing literals by '?' and IN lists
+ * by a single 'IN (?)', so that the statements the DAOs build with inlined values still map to a
+ * bounded set of keys. Each normalized statement gets a histogram of its latency in microseconds,
+ * named after its verb, its first table and a hash of the statement. Past {@link #MAX_STATEMENTS}
+ * distinct statements, the others are accounted together.
+ *
+ * Statements slower than the threshold are logged to the azkaban.db.SlowQueryLog logger, with the
+ * normalized SQL and a rendering of the parameters which never prints long values in full.
+ */
+class DBStatementStats {
+
+  static final int MAX_STATEMENTS = 500;
+  static final String OTHER_STATEMENTS = "<other statements>";
+  static final String TRANSACTION = "<transaction>";
+  private static final int MAX_NORMALIZED_CACHE_SIZE = 2000;
+  private static final int MAX_PARAM_CHARS = 32;
+
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Pattern IN_LIST = Pattern
+      .compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+  private static final Pattern TABLE = Pattern
+      .compile("(?i)\\b(?:FROM|INTO|UPDATE|TABLE)\\s+`?(\\w+)");
+
+  private static final Logger slowQueryLogger = Logger.getLogger("azkaban.db.SlowQueryLog");
+
+  private final MetricsManager metricsManager;
+  private final long slowThresholdMs;
+  // the DAOs mostly use constant statements, normalize each of them once
+  private final ConcurrentHashMap<String, String> normalizedSql = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, StatementStats> statements = new ConcurrentHashMap<>();
+
+  DBStatementStats(final MetricsManager metricsManager, final long slowThresholdMs) {
+    this.metricsManager = metricsManager;
+    this.slowThresholdMs = slowThresholdMs;
+  }
+
+  long getSlowThresholdMs() {
+    return this.slowThresholdMs;
+  }
+
+  void record(final String sql, final long elapsedNanos, final Object[] params) {
+    record(getStatementStats(normalize(sql)), elapsedNanos, () -> renderParams(params));
+  }
+
+  void recordBatch(final String sql, final long elapsedNanos, final Object[][] params) {
+    record(getStatementStats(normalize(sql)), elapsedNanos,
+        () -> "batch of " + (params == null ? 0 : params.length));
+  }
+
+  void recordTransaction(final long elapsedNanos) {
+    record(getStatementStats(TRANSACTION), elapsedNanos, () -> "");
+  }
+
+  private void record(final StatementStats stats, final long elapsedNanos,
+      final Supplier<String> params) {
+    stats.update(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+    final long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    if (this.slowThresholdMs > 0 && elapsedMs >= this.slowThresholdMs) {
+      slowQueryLogger.warn("Slow statement took " + elapsedMs + " ms: " + stats.sql
+          + " params: " + params.get());
+    }
+  }
+
+  /**
+   * @return the n statements with the highest 99th percentile latency, worst first
+   */
+  List<String> getSlowestStatements(final int n) {
+    return this.statements.values().stream()
+        .map(StatementStats::summarize)
+        .sorted(Comparator.comparingDouble((StatementSummary s) -> s.p99Micros).reversed())
+        .limit(Math.max(0, n))
+        .map(StatementSummary::toString)
+        .collect(Collectors.toList());
+  }
+
+  String normalize(final String sql) {
+    String normalized = this.normalizedSql.get(sql);
+    if (normalized == null) {
+      normalized = normalizeSql(sql);
+      if (this.normalizedSql.size() < MAX_NORMALIZED_CACHE_SIZE) {
+        this.normalizedSql.put(sql, normalized);
+      }
+    }
+    return normalized;
+  }
+
+  private StatementStats getStatementStats(final String normalized) {
+    final StatementStats stats = this.statements.get(normalized);
+    if (stats != null) {
+      return stats;
+    }
+    final String key = this.statements.size() < MAX_STATEMENTS ? normalized : OTHER_STATEMENTS;
+    return this.statements.computeIfAbsent(key,
+        k -> new StatementStats(k, this.metricsManager.addHistogram(metricName(k))));
+  }
+
+  static String normalizeSql(final String sql) {
+    String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+    normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+    normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    return IN_LIST.matcher(normalized).replaceAll("IN (?)");
+  }
+
+  static String metricName(final String normalized) {
+    if (OTHER_STATEMENTS.equals(normalized)) {
+      return "DB-Statement-other-latency-micros";
+    }
+    if (TRANSACTION.equals(normalized)) {
+      return "DB-Transaction-latency-micros";
+    }
+    final int verbEnd = normalized.indexOf(' ');
+    final String verb = (verbEnd < 0 ? normalized : normalized.substring(0, verbEnd))
+        .replaceAll("\\W", "").toLowerCase(Locale.ROOT);
+    final Matcher table = TABLE.matcher(normalized);
+    return "DB-Statement-" + verb + "-"
+        + (table.find() ? table.group(1).toLowerCase(Locale.ROOT) : "none") + "-"
+        + Integer.toHexString(normalized.hashCode()) + "-latency-micros";
+  }
+
+  static String renderParams(final Object[] params) {
+    if (params == null) {
+      return "[]";
+    }
+    final StringBuilder rendered = new StringBuilder("[");
+    for (int i = 0; i < params.length; i++) {
+      if (i > 0) {
+        rendered.append(", ");
+      }
+      rendered.append(renderParam(params[i]));
+    }
+    return rendered.append(']').toString();
+  }
+
+  private static String renderParam(final Object param) {
+    if (param == null) {
+      return "null";
+    } else if (param instanceof Number || param instanceof Boolean || param instanceof Enum) {
+      return param.toString();
+    } else if (param instanceof byte[]) {
+      return "byte[" + ((byte[]) param).length + "]";
+    } else if (param instanceof CharSequence) {
+      final String value = param.toString();
+      return value.length() <= MAX_PARAM_CHARS ? "'" + value + "'"
+          : "'" + value.substring(0, MAX_PARAM_CHARS) + "...'(" + value.length() + " chars)";
+    }
+    return param.getClass().getSimpleName();
+  }
+
+  private static class StatementStats {
+
+    private final String sql;
+    private final Histogram latencyMicros;
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    private StatementStats(final String sql, final Histogram latencyMicros) {
+      this.sql = sql;
+      this.latencyMicros = latencyMicros;
+    }
+
+    private void update(final long micros) {
+      this.latencyMicros.update(micros);
+      this.maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    private StatementSummary summarize() {
+      final Snapshot snapshot = this.latencyMicros.getSnapshot();
+      return new StatementSummary(this.sql, this.latencyMicros.getCount(),
+          snapshot.getMean(), snapshot.get99thPercentile(), this.maxMicros.get());
+    }
+  }
+
+  private static class StatementSummary {
+
+    private final String sql;
+    private final long count;
+    private final double meanMicros;
+    private final double p99Micros;
+    private final long maxMicros;
+
+    private StatementSummary(final String sql, final long count, final double meanMicros,
+        final double p99Micros, final long maxMicros) {
+      this.sql = sql;
+      this.count = count;
+      this.meanMicros = meanMicros;
+      this.p99Micros = p99Micros;
+      this.maxMicros = maxMicros;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(Locale.ROOT, "p99=%.1fms mean=%.1fms max=%.1fms count=%d %s",
+          this.p99Micros / 1000, this.meanMicros / 1000, this.maxMicros / 1000.0, this.count,
+          this.sql);
+    }
+  }
+}
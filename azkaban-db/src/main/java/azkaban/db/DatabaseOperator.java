@@ -43,6 +43,9 @@ public class DatabaseOperator {
   @Inject
   private DBMetrics dbMetrics;
 
+  @Inject
+  private DatabaseReplica replica;
+
   /**
    * Note: this queryRunner should include a concrete {@link AzkabanDataSource} inside.
    */
@@ -52,6 +55,11 @@ public class DatabaseOperator {
     this.queryRunner = queryRunner;
   }
 
+  DatabaseOperator(final QueryRunner queryRunner, final DatabaseReplica replica) {
+    this(queryRunner);
+    this.replica = replica;
+  }
+
   /**
    * Executes the given Azkaban related SELECT SQL operations. it will call
    * {@link AzkabanDataSource#getConnection()} inside queryrunner.query.
@@ -65,6 +73,7 @@ public class DatabaseOperator {
   public <T> T query(final String baseQuery, final ResultSetHandler<T> resultHandler,
       final Object... params)
       throws SQLException {
+    final long startNanos = System.nanoTime();
     try {
       return this.queryRunner.query(baseQuery, resultHandler, params);
     } catch (final SQLException ex) {
@@ -74,7 +83,41 @@ public class DatabaseOperator {
         this.dbMetrics.markDBFailQuery();
       }
       throw ex;
+    } finally {
+      recordStatement(baseQuery, startNanos, params);
+    }
+  }
+
+  /**
+   * Executes a SELECT which may be served by the read replica, see {@link DatabaseReplica}: the
+   * caller must accept results missing the latest writes, by up to the maximum replication lag.
+   * Falls back to {@link #query(String, ResultSetHandler, Object...)} on the primary when there is
+   * no usable replica or the query fails on it.
+   */
+  public <T> T queryReplicaSafe(final String baseQuery, final ResultSetHandler<T> resultHandler,
+      final Object... params) throws SQLException {
+    final DatabaseReplica replica = this.replica;
+    if (replica == null || !replica.isConfigured()) {
+      return query(baseQuery, resultHandler, params);
+    }
+    if (replica.isUsable()) {
+      final long startNanos = System.nanoTime();
+      try {
+        final T result = replica.getQueryRunner().query(baseQuery, resultHandler, params);
+        recordStatement(baseQuery, startNanos, params);
+        if (this.dbMetrics != null) {
+          this.dbMetrics.markReplicaQuery();
+        }
+        return result;
+      } catch (final SQLException ex) {
+        logger.warn("replica query failed, falling back to the primary", ex);
+        replica.markFailed();
+      }
+    }
+    if (this.dbMetrics != null) {
+      this.dbMetrics.markReplicaFallback();
     }
+    return query(baseQuery, resultHandler, params);
   }
 
   /**
@@ -87,12 +130,13 @@ public class DatabaseOperator {
    * @return T The object returned by the SQL statement, expected by the caller
    */
   public <T> T transaction(final SQLTransaction<T> operations) throws SQLException {
+    final long startNanos = System.nanoTime();
     Connection conn = null;
     try {
       conn = this.queryRunner.getDataSource().getConnection();
       conn.setAutoCommit(false);
       final DatabaseTransOperator transOperator = new DatabaseTransOperator(this.queryRunner,
-          conn);
+          conn, this.dbMetrics);
       final T res = operations.execute(transOperator);
       conn.commit();
       return res;
@@ -105,6 +149,9 @@ public class DatabaseOperator {
       throw ex;
     } finally {
       DbUtils.closeQuietly(conn);
+      if (this.dbMetrics != null) {
+        this.dbMetrics.recordTransaction(startNanos);
+      }
     }
   }
 
@@ -123,9 +170,14 @@ public class DatabaseOperator {
     String errorMsg =
         "Update failed: Reached maximum number of retries: " + AzDBUtil.MAX_RETRIES_ON_DEADLOCK;
     do {
+      final long startNanos = System.nanoTime();
       try {
-        return this.queryRunner.update(updateClause, params);
+        final int updated = this.queryRunner.update(updateClause, params);
+        recordStatement(updateClause, startNanos, params);
+        return updated;
       } catch (final SQLException ex) {
+        // recorded before the retry wait
+        recordStatement(updateClause, startNanos, params);
         exception = ex;
         if (this.queryRunner.getDataSource() instanceof MySQLDataSource &&
             ex.getErrorCode() == MySQLDataSource.MYSQL_ER_LOCK_DEADLOCK) {
@@ -159,6 +211,7 @@ public class DatabaseOperator {
    * @return result
    */
   public int[] batch(final String sqlCommand, final Object[]... params) throws SQLException {
+    final long startNanos = System.nanoTime();
     try {
       return this.queryRunner.batch(sqlCommand, params);
     } catch (final SQLException ex) {
@@ -167,6 +220,16 @@ public class DatabaseOperator {
         this.dbMetrics.markDBFailUpdate();
       }
       throw ex;
+    } finally {
+      if (this.dbMetrics != null) {
+        this.dbMetrics.recordBatch(sqlCommand, startNanos, params);
+      }
+    }
+  }
+
+  private void recordStatement(final String sql, final long startNanos, final Object[] params) {
+    if (this.dbMetrics != null) {
+      this.dbMetrics.recordStatement(sql, startNanos, params);
     }
   }
 
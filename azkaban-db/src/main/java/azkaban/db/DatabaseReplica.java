@@ -0,0 +1,199 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.db;
+
+import azkaban.utils.Props;
+import java.io.Closeable;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.apache.commons.dbutils.QueryRunner;
+import org.apache.commons.dbutils.ResultSetHandler;
+import org.apache.log4j.Logger;
+
+/**
+ * Optional read-only MySQL replica, serving the queries the DAOs mark as replica-safe through
+ * {@link DatabaseOperator#queryReplicaSafe(String, ResultSetHandler, Object...)}.
+ *
+ * The replica is only used when mysql.replica.host is set. Its replication lag is checked in the
+ * background, the replica is skipped while the lag is unknown or above
+ * mysql.replica.max.lag.seconds, and for a while after a query on it failed. Unlike the primary
+ * data source, getting a replica connection is not retried: the query falls back to the primary.
+ */
+@Singleton
+public class DatabaseReplica implements Closeable {
+
+  public static final String MYSQL_REPLICA_HOST = "mysql.replica.host";
+  public static final String MYSQL_REPLICA_PORT = "mysql.replica.port";
+  public static final String MYSQL_REPLICA_DATABASE = "mysql.replica.database";
+  public static final String MYSQL_REPLICA_USER = "mysql.replica.user";
+  public static final String MYSQL_REPLICA_PASSWORD = "mysql.replica.password";
+  public static final String MYSQL_REPLICA_NUM_CONNECTIONS = "mysql.replica.numconnections";
+  public static final String MYSQL_REPLICA_MAX_LAG_SECONDS = "mysql.replica.max.lag.seconds";
+  public static final String MYSQL_REPLICA_LAG_CHECK_INTERVAL_MS =
+      "mysql.replica.lag.check.interval.ms";
+
+  static final long DEFAULT_MAX_LAG_SECONDS = 30;
+  static final long DEFAULT_LAG_CHECK_INTERVAL_MS = 10_000;
+  static final long FAILURE_BACKOFF_MS = 30_000;
+  private static final long CONNECTION_MAX_WAIT_MS = 2_000;
+  private static final String LAG_COLUMN = "Seconds_Behind_Master";
+
+  private static final Logger logger = Logger.getLogger(DatabaseReplica.class);
+
+  private final QueryRunner queryRunner;
+  private final long maxLagSeconds;
+  private final ScheduledExecutorService lagChecker;
+  private volatile long lagSeconds = -1;
+  private volatile long unavailableUntilMs = 0;
+  // Only used by the lag checker thread, so that a failing check is logged once, not every time.
+  private boolean lagCheckFailing = false;
+
+  @Inject
+  public DatabaseReplica(final Props props, final DBMetrics dbMetrics) {
+    this(props.containsKey(MYSQL_REPLICA_HOST) ? new QueryRunner(createDataSource(props)) : null,
+        props.getLong(MYSQL_REPLICA_MAX_LAG_SECONDS, DEFAULT_MAX_LAG_SECONDS),
+        props.getLong(MYSQL_REPLICA_LAG_CHECK_INTERVAL_MS, DEFAULT_LAG_CHECK_INTERVAL_MS),
+        dbMetrics);
+  }
+
+  /**
+   * @param queryRunner runs the queries on the replica, null if there is no replica
+   */
+  DatabaseReplica(final QueryRunner queryRunner, final long maxLagSeconds,
+      final long lagCheckIntervalMs, final DBMetrics dbMetrics) {
+    this.queryRunner = queryRunner;
+    this.maxLagSeconds = maxLagSeconds;
+    if (queryRunner == null) {
+      this.lagChecker = null;
+      return;
+    }
+    if (dbMetrics != null) {
+      dbMetrics.addReplicaLagGauge(this::getLagSeconds);
+    }
+    this.lagChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+      final Thread thread = new Thread(r, "azk-db-replica-lag-checker");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.lagChecker.scheduleWithFixedDelay(this::checkLag, 0, lagCheckIntervalMs,
+        TimeUnit.MILLISECONDS);
+  }
+
+  private static BasicDataSource createDataSource(final Props props) {
+    final String host = props.getString(MYSQL_REPLICA_HOST);
+    final int port = props.getInt(MYSQL_REPLICA_PORT, props.getInt("mysql.port"));
+    final String dbName = props.getString(MYSQL_REPLICA_DATABASE,
+        props.getString("mysql.database"));
+    final BasicDataSource dataSource = new BasicDataSource();
+    dataSource.addConnectionProperty("useUnicode", "yes");
+    dataSource.addConnectionProperty("characterEncoding", "UTF-8");
+    dataSource.setDriverClassName(props.getString("mysql.driverclassname",
+        "com.mysql.cj.jdbc.Driver"));
+    dataSource.setUsername(props.getString(MYSQL_REPLICA_USER, props.getString("mysql.user")));
+    dataSource.setPassword(props.getString(MYSQL_REPLICA_PASSWORD,
+        props.getString("mysql.password")));
+    dataSource.setUrl("jdbc:mysql://" + host + ":" + port + "/" + dbName);
+    dataSource.setMaxTotal(props.getInt(MYSQL_REPLICA_NUM_CONNECTIONS,
+        props.getInt("mysql.numconnections")));
+    dataSource.setMaxWaitMillis(CONNECTION_MAX_WAIT_MS);
+    dataSource.setDefaultReadOnly(true);
+    dataSource.setValidationQuery("/* ping */ select 1");
+    dataSource.setTestOnBorrow(true);
+    return dataSource;
+  }
+
+  public boolean isConfigured() {
+    return this.queryRunner != null;
+  }
+
+  /**
+   * @return true if replica-safe queries should be sent to the replica now
+   */
+  public boolean isUsable() {
+    final long lag = this.lagSeconds;
+    return this.queryRunner != null && lag >= 0 && lag <= this.maxLagSeconds
+        && System.currentTimeMillis() >= this.unavailableUntilMs;
+  }
+
+  /**
+   * @return the last measured replication lag, -1 if unknown
+   */
+  public long getLagSeconds() {
+    return this.lagSeconds;
+  }
+
+  QueryRunner getQueryRunner() {
+    return this.queryRunner;
+  }
+
+  /**
+   * Stop using the replica for a while, after a query on it failed.
+   */
+  void markFailed() {
+    this.unavailableUntilMs = System.currentTimeMillis() + FAILURE_BACKOFF_MS;
+  }
+
+  void checkLag() {
+    try {
+      this.lagSeconds = fetchLagSeconds();
+      if (this.lagCheckFailing) {
+        this.lagCheckFailing = false;
+        logger.info("Got the replication lag of the DB replica again: " + this.lagSeconds + "s");
+      }
+    } catch (final SQLException | RuntimeException e) {
+      if (!this.lagCheckFailing) {
+        this.lagCheckFailing = true;
+        logger.warn("Failed to get the replication lag of the DB replica, not using it", e);
+      }
+      this.lagSeconds = -1;
+    }
+  }
+
+  /**
+   * @return the replication lag reported by the replica, 0 if it reports no replication status,
+   * e.g. for a reader endpoint sharing the storage of the primary, and -1 if replication is not
+   * running
+   */
+  long fetchLagSeconds() throws SQLException {
+    final ResultSetHandler<Long> handler = rs -> {
+      if (!rs.next()) {
+        return 0L;
+      }
+      final long lag = rs.getLong(LAG_COLUMN);
+      return rs.wasNull() ? -1L : lag;
+    };
+    return this.queryRunner.query("SHOW SLAVE STATUS", handler);
+  }
+
+  @Override
+  public void close() {
+    if (this.lagChecker != null) {
+      this.lagChecker.shutdownNow();
+    }
+    if (this.queryRunner != null && this.queryRunner.getDataSource() instanceof BasicDataSource) {
+      try {
+        ((BasicDataSource) this.queryRunner.getDataSource()).close();
+      } catch (final SQLException e) {
+        logger.warn("Failed to close the DB replica data source", e);
+      }
+    }
+  }
+}
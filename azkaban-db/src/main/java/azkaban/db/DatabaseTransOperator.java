@@ -41,10 +41,20 @@ public class DatabaseTransOperator {
   private static final Logger logger = Logger.getLogger(DatabaseTransOperator.class);
   private final Connection conn;
   private final QueryRunner queryRunner;
+  private final DBMetrics dbMetrics;
 
   public DatabaseTransOperator(final QueryRunner queryRunner, final Connection conn) {
+    this(queryRunner, conn, null);
+  }
+
+  /**
+   * @param dbMetrics records the latency of the statements, may be null
+   */
+  public DatabaseTransOperator(final QueryRunner queryRunner, final Connection conn,
+      final DBMetrics dbMetrics) {
     this.conn = conn;
     this.queryRunner = queryRunner;
+    this.dbMetrics = dbMetrics;
   }
 
   /**
@@ -79,6 +89,7 @@ public class DatabaseTransOperator {
   public <T> T query(final String querySql, final ResultSetHandler<T> resultHandler,
       final Object... params)
       throws SQLException {
+    final long startNanos = System.nanoTime();
     try {
       return this.queryRunner.query(this.conn, querySql, resultHandler, params);
     } catch (final SQLException ex) {
@@ -86,6 +97,9 @@ public class DatabaseTransOperator {
       throw ex;
     } finally {
       // Note: CAN NOT CLOSE CONNECTION HERE.
+      if (this.dbMetrics != null) {
+        this.dbMetrics.recordStatement(querySql, startNanos, params);
+      }
     }
   }
 
@@ -97,6 +111,7 @@ public class DatabaseTransOperator {
    * @throws SQLException
    */
   public int update(final String updateClause, final Object... params) throws SQLException {
+    final long startNanos = System.nanoTime();
     try {
       return this.queryRunner.update(this.conn, updateClause, params);
     } catch (final SQLException ex) {
@@ -104,6 +119,28 @@ public class DatabaseTransOperator {
       throw ex;
     } finally {
       // Note: CAN NOT CLOSE CONNECTION HERE.
+      if (this.dbMetrics != null) {
+        this.dbMetrics.recordStatement(updateClause, startNanos, params);
+      }
+    }
+  }
+
+  /**
+   * Execute a batch of the same statement with different parameters, on the connection of this
+   * operator and without committing.
+   *
+   * @param sqlCommand sqlCommand template
+   * @param params one array of parameters per statement of the batch
+   * @return the number of rows updated per statement
+   */
+  public int[] batch(final String sqlCommand, final Object[][] params) throws SQLException {
+    final long startNanos = System.nanoTime();
+    try {
+      return this.queryRunner.batch(this.conn, sqlCommand, params);
+    } finally {
+      if (this.dbMetrics != null) {
+        this.dbMetrics.recordBatch(sqlCommand, startNanos, params);
+      }
     }
   }
 
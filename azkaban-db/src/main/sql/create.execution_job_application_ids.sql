@@ -0,0 +1,17 @@
+-- Hadoop/Spark application ids found in the log of a job attempt, indexed by the executor while
+-- the log is written. job_id is the nested id of the job, as the name in execution_logs.
+-- application_ids is a comma separated list in log order. Attempts that logged no application
+-- ids have no row, as attempts from before the index existed. Rows are removed with the logs by
+-- upload_time.
+
+CREATE TABLE execution_job_application_ids (
+  exec_id         INT          NOT NULL,
+  job_id          VARCHAR(512) NOT NULL,
+  attempt         INT          NOT NULL,
+  application_ids TEXT,
+  upload_time     BIGINT       NOT NULL,
+  PRIMARY KEY (exec_id, job_id, attempt)
+);
+
+CREATE INDEX ex_job_app_ids_upload_time
+  ON execution_job_application_ids (upload_time);
@@ -15,4 +15,4 @@ CREATE TABLE execution_jobs (
 );
 
 CREATE INDEX ex_job_id
-  ON execution_jobs (project_id, job_id);
+  ON execution_jobs (project_id, job_id, exec_id);
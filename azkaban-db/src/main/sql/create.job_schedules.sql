@@ -0,0 +1,15 @@
+CREATE TABLE job_schedules (
+  job_name        VARCHAR(128) NOT NULL,
+  group_name      VARCHAR(255) NOT NULL,
+  job_class       VARCHAR(255) NOT NULL,
+  cron_expression VARCHAR(128) NOT NULL,
+  job_data        LONGBLOB,
+  paused          BOOLEAN      NOT NULL DEFAULT FALSE,
+  create_time     BIGINT       NOT NULL,
+  modify_time     BIGINT       NOT NULL,
+  last_fire_time  BIGINT,
+  PRIMARY KEY (job_name, group_name)
+);
+
+CREATE INDEX job_schedules_modify_time
+  ON job_schedules (modify_time);
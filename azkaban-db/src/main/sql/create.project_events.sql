@@ -1,4 +1,5 @@
 CREATE TABLE project_events (
+  id         BIGINT  NOT NULL PRIMARY KEY AUTO_INCREMENT,
   project_id INT     NOT NULL,
   event_type TINYINT NOT NULL,
   event_time BIGINT  NOT NULL,
@@ -7,4 +8,4 @@ CREATE TABLE project_events (
 );
 
 CREATE INDEX log
-  ON project_events (project_id, event_time);
+  ON project_events (project_id, event_time, id);
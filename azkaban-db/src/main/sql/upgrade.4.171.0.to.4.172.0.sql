@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS execution_job_application_ids (
+  exec_id         INT          NOT NULL,
+  job_id          VARCHAR(512) NOT NULL,
+  attempt         INT          NOT NULL,
+  application_ids TEXT,
+  upload_time     BIGINT       NOT NULL,
+  PRIMARY KEY (exec_id, job_id, attempt)
+);
+
+CREATE INDEX ex_job_app_ids_upload_time
+  ON execution_job_application_ids (upload_time);
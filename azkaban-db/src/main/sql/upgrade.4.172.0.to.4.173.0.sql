@@ -0,0 +1,28 @@
+-- Job history pages seek to the last execution of the previous page.
+ALTER TABLE execution_jobs
+  DROP INDEX ex_job_id,
+  ADD INDEX ex_job_id (project_id, job_id, exec_id);
+
+-- Schedule definitions for the timing wheel scheduler.
+CREATE TABLE IF NOT EXISTS job_schedules (
+  job_name        VARCHAR(128) NOT NULL,
+  group_name      VARCHAR(255) NOT NULL,
+  job_class       VARCHAR(255) NOT NULL,
+  cron_expression VARCHAR(128) NOT NULL,
+  job_data        LONGBLOB,
+  paused          BOOLEAN      NOT NULL DEFAULT FALSE,
+  create_time     BIGINT       NOT NULL,
+  modify_time     BIGINT       NOT NULL,
+  last_fire_time  BIGINT,
+  PRIMARY KEY (job_name, group_name)
+);
+
+CREATE INDEX job_schedules_modify_time
+  ON job_schedules (modify_time);
+
+-- Project event pages seek to the time and id of the last event of the previous page, the id
+-- orders the events of the same time.
+ALTER TABLE project_events
+  ADD COLUMN id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY FIRST,
+  DROP INDEX log,
+  ADD INDEX log (project_id, event_time, id);
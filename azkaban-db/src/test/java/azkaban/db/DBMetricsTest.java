@@ -1,22 +1,26 @@
 package azkaban.db;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 
 import azkaban.metrics.MetricsManager;
 import azkaban.metrics.MetricsTestUtility;
 import com.codahale.metrics.MetricRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Test;
 
 public class DBMetricsTest {
   private MetricsTestUtility testUtil;
+  private MetricRegistry metricRegistry;
   private DBMetrics metrics;
 
   @Before
   public void setUp() {
-    final MetricRegistry metricRegistry = new MetricRegistry();
-    this.testUtil = new MetricsTestUtility(metricRegistry);
-    this.metrics = new DBMetrics(new MetricsManager(metricRegistry));
+    this.metricRegistry = new MetricRegistry();
+    this.testUtil = new MetricsTestUtility(this.metricRegistry);
+    this.metrics = new DBMetrics(new MetricsManager(this.metricRegistry));
   }
 
   @Test
@@ -24,4 +28,41 @@ public class DBMetricsTest {
     this.metrics.setDBConnectionTime(14);
     assertEquals(14, this.testUtil.getGaugeValue("dbConnectionTime"));
   }
+
+  @Test
+  public void testStatementsAreNormalized() {
+    assertThat(DBStatementStats.normalizeSql(
+        "SELECT exec_id FROM execution_flows\n  WHERE status IN (20, 30,  50) AND name = 'it''s'"
+            + " AND version=12 AND t1.id > ? LIMIT 100"))
+        .isEqualTo("SELECT exec_id FROM execution_flows WHERE status IN (?) AND name = ?"
+            + " AND version=? AND t1.id > ? LIMIT ?");
+    assertThat(DBStatementStats.metricName("SELECT exec_id FROM execution_flows WHERE a=?"))
+        .startsWith("DB-Statement-select-execution_flows-").endsWith("-latency-micros");
+  }
+
+  @Test
+  public void testParamsAreRenderedSafely() {
+    assertThat(DBStatementStats.renderParams(new Object[]{1, null, true, new byte[12],
+        "short", "0123456789012345678901234567890123456789", new Object()}))
+        .isEqualTo("[1, null, true, byte[12], 'short', '01234567890123456789012345678901...'"
+            + "(40 chars), Object]");
+  }
+
+  @Test
+  public void testStatementLatencyIsRecordedPerNormalizedStatement() {
+    final long start = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(5);
+    this.metrics.recordStatement("SELECT * FROM projects WHERE id=1", start, null);
+    this.metrics.recordStatement("SELECT * FROM projects WHERE id=2", start, new Object[]{2});
+    this.metrics.recordStatement("DELETE FROM projects WHERE id=?", start, new Object[]{2});
+
+    final String selectHistogram = DBStatementStats.metricName(
+        "SELECT * FROM projects WHERE id=?");
+    assertEquals(2, this.metricRegistry.histogram(selectHistogram).getCount());
+    assertThat(this.testUtil.getHistogramSnapshot(selectHistogram).getMin()).isGreaterThan(4000);
+
+    final List<String> slowest = this.metrics.getSlowestStatements();
+    assertThat(slowest).hasSize(2);
+    assertThat(slowest.stream()
+        .anyMatch(s -> s.endsWith("count=2 SELECT * FROM projects WHERE id=?"))).isTrue();
+  }
 }
@@ -19,6 +19,7 @@ package azkaban.db;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -26,6 +27,7 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.sql.DataSource;
 import org.apache.commons.dbutils.QueryRunner;
 import org.apache.commons.dbutils.ResultSetHandler;
@@ -151,4 +153,59 @@ public class DatabaseOperatorTest {
     int[] res = this.dbOperator.batch(BATCH_COMMAND, BATCH_PARAMETERS);
     Assert.assertEquals(BATCH_COMMAND_RESULT, res);
   }
+
+  private DatabaseReplica createReplica(final QueryRunner replicaRunner, final AtomicLong lag) {
+    final DatabaseReplica replica = new DatabaseReplica(replicaRunner, 30, 60_000, null) {
+      @Override
+      long fetchLagSeconds() {
+        return lag.get();
+      }
+    };
+    replica.checkLag();
+    return replica;
+  }
+
+  @Test
+  public void testReplicaSafeQueryUsesReplica() throws Exception {
+    final QueryRunner replicaRunner = mock(QueryRunner.class);
+    when(replicaRunner.query("select * from blah where ? = ?", this.handler, "id", 2))
+        .thenReturn(42);
+    final DatabaseReplica replica = createReplica(replicaRunner, new AtomicLong(1));
+    try {
+      final DatabaseOperator operator = new DatabaseOperator(this.queryRunner, replica);
+      Assert.assertEquals(42,
+          (int) operator.queryReplicaSafe("select * from blah where ? = ?", this.handler, "id", 2));
+      verify(this.queryRunner, never()).query("select * from blah where ? = ?", this.handler,
+          "id", 2);
+    } finally {
+      replica.close();
+    }
+  }
+
+  @Test
+  public void testReplicaSafeQueryFallsBackToPrimary() throws Exception {
+    final QueryRunner replicaRunner = mock(QueryRunner.class);
+    doThrow(SQLException.class).when(replicaRunner)
+        .query("select * from blah where ? = ?", this.handler, "id", 2);
+    final AtomicLong lag = new AtomicLong(120);
+    final DatabaseReplica replica = createReplica(replicaRunner, lag);
+    try {
+      final DatabaseOperator operator = new DatabaseOperator(this.queryRunner, replica);
+      // lagging too much
+      Assert.assertFalse(replica.isUsable());
+      Assert.assertEquals(15,
+          (int) operator.queryReplicaSafe("select * from blah where ? = ?", this.handler, "id", 2));
+      verify(replicaRunner, never()).query("select * from blah where ? = ?", this.handler, "id", 2);
+
+      // failing
+      lag.set(0);
+      replica.checkLag();
+      Assert.assertEquals(15,
+          (int) operator.queryReplicaSafe("select * from blah where ? = ?", this.handler, "id", 2));
+      verify(replicaRunner).query("select * from blah where ? = ?", this.handler, "id", 2);
+      Assert.assertFalse(replica.isUsable());
+    } finally {
+      replica.close();
+    }
+  }
 }
@@ -74,6 +74,7 @@ import azkaban.utils.DependencyTransferManager;
 import azkaban.utils.FileIOUtils;
 import azkaban.utils.FileIOUtils.JobMetaData;
 import azkaban.utils.FileIOUtils.LogData;
+import azkaban.utils.MailDeliveryQueue;
 import azkaban.utils.Props;
 import azkaban.utils.StdOutErrRedirect;
 import azkaban.utils.Utils;
@@ -969,6 +970,12 @@ public class FlowContainer implements IFlowRunnerManager, IMBeanRegistrable, Eve
       // Eat up the exception
       logger.error("Error shutting down JettyServer while winding down the FlowContainer", e);
     }
+    // The flow finished alert is queued by the flow runner, send it before exiting
+    try {
+      SERVICE_PROVIDER.getInstance(MailDeliveryQueue.class).close();
+    } catch (final RuntimeException e) {
+      logger.error("Error sending the queued emails while winding down the FlowContainer", e);
+    }
     logger.info("Sayonara!");
     closeLogger();
     System.exit(0);
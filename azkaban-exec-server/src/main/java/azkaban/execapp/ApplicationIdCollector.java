@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.execapp;
+
+import azkaban.executor.ExecutionControllerUtils;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.spi.LoggingEvent;
+
+/**
+ * Appender of the job logger collecting the Hadoop/Spark application ids the job logs, so that
+ * they can be indexed when the job attempt completes instead of scanning the uploaded log.
+ */
+public class ApplicationIdCollector extends AppenderSkeleton {
+
+  private static final String APPLICATION_ID_PREFIX = "application_";
+
+  private final Set<String> applicationIds = new LinkedHashSet<>();
+
+  public ApplicationIdCollector() {
+    setName(ApplicationIdCollector.class.getSimpleName());
+  }
+
+  @Override
+  protected void append(final LoggingEvent event) {
+    final String message = event.getRenderedMessage();
+    if (message != null && message.contains(APPLICATION_ID_PREFIX)) {
+      synchronized (this.applicationIds) {
+        ExecutionControllerUtils.addApplicationIdsFromLog(message, this.applicationIds);
+      }
+    }
+    final String[] throwable = event.getThrowableStrRep();
+    if (throwable != null) {
+      for (final String line : throwable) {
+        if (line.contains(APPLICATION_ID_PREFIX)) {
+          synchronized (this.applicationIds) {
+            ExecutionControllerUtils.addApplicationIdsFromLog(line, this.applicationIds);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the application ids collected so far, in log order
+   */
+  public List<String> getApplicationIds() {
+    synchronized (this.applicationIds) {
+      return new ArrayList<>(this.applicationIds);
+    }
+  }
+
+  @Override
+  public void close() {
+    this.closed = true;
+  }
+
+  @Override
+  public boolean requiresLayout() {
+    return false;
+  }
+}
@@ -25,6 +25,7 @@ import static java.util.Objects.requireNonNull;
 
 import azkaban.AzkabanCommonModule;
 import azkaban.Constants;
+import azkaban.db.DBMetrics;
 import azkaban.utils.ServerUtils;
 import azkaban.jobcallback.JobCallbackManager;
 import azkaban.execapp.jmx.JmxFlowRampManager;
@@ -38,6 +39,7 @@ import azkaban.execapp.metric.NumRunningJobMetric;
 import azkaban.executor.Executor;
 import azkaban.executor.ExecutorLoader;
 import azkaban.executor.ExecutorManagerException;
+import azkaban.jmx.JmxDBStatements;
 import azkaban.jmx.JmxJettyServer;
 import azkaban.metric.IMetricEmitter;
 import azkaban.metric.MetricException;
@@ -48,6 +50,7 @@ import azkaban.server.AzkabanServer;
 import azkaban.server.IMBeanRegistrable;
 import azkaban.server.MBeanRegistrationManager;
 import azkaban.utils.FileIOUtils;
+import azkaban.utils.MailDeliveryQueue;
 import azkaban.utils.Props;
 import azkaban.utils.StdOutErrRedirect;
 import azkaban.utils.Utils;
@@ -521,6 +524,8 @@ public class AzkabanExecutorServer implements IMBeanRegistrable {
     this.server.destroy();
     getFlowRampManager().shutdownNow();
     getFlowRunnerManager().shutdownNow();
+    // send the alerts still queued before the JVM exits
+    SERVICE_PROVIDER.getInstance(MailDeliveryQueue.class).close();
     this.mbeanRegistrationManager.closeMBeans();
   }
 
@@ -534,6 +539,8 @@ public class AzkabanExecutorServer implements IMBeanRegistrable {
     this.mbeanRegistrationManager
         .registerMBean("flowRampManager", new JmxFlowRampManager(this.rampManager));
     this.mbeanRegistrationManager.registerMBean("jobJMXMBean", JmxJobMBeanManager.getInstance());
+    this.mbeanRegistrationManager.registerMBean("dbStatements",
+        new JmxDBStatements(SERVICE_PROVIDER.getInstance(DBMetrics.class)));
 
     if (JobCallbackManager.isInitialized()) {
       final JobCallbackManager jobCallbackMgr = JobCallbackManager.getInstance();
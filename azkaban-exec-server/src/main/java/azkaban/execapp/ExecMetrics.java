@@ -16,6 +16,7 @@
 
 package azkaban.execapp;
 
+import azkaban.event.EventDispatcher;
 import azkaban.execapp.metric.ProjectCacheHitRatio;
 import azkaban.metrics.MetricsManager;
 import com.codahale.metrics.Counter;
@@ -44,6 +45,9 @@ public class ExecMetrics {
   public static final String JOB_SUCCESS_METER_NAME = "job-success-meter";
   public static final String JOB_KILLED_METER_NAME = "job-killed-meter";
   public static final String POLLING_FREQUENCY_METER_NAME = "polling-frequency-meter";
+  public static final String EVENT_DISPATCH_QUEUE_DEPTH_NAME = "event-dispatch-queue-depth";
+  public static final String EVENT_LISTENER_LATENCY_HISTOGRAM_NAME =
+      "event-listener-latency-micros-histogram";
 
   private final MetricsManager metricsManager;
   private final Timer flowSetupTimer;
@@ -57,6 +61,7 @@ public class ExecMetrics {
   private final Meter jobSuccessMeter;
   private final Meter jobKilledMeter;
   private final Meter pollingFrequencyMeter;
+  private final Histogram eventListenerLatencyHistogram;
   // TODO ypadron-in: add metrics to measure the time between flow submission and flow execution
   // preparation/start after clock skew issues in execution times are resolved.
 
@@ -78,6 +83,8 @@ public class ExecMetrics {
     this.jobSuccessMeter = this.metricsManager.addMeter(JOB_SUCCESS_METER_NAME);
     this.jobKilledMeter = this.metricsManager.addMeter(JOB_KILLED_METER_NAME);
     this.pollingFrequencyMeter = this.metricsManager.addMeter(POLLING_FREQUENCY_METER_NAME);
+    this.eventListenerLatencyHistogram =
+        this.metricsManager.addHistogram(EVENT_LISTENER_LATENCY_HISTOGRAM_NAME);
   }
 
   ProjectCacheHitRatio getProjectCacheHitRatio() {
@@ -91,6 +98,19 @@ public class ExecMetrics {
         .addGauge(NUM_QUEUED_FLOWS_NAME, flowRunnerManager::getNumQueuedFlows);
   }
 
+  public void addEventDispatcherMetrics(final EventDispatcher eventDispatcher) {
+    this.metricsManager
+        .addGauge(EVENT_DISPATCH_QUEUE_DEPTH_NAME, eventDispatcher::getQueueDepth);
+  }
+
+  /**
+   * @return the histogram of the time spent by asynchronously called event listeners, in
+   * microseconds.
+   */
+  public Histogram getEventListenerLatencyHistogram() {
+    return this.eventListenerLatencyHistogram;
+  }
+
   /**
    * @return the {@link Timer.Context} for the timer.
    */
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.execapp;
+
+import azkaban.executor.ExecutableNode;
+import azkaban.executor.ExecutableNodeRow;
+import azkaban.executor.ExecutionJobDao;
+import azkaban.executor.ExecutorLoader;
+import azkaban.executor.ExecutorManagerException;
+import azkaban.utils.Props;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.log4j.Logger;
+
+/**
+ * Writes the execution_jobs rows of all the flows of an executor in batches, instead of one
+ * auto-committed statement per job status change.
+ *
+ * Job inserts and updates are queued with a snapshot of the node, successive updates of the same
+ * job attempt are coalesced into the latest one. The queue is flushed on a fixed interval, as soon
+ * as it reaches the batch size, and synchronously by {@link #flush()}, which the flow runner calls
+ * when the flow reaches a final status. Encoding the job props (json and gzip) is done on a small
+ * pool rather than on the job threads.
+ */
+public class ExecutionJobRowWriter implements Closeable {
+
+  private static final Logger logger = Logger.getLogger(ExecutionJobRowWriter.class);
+
+  private final ExecutorLoader executorLoader;
+  private final int batchSize;
+  private final ExecutorService encoderPool;
+  private final ScheduledExecutorService flushScheduler;
+  private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+  // serializes the flushes, so that rows are written in the order they were queued
+  private final Object flushLock = new Object();
+
+  // keyed by exec id, flow path, job id and attempt, in queuing order
+  private Map<String, PendingRow> inserts = new LinkedHashMap<>();
+  private Map<String, PendingRow> updates = new LinkedHashMap<>();
+
+  public ExecutionJobRowWriter(final ExecutorLoader executorLoader, final long flushIntervalMs,
+      final int batchSize, final int encoderThreads) {
+    this.executorLoader = executorLoader;
+    this.batchSize = Math.max(1, batchSize);
+    this.encoderPool = Executors.newFixedThreadPool(Math.max(1, encoderThreads),
+        new ThreadFactoryBuilder().setNameFormat("azk-job-row-encoder-%d").setDaemon(true)
+            .build());
+    this.flushScheduler = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("azk-job-row-flusher").setDaemon(true).build());
+    this.flushScheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs,
+        flushIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Queue the insert of the row of a job attempt.
+   */
+  public void uploadExecutableNode(final ExecutableNode node, final Props inputProps) {
+    final PendingRow row = new PendingRow(node, inputProps);
+    synchronized (this) {
+      this.inserts.put(key(node), row);
+    }
+    requestFlushIfFull();
+  }
+
+  /**
+   * Queue the update of the row of a job attempt, replacing a queued update of the same attempt.
+   */
+  public void updateExecutableNode(final ExecutableNode node) {
+    final PendingRow row = new PendingRow(node, node.getOutputProps());
+    synchronized (this) {
+      this.updates.put(key(node), row);
+    }
+    requestFlushIfFull();
+  }
+
+  /**
+   * @return the number of rows waiting to be written
+   */
+  public synchronized int getPendingCount() {
+    return this.inserts.size() + this.updates.size();
+  }
+
+  /**
+   * Write all the queued rows, returning once they are committed.
+   */
+  public void flush() throws ExecutorManagerException {
+    synchronized (this.flushLock) {
+      final Map<String, PendingRow> insertsToWrite;
+      final Map<String, PendingRow> updatesToWrite;
+      synchronized (this) {
+        insertsToWrite = this.inserts;
+        updatesToWrite = this.updates;
+        this.inserts = new LinkedHashMap<>();
+        this.updates = new LinkedHashMap<>();
+      }
+      if (insertsToWrite.isEmpty() && updatesToWrite.isEmpty()) {
+        return;
+      }
+      try {
+        // inserts go first, an update may be for a row inserted in the same batch
+        this.executorLoader.writeExecutableNodes(toRows(insertsToWrite), toRows(updatesToWrite));
+      } catch (final ExecutorManagerException | RuntimeException e) {
+        requeue(insertsToWrite, updatesToWrite);
+        throw e;
+      }
+      logger.debug("Wrote " + insertsToWrite.size() + " job inserts and "
+          + updatesToWrite.size() + " job updates");
+    }
+  }
+
+  /**
+   * Put back rows which failed to be written ahead of the rows queued since, so that the next
+   * flush retries them. A row queued since for the same job attempt replaces the failed one.
+   */
+  private synchronized void requeue(final Map<String, PendingRow> failedInserts,
+      final Map<String, PendingRow> failedUpdates) {
+    failedInserts.putAll(this.inserts);
+    this.inserts = failedInserts;
+    failedUpdates.putAll(this.updates);
+    this.updates = failedUpdates;
+  }
+
+  private void flushQuietly() {
+    this.flushRequested.set(false);
+    try {
+      flush();
+    } catch (final ExecutorManagerException | RuntimeException e) {
+      logger.error("Error writing job rows", e);
+    }
+  }
+
+  private void requestFlushIfFull() {
+    if (getPendingCount() >= this.batchSize && this.flushRequested.compareAndSet(false, true)) {
+      this.flushScheduler.execute(this::flushQuietly);
+    }
+  }
+
+  /**
+   * Stop the background flushes and write what is still queued.
+   */
+  @Override
+  public void close() {
+    this.flushScheduler.shutdown();
+    flushQuietly();
+    this.encoderPool.shutdown();
+  }
+
+  private static String key(final ExecutableNode node) {
+    return node.getExecutableFlow().getExecutionId() + "." + node.getParentFlow().getFlowPath()
+        + "." + node.getId() + "." + node.getAttempt();
+  }
+
+  private static List<ExecutableNodeRow> toRows(final Map<String, PendingRow> pending) {
+    final List<ExecutableNodeRow> rows = new ArrayList<>(pending.size());
+    for (final PendingRow row : pending.values()) {
+      rows.add(row.toRow());
+    }
+    return rows;
+  }
+
+  /**
+   * A row waiting to be written: the node is snapshotted when queued, its props are encoded in
+   * the background.
+   */
+  private class PendingRow {
+
+    private final ExecutableNodeRow snapshot;
+    private final CompletableFuture<byte[]> params;
+
+    private PendingRow(final ExecutableNode node, final Props props) {
+      this.snapshot = new ExecutableNodeRow(node, null);
+      if (props == null) {
+        this.params = CompletableFuture.completedFuture(null);
+      } else {
+        this.params = CompletableFuture.supplyAsync(() -> {
+          try {
+            return ExecutionJobDao.encodeProps(props);
+          } catch (final ExecutorManagerException e) {
+            throw new IllegalStateException(e);
+          }
+        }, ExecutionJobRowWriter.this.encoderPool);
+      }
+    }
+
+    private ExecutableNodeRow toRow() {
+      byte[] encoded = null;
+      try {
+        encoded = this.params.get();
+      } catch (final ExecutionException e) {
+        logger.error("Error encoding params of job " + this.snapshot.getJobId(), e.getCause());
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        logger.error("Interrupted encoding params of job " + this.snapshot.getJobId(), e);
+      }
+      return this.snapshot.withParams(encoded);
+    }
+  }
+}
@@ -50,7 +50,9 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -90,20 +92,15 @@ public class FlowRampManager implements EventListener<Event>, ThreadPoolExecutin
   private Props globalProps;
   private PollingService pollingService = null;
 
-  // Hosting All Active Ramps, Map.Key is rampId
-  private volatile ExecutableRampMap executableRampMap = null;
+  // Hosting All Ramp Settings loaded from DB, replaced as a whole on every reload
+  private volatile FlowRampSnapshot snapshot = FlowRampSnapshot.empty();
 
-  // Hosting All Ramp Items, Map.Key is rampId
-  private volatile ExecutableRampItemsMap executableRampItemsMap = null;
+  // Hosting Flow Level Exclusions not yet visible in the snapshot, Map.Key is rampId
+  private final ConcurrentHashMap<String, ExecutableRampExceptionalItems> pendingFlowItems =
+      new ConcurrentHashMap<>();
 
-  // Hosting All Default Value of dependencies, Map.Key is dependencyId
-  private volatile ExecutableRampDependencyMap executableRampDependencyMap = null;
-
-  // Hosting Flow Level Special Treatment List, Map.Key is rampId
-  private volatile ExecutableRampExceptionalFlowItemsMap executableRampExceptionalFlowItemsMap = null;
-
-  // Hosting Job Level Special Treatment List, Map.Key is RampId + FlowId
-  private volatile ExecutableRampExceptionalJobItemsMap executableRampExceptionalJobItemsMap = null;
+  // Serializes reload and save, flow start never waits on it
+  private final ReentrantLock settingsLock = new ReentrantLock();
 
   private volatile RampDataModel rampDataModel = new RampDataModel();
 
@@ -143,11 +140,6 @@ public class FlowRampManager implements EventListener<Event>, ThreadPoolExecutin
           props.getString(AzkabanExecutorServer.RAMPPOLICY_PLUGIN_DIR, Constants.PluginManager.RAMPPOLICY_DEFAULTDIR),
           this.globalProps, getClass().getClassLoader());
 
-      this.executableRampMap = ExecutableRampMap.createInstance();
-      this.executableRampItemsMap = ExecutableRampItemsMap.createInstance();
-      this.executableRampDependencyMap = ExecutableRampDependencyMap.createInstance();
-      this.executableRampExceptionalFlowItemsMap = ExecutableRampExceptionalFlowItemsMap.createInstance();
-      this.executableRampExceptionalJobItemsMap = ExecutableRampExceptionalJobItemsMap.createInstance();
       this.rampDataModel = new RampDataModel();
 
       //Load current Ramp Setting from DB
@@ -169,12 +161,7 @@ public class FlowRampManager implements EventListener<Event>, ThreadPoolExecutin
    * Check if the system is activating the ramp feature, aka some system configuration is ramping.
    */
   private boolean isRampFeatureActivated() {
-    if (isRampFeatureEnabled || executableRampMap != null) {
-      if (!executableRampMap.getActivatedAll().isEmpty()) {
-        return true;
-      }
-    }
-    return false;
+    return isRampFeatureEnabled && !this.snapshot.getRamps().getActivatedAll().isEmpty();
   }
 
 
@@ -227,53 +214,66 @@ public class FlowRampManager implements EventListener<Event>, ThreadPoolExecutin
   }
 
   public int getNumOfRamps() {
-    return executableRampMap.getActivatedAll().size();
+    return this.snapshot.getRamps().getActivatedAll().size();
+  }
+
+  @VisibleForTesting
+  FlowRampSnapshot getSnapshot() {
+    return this.snapshot;
   }
 
   /**
-   * Load all ramp Settings from DB
+   * Load all ramp Settings from DB into a new snapshot and publish it.
+   * A setting that fails to load keeps its previous value.
    */
   @VisibleForTesting
-  synchronized void loadSettings() {
-    loadExecutableRamps();
-    loadExecutableRampItems();
-    loadExecutableRampDependencies();
-    loadExecutableRampExceptionalFlowItems();
-    loadExecutableRampExceptionalJobItems();
-    latestDataBaseSynchronizationTimeStamp = System.currentTimeMillis();
-    LOGGER.info(String.format("Ramp Settings had been successfully loaded at [%d].",
-        latestDataBaseSynchronizationTimeStamp));
+  void loadSettings() {
+    this.settingsLock.lock();
+    try {
+      final FlowRampSnapshot current = this.snapshot;
+      this.snapshot = new FlowRampSnapshot(
+          loadExecutableRamps(current.getRamps()),
+          loadExecutableRampItems(current.getRampItems()),
+          loadExecutableRampDependencies(current.getDependencies()),
+          loadExecutableRampExceptionalFlowItems(current.getExceptionalFlowItems()),
+          loadExecutableRampExceptionalJobItems(current.getExceptionalJobItems()));
+      prunePersistedFlowItems();
+      latestDataBaseSynchronizationTimeStamp = System.currentTimeMillis();
+      LOGGER.info(String.format("Ramp Settings had been successfully loaded at [%d].",
+          latestDataBaseSynchronizationTimeStamp));
+    } finally {
+      this.settingsLock.unlock();
+    }
   }
 
   /**
    * Load All active ramps, Key = rampId
+   * Ramps already known keep their instance so counters cached since the last save survive.
    */
-  @VisibleForTesting
-  synchronized void loadExecutableRamps() {
+  private ExecutableRampMap loadExecutableRamps(final ExecutableRampMap current) {
     try {
-      if (executableRampMap == null) {
-        executableRampMap = executorLoader.fetchExecutableRampMap();
-      } else {
-        executableRampMap.refresh(executorLoader.fetchExecutableRampMap());
-      }
+      final ExecutableRampMap fetched = executorLoader.fetchExecutableRampMap();
+      final ExecutableRampMap ramps = ExecutableRampMap.createInstance();
+      fetched.forEach((rampId, executableRamp) -> {
+        final ExecutableRamp live = current.get(rampId);
+        ramps.add(rampId, live == null ? executableRamp : live.refresh(executableRamp));
+      });
+      return ramps;
     } catch (ExecutorManagerException e) {
       LOGGER.error("Load all active Executable Ramp failure");
+      return current;
     }
   }
 
   /**
    * Load All dependency properties into the executableRampProperties Map, Key = rampId,
    */
-  @VisibleForTesting
-  synchronized void loadExecutableRampItems() {
+  private ExecutableRampItemsMap loadExecutableRampItems(final ExecutableRampItemsMap current) {
     try {
-      if (executableRampItemsMap == null) {
-        executableRampItemsMap = executorLoader.fetchExecutableRampItemsMap();
-      } else {
-        executableRampItemsMap.refresh(executorLoader.fetchExecutableRampItemsMap());
-      }
+      return executorLoader.fetchExecutableRampItemsMap();
     } catch (ExecutorManagerException e) {
       LOGGER.error("Load Executable Ramp Items failure");
+      return current;
     }
   }
 
@@ -281,105 +281,146 @@ public class FlowRampManager implements EventListener<Event>, ThreadPoolExecutin
    * Load All Default dependency values for ramp
    * When the dependency does not have ramp setting, the default Value will be applied.
    */
-  @VisibleForTesting
-  synchronized void loadExecutableRampDependencies() {
+  private ExecutableRampDependencyMap loadExecutableRampDependencies(
+      final ExecutableRampDependencyMap current) {
     try {
-      if (executableRampDependencyMap == null) {
-        executableRampDependencyMap = executorLoader.fetchExecutableRampDependencyMap();
-      } else {
-        executableRampDependencyMap.refresh(executorLoader.fetchExecutableRampDependencyMap());
-      }
+      return executorLoader.fetchExecutableRampDependencyMap();
     } catch (ExecutorManagerException e) {
       LOGGER.error("Load Executable Ramp Dependencies failure");
+      return current;
     }
   }
 
   /**
    * Load All Ramp Exceptional Items on Flow Level
    */
-  @VisibleForTesting
-  synchronized void loadExecutableRampExceptionalFlowItems() {
+  private ExecutableRampExceptionalFlowItemsMap loadExecutableRampExceptionalFlowItems(
+      final ExecutableRampExceptionalFlowItemsMap current) {
     try {
-      if (executableRampExceptionalFlowItemsMap == null) {
-        executableRampExceptionalFlowItemsMap = executorLoader.fetchExecutableRampExceptionalFlowItemsMap();
-      } else {
-        executableRampExceptionalFlowItemsMap.refresh(executorLoader.fetchExecutableRampExceptionalFlowItemsMap());
-      }
+      return executorLoader.fetchExecutableRampExceptionalFlowItemsMap();
     } catch (ExecutorManagerException e) {
       LOGGER.error("Load Executable Ramp Exceptional Items on Flow Level Failure");
+      return current;
     }
   }
 
   /**
    * Load All Ramp Exceptional Items on Job Level
    */
-  @VisibleForTesting
-  synchronized void loadExecutableRampExceptionalJobItems() {
+  private ExecutableRampExceptionalJobItemsMap loadExecutableRampExceptionalJobItems(
+      final ExecutableRampExceptionalJobItemsMap current) {
     try {
-      if (executableRampExceptionalJobItemsMap == null) {
-        executableRampExceptionalJobItemsMap = executorLoader.fetchExecutableRampExceptionalJobItemsMap();
-      } else {
-        executableRampExceptionalJobItemsMap.refresh(executorLoader.fetchExecutableRampExceptionalJobItemsMap());
-      }
+      return executorLoader.fetchExecutableRampExceptionalJobItemsMap();
     } catch (ExecutorManagerException e) {
       LOGGER.error("Load Executable Ramp Exceptional Items on Job Level Failure");
+      return current;
     }
   }
 
+  /**
+   * Drop pending flow exclusions which have been saved, the reloaded snapshot now carries them.
+   */
+  private void prunePersistedFlowItems() {
+    this.pendingFlowItems.keySet().forEach(rampId ->
+        this.pendingFlowItems.computeIfPresent(rampId, (key, items) -> {
+          items.getItems().values().removeIf(record -> !record.isCachedOnly());
+          return items.elementCount() == 0 ? null : items;
+        }));
+  }
+
   /**
    * Save all ramp settings into DB
    */
   @VisibleForTesting
-  synchronized void saveSettings() {
-    executableRampMap
-        .getAll()
-        .stream()
-        .filter(ExecutableRamp::isChanged)
-        .forEach(this::updateExecutableRamp);
-    executableRampExceptionalFlowItemsMap
-        .entrySet()
-        .stream()
-        .forEach(this::updateExecutedRampFlows);
-    rampDataModel.resetFlowCountAfterSave();
-    LOGGER.info("Ramp Settings had been successfully saved.");
+  void saveSettings() {
+    this.settingsLock.lock();
+    try {
+      updateExecutableRamps();
+      updateExecutedRampFlows();
+      rampDataModel.resetFlowCountAfterSave();
+      LOGGER.info("Ramp Settings had been successfully saved.");
+    } finally {
+      this.settingsLock.unlock();
+    }
   }
 
-  @VisibleForTesting
   /**
-   * Persistent all Executable Ramp Status in this azkaban executor into the DB
+   * Persistent all changed Executable Ramp Status in this azkaban executor into the DB in one batch
    */
-  synchronized void updateExecutableRamp(ExecutableRamp executableRamp) {
+  private void updateExecutableRamps() {
+    // Save a consistent copy of every changed ramp, results cached while the batch runs stay
+    // cached for the next save.
+    final Map<ExecutableRamp, ExecutableRamp> flushed = new HashMap<>();
+    this.snapshot.getRamps().getAll().stream()
+        .filter(ExecutableRamp::isChanged)
+        .forEach(executableRamp -> flushed.put(executableRamp, executableRamp.snapshot()));
+    if (flushed.isEmpty()) {
+      return;
+    }
     try {
-      // Save all cachedNumTrail, cachedNumSuccess, cachedNumFailure, cachedNumIgnored,
-      // save isPaused, endTime when it is not zero, lastUpdatedTime when it is changed.
-      executorLoader.updateExecutableRamp(executableRamp);
-      // mark cache has been saved
-      executableRamp.cacheSaved();
+      final Set<String> saved = executorLoader.updateExecutableRamps(flushed.values());
+      // mark cache has been saved, ramps which were not saved stay pending for the next save
+      flushed.forEach((executableRamp, copy) -> {
+        if (saved.contains(executableRamp.getId())) {
+          executableRamp.cacheSaved(copy);
+        } else {
+          LOGGER.warn(String.format("Executable Ramp %s was not saved, keeping it pending.",
+              executableRamp.getId()));
+        }
+      });
     } catch (ExecutorManagerException e) {
-      LOGGER.error(String.format("Update Executable Ramp [%s] Failure.", executableRamp.getId()));
+      LOGGER.error(String.format("Update Executable Ramps %s Failure.",
+          flushed.keySet().stream().map(ExecutableRamp::getId).collect(Collectors.toList())), e);
     }
   }
 
   /**
-   * Save All Ramp Exceptional Items on Flow Level
+   * Save All pending Ramp Exceptional Items on Flow Level in one batch
    */
-  @VisibleForTesting
-  synchronized void updateExecutedRampFlows(Map.Entry<String, ExecutableRampExceptionalItems> entry) {
+  private void updateExecutedRampFlows() {
+    final Map<String, ExecutableRampExceptionalItems> flushed = new HashMap<>();
+    this.pendingFlowItems.keySet().forEach(rampId ->
+        this.pendingFlowItems.computeIfPresent(rampId, (key, items) -> {
+          flushed.put(key, items.clone());
+          return items;
+        }));
+    if (flushed.isEmpty()) {
+      return;
+    }
     try {
       // Save all Identified workflow into the DB
-      executorLoader.updateExecutedRampFlows(entry.getKey(), entry.getValue());
+      executorLoader.updateExecutedRampFlows(flushed);
+      flushed.values().forEach(ExecutableRampExceptionalItems::resetCacheFlag);
     } catch (ExecutorManagerException e) {
       LOGGER.error("Fail to append ramp items into DB.", e);
     }
   }
 
+  /**
+   * Check the treatment of the flow, exclusions made on this executor since the last reload first
+   */
+  @VisibleForTesting
+  ExecutableRampStatus checkFlowStatus(final FlowRampSnapshot rampSnapshot,
+      final String rampId, final String flowName) {
+    final ExecutableRampExceptionalItems pending = this.pendingFlowItems.get(rampId);
+    if (pending != null && pending.exists(flowName)) {
+      return pending.getStatus(flowName);
+    }
+    return rampSnapshot.getExceptionalFlowItems().check(rampId, flowName);
+  }
+
   /**
    * Call to set Executable Ramp Metadata into ExecutableFlow
    */
-  synchronized public void configure(ExecutableFlow executableFlow, File flowDirectory) {
+  public void configure(ExecutableFlow executableFlow, File flowDirectory) {
 
     if (!isRampFeatureActivated()) return;
 
+    // Evaluate the whole flow against one snapshot, a concurrent reload does not affect it
+    final FlowRampSnapshot rampSnapshot = this.snapshot;
+    final ExecutableRampItemsMap executableRampItemsMap = rampSnapshot.getRampItems();
+    final ExecutableRampDependencyMap executableRampDependencyMap = rampSnapshot.getDependencies();
+
     // To be safe, check if there is any jar files in ./excluded folder
     // and move them back to the place in original location of the package
     moveFiles(
@@ -398,10 +439,10 @@ public class FlowRampManager implements EventListener<Event>, ThreadPoolExecutin
     ExecutableFlowRampMetadata executableFlowRampMetadata =
         ExecutableFlowRampMetadata.createInstance(
             executableRampDependencyMap,
-            executableRampExceptionalJobItemsMap.getExceptionalJobItemsByFlow(flowName)
+            rampSnapshot.getExceptionalJobItems().getExceptionalJobItemsByFlow(flowName)
         );
 
-    for (ExecutableRamp executableRamp : executableRampMap.getActivatedAll()) {
+    for (ExecutableRamp executableRamp : rampSnapshot.getRamps().getActivatedAll()) {
       try {
         String rampId = executableRamp.getId();
         LOGGER.info("RAMP_CHECK: (rampId = {}, rampStage = {}, executionId = {}, flowName = {}, RampPercentageId = {})",
@@ -416,7 +457,7 @@ public class FlowRampManager implements EventListener<Event>, ThreadPoolExecutin
         Props baseProps = new Props();
         baseProps.putAll(executableRampDependencyMap.getDefaultValues(executableRampItemsMap.getDependencies(rampId)));
 
-        ExecutableRampStatus status = executableRampExceptionalFlowItemsMap.check(rampId, flowName);
+        ExecutableRampStatus status = checkFlowStatus(rampSnapshot, rampId, flowName);
         LOGGER.info("RAMP_STATUS: (Status = {}, flowName = {})", status.name(), flowName);
         switch (status) {
           case BLACKLISTED: // blacklist
@@ -562,7 +603,7 @@ public class FlowRampManager implements EventListener<Event>, ThreadPoolExecutin
     }
   }
 
-  synchronized private void logFlowEvent(FlowRunner flowRunner, EventType eventType) {
+  private void logFlowEvent(FlowRunner flowRunner, EventType eventType) {
     final ExecutableFlow flow = flowRunner.getExecutableFlow();
     LOGGER.info("RAMP_FLOW_EVENT_CAPTURED: (ID = {}, FlowName = {}, ExecutionId = {}, FlowStatus = {})",
         flow.getId(),
@@ -576,9 +617,7 @@ public class FlowRampManager implements EventListener<Event>, ThreadPoolExecutin
           flow.getFlowName(),
           flow.getExecutionId(), activeRamps.toString());
       if (isDatabasePullingActionRequired()) {
-        LOGGER.info("BEGIN Reload ramp settings from DB ......");
-        loadSettings();
-        LOGGER.info("END Reload ramp settings from DB ......");
+        tryLoadSettings();
       }
     } else { // EventType.FLOW_FINISHED
       logFlowAction(flowRunner, convertToAction(flow.getStatus()));
@@ -588,19 +627,61 @@ public class FlowRampManager implements EventListener<Event>, ThreadPoolExecutin
           flow.getExecutionId(), ramps.toString());
 
       if (isDatabasePushingActionRequired()) {
-        LOGGER.info("BEGIN Save ramp settings into DB ......");
-        saveSettings();
-        LOGGER.info("END Save ramp settings into DB ......");
+        trySaveSettings();
       }
     }
   }
 
-  synchronized private void logFlowAction(FlowRunner flowRunner, Action action) {
+  /**
+   * Reload ramp settings unless another thread is already reloading or saving, which covers the
+   * calling flow as well. Flow events never wait on the DB.
+   *
+   * @return true if the settings were reloaded
+   */
+  @VisibleForTesting
+  boolean tryLoadSettings() {
+    if (!this.settingsLock.tryLock()) {
+      return false;
+    }
+    try {
+      LOGGER.info("BEGIN Reload ramp settings from DB ......");
+      loadSettings();
+      LOGGER.info("END Reload ramp settings from DB ......");
+      return true;
+    } finally {
+      this.settingsLock.unlock();
+    }
+  }
+
+  /**
+   * Save ramp settings unless another thread is already reloading or saving.
+   *
+   * @return true if the settings were saved
+   */
+  @VisibleForTesting
+  boolean trySaveSettings() {
+    if (!this.settingsLock.tryLock()) {
+      return false;
+    }
+    try {
+      LOGGER.info("BEGIN Save ramp settings into DB ......");
+      saveSettings();
+      LOGGER.info("END Save ramp settings into DB ......");
+      return true;
+    } finally {
+      this.settingsLock.unlock();
+    }
+  }
+
+  private void logFlowAction(FlowRunner flowRunner, Action action) {
+    final ExecutableRampMap executableRampMap = this.snapshot.getRamps();
     flowRunner.getExecutableFlow()
         .getExecutableFlowRampMetadata()
         .getActiveRamps()
         .stream()
         .map(executableRampMap::get)
+        // the ramp may have been removed by a reload while the flow was running
+        .filter(Objects::nonNull)
         .forEach(executableRamp -> {
 
           LOGGER.info("FlowRunner Save Result after Ramp. [rampId = {}, action = {}]",
@@ -619,24 +700,33 @@ public class FlowRampManager implements EventListener<Event>, ThreadPoolExecutin
             );
 
             if (!executableRamp.ignoreTestFailure()) {
-              executableRampExceptionalFlowItemsMap.add(rampId, flowName, ExecutableRampStatus.EXCLUDED,
-                  System.currentTimeMillis(), true);
+              excludeFlow(rampId, flowName);
             }
           }
         });
   }
 
+  /**
+   * Exclude the flow from the ramp on this executor, until it is saved and reloaded
+   */
+  @VisibleForTesting
+  void excludeFlow(final String rampId, final String flowName) {
+    this.pendingFlowItems.compute(rampId, (key, items) ->
+        (items == null ? ExecutableRampExceptionalItems.createInstance() : items)
+            .add(flowName, ExecutableRampStatus.EXCLUDED, System.currentTimeMillis(), true));
+  }
+
   // This check function is only applied on non-polling mode
-  synchronized private boolean isDatabasePushingActionRequired() {
+  private boolean isDatabasePushingActionRequired() {
     return ((!isRampPollingServiceEnabled) && (statusPushIntervalMax <= rampDataModel.getEndFlowCount()));
   }
 
   // This check function is only applied on non-polling mode
-  synchronized private boolean isDatabasePullingActionRequired() {
+  private boolean isDatabasePullingActionRequired() {
     return ((!isRampPollingServiceEnabled) && (statusPullIntervalMax <= rampDataModel.getBeginFlowCount()));
   }
 
-  synchronized private Action convertToAction(Status status) {
+  private Action convertToAction(Status status) {
     if (Status.FAILED.equals(status)) return Action.FAILED;
     if (Status.isStatusSucceeded(status)) return Action.SUCCEEDED;
     return Action.IGNORED;
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.execapp;
+
+import azkaban.executor.ExecutableRampDependencyMap;
+import azkaban.executor.ExecutableRampExceptionalFlowItemsMap;
+import azkaban.executor.ExecutableRampExceptionalJobItemsMap;
+import azkaban.executor.ExecutableRampItemsMap;
+import azkaban.executor.ExecutableRampMap;
+
+
+/**
+ * Point-in-time view of all ramp settings loaded from the DB.
+ *
+ * A snapshot is built off to the side on every reload and published by swapping a single volatile
+ * reference, so flow start reads a consistent set of maps without taking any lock. The maps must
+ * not be modified once the snapshot is published; only the {@link azkaban.executor.ExecutableRamp}
+ * instances inside are shared and mutated, under their own locks.
+ */
+final class FlowRampSnapshot {
+
+  private static final FlowRampSnapshot EMPTY = new FlowRampSnapshot(
+      ExecutableRampMap.createInstance(),
+      ExecutableRampItemsMap.createInstance(),
+      ExecutableRampDependencyMap.createInstance(),
+      ExecutableRampExceptionalFlowItemsMap.createInstance(),
+      ExecutableRampExceptionalJobItemsMap.createInstance());
+
+  // Map.Key is rampId
+  private final ExecutableRampMap ramps;
+
+  // Map.Key is rampId
+  private final ExecutableRampItemsMap rampItems;
+
+  // Map.Key is dependencyId
+  private final ExecutableRampDependencyMap dependencies;
+
+  // Map.Key is rampId
+  private final ExecutableRampExceptionalFlowItemsMap exceptionalFlowItems;
+
+  // Map.Key is RampId + FlowId
+  private final ExecutableRampExceptionalJobItemsMap exceptionalJobItems;
+
+  FlowRampSnapshot(final ExecutableRampMap ramps,
+      final ExecutableRampItemsMap rampItems,
+      final ExecutableRampDependencyMap dependencies,
+      final ExecutableRampExceptionalFlowItemsMap exceptionalFlowItems,
+      final ExecutableRampExceptionalJobItemsMap exceptionalJobItems) {
+    this.ramps = ramps;
+    this.rampItems = rampItems;
+    this.dependencies = dependencies;
+    this.exceptionalFlowItems = exceptionalFlowItems;
+    this.exceptionalJobItems = exceptionalJobItems;
+  }
+
+  static FlowRampSnapshot empty() {
+    return EMPTY;
+  }
+
+  ExecutableRampMap getRamps() {
+    return this.ramps;
+  }
+
+  ExecutableRampItemsMap getRampItems() {
+    return this.rampItems;
+  }
+
+  ExecutableRampDependencyMap getDependencies() {
+    return this.dependencies;
+  }
+
+  ExecutableRampExceptionalFlowItemsMap getExceptionalFlowItems() {
+    return this.exceptionalFlowItems;
+  }
+
+  ExecutableRampExceptionalJobItemsMap getExceptionalJobItems() {
+    return this.exceptionalJobItems;
+  }
+}
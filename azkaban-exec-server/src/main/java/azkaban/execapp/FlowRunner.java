@@ -36,6 +36,7 @@ import azkaban.event.Event;
 import azkaban.event.EventData;
 import azkaban.event.EventHandler;
 import azkaban.event.EventListener;
+import azkaban.event.SynchronousEventListener;
 import azkaban.execapp.event.FlowWatcher;
 import azkaban.jobcallback.JobCallbackManager;
 import azkaban.jmx.JmxJobMBeanManager;
@@ -69,7 +70,9 @@ import azkaban.spi.EventType;
 import azkaban.spi.ExecutorType;
 import azkaban.utils.KafkaLog4jUtils;
 import azkaban.utils.Props;
+import azkaban.utils.SemaphoreBoundedExecutor;
 import azkaban.utils.SwapQueue;
+import azkaban.utils.VirtualThreads;
 import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
@@ -94,7 +97,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.stream.Collectors;
@@ -123,6 +126,11 @@ public class FlowRunner extends EventHandler<Event> implements Runnable {
   // most part, we'll be idling.
   private static final long CHECK_WAIT_MS = 5 * 60 * 1000;
   private static final int SHUTDOWN_TIMEOUT_IN_MINUTES = 5;
+  // Shared by all flows to park job runners waiting on a start delay or a pipelined flow, so that
+  // waiting jobs don't occupy threads of the per-flow job pool.
+  private static final ScheduledExecutorService JOB_START_SCHEDULER =
+      Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder().setNameFormat("azk-job-start").setDaemon(true).build());
   private final ExecutableFlow flow;
   // Sync object for queuing
   private final Object mainSyncObj = new Object();
@@ -158,6 +166,8 @@ public class FlowRunner extends EventHandler<Event> implements Runnable {
   private ExecutorService executorService;
   private Thread flowRunnerThread;
   private int numJobThreads = 10;
+  private boolean useVirtualThreads = false;
+  private ExecutionJobRowWriter jobRowWriter = null;
   // Used for pipelining
   private Integer pipelineLevel = null;
   private Integer pipelineExecId = null;
@@ -308,6 +318,24 @@ public class FlowRunner extends EventHandler<Event> implements Runnable {
     return this;
   }
 
+  /**
+   * Run the job runners of this flow on virtual threads. Job concurrency is then bounded by a
+   * semaphore of numJobThreads permits rather than by the size of a platform thread pool.
+   */
+  public FlowRunner setUseVirtualThreads(final boolean useVirtualThreads) {
+    this.useVirtualThreads = useVirtualThreads;
+    return this;
+  }
+
+  /**
+   * Write the job rows of this flow through a writer batching them. The writer is flushed before
+   * the flow is updated with a final status.
+   */
+  public FlowRunner setJobRowWriter(final ExecutionJobRowWriter jobRowWriter) {
+    this.jobRowWriter = jobRowWriter;
+    return this;
+  }
+
   public FlowRunner setJobLogSettings(final String jobLogFileSize, final int jobLogNumFiles) {
     this.jobLogFileSize = jobLogFileSize;
     this.jobLogNumFiles = jobLogNumFiles;
@@ -353,8 +381,13 @@ public class FlowRunner extends EventHandler<Event> implements Runnable {
     this.flowStartupDelayTimer = this.execMetrics.getFlowStartupDelayTimerContext();
     try {
       if (this.executorService == null) {
-        this.executorService = Executors.newFixedThreadPool(this.numJobThreads,
-            new ThreadFactoryBuilder().setNameFormat("azk-job-pool-%d").build());
+        if (this.useVirtualThreads) {
+          this.executorService = new SemaphoreBoundedExecutor(this.numJobThreads,
+              VirtualThreads.threadFactory("azk-job-" + this.execId + "-"));
+        } else {
+          this.executorService = Executors.newFixedThreadPool(this.numJobThreads,
+              new ThreadFactoryBuilder().setNameFormat("azk-job-pool-%d").build());
+        }
       }
       setupFlowExecution();
       this.flow.setStartTime(System.currentTimeMillis());
@@ -507,6 +540,13 @@ public class FlowRunner extends EventHandler<Event> implements Runnable {
   }
 
   private synchronized void updateFlow(final long time) {
+    if (this.jobRowWriter != null && Status.isStatusFinished(this.flow.getStatus())) {
+      try {
+        this.jobRowWriter.flush();
+      } catch (final ExecutorManagerException e) {
+        this.logger.error("Error writing job rows.", e);
+      }
+    }
     try {
       this.flow.setUpdateTime(time);
       this.executorLoader.updateExecutableFlow(this.flow);
@@ -1156,14 +1196,11 @@ public class FlowRunner extends EventHandler<Event> implements Runnable {
 
     final JobRunner runner = createJobRunner(node);
     this.logger.info("Submitting job '" + node.getNestedId() + "' to run.");
-    try {
-      // Job starts to queue
-      runner.setTimeInQueue(System.currentTimeMillis());
-      this.executorService.submit(runner);
-      this.activeJobRunners.add(runner);
-    } catch (final RejectedExecutionException e) {
-      this.logger.error(e);
-    }
+    // Job starts to queue
+    runner.setTimeInQueue(System.currentTimeMillis());
+    this.activeJobRunners.add(runner);
+    // A job the pool rejects is finished by the runner itself, which removes it again
+    runner.submitWhenReady(JOB_START_SCHEDULER, this.executorService);
   }
 
   /**
@@ -1332,8 +1369,11 @@ public class FlowRunner extends EventHandler<Event> implements Runnable {
     }
 
     jobRunner.setDelayStart(node.getDelayedExecution());
+    jobRunner.setJobRowWriter(this.jobRowWriter);
     jobRunner.setLogSettings(this.logger, this.jobLogFileSize, this.jobLogNumFiles);
     jobRunner.addListener(this.listener);
+    // the job events are ordered with the events of the flow
+    jobRunner.setEventDispatcher(getEventDispatcher(), getDispatchKey());
 
     if (JobCallbackManager.isInitialized()) {
       jobRunner.addListener(JobCallbackManager.getInstance());
@@ -1882,7 +1922,7 @@ public class FlowRunner extends EventHandler<Event> implements Runnable {
   }
 
   @VisibleForTesting
-  class JobRunnerEventListener implements EventListener<Event> {
+  class JobRunnerEventListener implements SynchronousEventListener<Event> {
 
     public JobRunnerEventListener() {
     }
@@ -24,7 +24,8 @@ import azkaban.DispatchMethod;
 import azkaban.ServiceProvider;
 import azkaban.cluster.ClusterRouter;
 import azkaban.event.Event;
-import azkaban.event.EventListener;
+import azkaban.event.EventDispatcher;
+import azkaban.event.SynchronousEventListener;
 import azkaban.execapp.event.FlowWatcher;
 import azkaban.execapp.event.LocalFlowWatcher;
 import azkaban.execapp.event.RemoteFlowWatcher;
@@ -37,6 +38,8 @@ import azkaban.executor.ExecutorLoader;
 import azkaban.executor.ExecutorManagerException;
 import azkaban.executor.IFlowRunnerManager;
 import azkaban.executor.Status;
+import azkaban.jobExecutor.utils.process.AzkabanProcess;
+import azkaban.jobExecutor.utils.process.ProcessOutputPump;
 import azkaban.jobtype.JobTypeManager;
 import azkaban.jobtype.JobTypeManagerException;
 import azkaban.logs.ExecutionLogsLoader;
@@ -62,6 +65,7 @@ import azkaban.utils.ThinArchiveUtils;
 import azkaban.utils.ThreadPoolExecutingListener;
 import azkaban.utils.TrackingThreadPool;
 import azkaban.utils.UndefinedPropertyException;
+import azkaban.utils.VirtualThreads;
 import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
@@ -112,7 +116,7 @@ import org.slf4j.LoggerFactory;
  * execution is completed.
  */
 @Singleton
-public class FlowRunnerManager implements IFlowRunnerManager, EventListener<Event>,
+public class FlowRunnerManager implements IFlowRunnerManager, SynchronousEventListener<Event>,
     ThreadPoolExecutingListener {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(FlowRunnerManager.class);
@@ -121,6 +125,23 @@ public class FlowRunnerManager implements IFlowRunnerManager, EventListener<Even
   private static final String EXECUTOR_THREADPOOL_WORKQUEUE_SIZE = "executor.threadpool.workqueue.size";
   private static final String EXECUTOR_FLOW_THREADS = "executor.flow.threads";
   private static final String FLOW_NUM_JOB_THREADS = "flow.num.job.threads";
+  // Run flow runners, job runners and process log gobblers on virtual threads (JDK 21+)
+  private static final String EXECUTOR_VIRTUAL_THREADS_ENABLED = "executor.virtual.threads.enabled";
+  // "short" or "full" to report virtual threads blocking while pinned to their carrier
+  private static final String EXECUTOR_VIRTUAL_THREADS_TRACE_PINNED =
+      "executor.virtual.threads.trace.pinned";
+  // Number of threads pumping the output of all job processes; 0 keeps per-process gobblers
+  private static final String EXECUTOR_PROCESS_OUTPUT_PUMP_THREADS =
+      "executor.process.output.pump.threads";
+  // Write execution_jobs rows in batches shared by all the flows of the executor
+  private static final String EXECUTOR_JOB_ROW_BATCH_ENABLED = "executor.job.row.batch.enabled";
+  private static final String EXECUTOR_JOB_ROW_BATCH_FLUSH_INTERVAL_MS =
+      "executor.job.row.batch.flush.interval.ms";
+  private static final String EXECUTOR_JOB_ROW_BATCH_SIZE = "executor.job.row.batch.size";
+  private static final String EXECUTOR_JOB_ROW_BATCH_ENCODER_THREADS =
+      "executor.job.row.batch.encoder.threads";
+  // Number of threads calling the flow and job event listeners; 0 calls them on the runner threads
+  private static final String EXECUTOR_EVENT_DISPATCH_THREADS = "executor.event.dispatch.threads";
 
   // recently finished secs to clean up. 1 minute
   private static final int RECENTLY_FINISHED_TIME_TO_LIVE = 60 * 1000;
@@ -157,6 +178,7 @@ public class FlowRunnerManager implements IFlowRunnerManager, EventListener<Even
   private final Storage storage;
 
   private final int numThreads;
+  private final boolean useVirtualThreads;
   private final int numJobThreadPerFlow;
   // We want to limit the log sizes to about 20 megs
   private final String jobLogChunkSize;
@@ -164,6 +186,10 @@ public class FlowRunnerManager implements IFlowRunnerManager, EventListener<Even
   // If true, jobs will validate proxy user against a list of valid proxy users.
   private final boolean validateProxyUser;
   private final ClusterRouter clusterRouter;
+  private final ExecutionJobRowWriter jobRowWriter;
+  // null when job processes are pumped by their own gobbler threads
+  private final ProcessOutputPump outputPump;
+  private final EventDispatcher eventDispatcher;
   private PollingService pollingService;
   private int threadPoolQueueSize = -1;
   private Props globalProps;
@@ -205,14 +231,41 @@ public class FlowRunnerManager implements IFlowRunnerManager, EventListener<Even
     // azkaban.temp.dir
     this.numThreads = props.getInt(EXECUTOR_FLOW_THREADS, DEFAULT_NUM_EXECUTING_FLOWS);
     this.numJobThreadPerFlow = props.getInt(FLOW_NUM_JOB_THREADS, DEFAULT_FLOW_NUM_JOB_TREADS);
+    this.useVirtualThreads = setupVirtualThreads(props);
+    final int outputPumpThreads = props.getInt(EXECUTOR_PROCESS_OUTPUT_PUMP_THREADS, 0);
+    if (outputPumpThreads > 0) {
+      LOGGER.info("Pumping job process output on " + outputPumpThreads + " shared threads");
+      this.outputPump = new ProcessOutputPump(outputPumpThreads);
+      AzkabanProcess.setOutputPump(this.outputPump);
+    } else {
+      this.outputPump = null;
+    }
     this.executorService = createExecutorService(this.numThreads);
 
     this.executorLoader = executorLoader;
+    if (props.getBoolean(EXECUTOR_JOB_ROW_BATCH_ENABLED, false)) {
+      this.jobRowWriter = new ExecutionJobRowWriter(executorLoader,
+          props.getLong(EXECUTOR_JOB_ROW_BATCH_FLUSH_INTERVAL_MS, 200),
+          props.getInt(EXECUTOR_JOB_ROW_BATCH_SIZE, 500),
+          props.getInt(EXECUTOR_JOB_ROW_BATCH_ENCODER_THREADS, 2));
+      LOGGER.info("Writing job rows in batches");
+    } else {
+      this.jobRowWriter = null;
+    }
     this.executionLogsLoader = executionLogsLoader;
     this.projectLoader = projectLoader;
     this.alerterHolder = alerterHolder;
     this.commonMetrics = commonMetrics;
     this.execMetrics = execMetrics;
+    final int eventDispatchThreads = props.getInt(EXECUTOR_EVENT_DISPATCH_THREADS, 0);
+    if (eventDispatchThreads > 0) {
+      this.eventDispatcher = new EventDispatcher(eventDispatchThreads,
+          execMetrics.getEventListenerLatencyHistogram());
+      execMetrics.addEventDispatcherMetrics(this.eventDispatcher);
+      LOGGER.info("Dispatching flow events on " + eventDispatchThreads + " threads");
+    } else {
+      this.eventDispatcher = null;
+    }
     this.dependencyTransferManager = dependencyTransferManager;
     this.storage = storage;
     this.clusterRouter = clusterRouter;
@@ -346,10 +399,28 @@ public class FlowRunnerManager implements IFlowRunnerManager, EventListener<Even
     Runtime.getRuntime().exec("chmod g+s " + this.executionDirectory.toString());
   }
 
+  private boolean setupVirtualThreads(final Props props) {
+    if (!props.getBoolean(EXECUTOR_VIRTUAL_THREADS_ENABLED, false)) {
+      return false;
+    }
+    if (!VirtualThreads.isAvailable()) {
+      LOGGER.warn(EXECUTOR_VIRTUAL_THREADS_ENABLED + " is set but virtual threads are not "
+          + "available on this JVM (" + System.getProperty("java.version") + "), using platform "
+          + "threads");
+      return false;
+    }
+    // must happen before the first virtual thread is created
+    VirtualThreads.tracePinnedThreads(props.getString(EXECUTOR_VIRTUAL_THREADS_TRACE_PINNED, ""));
+    AzkabanProcess.setLogGobblerThreadFactory(VirtualThreads.threadFactory("azk-log-gobbler-"));
+    LOGGER.info("Flow runners, job runners and log gobblers will run on virtual threads");
+    return true;
+  }
+
   private TrackingThreadPool createExecutorService(final int nThreads) {
     final boolean useNewThreadPool =
         this.azkabanProps.getBoolean(EXECUTOR_USE_BOUNDED_THREADPOOL_QUEUE, false);
     LOGGER.info("useNewThreadPool: " + useNewThreadPool);
+    final ThreadPoolExecutingListener listener = this;
 
     if (useNewThreadPool) {
       this.threadPoolQueueSize =
@@ -358,17 +429,24 @@ public class FlowRunnerManager implements IFlowRunnerManager, EventListener<Even
 
       // using a bounded queue for the work queue. The default rejection policy
       // {@ThreadPoolExecutor.AbortPolicy} is used
-      final TrackingThreadPool executor =
-          new TrackingThreadPool(nThreads, nThreads, 0L, TimeUnit.MILLISECONDS,
-              new LinkedBlockingQueue<>(this.threadPoolQueueSize), this);
+      final TrackingThreadPool executor = this.useVirtualThreads
+          ? new TrackingThreadPool(nThreads, nThreads, 0L, TimeUnit.MILLISECONDS,
+              new LinkedBlockingQueue<>(this.threadPoolQueueSize), listener,
+              VirtualThreads.threadFactory("azk-flow-runner-"))
+          : new TrackingThreadPool(nThreads, nThreads, 0L, TimeUnit.MILLISECONDS,
+              new LinkedBlockingQueue<>(this.threadPoolQueueSize), listener);
 
       return executor;
     } else {
       // the old way of using unbounded task queue.
       // if the running tasks are taking a long time or stuck, this queue
       // will be very very long.
-      return new TrackingThreadPool(nThreads, nThreads, 0L,
-          TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), this);
+      return this.useVirtualThreads
+          ? new TrackingThreadPool(nThreads, nThreads, 0L, TimeUnit.MILLISECONDS,
+              new LinkedBlockingQueue<>(), listener,
+              VirtualThreads.threadFactory("azk-flow-runner-"))
+          : new TrackingThreadPool(nThreads, nThreads, 0L, TimeUnit.MILLISECONDS,
+              new LinkedBlockingQueue<>(), listener);
     }
   }
 
@@ -540,7 +618,10 @@ public class FlowRunnerManager implements IFlowRunnerManager, EventListener<Even
         .setJobLogSettings(this.jobLogChunkSize, this.jobLogNumFiles)
         .setValidateProxyUser(this.validateProxyUser)
         .setNumJobThreads(numJobThreads)
+        .setUseVirtualThreads(this.useVirtualThreads)
+        .setJobRowWriter(this.jobRowWriter)
         .addListeners(this, this.flowRampManager);
+    runner.setEventDispatcher(this.eventDispatcher, flow.getExecutionId());
 
     configureFlowLevelMetrics(runner);
     return runner;
@@ -957,6 +1038,13 @@ public class FlowRunnerManager implements IFlowRunnerManager, EventListener<Even
       }
     }
     this.flowPreparer.shutdown();
+    if (this.eventDispatcher != null) {
+      this.eventDispatcher.close();
+    }
+    if (this.jobRowWriter != null) {
+      this.jobRowWriter.close();
+    }
+    closeOutputPump();
     LOGGER.warn("Shutdown FlowRunnerManager complete.");
   }
 
@@ -971,6 +1059,21 @@ public class FlowRunnerManager implements IFlowRunnerManager, EventListener<Even
     }
     this.executorService.shutdownNow();
     this.triggerManager.shutdown();
+    if (this.eventDispatcher != null) {
+      this.eventDispatcher.close();
+    }
+    if (this.jobRowWriter != null) {
+      this.jobRowWriter.close();
+    }
+    closeOutputPump();
+  }
+
+  private void closeOutputPump() {
+    if (this.outputPump != null) {
+      // processes started from now on pump their output on their own threads
+      AzkabanProcess.setOutputPump(null);
+      this.outputPump.close();
+    }
   }
 
   private boolean isPollDispatchMethodEnabled() {
@@ -59,8 +59,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.kafka.log4jappender.KafkaLog4jAppender;
 import org.apache.log4j.Appender;
 import org.apache.log4j.EnhancedPatternLayout;
@@ -88,9 +94,13 @@ public class JobRunner extends JobRunnerBase implements Runnable {
   private final String jobId;
   private final Set<String> pipelineJobs = new HashSet<>();
   private final FlowRunnerProxy flowRunnerProxy;
+  // writes the job row in batches, null to write it directly through the executor loader
+  private ExecutionJobRowWriter jobRowWriter = null;
   private Logger flowLogger = null;
   private Appender jobAppender = null;
   private KafkaLog4jAppender kafkaLog4jAppender;
+  // collects the application ids the job logs, null when they are not indexed
+  private ApplicationIdCollector applicationIdCollector;
   private File logFile;
   private String attachmentFileName;
   private Job job;
@@ -105,6 +115,12 @@ public class JobRunner extends JobRunnerBase implements Runnable {
   private int jobLogBackupIndex;
 
   private long delayStartMs = 0;
+  // Set when the runner is parked through submitWhenReady: the time its start delay elapses.
+  private volatile long readyTimeMs = -1;
+  private final Object startLock = new Object();
+  private final AtomicBoolean startSubmitted = new AtomicBoolean(false);
+  private ScheduledExecutorService startScheduler;
+  private ExecutorService jobPool;
   private volatile boolean killed = false;
   private BlockingStatus currentBlockStatus = null;
   private final ClassLoader threadClassLoader;
@@ -342,6 +358,97 @@ public class JobRunner extends JobRunnerBase implements Runnable {
     this.delayStartMs = delayMS;
   }
 
+  public void setJobRowWriter(final ExecutionJobRowWriter jobRowWriter) {
+    this.jobRowWriter = jobRowWriter;
+  }
+
+  /**
+   * Park the runner until its start delay has elapsed and the pipelined jobs it watches have
+   * finished, then submit it to the job pool. While parked the runner holds no thread: the delay
+   * is a timer on the scheduler and pipeline waits are callbacks on the watched job's status, so
+   * the pool only ever holds jobs that can actually run.
+   */
+  public void submitWhenReady(final ScheduledExecutorService scheduler,
+      final ExecutorService jobPool) {
+    this.startScheduler = scheduler;
+    this.jobPool = jobPool;
+    this.readyTimeMs = System.currentTimeMillis() + Math.max(0, this.delayStartMs);
+    tryStart();
+  }
+
+  private void scheduleStartCheck() {
+    try {
+      this.startScheduler.execute(this::tryStart);
+    } catch (final RejectedExecutionException e) {
+      // The scheduler is gone (server shutdown), start right away so the job can wrap up.
+      tryStart();
+    }
+  }
+
+  @SuppressWarnings("FutureReturnValueIgnored")
+  private void tryStart() {
+    synchronized (this.startLock) {
+      if (this.startSubmitted.get()) {
+        return;
+      }
+      if (!this.isKilled()) {
+        final long remainingDelay = this.readyTimeMs - System.currentTimeMillis();
+        if (remainingDelay > 0) {
+          this.startScheduler.schedule(this::tryStart, remainingDelay, TimeUnit.MILLISECONDS);
+          return;
+        }
+        final BlockingStatus pending = findUnfinishedPipelineJob();
+        if (pending != null) {
+          this.currentBlockStatus = pending;
+          if (pending.addFinishListener(this::scheduleStartCheck)) {
+            return;
+          }
+          // Finished in the meantime, look again.
+          scheduleStartCheck();
+          return;
+        }
+        this.currentBlockStatus = null;
+      }
+      this.startSubmitted.set(true);
+    }
+    try {
+      this.jobPool.submit(this);
+    } catch (final RejectedExecutionException e) {
+      serverLogger.error("Job pool rejected parked job " + this.jobId + " in execution "
+          + this.executionId, e);
+      handleRejectedStart();
+    }
+  }
+
+  /**
+   * Finish a job the pool would not run, so that the flow stops waiting on it. It fails, or is
+   * killed if a kill was the reason, e.g. the server shutting down.
+   */
+  private void handleRejectedStart() {
+    synchronized (this.syncObject) {
+      final long time = System.currentTimeMillis();
+      changeStatus(this.isKilled() ? Status.KILLED : Status.FAILED, time);
+      this.node.setStartTime(time);
+      fireEvent(Event.create(this, EventType.JOB_STARTED, new EventData(this.node)));
+      this.node.setEndTime(time);
+      writeStatus();
+      fireEvent(Event.create(this, EventType.JOB_FINISHED, new EventData(this.node)));
+    }
+  }
+
+  private BlockingStatus findUnfinishedPipelineJob() {
+    for (final String waitingJobId : this.pipelineJobs) {
+      final Status status = this.watcher.peekStatus(waitingJobId);
+      if (status != null && !Status.isStatusFinished(status)) {
+        final BlockingStatus block = this.watcher.getBlockingStatus(waitingJobId);
+        if (block != null && !Status.isStatusFinished(block.viewStatus())) {
+          return block;
+        }
+      }
+    }
+    return null;
+  }
+
   public ExecutableNode getNode() {
     return this.node;
   }
@@ -370,6 +477,12 @@ public class JobRunner extends JobRunnerBase implements Runnable {
             + " for job " + this.jobId, e);
       }
 
+      if (this.azkabanProps.getBoolean(
+          Constants.ConfigurationKeys.AZKABAN_APPLICATION_ID_INDEX_ENABLED, false)) {
+        this.applicationIdCollector = new ApplicationIdCollector();
+        this.logger.addAppender(this.applicationIdCollector);
+      }
+
       if (this.azkabanProps.getBoolean(Constants.ConfigurationKeys.AZKABAN_LOGGING_KAFKA_ENABLED, false)) {
         // Keep the names consistent as what we did in uploadLogFile()
         this.kafkaLog4jAppender =
@@ -433,11 +546,16 @@ public class JobRunner extends JobRunnerBase implements Runnable {
   private void closeLogger() {
     removeAppender(this.jobAppender);
     removeAppender(this.kafkaLog4jAppender);
+    removeAppender(this.applicationIdCollector);
   }
 
   private void writeStatus() {
     try {
       this.node.setUpdateTime(System.currentTimeMillis());
+      if (this.jobRowWriter != null) {
+        this.jobRowWriter.updateExecutableNode(this.node);
+        return;
+      }
       this.executorLoader.updateExecutableNode(this.node);
     } catch (final ExecutorManagerException e) {
       this.flowLogger.error("Could not update job properties in db for "
@@ -528,10 +646,15 @@ public class JobRunner extends JobRunnerBase implements Runnable {
 
       final long currentTime = System.currentTimeMillis();
       if (this.delayStartMs > 0) {
+        // A parked runner has already served (most of) its delay before taking a pool thread.
+        final long waitMs = this.readyTimeMs > 0 ? this.readyTimeMs - currentTime
+            : this.delayStartMs;
         this.logger.info("Delaying start of execution for " + this.delayStartMs
             + " milliseconds.");
         try {
-          this.wait(this.delayStartMs);
+          if (waitMs > 0) {
+            this.wait(waitMs);
+          }
           this.logger.info("Execution has been delayed for " + this.delayStartMs
               + " ms. Continuing with execution.");
         } catch (final InterruptedException e) {
@@ -553,6 +676,7 @@ public class JobRunner extends JobRunnerBase implements Runnable {
   private void finalizeLogFile(final int attemptNo) {
     closeLogger();
     this.flowLogger.debug("Logger has been closed");
+    uploadApplicationIds(attemptNo);
     if (this.logFile == null) {
       this.flowLogger.info("Log file for job " + this.jobId + " is null");
       return;
@@ -575,6 +699,23 @@ public class JobRunner extends JobRunnerBase implements Runnable {
     }
   }
 
+  private void uploadApplicationIds(final int attemptNo) {
+    if (this.applicationIdCollector == null) {
+      return;
+    }
+    final List<String> applicationIds = this.applicationIdCollector.getApplicationIds();
+    if (applicationIds.isEmpty()) {
+      return;
+    }
+    try {
+      this.executorLoader.uploadApplicationIds(this.executionId, this.node.getNestedId(),
+          attemptNo, applicationIds);
+    } catch (final ExecutorManagerException e) {
+      this.flowLogger.error(
+          "Error indexing application ids for job " + this.node.getNestedId(), e);
+    }
+  }
+
   private void finalizeAttachmentFile() {
     if (this.attachmentFileName == null) {
       this.flowLogger.info("Attachment file for job " + this.jobId + " is null");
@@ -588,6 +729,10 @@ public class JobRunner extends JobRunnerBase implements Runnable {
             + " written.");
         return;
       }
+      if (this.jobRowWriter != null) {
+        // the attachment updates the job row, whose insert may still be queued
+        this.jobRowWriter.flush();
+      }
       this.executorLoader.uploadAttachmentFile(this.node, file);
     } catch (final ExecutorManagerException e) {
       this.flowLogger.error(
@@ -700,6 +845,10 @@ public class JobRunner extends JobRunnerBase implements Runnable {
 
   private void uploadExecutableNode() {
     try {
+      if (this.jobRowWriter != null) {
+        this.jobRowWriter.uploadExecutableNode(this.node, this.props);
+        return;
+      }
       this.executorLoader.uploadExecutableNode(this.node, this.props);
     } catch (final ExecutorManagerException e) {
       this.logger.error("Error writing initial node properties", e);
@@ -1028,6 +1177,10 @@ public class JobRunner extends JobRunnerBase implements Runnable {
         synchronized (this) {
           this.notify();
         }
+        // Or parked: let it run so it wraps up as killed
+        if (this.startScheduler != null) {
+          scheduleStartCheck();
+        }
         return;
       }
 
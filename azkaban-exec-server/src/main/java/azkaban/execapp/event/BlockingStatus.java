@@ -16,6 +16,8 @@
 package azkaban.execapp.event;
 
 import azkaban.executor.Status;
+import java.util.ArrayList;
+import java.util.List;
 
 
 public class BlockingStatus {
@@ -24,6 +26,8 @@ public class BlockingStatus {
   private final int execId;
   private final String jobId;
   private Status status;
+  // Callbacks of parked job runners, fired once on finish or unblock
+  private final List<Runnable> finishListeners = new ArrayList<>();
 
   public BlockingStatus(final int execId, final String jobId, final Status initialStatus) {
     this.execId = execId;
@@ -52,9 +56,27 @@ public class BlockingStatus {
     return this.status;
   }
 
+  /**
+   * Register a callback to be run once when the watched job finishes or the status is unblocked
+   * (e.g. because the waiting job was killed). Returns false without registering if the watched
+   * job has already finished, in which case the caller should proceed right away.
+   *
+   * The callback runs while this status is locked, so it should only hand off work.
+   */
+  public synchronized boolean addFinishListener(final Runnable listener) {
+    if (this.status == null || Status.isStatusFinished(this.status)) {
+      return false;
+    }
+    this.finishListeners.add(listener);
+    return true;
+  }
+
   public void unblock() {
     synchronized (this) {
       this.notifyAll();
+      final List<Runnable> listeners = new ArrayList<>(this.finishListeners);
+      this.finishListeners.clear();
+      listeners.forEach(Runnable::run);
     }
   }
 
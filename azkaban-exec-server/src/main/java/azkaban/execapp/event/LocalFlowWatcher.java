@@ -18,7 +18,7 @@ package azkaban.execapp.event;
 
 import azkaban.event.Event;
 import azkaban.event.EventData;
-import azkaban.event.EventListener;
+import azkaban.event.SynchronousEventListener;
 import azkaban.execapp.FlowRunner;
 import azkaban.execapp.JobRunner;
 import azkaban.executor.ExecutableFlow;
@@ -55,7 +55,7 @@ public class LocalFlowWatcher extends FlowWatcher {
     super.unblockAllWatches();
   }
 
-  public class LocalFlowWatcherListener implements EventListener<Event> {
+  public class LocalFlowWatcherListener implements SynchronousEventListener<Event> {
 
     @Override
     public void handleEvent(final Event event) {
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.execapp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.log4j.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ApplicationIdCollectorTest {
+
+  private Logger logger;
+  private ApplicationIdCollector collector;
+
+  @Before
+  public void setUp() {
+    this.logger = Logger.getLogger(ApplicationIdCollectorTest.class.getName() + ".job");
+    this.logger.setAdditivity(false);
+    this.collector = new ApplicationIdCollector();
+    this.logger.addAppender(this.collector);
+  }
+
+  @After
+  public void tearDown() {
+    this.logger.removeAppender(this.collector);
+  }
+
+  @Test
+  public void testCollectsApplicationIdsInLogOrder() {
+    this.logger.info("Submitted application application_1536084738945_0002");
+    this.logger.info("no application id here");
+    this.logger.info("Tracking URL: http://host/proxy/application_1536084738945_0001/ and "
+        + "application_1536084738945_0002");
+    this.logger.error("failed", new RuntimeException("application_1536084738945_0003 failed"));
+
+    assertThat(this.collector.getApplicationIds()).containsExactly(
+        "1536084738945_0002", "1536084738945_0001", "1536084738945_0003");
+  }
+
+  @Test
+  public void testReturnsCopy() {
+    this.logger.info("application_1_0001");
+    this.collector.getApplicationIds().clear();
+    assertThat(this.collector.getApplicationIds()).containsExactly("1_0001");
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package azkaban.execapp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import azkaban.executor.ExecutableFlow;
+import azkaban.executor.ExecutableNode;
+import azkaban.executor.ExecutableNodeRow;
+import azkaban.executor.ExecutorLoader;
+import azkaban.executor.ExecutorManagerException;
+import azkaban.executor.Status;
+import azkaban.utils.Props;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class ExecutionJobRowWriterTest {
+
+  private ExecutorLoader executorLoader;
+  private ExecutionJobRowWriter writer;
+  private ExecutableFlow flow;
+
+  @Before
+  public void setUp() {
+    this.executorLoader = mock(ExecutorLoader.class);
+    this.flow = new ExecutableFlow();
+    this.flow.setExecutionId(42);
+  }
+
+  @After
+  public void tearDown() {
+    if (this.writer != null) {
+      this.writer.close();
+    }
+  }
+
+  private ExecutableNode createNode(final String id) {
+    final ExecutableNode node = new ExecutableNode();
+    node.setId(id);
+    node.setParentFlow(this.flow);
+    node.setStatus(Status.READY);
+    return node;
+  }
+
+  @Test
+  public void testUpdatesAreCoalescedAndWrittenAfterInserts() throws Exception {
+    this.writer = new ExecutionJobRowWriter(this.executorLoader, 60_000, 1000, 1);
+    final ExecutableNode node = createNode("job1");
+    final Props inputProps = new Props();
+    inputProps.put("key", "value");
+
+    this.writer.uploadExecutableNode(node, inputProps);
+    node.setStatus(Status.RUNNING);
+    this.writer.updateExecutableNode(node);
+    node.setStatus(Status.SUCCEEDED);
+    this.writer.updateExecutableNode(node);
+    assertThat(this.writer.getPendingCount()).isEqualTo(2);
+
+    // nothing is written before the flush
+    verify(this.executorLoader, never()).writeExecutableNodes(anyList(), anyList());
+    this.writer.flush();
+
+    final ArgumentCaptor<List<ExecutableNodeRow>> inserts = ArgumentCaptor.forClass(List.class);
+    final ArgumentCaptor<List<ExecutableNodeRow>> updates = ArgumentCaptor.forClass(List.class);
+    verify(this.executorLoader).writeExecutableNodes(inserts.capture(), updates.capture());
+    assertThat(inserts.getValue()).hasSize(1);
+    assertThat(inserts.getValue().get(0).getStatus()).isEqualTo(Status.READY);
+    assertThat(inserts.getValue().get(0).getParams()).isNotNull();
+    assertThat(updates.getValue()).hasSize(1);
+    assertThat(updates.getValue().get(0).getStatus()).isEqualTo(Status.SUCCEEDED);
+    assertThat(updates.getValue().get(0).getExecId()).isEqualTo(42);
+    assertThat(this.writer.getPendingCount()).isZero();
+  }
+
+  @Test
+  public void testFlushesWhenBatchIsFull() throws Exception {
+    this.writer = new ExecutionJobRowWriter(this.executorLoader, 60_000, 3, 1);
+    for (int i = 0; i < 3; i++) {
+      this.writer.uploadExecutableNode(createNode("job" + i), null);
+    }
+    verify(this.executorLoader, timeout(5000)).writeExecutableNodes(anyList(), any());
+  }
+
+  @Test
+  public void testFailedRowsAreRetriedOnTheNextFlush() throws Exception {
+    this.writer = new ExecutionJobRowWriter(this.executorLoader, 60_000, 1000, 1);
+    doThrow(new ExecutorManagerException("db down")).doNothing()
+        .when(this.executorLoader).writeExecutableNodes(anyList(), anyList());
+    final ExecutableNode node = createNode("job1");
+    this.writer.uploadExecutableNode(node, null);
+    node.setStatus(Status.RUNNING);
+    this.writer.updateExecutableNode(node);
+
+    assertThatThrownBy(() -> this.writer.flush()).isInstanceOf(ExecutorManagerException.class);
+    assertThat(this.writer.getPendingCount()).isEqualTo(2);
+
+    // queued after the failure, replaces the failed update
+    node.setStatus(Status.SUCCEEDED);
+    this.writer.updateExecutableNode(node);
+    this.writer.flush();
+
+    final ArgumentCaptor<List<ExecutableNodeRow>> inserts = ArgumentCaptor.forClass(List.class);
+    final ArgumentCaptor<List<ExecutableNodeRow>> updates = ArgumentCaptor.forClass(List.class);
+    verify(this.executorLoader, times(2))
+        .writeExecutableNodes(inserts.capture(), updates.capture());
+    assertThat(inserts.getValue()).hasSize(1);
+    assertThat(updates.getValue()).hasSize(1);
+    assertThat(updates.getValue().get(0).getStatus()).isEqualTo(Status.SUCCEEDED);
+    assertThat(this.writer.getPendingCount()).isZero();
+  }
+}
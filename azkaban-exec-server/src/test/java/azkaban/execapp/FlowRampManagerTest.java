@@ -1,8 +1,30 @@
 package azkaban.execapp;
 
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import azkaban.executor.ExecutableRamp;
+import azkaban.executor.ExecutableRampDependencyMap;
+import azkaban.executor.ExecutableRampExceptionalFlowItemsMap;
+import azkaban.executor.ExecutableRampExceptionalJobItemsMap;
+import azkaban.executor.ExecutableRampItemsMap;
+import azkaban.executor.ExecutableRampMap;
+import azkaban.executor.ExecutableRampStatus;
+import azkaban.executor.ExecutorLoader;
+import azkaban.executor.ExecutorManagerException;
+import azkaban.utils.Props;
 import com.google.common.collect.ImmutableSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -11,10 +33,162 @@ import org.junit.Test;
 public class FlowRampManagerTest {
 
     private FlowRampManager.RampDataModel rampDataModel;
+    private ExecutorLoader executorLoader;
+    private FlowRampManager flowRampManager;
 
     @Before
     public void setup() throws Exception {
         this.rampDataModel = new FlowRampManager.RampDataModel();
+        this.executorLoader = mock(ExecutorLoader.class);
+        when(this.executorLoader.fetchExecutableRampMap())
+            .thenReturn(ExecutableRampMap.createInstance());
+        when(this.executorLoader.fetchExecutableRampItemsMap())
+            .thenReturn(ExecutableRampItemsMap.createInstance());
+        when(this.executorLoader.fetchExecutableRampDependencyMap())
+            .thenReturn(ExecutableRampDependencyMap.createInstance());
+        when(this.executorLoader.fetchExecutableRampExceptionalFlowItemsMap())
+            .thenReturn(ExecutableRampExceptionalFlowItemsMap.createInstance());
+        when(this.executorLoader.fetchExecutableRampExceptionalJobItemsMap())
+            .thenReturn(ExecutableRampExceptionalJobItemsMap.createInstance());
+        // The ramp feature is disabled, so settings are only loaded and saved by the tests
+        this.flowRampManager = new FlowRampManager(new Props(), this.executorLoader);
+    }
+
+    private static ExecutableRamp createRamp(final String rampId) {
+        return ExecutableRamp.builder(rampId, "SimpleAutoRampPolicy")
+            .setMetadata(ExecutableRamp.Metadata.builder()
+                .setMaxFailureToPause(5)
+                .setMaxFailureToRampDown(5)
+                .setPercentageScaleForMaxFailure(false)
+                .build())
+            .setState(ExecutableRamp.State.builder()
+                .setActive(true)
+                .setRampStage(1)
+                .setSynchronized(true)
+                .build())
+            .build();
+    }
+
+    private static ExecutableRampMap createRampMap(final String... rampIds) {
+        final ExecutableRampMap ramps = ExecutableRampMap.createInstance();
+        for (final String rampId : rampIds) {
+            ramps.add(rampId, createRamp(rampId));
+        }
+        return ramps;
+    }
+
+    @Test
+    public void testLoadSettingsSwapsSnapshot() throws Exception {
+        when(this.executorLoader.fetchExecutableRampMap()).thenReturn(createRampMap("dali"));
+        this.flowRampManager.loadSettings();
+        final FlowRampSnapshot first = this.flowRampManager.getSnapshot();
+        final ExecutableRamp dali = first.getRamps().get("dali");
+        dali.cacheResult(ExecutableRamp.Action.SUCCEEDED);
+
+        when(this.executorLoader.fetchExecutableRampMap())
+            .thenReturn(createRampMap("dali", "spark"));
+        when(this.executorLoader.fetchExecutableRampItemsMap())
+            .thenThrow(new ExecutorManagerException("DB unavailable"));
+        this.flowRampManager.loadSettings();
+        final FlowRampSnapshot second = this.flowRampManager.getSnapshot();
+
+        // A reader holding the previous snapshot is not affected by the reload
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(1, first.getRamps().size());
+        Assert.assertEquals(2, second.getRamps().size());
+        // Known ramps keep their instance, so counters cached since the last save survive
+        Assert.assertSame(dali, second.getRamps().get("dali"));
+        Assert.assertEquals(1, dali.getCachedCount(ExecutableRamp.CountType.TRAIL));
+        // A setting that fails to load keeps its previous value
+        Assert.assertSame(first.getRampItems(), second.getRampItems());
+    }
+
+    @Test
+    public void testCheckFlowStatus() throws Exception {
+        when(this.executorLoader.fetchExecutableRampExceptionalFlowItemsMap())
+            .thenReturn(ExecutableRampExceptionalFlowItemsMap.createInstance()
+                .add("dali", "project.whitelisted", ExecutableRampStatus.WHITELISTED, 0L)
+                .add("dali", "project.failed", ExecutableRampStatus.WHITELISTED, 0L));
+        this.flowRampManager.loadSettings();
+        final FlowRampSnapshot snapshot = this.flowRampManager.getSnapshot();
+
+        this.flowRampManager.excludeFlow("dali", "project.failed");
+
+        Assert.assertEquals(ExecutableRampStatus.WHITELISTED,
+            this.flowRampManager.checkFlowStatus(snapshot, "dali", "project.whitelisted"));
+        // An exclusion made on this executor wins over the loaded treatment
+        Assert.assertEquals(ExecutableRampStatus.EXCLUDED,
+            this.flowRampManager.checkFlowStatus(snapshot, "dali", "project.failed"));
+        Assert.assertEquals(ExecutableRampStatus.UNDETERMINED,
+            this.flowRampManager.checkFlowStatus(snapshot, "dali", "project.other"));
+        Assert.assertEquals(ExecutableRampStatus.UNDETERMINED,
+            this.flowRampManager.checkFlowStatus(snapshot, "spark", "project.failed"));
+    }
+
+    @Test
+    public void testPrunePersistedFlowItems() throws Exception {
+        this.flowRampManager.excludeFlow("dali", "project.saved");
+        this.flowRampManager.saveSettings();
+        verify(this.executorLoader).updateExecutedRampFlows(anyMap());
+        this.flowRampManager.excludeFlow("dali", "project.unsaved");
+
+        // The saved exclusion is not reloaded yet, it must stay pending until it is
+        final FlowRampSnapshot empty = FlowRampSnapshot.empty();
+        Assert.assertEquals(ExecutableRampStatus.EXCLUDED,
+            this.flowRampManager.checkFlowStatus(empty, "dali", "project.saved"));
+
+        this.flowRampManager.loadSettings();
+        Assert.assertEquals(ExecutableRampStatus.UNDETERMINED,
+            this.flowRampManager.checkFlowStatus(empty, "dali", "project.saved"));
+        Assert.assertEquals(ExecutableRampStatus.EXCLUDED,
+            this.flowRampManager.checkFlowStatus(empty, "dali", "project.unsaved"));
+    }
+
+    @Test
+    public void testUnsavedRampsStayPending() throws Exception {
+        when(this.executorLoader.fetchExecutableRampMap())
+            .thenReturn(createRampMap("dali", "spark"));
+        this.flowRampManager.loadSettings();
+        final ExecutableRampMap ramps = this.flowRampManager.getSnapshot().getRamps();
+        ramps.get("dali").cacheResult(ExecutableRamp.Action.SUCCEEDED);
+        ramps.get("spark").cacheResult(ExecutableRamp.Action.SUCCEEDED);
+        when(this.executorLoader.updateExecutableRamps(anyCollection()))
+            .thenReturn(ImmutableSet.of("dali"));
+
+        this.flowRampManager.saveSettings();
+
+        Assert.assertFalse(ramps.get("dali").isChanged());
+        Assert.assertEquals(0, ramps.get("dali").getCachedCount(ExecutableRamp.CountType.TRAIL));
+        Assert.assertTrue(ramps.get("spark").isChanged());
+        Assert.assertEquals(1, ramps.get("spark").getCachedCount(ExecutableRamp.CountType.TRAIL));
+    }
+
+    @Test
+    public void testTrySettingsSkipsWhileLocked() throws Exception {
+        final CountDownLatch saving = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        // Block another thread inside saveSettings, holding the settings lock
+        doAnswer(invocation -> {
+            saving.countDown();
+            release.await();
+            return null;
+        }).when(this.executorLoader).updateExecutedRampFlows(anyMap());
+        this.flowRampManager.excludeFlow("dali", "project.flow");
+        final ExecutorService saver = Executors.newSingleThreadExecutor();
+        try {
+            saver.submit(this.flowRampManager::saveSettings);
+            Assert.assertTrue(saving.await(10, TimeUnit.SECONDS));
+
+            Assert.assertFalse(this.flowRampManager.tryLoadSettings());
+            Assert.assertFalse(this.flowRampManager.trySaveSettings());
+            verify(this.executorLoader, never()).fetchExecutableRampMap();
+        } finally {
+            release.countDown();
+            saver.shutdown();
+        }
+        Assert.assertTrue(saver.awaitTermination(10, TimeUnit.SECONDS));
+        Assert.assertTrue(this.flowRampManager.tryLoadSettings());
+        verify(this.executorLoader).fetchExecutableRampMap();
     }
 
     @Test
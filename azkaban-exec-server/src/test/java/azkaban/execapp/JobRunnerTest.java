@@ -51,6 +51,11 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import org.apache.commons.io.FileUtils;
 import org.apache.log4j.Logger;
@@ -409,6 +414,90 @@ public class JobRunnerTest {
         .assertEvents(EventType.JOB_STARTED, EventType.JOB_STATUS_CHANGED, EventType.JOB_FINISHED);
   }
 
+  @Test
+  public void testParkedDelayedExecutionJob() throws Exception {
+    final MockExecutorLoader executorLoader = new MockExecutorLoader();
+    final MockExecutionLogsLoader executionLogsLoader = new MockExecutionLogsLoader();
+    final EventCollectorListener eventCollector = new EventCollectorListener();
+    final JobRunner runner =
+        createJobRunner(1, "testJob", 0, false, executorLoader, executionLogsLoader,
+            eventCollector);
+    runner.setDelayStart(1_000);
+    final long startTime = System.currentTimeMillis();
+    final ExecutableNode node = runner.getNode();
+    final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    final ExecutorService jobPool = Executors.newFixedThreadPool(1);
+
+    try {
+      runner.submitWhenReady(scheduler, jobPool);
+      StatusTestUtils.waitForStatus(node, Status.SUCCEEDED);
+      Assert.assertEquals(Status.SUCCEEDED, node.getStatus());
+    } finally {
+      scheduler.shutdownNow();
+      jobPool.shutdownNow();
+    }
+
+    Assert.assertTrue(node.getStartTime() - startTime >= 1_000);
+    Assert.assertFalse(runner.isKilled());
+  }
+
+  @Test
+  public void testRejectedStartFinishesJob() throws Exception {
+    final MockExecutorLoader executorLoader = new MockExecutorLoader();
+    final MockExecutionLogsLoader executionLogsLoader = new MockExecutionLogsLoader();
+    final EventCollectorListener eventCollector = new EventCollectorListener();
+    final JobRunner runner =
+        createJobRunner(1, "testJob", 0, false, executorLoader, executionLogsLoader,
+            eventCollector);
+    final ExecutableNode node = runner.getNode();
+    final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    final ExecutorService jobPool = Executors.newFixedThreadPool(1);
+    jobPool.shutdown();
+
+    try {
+      runner.submitWhenReady(scheduler, jobPool);
+    } finally {
+      scheduler.shutdownNow();
+    }
+
+    // The job is finished right away so that the flow doesn't wait on it forever
+    Assert.assertEquals(Status.FAILED, node.getStatus());
+    Assert.assertTrue(node.getStartTime() > 0 && node.getEndTime() > 0);
+    Assert.assertTrue(eventCollector.checkOrdering());
+    eventCollector.assertEvents(EventType.JOB_STARTED, EventType.JOB_FINISHED);
+  }
+
+  @Test
+  public void testParkedDelayedExecutionDoesNotHoldPoolThread() throws Exception {
+    final MockExecutorLoader executorLoader = new MockExecutorLoader();
+    final MockExecutionLogsLoader executionLogsLoader = new MockExecutionLogsLoader();
+    final EventCollectorListener eventCollector = new EventCollectorListener();
+    final JobRunner runner =
+        createJobRunner(1, "testJob", 0, false, executorLoader, executionLogsLoader,
+            eventCollector);
+    runner.setDelayStart(60_000);
+    final ExecutableNode node = runner.getNode();
+    final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    final ThreadPoolExecutor jobPool = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+
+    try {
+      runner.submitWhenReady(scheduler, jobPool);
+      // The only pool thread is still free for other jobs while this one is delayed
+      final CountDownLatch otherJobRan = new CountDownLatch(1);
+      jobPool.execute(otherJobRan::countDown);
+      Assert.assertTrue(otherJobRan.await(5, TimeUnit.SECONDS));
+      Assert.assertEquals(Status.READY, node.getStatus());
+
+      runner.kill();
+      StatusTestUtils.waitForStatus(node, Status.KILLED);
+      Assert.assertEquals(Status.KILLED, node.getStatus());
+    } finally {
+      scheduler.shutdownNow();
+      jobPool.shutdownNow();
+    }
+    Assert.assertTrue(runner.isKilled());
+  }
+
   @Test
   public void testDelayedExecutionCancelledJob() throws Exception {
     final MockExecutorLoader executorLoader = new MockExecutorLoader();
@@ -20,6 +20,8 @@ package azkaban.spi;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Objects;
+import org.apache.commons.io.IOUtils;
 
 
 /**
@@ -41,6 +43,60 @@ public interface Storage {
    */
   InputStream getProject(String key) throws IOException;
 
+  /**
+   * Get the size in bytes of a project blob, without reading it.
+   *
+   * @param key The key is a string pointing to the blob in Storage.
+   * @return the size, or -1 if this storage can not tell it.
+   */
+  default long getProjectSize(final String key) throws IOException {
+    return -1;
+  }
+
+  /**
+   * Get an InputStream object for a project version, starting at an offset. Storages which keep
+   * projects by id and version instead of by key override this.
+   *
+   * @param key The key of the blob in Storage, may be null if this storage does not use keys.
+   * @param projectId id of the project
+   * @param version version of the project
+   * @param offset number of bytes to skip from the beginning of the blob
+   * @return InputStream for fetching the blob.
+   */
+  default InputStream getProject(final String key, final int projectId, final int version,
+      final long offset) throws IOException {
+    final InputStream is = getProject(Objects.requireNonNull(key,
+        String.format("URI is null. project ID: %d version: %d", projectId, version)));
+    try {
+      IOUtils.skipFully(is, offset);
+      return is;
+    } catch (final IOException e) {
+      IOUtils.closeQuietly(is);
+      throw e;
+    }
+  }
+
+  /**
+   * Get the size in bytes of a project version, without reading it. Storages which keep
+   * projects by id and version instead of by key override this.
+   *
+   * @param key The key of the blob in Storage, may be null if this storage does not use keys.
+   * @return the size, or -1 if this storage can not tell it.
+   */
+  default long getProjectSize(final String key, final int projectId, final int version)
+      throws IOException {
+    return getProjectSize(Objects.requireNonNull(key,
+        String.format("URI is null. project ID: %d version: %d", projectId, version)));
+  }
+
+  /**
+   * Whether {@link #putProject(ProjectStorageMetadata, File)} also records the project version
+   * and its checksum, in which case the caller must not record them again.
+   */
+  default boolean putProjectRecordsVersion() {
+    return false;
+  }
+
   /**
    * Put a project and return a key.
    *
@@ -26,23 +26,20 @@ import azkaban.project.ProjectLoader;
 import azkaban.project.ProjectManager;
 import azkaban.project.ProjectManagerException;
 import azkaban.scheduler.QuartzJobDescription;
-import azkaban.scheduler.QuartzScheduler;
+import azkaban.scheduler.QuartzJobScheduler;
+import azkaban.scheduler.ScheduledJob;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.Files;
 import com.google.gson.GsonBuilder;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import org.quartz.JobDataMap;
-import org.quartz.JobDetail;
-import org.quartz.JobKey;
-import org.quartz.Scheduler;
 import org.quartz.SchedulerException;
-import org.quartz.Trigger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,11 +48,11 @@ public class FlowTriggerScheduler {
 
   private static final Logger logger = LoggerFactory.getLogger(FlowTriggerScheduler.class);
   private final ProjectLoader projectLoader;
-  private final QuartzScheduler scheduler;
+  private final QuartzJobScheduler scheduler;
   private final ProjectManager projectManager;
 
   @Inject
-  public FlowTriggerScheduler(final ProjectLoader projectLoader, final QuartzScheduler scheduler,
+  public FlowTriggerScheduler(final ProjectLoader projectLoader, final QuartzJobScheduler scheduler,
       final ProjectManager projectManager) {
     this.projectLoader = requireNonNull(projectLoader);
     this.scheduler = requireNonNull(scheduler);
@@ -131,41 +128,29 @@ public class FlowTriggerScheduler {
   }
 
   /**
-   * Retrieve the list of scheduled flow triggers from quartz database
+   * Retrieve the list of scheduled flow triggers from the scheduler
    */
   public List<ScheduledFlowTrigger> getScheduledFlowTriggerJobs() {
     try {
-      final Scheduler quartzScheduler = this.scheduler.getScheduler();
-      if(quartzScheduler == null) {
-        logger.warn("Unable to get scheduled flow triggers - Quartz scheduler has not been initialized");
-        return new ArrayList<>();
-      }
-      final List<String> groupNames = quartzScheduler.getJobGroupNames();
-
       final List<ScheduledFlowTrigger> flowTriggerJobDetails = new ArrayList<>();
-      for (final String groupName : groupNames) {
-        final JobKey jobKey = new JobKey(FlowTriggerQuartzJob.JOB_NAME, groupName);
+      for (final ScheduledJob job : this.scheduler
+          .getScheduledJobs(FlowTriggerQuartzJob.JOB_NAME)) {
         ScheduledFlowTrigger scheduledFlowTrigger = null;
         try {
-          final JobDetail job = quartzScheduler.getJobDetail(jobKey);
-          final JobDataMap jobDataMap = job.getJobDataMap();
-
-          final String flowId = jobDataMap.getString(FlowTriggerQuartzJob.FLOW_ID);
-          final int projectId = jobDataMap.getInt(FlowTriggerQuartzJob.PROJECT_ID);
-          final FlowTrigger flowTrigger = (FlowTrigger) jobDataMap
+          final Map<String, Object> jobData = job.getJobData();
+          final String flowId = (String) jobData.get(FlowTriggerQuartzJob.FLOW_ID);
+          final int projectId = (Integer) jobData.get(FlowTriggerQuartzJob.PROJECT_ID);
+          final FlowTrigger flowTrigger = (FlowTrigger) jobData
               .get(FlowTriggerQuartzJob.FLOW_TRIGGER);
-          final String submitUser = jobDataMap.getString(FlowTriggerQuartzJob.SUBMIT_USER);
-          final List<? extends Trigger> quartzTriggers = quartzScheduler.getTriggersOfJob(jobKey);
-          final boolean isPaused = this.scheduler
-              .isJobPaused(FlowTriggerQuartzJob.JOB_NAME, groupName);
+          final String submitUser = (String) jobData.get(FlowTriggerQuartzJob.SUBMIT_USER);
           final Project project = projectManager.getProject(projectId);
           final Flow flow = project.getFlow(flowId);
           scheduledFlowTrigger = new ScheduledFlowTrigger(projectId,
               this.projectManager.getProject(projectId).getName(),
-              flowId, flowTrigger, submitUser, quartzTriggers.isEmpty() ? null
-              : quartzTriggers.get(0), isPaused, flow.isLocked());
+              flowId, flowTrigger, submitUser, job.getStartTime(), job.getNextFireTime(),
+              job.isPaused(), flow.isLocked());
         } catch (final Exception ex) {
-          logger.error("Unable to get flow trigger by job key {}", jobKey, ex);
+          logger.error("Unable to get flow trigger by group name {}", job.getGroupName(), ex);
           scheduledFlowTrigger = null;
         }
 
@@ -227,20 +212,22 @@ public class FlowTriggerScheduler {
     private final String projectName;
     private final String flowId;
     private final FlowTrigger flowTrigger;
-    private final Trigger quartzTrigger;
+    private final Date startTime;
+    private final Date nextFireTime;
     private final String submitUser;
     private final boolean isPaused;
     private final boolean isLocked;
 
     public ScheduledFlowTrigger(final int projectId, final String projectName, final String flowId,
-        final FlowTrigger flowTrigger, final String submitUser,
-        final Trigger quartzTrigger, final boolean isPaused, final boolean isLocked) {
+        final FlowTrigger flowTrigger, final String submitUser, final Date startTime,
+        final Date nextFireTime, final boolean isPaused, final boolean isLocked) {
       this.projectId = projectId;
       this.projectName = projectName;
       this.flowId = flowId;
       this.flowTrigger = flowTrigger;
       this.submitUser = submitUser;
-      this.quartzTrigger = quartzTrigger;
+      this.startTime = startTime;
+      this.nextFireTime = nextFireTime;
       this.isPaused = isPaused;
       this.isLocked = isLocked;
     }
@@ -270,8 +257,12 @@ public class FlowTriggerScheduler {
           .toJson(this.flowTrigger.getDependencies());
     }
 
-    public Trigger getQuartzTrigger() {
-      return this.quartzTrigger;
+    public Date getStartTime() {
+      return this.startTime;
+    }
+
+    public Date getNextFireTime() {
+      return this.nextFireTime;
     }
 
     public String getSubmitUser() {
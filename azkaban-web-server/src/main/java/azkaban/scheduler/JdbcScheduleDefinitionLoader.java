@@ -0,0 +1,222 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.scheduler;
+
+import azkaban.db.DatabaseOperator;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.apache.commons.dbutils.ResultSetHandler;
+import org.quartz.SchedulerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores {@link ScheduleDefinition}s in the job_schedules table. Job data is Java-serialized, as
+ * in Quartz's JDBC job store, since flow trigger job data already has to be Serializable.
+ */
+@Singleton
+public class JdbcScheduleDefinitionLoader implements ScheduleDefinitionLoader {
+
+  private static final Logger logger = LoggerFactory.getLogger(JdbcScheduleDefinitionLoader.class);
+
+  private static final String SELECT_SCHEDULES =
+      "SELECT job_name, group_name, job_class, cron_expression, job_data, paused, create_time, "
+          + "modify_time, last_fire_time FROM job_schedules";
+  private static final String SELECT_MODIFIED_SCHEDULES = SELECT_SCHEDULES
+      + " WHERE modify_time>=?";
+  private static final String SELECT_SCHEDULE = SELECT_SCHEDULES
+      + " WHERE job_name=? AND group_name=?";
+  private static final String SELECT_SCHEDULE_IDS = "SELECT job_name, group_name FROM job_schedules";
+  private static final String INSERT_SCHEDULE =
+      "INSERT INTO job_schedules (job_name, group_name, job_class, cron_expression, job_data, "
+          + "paused, create_time, modify_time, last_fire_time) VALUES (?,?,?,?,?,?,?,?,?)";
+  private static final String DELETE_SCHEDULE =
+      "DELETE FROM job_schedules WHERE job_name=? AND group_name=?";
+  private static final String UPDATE_PAUSED =
+      "UPDATE job_schedules SET paused=?, modify_time=? WHERE job_name=? AND group_name=?";
+  private static final String UPDATE_LAST_FIRE_TIME =
+      "UPDATE job_schedules SET last_fire_time=? WHERE job_name=? AND group_name=? "
+          + "AND (last_fire_time IS NULL OR last_fire_time<?)";
+
+  private final DatabaseOperator dbOperator;
+
+  @Inject
+  public JdbcScheduleDefinitionLoader(final DatabaseOperator dbOperator) {
+    this.dbOperator = dbOperator;
+  }
+
+  @Override
+  public List<ScheduleDefinition> loadAll() throws SchedulerException {
+    try {
+      return this.dbOperator.query(SELECT_SCHEDULES, new ScheduleDefinitionHandler());
+    } catch (final SQLException e) {
+      throw new SchedulerException("Error loading schedules", e);
+    }
+  }
+
+  @Override
+  public List<ScheduleDefinition> loadModifiedSince(final long modifyTime)
+      throws SchedulerException {
+    try {
+      return this.dbOperator
+          .query(SELECT_MODIFIED_SCHEDULES, new ScheduleDefinitionHandler(), modifyTime);
+    } catch (final SQLException e) {
+      throw new SchedulerException("Error loading schedules modified since " + modifyTime, e);
+    }
+  }
+
+  @Override
+  public Set<String> loadScheduleIds() throws SchedulerException {
+    final ResultSetHandler<Set<String>> handler = rs -> {
+      final Set<String> ids = new HashSet<>();
+      while (rs.next()) {
+        ids.add(ScheduleDefinition.scheduleId(rs.getString(1), rs.getString(2)));
+      }
+      return ids;
+    };
+    try {
+      return this.dbOperator.query(SELECT_SCHEDULE_IDS, handler);
+    } catch (final SQLException e) {
+      throw new SchedulerException("Error loading schedule ids", e);
+    }
+  }
+
+  @Override
+  public ScheduleDefinition get(final String jobName, final String groupName)
+      throws SchedulerException {
+    try {
+      final List<ScheduleDefinition> definitions = this.dbOperator
+          .query(SELECT_SCHEDULE, new ScheduleDefinitionHandler(), jobName, groupName);
+      return definitions.isEmpty() ? null : definitions.get(0);
+    } catch (final SQLException e) {
+      throw new SchedulerException(
+          "Error loading schedule " + ScheduleDefinition.scheduleId(jobName, groupName), e);
+    }
+  }
+
+  @Override
+  public boolean insertIfAbsent(final ScheduleDefinition definition) throws SchedulerException {
+    if (get(definition.getJobName(), definition.getGroupName()) != null) {
+      return false;
+    }
+    try {
+      this.dbOperator.update(INSERT_SCHEDULE, definition.getJobName(), definition.getGroupName(),
+          definition.getJobClassName(), definition.getCronExpression(),
+          serialize(definition.getJobData()), definition.isPaused(), definition.getCreateTime(),
+          definition.getModifyTime(), definition.getLastFireTime() == ScheduleDefinition.NEVER_FIRED
+              ? null : definition.getLastFireTime());
+      return true;
+    } catch (final SQLException e) {
+      // Another server may have inserted the same schedule in between.
+      if (get(definition.getJobName(), definition.getGroupName()) != null) {
+        logger.warn("Schedule {} was registered concurrently", definition.getScheduleId());
+        return false;
+      }
+      throw new SchedulerException("Error inserting schedule " + definition.getScheduleId(), e);
+    }
+  }
+
+  @Override
+  public boolean delete(final String jobName, final String groupName) throws SchedulerException {
+    try {
+      return this.dbOperator.update(DELETE_SCHEDULE, jobName, groupName) > 0;
+    } catch (final SQLException e) {
+      throw new SchedulerException(
+          "Error deleting schedule " + ScheduleDefinition.scheduleId(jobName, groupName), e);
+    }
+  }
+
+  @Override
+  public boolean updatePaused(final String jobName, final String groupName, final boolean paused,
+      final long modifyTime) throws SchedulerException {
+    try {
+      return this.dbOperator.update(UPDATE_PAUSED, paused, modifyTime, jobName, groupName) > 0;
+    } catch (final SQLException e) {
+      throw new SchedulerException(
+          "Error updating schedule " + ScheduleDefinition.scheduleId(jobName, groupName), e);
+    }
+  }
+
+  @Override
+  public boolean updateLastFireTime(final String jobName, final String groupName,
+      final long lastFireTime) throws SchedulerException {
+    try {
+      return this.dbOperator
+          .update(UPDATE_LAST_FIRE_TIME, lastFireTime, jobName, groupName, lastFireTime) > 0;
+    } catch (final SQLException e) {
+      throw new SchedulerException(
+          "Error recording fire of " + ScheduleDefinition.scheduleId(jobName, groupName), e);
+    }
+  }
+
+  private static byte[] serialize(final Map<String, Object> jobData) throws SchedulerException {
+    if (jobData == null) {
+      return null;
+    }
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(new HashMap<>(jobData));
+    } catch (final IOException e) {
+      throw new SchedulerException("Job data is not serializable", e);
+    }
+    return bytes.toByteArray();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> deserialize(final byte[] data) throws SQLException {
+    if (data == null) {
+      return new HashMap<>();
+    }
+    try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+      return (Map<String, Object>) in.readObject();
+    } catch (final IOException | ClassNotFoundException e) {
+      throw new SQLException("Error deserializing job data", e);
+    }
+  }
+
+  private static class ScheduleDefinitionHandler implements
+      ResultSetHandler<List<ScheduleDefinition>> {
+
+    @Override
+    public List<ScheduleDefinition> handle(final ResultSet rs) throws SQLException {
+      final List<ScheduleDefinition> definitions = new ArrayList<>();
+      while (rs.next()) {
+        long lastFireTime = rs.getLong(9);
+        if (rs.wasNull()) {
+          lastFireTime = ScheduleDefinition.NEVER_FIRED;
+        }
+        definitions.add(new ScheduleDefinition(rs.getString(1), rs.getString(2), rs.getString(3),
+            rs.getString(4), deserialize(rs.getBytes(5)), rs.getBoolean(6), rs.getLong(7),
+            rs.getLong(8), lastFireTime));
+      }
+      return definitions;
+    }
+  }
+}
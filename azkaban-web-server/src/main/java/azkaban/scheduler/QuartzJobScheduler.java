@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.scheduler;
+
+import java.util.List;
+import org.quartz.SchedulerException;
+
+/**
+ * Schedules {@link QuartzJobDescription}s on cron expressions.
+ *
+ * Azkaban ships two implementations: {@link QuartzScheduler}, which stores triggers in Quartz's
+ * JDBC job store, and {@link TimingWheelScheduler}, which keeps fire times in memory and shards
+ * schedules across web servers. {@link azkaban.Constants.ConfigurationKeys#SCHEDULER_IMPL} picks
+ * one.
+ */
+public interface QuartzJobScheduler {
+
+  void start() throws SchedulerException;
+
+  void shutdown() throws SchedulerException;
+
+  /**
+   * @return true if job has been paused, false if job doesn't exist.
+   */
+  boolean pauseJobIfPresent(String jobName, String groupName) throws SchedulerException;
+
+  /**
+   * @return true if job is paused, false otherwise.
+   * @throws SchedulerException if the job doesn't exist.
+   */
+  boolean isJobPaused(String jobName, String groupName) throws SchedulerException;
+
+  /**
+   * @return true if the job has been resumed, false if the job doesn't exist.
+   */
+  boolean resumeJobIfPresent(String jobName, String groupName) throws SchedulerException;
+
+  /**
+   * @return true if job is found and unscheduled.
+   */
+  boolean unscheduleJob(String jobName, String groupName) throws SchedulerException;
+
+  /**
+   * Register a cron schedule for the job.
+   *
+   * @return true if job has been scheduled, false if the same job exists already.
+   */
+  boolean scheduleJobIfAbsent(String cronExpression, QuartzJobDescription jobDescription)
+      throws SchedulerException;
+
+  /**
+   * @return every schedule registered with the given job name, across all groups.
+   */
+  List<ScheduledJob> getScheduledJobs(String jobName) throws SchedulerException;
+}
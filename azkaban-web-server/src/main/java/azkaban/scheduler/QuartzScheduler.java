@@ -22,11 +22,13 @@ import static java.util.Objects.requireNonNull;
 import azkaban.Constants.ConfigurationKeys;
 import azkaban.utils.Props;
 import com.google.common.annotations.VisibleForTesting;
+import java.util.ArrayList;
 import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import org.quartz.CronExpression;
 import org.quartz.CronScheduleBuilder;
+import org.quartz.CronTrigger;
 import org.quartz.JobBuilder;
 import org.quartz.JobDetail;
 import org.quartz.JobKey;
@@ -48,7 +50,7 @@ import org.slf4j.LoggerFactory;
  * E.x FLOW_TRIGGER as job name, 1.flow1 as group name
  */
 @Singleton
-public class QuartzScheduler {
+public class QuartzScheduler implements QuartzJobScheduler {
 
   private static final Logger logger = LoggerFactory.getLogger(QuartzScheduler.class);
   private Scheduler scheduler = null;
@@ -70,6 +72,7 @@ public class QuartzScheduler {
     this.scheduler.setJobFactory(SERVICE_PROVIDER.getInstance(SchedulerJobFactory.class));
   }
 
+  @Override
   public void start() throws SchedulerException {
     this.scheduler.start();
     logger.info("Quartz Scheduler started.");
@@ -80,6 +83,7 @@ public class QuartzScheduler {
     this.scheduler.clear();
   }
 
+  @Override
   public void shutdown() throws SchedulerException {
     this.scheduler.shutdown();
     logger.info("Quartz Scheduler shut down.");
@@ -92,6 +96,7 @@ public class QuartzScheduler {
    * @return true if job has been paused, no if job doesn't exist.
    * @throws SchedulerException
    */
+  @Override
   public synchronized boolean pauseJobIfPresent(final String jobName, final String groupName)
       throws SchedulerException {
     if (ifJobExist(jobName, groupName)) {
@@ -107,6 +112,7 @@ public class QuartzScheduler {
    *
    * @return true if job is paused, false otherwise.
    */
+  @Override
   public synchronized boolean isJobPaused(final String jobName, final String groupName)
       throws SchedulerException {
     if (!ifJobExist(jobName, groupName)) {
@@ -132,6 +138,7 @@ public class QuartzScheduler {
    * @return true the job has been resumed, no if the job doesn't exist.
    * @throws SchedulerException
    */
+  @Override
   public synchronized boolean resumeJobIfPresent(final String jobName, final String groupName)
       throws SchedulerException {
     if (ifJobExist(jobName, groupName)) {
@@ -149,6 +156,7 @@ public class QuartzScheduler {
    * @return true if job is found and unscheduled.
    * @throws SchedulerException
    */
+  @Override
   public synchronized boolean unscheduleJob(final String jobName, final String groupName) throws
       SchedulerException {
     return this.scheduler.deleteJob(new JobKey(jobName, groupName));
@@ -169,6 +177,7 @@ public class QuartzScheduler {
    *
    * @return true if job has been scheduled, false if the same job exists already.
    */
+  @Override
   public synchronized boolean scheduleJobIfAbsent(final String cronExpression, final QuartzJobDescription
       jobDescription) throws SchedulerException {
 
@@ -207,6 +216,32 @@ public class QuartzScheduler {
   }
 
 
+  @Override
+  public synchronized List<ScheduledJob> getScheduledJobs(final String jobName)
+      throws SchedulerException {
+    final List<ScheduledJob> jobs = new ArrayList<>();
+    if (this.scheduler == null) {
+      logger.warn("Unable to get scheduled jobs - Quartz scheduler has not been initialized");
+      return jobs;
+    }
+    for (final String groupName : this.scheduler.getJobGroupNames()) {
+      final JobKey jobKey = new JobKey(jobName, groupName);
+      final JobDetail job = this.scheduler.getJobDetail(jobKey);
+      if (job == null) {
+        continue;
+      }
+      final List<? extends Trigger> triggers = this.scheduler.getTriggersOfJob(jobKey);
+      final Trigger trigger = triggers.isEmpty() ? null : triggers.get(0);
+      jobs.add(new ScheduledJob(jobName, groupName,
+          trigger instanceof CronTrigger ? ((CronTrigger) trigger).getCronExpression() : null,
+          job.getJobDataMap().getWrappedMap(),
+          trigger == null ? null : trigger.getStartTime(),
+          trigger == null ? null : trigger.getNextFireTime(),
+          isJobPaused(jobName, groupName)));
+    }
+    return jobs;
+  }
+
   @VisibleForTesting
   boolean ifJobExist(final String jobName, final String groupName)
       throws SchedulerException {
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.scheduler;
+
+import java.util.Map;
+
+/**
+ * A persisted schedule of the {@link TimingWheelScheduler}: what to run, when, and when it last
+ * fired. Fire times themselves are never persisted; they are recomputed from the cron expression
+ * and the last fire time.
+ */
+public class ScheduleDefinition {
+
+  /**
+   * Marker for a schedule that has never fired.
+   */
+  public static final long NEVER_FIRED = -1;
+
+  private final String jobName;
+  private final String groupName;
+  private final String jobClassName;
+  private final String cronExpression;
+  private final Map<String, Object> jobData;
+  private final boolean paused;
+  private final long createTime;
+  private final long modifyTime;
+  private final long lastFireTime;
+
+  public ScheduleDefinition(final String jobName, final String groupName,
+      final String jobClassName, final String cronExpression, final Map<String, Object> jobData,
+      final boolean paused, final long createTime, final long modifyTime,
+      final long lastFireTime) {
+    this.jobName = jobName;
+    this.groupName = groupName;
+    this.jobClassName = jobClassName;
+    this.cronExpression = cronExpression;
+    this.jobData = jobData;
+    this.paused = paused;
+    this.createTime = createTime;
+    this.modifyTime = modifyTime;
+    this.lastFireTime = lastFireTime;
+  }
+
+  /**
+   * Schedule id in Quartz's job key format, "$groupName.$jobName". Schedules are sharded by it.
+   */
+  public static String scheduleId(final String jobName, final String groupName) {
+    return groupName + "." + jobName;
+  }
+
+  public String getScheduleId() {
+    return scheduleId(this.jobName, this.groupName);
+  }
+
+  public String getJobName() {
+    return this.jobName;
+  }
+
+  public String getGroupName() {
+    return this.groupName;
+  }
+
+  public String getJobClassName() {
+    return this.jobClassName;
+  }
+
+  public String getCronExpression() {
+    return this.cronExpression;
+  }
+
+  public Map<String, Object> getJobData() {
+    return this.jobData;
+  }
+
+  public boolean isPaused() {
+    return this.paused;
+  }
+
+  public long getCreateTime() {
+    return this.createTime;
+  }
+
+  public long getModifyTime() {
+    return this.modifyTime;
+  }
+
+  public long getLastFireTime() {
+    return this.lastFireTime;
+  }
+
+  @Override
+  public String toString() {
+    return "ScheduleDefinition{" +
+        "scheduleId='" + getScheduleId() + '\'' +
+        ", jobClassName='" + this.jobClassName + '\'' +
+        ", cronExpression='" + this.cronExpression + '\'' +
+        ", paused=" + this.paused +
+        ", lastFireTime=" + this.lastFireTime +
+        '}';
+  }
+}
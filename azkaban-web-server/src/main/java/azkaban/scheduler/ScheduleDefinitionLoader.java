@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.scheduler;
+
+import java.util.List;
+import java.util.Set;
+import org.quartz.SchedulerException;
+
+/**
+ * Persists {@link ScheduleDefinition}s for the {@link TimingWheelScheduler}. Only definitions,
+ * pause state and last-fired markers are stored; nothing is written for a fire except the marker.
+ */
+public interface ScheduleDefinitionLoader {
+
+  List<ScheduleDefinition> loadAll() throws SchedulerException;
+
+  /**
+   * @return definitions created, paused or resumed at or after the given time.
+   */
+  List<ScheduleDefinition> loadModifiedSince(long modifyTime) throws SchedulerException;
+
+  /**
+   * @return the ids of all persisted schedules, used to notice schedules removed by other
+   * servers.
+   */
+  Set<String> loadScheduleIds() throws SchedulerException;
+
+  /**
+   * @return the definition, or null if it doesn't exist.
+   */
+  ScheduleDefinition get(String jobName, String groupName) throws SchedulerException;
+
+  /**
+   * @return false if a schedule with the same job and group name exists already.
+   */
+  boolean insertIfAbsent(ScheduleDefinition definition) throws SchedulerException;
+
+  /**
+   * @return true if the schedule existed.
+   */
+  boolean delete(String jobName, String groupName) throws SchedulerException;
+
+  /**
+   * @return true if the schedule existed.
+   */
+  boolean updatePaused(String jobName, String groupName, boolean paused, long modifyTime)
+      throws SchedulerException;
+
+  /**
+   * Record a fire. Markers only move forward, so a late write never rewinds a schedule.
+   *
+   * @return true if the marker moved, false if this fire was already recorded, e.g. by another
+   * web server, or the schedule no longer exists.
+   */
+  boolean updateLastFireTime(String jobName, String groupName, long lastFireTime)
+      throws SchedulerException;
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.scheduler;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Read-only view of one registered schedule, independent of the scheduler implementation.
+ */
+public class ScheduledJob {
+
+  private final String jobName;
+  private final String groupName;
+  private final String cronExpression;
+  private final Map<String, Object> jobData;
+  private final Date startTime;
+  private final Date nextFireTime;
+  private final boolean paused;
+
+  public ScheduledJob(final String jobName, final String groupName, final String cronExpression,
+      final Map<String, Object> jobData, final Date startTime, final Date nextFireTime,
+      final boolean paused) {
+    this.jobName = jobName;
+    this.groupName = groupName;
+    this.cronExpression = cronExpression;
+    this.jobData = jobData;
+    this.startTime = startTime;
+    this.nextFireTime = nextFireTime;
+    this.paused = paused;
+  }
+
+  public String getJobName() {
+    return this.jobName;
+  }
+
+  public String getGroupName() {
+    return this.groupName;
+  }
+
+  public String getCronExpression() {
+    return this.cronExpression;
+  }
+
+  public Map<String, Object> getJobData() {
+    return this.jobData;
+  }
+
+  public Date getStartTime() {
+    return this.startTime;
+  }
+
+  /**
+   * @return the next fire time, or null if the schedule will not fire again.
+   */
+  public Date getNextFireTime() {
+    return this.nextFireTime;
+  }
+
+  public boolean isPaused() {
+    return this.paused;
+  }
+}
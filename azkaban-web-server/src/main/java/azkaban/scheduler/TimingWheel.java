@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.scheduler;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel. Deadlines are rounded up to whole ticks and hashed into one of
+ * {@code wheelSize} buckets, so adding an entry and advancing one tick cost O(1) plus the size of
+ * one bucket, independent of how many entries are pending. Deadlines further out than one rotation
+ * simply stay in their bucket until a later pass reaches their tick.
+ *
+ * Entries never fire before their deadline; they may fire up to one tick late.
+ */
+class TimingWheel<T> {
+
+  private final long tickMs;
+  private final List<LinkedList<Entry<T>>> buckets;
+  private long currentTick;
+  private int size;
+
+  TimingWheel(final long tickMs, final int wheelSize, final long startTimeMs) {
+    Preconditions.checkArgument(tickMs > 0, "tickMs must be positive");
+    Preconditions.checkArgument(wheelSize > 0, "wheelSize must be positive");
+    this.tickMs = tickMs;
+    this.buckets = new ArrayList<>(wheelSize);
+    for (int i = 0; i < wheelSize; i++) {
+      this.buckets.add(new LinkedList<>());
+    }
+    this.currentTick = Math.floorDiv(startTimeMs, tickMs);
+  }
+
+  /**
+   * Add an item expiring at the given time. Deadlines at or before the current tick expire on the
+   * next {@link #advance}.
+   *
+   * @return the entry of the item, to {@link #remove} it before it expires
+   */
+  synchronized Entry<T> add(final T item, final long deadlineMs) {
+    final long deadlineTick = Math.max(-Math.floorDiv(-deadlineMs, this.tickMs),
+        this.currentTick + 1);
+    final Entry<T> entry = new Entry<>(item, deadlineTick);
+    bucket(deadlineTick).add(entry);
+    this.size++;
+    return entry;
+  }
+
+  /**
+   * Remove an entry which is no longer wanted, at the cost of scanning its bucket.
+   *
+   * @return false if the entry already expired or was removed
+   */
+  synchronized boolean remove(final Entry<T> entry) {
+    if (bucket(entry.deadlineTick).remove(entry)) {
+      this.size--;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Move the wheel to the given time.
+   *
+   * @return the items whose deadline is at or before {@code nowMs}, in no particular order.
+   */
+  synchronized List<T> advance(final long nowMs) {
+    final long nowTick = Math.floorDiv(nowMs, this.tickMs);
+    final List<T> expired = new ArrayList<>();
+    // After a long pause one full rotation visits every bucket, so there is no need to replay
+    // each missed tick.
+    final long lastTick = Math.min(nowTick, this.currentTick + this.buckets.size());
+    for (long tick = this.currentTick + 1; tick <= lastTick; tick++) {
+      final Iterator<Entry<T>> it = bucket(tick).iterator();
+      while (it.hasNext()) {
+        final Entry<T> entry = it.next();
+        if (entry.deadlineTick <= nowTick) {
+          it.remove();
+          this.size--;
+          expired.add(entry.item);
+        }
+      }
+    }
+    this.currentTick = Math.max(this.currentTick, nowTick);
+    return expired;
+  }
+
+  synchronized int size() {
+    return this.size;
+  }
+
+  synchronized void clear() {
+    this.buckets.forEach(List::clear);
+    this.size = 0;
+  }
+
+  private LinkedList<Entry<T>> bucket(final long tick) {
+    return this.buckets.get((int) Math.floorMod(tick, (long) this.buckets.size()));
+  }
+
+  static final class Entry<T> {
+
+    private final T item;
+    private final long deadlineTick;
+
+    private Entry(final T item, final long deadlineTick) {
+      this.item = item;
+      this.deadlineTick = deadlineTick;
+    }
+  }
+}
@@ -0,0 +1,606 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.scheduler;
+
+import static java.util.Objects.requireNonNull;
+
+import azkaban.Constants.ConfigurationKeys;
+import azkaban.utils.Props;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.quartz.CronExpression;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.CronTrigger;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.Trigger.TriggerState;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.JobExecutionContextImpl;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.spi.OperableTrigger;
+import org.quartz.spi.TriggerFiredBundle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs {@link QuartzJobDescription}s without Quartz's JDBC job store.
+ *
+ * Fire times are kept in an in-memory {@link TimingWheel}, so firing a schedule takes no database
+ * lock. Only schedule definitions, pause state and last-fired markers are persisted, through
+ * {@link ScheduleDefinitionLoader}. On start, and whenever a schedule changes, the next fire time
+ * is recomputed from the cron expression and the last fire time, applying the configured
+ * {@link MisfirePolicy} if it lies further in the past than the misfire threshold.
+ *
+ * Schedules are sharded across web servers by schedule id: every server holds all definitions,
+ * but only arms those whose id hashes to its shard index. Changes made on other servers are
+ * picked up by a periodic refresh. A server only runs a fire after moving the schedule's last
+ * fire time to it, so servers arming the same schedule don't run it twice.
+ *
+ * When a deployment switches over from {@link QuartzScheduler}, the schedules in the Quartz job
+ * store are imported on the first start, see {@link ConfigurationKeys#TIMING_WHEEL_IMPORT_QUARTZ}.
+ */
+@Singleton
+public class TimingWheelScheduler implements QuartzJobScheduler {
+
+  /**
+   * Value of {@link ConfigurationKeys#SCHEDULER_IMPL} selecting this scheduler.
+   */
+  public static final String SCHEDULER_IMPL_NAME = "timing_wheel";
+
+  private static final Logger logger = LoggerFactory.getLogger(TimingWheelScheduler.class);
+
+  private final ScheduleDefinitionLoader loader;
+  private final SchedulerJobFactory jobFactory;
+  private final ExecutorService workers;
+  private final LongSupplier clock;
+  private final long tickMs;
+  private final long refreshIntervalMs;
+  private final long misfireThresholdMs;
+  private final MisfirePolicy misfirePolicy;
+  private final int shardCount;
+  private final int shardIndex;
+  private final TimingWheel<Firing> wheel;
+  // Quartz settings to import schedules from, null if there is no Quartz job store to import.
+  private final Properties quartzProperties;
+  private final AtomicLong generations = new AtomicLong();
+
+  // Guards schedules and the mutable fields of every ScheduleState. Never held during DB calls.
+  private final Object lock = new Object();
+  private final Map<String, ScheduleState> schedules = new HashMap<>();
+
+  private ScheduledExecutorService timer = null;
+  private volatile long lastRefreshTime;
+  private volatile boolean unshardedWarningLogged = false;
+
+  @Inject
+  public TimingWheelScheduler(final Props azProps, final ScheduleDefinitionLoader loader,
+      final SchedulerJobFactory jobFactory) {
+    this(azProps, loader, jobFactory, Executors.newFixedThreadPool(
+        azProps.getInt(ConfigurationKeys.TIMING_WHEEL_THREADS, 10),
+        new ThreadFactoryBuilder().setNameFormat("azk-timing-wheel-job-%d").setDaemon(true)
+            .build()), System::currentTimeMillis);
+  }
+
+  @VisibleForTesting
+  TimingWheelScheduler(final Props azProps, final ScheduleDefinitionLoader loader,
+      final SchedulerJobFactory jobFactory, final ExecutorService workers,
+      final LongSupplier clock) {
+    this.loader = requireNonNull(loader, "loader is null");
+    this.jobFactory = requireNonNull(jobFactory, "jobFactory is null");
+    this.workers = requireNonNull(workers, "workers is null");
+    this.clock = requireNonNull(clock, "clock is null");
+    this.tickMs = azProps.getLong(ConfigurationKeys.TIMING_WHEEL_TICK_MS, 1000L);
+    this.refreshIntervalMs = azProps
+        .getLong(ConfigurationKeys.TIMING_WHEEL_REFRESH_INTERVAL_MS, 30_000L);
+    this.misfireThresholdMs = azProps
+        .getLong(ConfigurationKeys.TIMING_WHEEL_MISFIRE_THRESHOLD_MS, 60_000L);
+    this.misfirePolicy = MisfirePolicy.valueOf(azProps
+        .getString(ConfigurationKeys.TIMING_WHEEL_MISFIRE_POLICY, MisfirePolicy.FIRE_ONCE_NOW.name())
+        .toUpperCase());
+    this.shardCount = azProps.getInt(ConfigurationKeys.TIMING_WHEEL_SHARD_COUNT, 1);
+    this.shardIndex = azProps.getInt(ConfigurationKeys.TIMING_WHEEL_SHARD_INDEX, 0);
+    Preconditions.checkArgument(this.shardCount > 0, "shard count must be positive");
+    Preconditions.checkArgument(this.shardIndex >= 0 && this.shardIndex < this.shardCount,
+        "shard index must be in [0, %s)", this.shardCount);
+    final long now = clock.getAsLong();
+    this.wheel = new TimingWheel<>(this.tickMs,
+        azProps.getInt(ConfigurationKeys.TIMING_WHEEL_SIZE, 512), now);
+    this.lastRefreshTime = now;
+    this.quartzProperties = azProps.getBoolean(ConfigurationKeys.ENABLE_QUARTZ, false)
+        && azProps.getBoolean(ConfigurationKeys.TIMING_WHEEL_IMPORT_QUARTZ, true)
+        ? azProps.toAllProperties() : null;
+  }
+
+  @Override
+  public void start() throws SchedulerException {
+    if (this.quartzProperties != null && this.loader.loadScheduleIds().isEmpty()) {
+      // Quartz is only used to read its job store here, it is never started.
+      final Scheduler quartz = new StdSchedulerFactory(this.quartzProperties).getScheduler();
+      try {
+        importQuartzSchedules(quartz);
+      } finally {
+        quartz.shutdown(false);
+      }
+    }
+    load();
+    this.timer = Executors.newScheduledThreadPool(2,
+        new ThreadFactoryBuilder().setNameFormat("azk-timing-wheel-%d").setDaemon(true).build());
+    this.timer.scheduleAtFixedRate(this::tickQuietly, this.tickMs, this.tickMs,
+        TimeUnit.MILLISECONDS);
+    this.timer.scheduleWithFixedDelay(this::refreshQuietly, this.refreshIntervalMs,
+        this.refreshIntervalMs, TimeUnit.MILLISECONDS);
+    logger.info("Timing wheel scheduler started as shard {} of {}.", this.shardIndex,
+        this.shardCount);
+  }
+
+  @Override
+  public void shutdown() {
+    if (this.timer != null) {
+      this.timer.shutdownNow();
+    }
+    this.workers.shutdown();
+    this.wheel.clear();
+    logger.info("Timing wheel scheduler shut down.");
+  }
+
+  @Override
+  public boolean pauseJobIfPresent(final String jobName, final String groupName)
+      throws SchedulerException {
+    return setPaused(jobName, groupName, true);
+  }
+
+  @Override
+  public boolean resumeJobIfPresent(final String jobName, final String groupName)
+      throws SchedulerException {
+    return setPaused(jobName, groupName, false);
+  }
+
+  @Override
+  public boolean isJobPaused(final String jobName, final String groupName)
+      throws SchedulerException {
+    synchronized (this.lock) {
+      final ScheduleState state = this.schedules
+          .get(ScheduleDefinition.scheduleId(jobName, groupName));
+      if (state != null) {
+        return state.definition.isPaused();
+      }
+    }
+    // Possibly registered on another server since the last refresh.
+    final ScheduleDefinition definition = this.loader.get(jobName, groupName);
+    if (definition == null) {
+      throw new SchedulerException(String.format("Job (job name %s, group name %s) doesn't "
+          + "exist'", jobName, groupName));
+    }
+    return definition.isPaused();
+  }
+
+  @Override
+  public boolean unscheduleJob(final String jobName, final String groupName)
+      throws SchedulerException {
+    final boolean deleted = this.loader.delete(jobName, groupName);
+    synchronized (this.lock) {
+      disarm(this.schedules.remove(ScheduleDefinition.scheduleId(jobName, groupName)));
+    }
+    return deleted;
+  }
+
+  @Override
+  public boolean scheduleJobIfAbsent(final String cronExpression,
+      final QuartzJobDescription jobDescription) throws SchedulerException {
+    requireNonNull(jobDescription, "jobDescription is null");
+
+    if (!CronExpression.isValidExpression(cronExpression)) {
+      throw new SchedulerException(
+          "The cron expression string <" + cronExpression + "> is not valid.");
+    }
+
+    final long now = this.clock.getAsLong();
+    final Map<String, Object> jobData = new HashMap<>(jobDescription.getContextMap());
+    final ScheduleDefinition definition = new ScheduleDefinition(jobDescription.getJobName(),
+        jobDescription.getGroupName(), jobDescription.getJobClass().getName(), cronExpression,
+        jobData, false, now, now, ScheduleDefinition.NEVER_FIRED);
+    if (!this.loader.insertIfAbsent(definition)) {
+      logger.warn(String.format("can not register existing job with job name: "
+          + "%s and group name: %s", jobDescription.getJobName(), jobDescription.getGroupName()));
+      return false;
+    }
+    synchronized (this.lock) {
+      register(definition, now);
+    }
+    logger.info("Schedule {} is registered.", definition);
+    return true;
+  }
+
+  @Override
+  public List<ScheduledJob> getScheduledJobs(final String jobName) {
+    final long now = this.clock.getAsLong();
+    final List<ScheduledJob> jobs = new ArrayList<>();
+    synchronized (this.lock) {
+      for (final ScheduleState state : this.schedules.values()) {
+        final ScheduleDefinition definition = state.definition;
+        if (!definition.getJobName().equals(jobName)) {
+          continue;
+        }
+        // Schedules owned by other shards are not armed here; estimate from the cron expression.
+        final Date nextFireTime = state.generation != 0 ? new Date(state.nextFireTime)
+            : state.cron.getNextValidTimeAfter(new Date(now));
+        jobs.add(new ScheduledJob(definition.getJobName(), definition.getGroupName(),
+            definition.getCronExpression(), definition.getJobData(),
+            new Date(definition.getCreateTime()), nextFireTime, definition.isPaused()));
+      }
+    }
+    return jobs;
+  }
+
+  @VisibleForTesting
+  boolean owns(final String scheduleId) {
+    return Math.floorMod(scheduleId.hashCode(), this.shardCount) == this.shardIndex;
+  }
+
+  /**
+   * @return the number of schedules armed on the wheel, i.e. owned by this shard and not paused
+   */
+  @VisibleForTesting
+  int getArmedCount() {
+    return this.wheel.size();
+  }
+
+  /**
+   * Copy every cron schedule of the Quartz job store into job_schedules, keeping its pause state
+   * and last fire time. Schedules already present are left as they are, so servers starting
+   * concurrently can all run the import. Any failure fails the start rather than silently
+   * dropping schedules.
+   *
+   * @return the number of schedules imported
+   */
+  @VisibleForTesting
+  int importQuartzSchedules(final Scheduler quartz) throws SchedulerException {
+    final long now = this.clock.getAsLong();
+    int imported = 0;
+    for (final JobKey jobKey : quartz.getJobKeys(GroupMatcher.anyJobGroup())) {
+      final JobDetail jobDetail = quartz.getJobDetail(jobKey);
+      for (final Trigger trigger : quartz.getTriggersOfJob(jobKey)) {
+        if (!(trigger instanceof CronTrigger)) {
+          throw new SchedulerException("Can not import non-cron trigger " + trigger.getKey()
+              + " of job " + jobKey);
+        }
+        final Date previousFireTime = trigger.getPreviousFireTime();
+        final ScheduleDefinition definition = new ScheduleDefinition(jobKey.getName(),
+            jobKey.getGroup(), jobDetail.getJobClass().getName(),
+            ((CronTrigger) trigger).getCronExpression(),
+            new HashMap<>(jobDetail.getJobDataMap().getWrappedMap()),
+            quartz.getTriggerState(trigger.getKey()) == TriggerState.PAUSED,
+            trigger.getStartTime().getTime(), now,
+            previousFireTime != null ? previousFireTime.getTime() : ScheduleDefinition.NEVER_FIRED);
+        if (this.loader.insertIfAbsent(definition)) {
+          imported++;
+        }
+      }
+    }
+    logger.info("Imported {} schedules from the Quartz job store.", imported);
+    return imported;
+  }
+
+  /**
+   * Load every schedule and arm the ones owned by this shard.
+   */
+  @VisibleForTesting
+  void load() throws SchedulerException {
+    final long now = this.clock.getAsLong();
+    final List<ScheduleDefinition> definitions = this.loader.loadAll();
+    synchronized (this.lock) {
+      this.schedules.clear();
+      this.wheel.clear();
+      definitions.forEach(definition -> register(definition, now));
+    }
+    this.lastRefreshTime = now;
+    logger.info("Loaded {} schedules, {} owned by this shard.", definitions.size(),
+        this.wheel.size());
+  }
+
+  /**
+   * Pick up schedules added, removed, paused or resumed by other servers.
+   */
+  @VisibleForTesting
+  void refresh() throws SchedulerException {
+    final long now = this.clock.getAsLong();
+    // Go back one extra interval to tolerate clock skew between servers.
+    final long since = this.lastRefreshTime - this.refreshIntervalMs;
+    final Set<String> scheduleIds = this.loader.loadScheduleIds();
+    final List<ScheduleDefinition> modified = this.loader.loadModifiedSince(since);
+    synchronized (this.lock) {
+      // Schedules registered here after the ids were read are kept until the next refresh.
+      this.schedules.values().removeIf(state -> {
+        if (state.definition.getModifyTime() < now
+            && !scheduleIds.contains(state.definition.getScheduleId())) {
+          disarm(state);
+          return true;
+        }
+        return false;
+      });
+      for (final ScheduleDefinition definition : modified) {
+        final ScheduleState existing = this.schedules.get(definition.getScheduleId());
+        if (existing == null
+            || existing.definition.getModifyTime() != definition.getModifyTime()
+            || existing.definition.isPaused() != definition.isPaused()) {
+          register(definition, now);
+        }
+      }
+    }
+    this.lastRefreshTime = now;
+  }
+
+  /**
+   * Fire every schedule due at the given time and re-arm it for its next fire time.
+   */
+  @VisibleForTesting
+  void tick() {
+    final long now = this.clock.getAsLong();
+    for (final Firing firing : this.wheel.advance(now)) {
+      final ScheduleState state;
+      final long nextFireTime;
+      synchronized (this.lock) {
+        state = this.schedules.get(firing.scheduleId);
+        if (state == null || state.generation != firing.generation) {
+          // Superseded firings are removed from the wheel, this only guards against a firing
+          // expiring while its schedule was being changed.
+          continue;
+        }
+        state.armed = null;
+        state.lastFireTime = firing.scheduledFireTime;
+        arm(state, now);
+        nextFireTime = state.generation != 0 ? state.nextFireTime : -1;
+      }
+      this.workers.execute(
+          () -> runJob(state, firing.scheduledFireTime, now, nextFireTime));
+    }
+  }
+
+  private void tickQuietly() {
+    try {
+      tick();
+    } catch (final Throwable t) {
+      logger.error("Error firing schedules", t);
+    }
+  }
+
+  private void refreshQuietly() {
+    try {
+      refresh();
+    } catch (final Throwable t) {
+      logger.error("Error refreshing schedules", t);
+    }
+  }
+
+  private boolean setPaused(final String jobName, final String groupName, final boolean paused)
+      throws SchedulerException {
+    final long now = this.clock.getAsLong();
+    if (!this.loader.updatePaused(jobName, groupName, paused, now)) {
+      return false;
+    }
+    final ScheduleDefinition definition = this.loader.get(jobName, groupName);
+    synchronized (this.lock) {
+      if (definition == null) {
+        disarm(this.schedules.remove(ScheduleDefinition.scheduleId(jobName, groupName)));
+      } else {
+        register(definition, now);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Replace the in-memory state of a schedule and arm it if this shard owns it. Must hold lock.
+   */
+  private void register(final ScheduleDefinition definition, final long now) {
+    final ScheduleState previous = this.schedules.get(definition.getScheduleId());
+    final ScheduleState state;
+    try {
+      state = new ScheduleState(definition);
+    } catch (final ParseException | ClassNotFoundException | ClassCastException e) {
+      logger.error("Ignoring invalid schedule {}", definition, e);
+      disarm(this.schedules.remove(definition.getScheduleId()));
+      return;
+    }
+    disarm(previous);
+    if (previous != null) {
+      // The persisted marker may lag behind fires recorded in memory.
+      state.lastFireTime = Math.max(state.lastFireTime, previous.lastFireTime);
+    }
+    this.schedules.put(definition.getScheduleId(), state);
+    arm(state, now);
+  }
+
+  /**
+   * Take the firing of a schedule off the wheel, if any. Must hold lock.
+   */
+  private void disarm(final ScheduleState state) {
+    if (state == null) {
+      return;
+    }
+    if (state.armed != null) {
+      this.wheel.remove(state.armed);
+      state.armed = null;
+    }
+    state.generation = 0;
+  }
+
+  /**
+   * Compute the next fire time from the last fire time and put it on the wheel, replacing any
+   * firing armed earlier for the same state. Must hold lock.
+   */
+  private void arm(final ScheduleState state, final long now) {
+    disarm(state);
+    final ScheduleDefinition definition = state.definition;
+    if (definition.isPaused() || !owns(definition.getScheduleId())) {
+      return;
+    }
+    final long after = state.lastFireTime == ScheduleDefinition.NEVER_FIRED
+        ? definition.getCreateTime() : state.lastFireTime;
+    Date next = state.cron.getNextValidTimeAfter(new Date(after));
+    if (next != null && next.getTime() < now - this.misfireThresholdMs) {
+      logger.info("Schedule {} misfired at {}, applying {}.", definition.getScheduleId(), next,
+          this.misfirePolicy);
+      switch (this.misfirePolicy) {
+        case FIRE_ONCE_NOW:
+          next = new Date(now);
+          break;
+        case DO_NOTHING:
+          next = state.cron.getNextValidTimeAfter(new Date(now));
+          break;
+        case IGNORE_MISFIRES:
+        default:
+          // Fire every missed time, one per tick, until caught up.
+          break;
+      }
+    }
+    if (next == null) {
+      logger.info("Schedule {} has no further fire times.", definition.getScheduleId());
+      return;
+    }
+    state.generation = this.generations.incrementAndGet();
+    state.nextFireTime = next.getTime();
+    state.armed = this.wheel.add(
+        new Firing(definition.getScheduleId(), state.generation, state.nextFireTime),
+        state.nextFireTime);
+  }
+
+  private void runJob(final ScheduleState state, final long scheduledFireTime,
+      final long fireTime, final long nextFireTime) {
+    final ScheduleDefinition definition = state.definition;
+    try {
+      // As with Quartz, the fire is recorded before the job runs. Recording it also claims it:
+      // when several web servers arm the same schedule, only the one which moves the marker runs
+      // the job.
+      if (!this.loader.updateLastFireTime(definition.getJobName(), definition.getGroupName(),
+          scheduledFireTime)) {
+        logger.info("Fire at {} of schedule {} was claimed by another web server, or the "
+            + "schedule was deleted", scheduledFireTime, definition.getScheduleId());
+        if (this.shardCount == 1 && !this.unshardedWarningLogged) {
+          this.unshardedWarningLogged = true;
+          logger.warn("Several web servers fire the schedules. Only one runs each fire, but all "
+              + "of them arm every schedule: set {} and {} on each web server to split them.",
+              ConfigurationKeys.TIMING_WHEEL_SHARD_COUNT,
+              ConfigurationKeys.TIMING_WHEEL_SHARD_INDEX);
+        }
+        return;
+      }
+    } catch (final SchedulerException e) {
+      logger.error("Error recording fire of schedule {}, not running it",
+          definition.getScheduleId(), e);
+      return;
+    }
+    try {
+      final JobDetail jobDetail = JobBuilder.newJob(state.jobClass)
+          .withIdentity(definition.getJobName(), definition.getGroupName())
+          .usingJobData(new JobDataMap(definition.getJobData()))
+          .build();
+      final OperableTrigger trigger = (OperableTrigger) TriggerBuilder.newTrigger()
+          .forJob(jobDetail)
+          .withSchedule(CronScheduleBuilder.cronSchedule(definition.getCronExpression()))
+          .build();
+      final TriggerFiredBundle bundle = new TriggerFiredBundle(jobDetail, trigger, null, false,
+          new Date(fireTime), new Date(scheduledFireTime), null,
+          nextFireTime < 0 ? null : new Date(nextFireTime));
+      final Job job = this.jobFactory.newJob(bundle, null);
+      job.execute(new JobExecutionContextImpl(null, bundle, job));
+    } catch (final Exception e) {
+      logger.error("Error running schedule {}", definition.getScheduleId(), e);
+    }
+  }
+
+  /**
+   * What to do when a schedule's next fire time is older than the misfire threshold, e.g. after
+   * the web server was down or the schedule was paused. Mirrors Quartz's cron trigger misfire
+   * instructions.
+   */
+  public enum MisfirePolicy {
+    /**
+     * Fire once immediately, then continue from the current time. Quartz's
+     * MISFIRE_INSTRUCTION_FIRE_ONCE_NOW, used by {@link QuartzScheduler}.
+     */
+    FIRE_ONCE_NOW,
+    /**
+     * Skip missed fires and wait for the next fire time. Quartz's MISFIRE_INSTRUCTION_DO_NOTHING.
+     */
+    DO_NOTHING,
+    /**
+     * Fire every missed fire time as soon as possible. Quartz's
+     * MISFIRE_INSTRUCTION_IGNORE_MISFIRE_POLICY.
+     */
+    IGNORE_MISFIRES
+  }
+
+  private static class ScheduleState {
+
+    private final ScheduleDefinition definition;
+    private final CronExpression cron;
+    private final Class<? extends AbstractQuartzJob> jobClass;
+    private long lastFireTime;
+    private long nextFireTime;
+    // Identifies the firing currently on the wheel; 0 when not armed.
+    private long generation = 0;
+    // The wheel entry of that firing, null when not armed.
+    private TimingWheel.Entry<Firing> armed = null;
+
+    private ScheduleState(final ScheduleDefinition definition)
+        throws ParseException, ClassNotFoundException {
+      this.definition = definition;
+      this.cron = new CronExpression(definition.getCronExpression());
+      this.jobClass = Class.forName(definition.getJobClassName())
+          .asSubclass(AbstractQuartzJob.class);
+      this.lastFireTime = definition.getLastFireTime();
+    }
+  }
+
+  private static class Firing {
+
+    private final String scheduleId;
+    private final long generation;
+    private final long scheduledFireTime;
+
+    private Firing(final String scheduleId, final long generation, final long scheduledFireTime) {
+      this.scheduleId = scheduleId;
+      this.generation = generation;
+      this.scheduledFireTime = scheduledFireTime;
+    }
+  }
+}
@@ -27,6 +27,7 @@ import azkaban.Constants.ConfigurationKeys;
 import azkaban.DispatchMethod;
 import azkaban.cluster.ClusterModule;
 import azkaban.database.AzkabanDatabaseSetup;
+import azkaban.db.DBMetrics;
 import azkaban.executor.AlerterHolder;
 import azkaban.executor.ExecutionController;
 import azkaban.executor.ExecutionControllerUtils;
@@ -49,6 +50,7 @@ import azkaban.imagemgmt.servlets.ImageTypeServlet;
 import azkaban.imagemgmt.servlets.ImageVersionServlet;
 import azkaban.imagemgmt.utils.ConverterUtils;
 import azkaban.jmx.JmxContainerizedDispatchManager;
+import azkaban.jmx.JmxDBStatements;
 import azkaban.jmx.JmxExecutionController;
 import azkaban.jmx.JmxExecutorManager;
 import azkaban.jmx.JmxJettyServer;
@@ -74,6 +76,7 @@ import azkaban.trigger.builtin.SlaAlertAction;
 import azkaban.trigger.builtin.SlaChecker;
 import azkaban.user.UserManager;
 import azkaban.utils.FileIOUtils;
+import azkaban.utils.MailDeliveryQueue;
 import azkaban.utils.PluginUtils;
 import azkaban.utils.Props;
 import azkaban.utils.PropsUtils;
@@ -749,6 +752,8 @@ public class AzkabanWebServer extends AzkabanServer implements IMBeanRegistrable
     this.mbeanRegistrationManager.registerMBean("jetty", new JmxJettyServer(this.server));
     this.mbeanRegistrationManager
         .registerMBean("triggerManager", new JmxTriggerManager(this.triggerManager));
+    this.mbeanRegistrationManager.registerMBean("dbStatements",
+        new JmxDBStatements(SERVICE_PROVIDER.getInstance(DBMetrics.class)));
 
     if (this.executorManagerAdapter instanceof ExecutorManager) {
       this.mbeanRegistrationManager.registerMBean("executorManager",
@@ -786,6 +791,8 @@ public class AzkabanWebServer extends AzkabanServer implements IMBeanRegistrable
     this.triggerManager.shutdown();
     this.executorManagerAdapter.shutdown();
     this.containerCleanupManager.ifPresent(ContainerCleanupManager::shutdown);
+    // send the alerts still queued before the JVM exits
+    SERVICE_PROVIDER.getInstance(MailDeliveryQueue.class).close();
     try {
       this.missedSchedulesManager.stop();
       this.server.stop();
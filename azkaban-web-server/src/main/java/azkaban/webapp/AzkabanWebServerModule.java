@@ -70,8 +70,13 @@ import azkaban.metrics.ContainerizationMetrics;
 import azkaban.metrics.ContainerizationMetricsImpl;
 import azkaban.metrics.DummyContainerizationMetricsImpl;
 import azkaban.project.ProjectManager;
+import azkaban.scheduler.JdbcScheduleDefinitionLoader;
 import azkaban.scheduler.MissedSchedulesManager;
+import azkaban.scheduler.QuartzJobScheduler;
+import azkaban.scheduler.QuartzScheduler;
+import azkaban.scheduler.ScheduleDefinitionLoader;
 import azkaban.scheduler.ScheduleLoader;
+import azkaban.scheduler.TimingWheelScheduler;
 import azkaban.scheduler.TriggerBasedScheduleLoader;
 import azkaban.user.UserManager;
 import azkaban.user.XmlUserManager;
@@ -132,6 +137,8 @@ public class AzkabanWebServerModule extends AbstractModule {
     bind(Server.class).toProvider(WebServerProvider.class);
     bind(ScheduleLoader.class).to(TriggerBasedScheduleLoader.class);
     bind(FlowTriggerInstanceLoader.class).to(JdbcFlowTriggerInstanceLoaderImpl.class);
+    bind(QuartzJobScheduler.class).to(resolveQuartzJobSchedulerClass());
+    bind(ScheduleDefinitionLoader.class).to(JdbcScheduleDefinitionLoader.class);
     bind(ExecutorManagerAdapter.class).to(resolveExecutorManagerAdaptorClassType());
     bind(WebMetrics.class).to(resolveWebMetricsClass()).in(Scopes.SINGLETON);
     bind(EventListener.class).to(resolveEventListenerClass()).in(Scopes.SINGLETON);
@@ -154,6 +161,12 @@ public class AzkabanWebServerModule extends AbstractModule {
         DummyContainerizationMetricsImpl.class;
   }
 
+  private Class<? extends QuartzJobScheduler> resolveQuartzJobSchedulerClass() {
+    return TimingWheelScheduler.SCHEDULER_IMPL_NAME.equalsIgnoreCase(
+        this.props.getString(ConfigurationKeys.SCHEDULER_IMPL, "quartz"))
+        ? TimingWheelScheduler.class : QuartzScheduler.class;
+  }
+
   private Class<? extends EventListener> resolveEventListenerClass() {
     return FlowStatusChangeEventListener.class;
   }
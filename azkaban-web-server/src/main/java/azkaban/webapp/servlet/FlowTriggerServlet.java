@@ -97,9 +97,9 @@ public class FlowTriggerServlet extends LoginAbstractAzkabanServlet {
       jsonObj.put("cronExpression", schedule.getCronExpression());
       jsonObj.put("submitUser", res.getSubmitUser());
       jsonObj.put("firstSchedTime",
-          TimeUtils.formatDateTime(res.getQuartzTrigger().getStartTime().getTime()));
+          TimeUtils.formatDateTime(res.getStartTime().getTime()));
       jsonObj.put("nextExecTime",
-          TimeUtils.formatDateTime(res.getQuartzTrigger().getNextFireTime().getTime()));
+          TimeUtils.formatDateTime(res.getNextFireTime().getTime()));
 
       Long maxWaitMin = null;
       if (flowTrigger.getMaxWaitDuration().isPresent()) {
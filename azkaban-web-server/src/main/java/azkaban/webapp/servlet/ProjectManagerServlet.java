@@ -22,6 +22,7 @@ import azkaban.executor.ExecutableFlow;
 import azkaban.executor.ExecutableJobInfo;
 import azkaban.executor.ExecutorManagerAdapter;
 import azkaban.executor.ExecutorManagerException;
+import azkaban.executor.JobHistoryCursor;
 import azkaban.executor.Status;
 import azkaban.executor.container.ContainerizedDispatchManager;
 import azkaban.flow.Edge;
@@ -51,6 +52,7 @@ import azkaban.user.User;
 import azkaban.user.UserManager;
 import azkaban.user.UserUtils;
 import azkaban.utils.HTMLFormElement;
+import azkaban.utils.HashUtils;
 import azkaban.utils.JSONUtils;
 import azkaban.utils.Pair;
 import azkaban.utils.Props;
@@ -65,6 +67,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Writer;
 import java.security.AccessControlException;
@@ -78,6 +81,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Semaphore;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.servlet.ServletConfig;
@@ -139,6 +143,10 @@ public class ProjectManagerServlet extends LoginAbstractAzkabanServlet {
   private static final String APPLICATION_ZIP_MIME_TYPE = "application/zip";
   private static final String PROJECT_DOWNLOAD_BUFFER_SIZE_IN_BYTES =
       "project.download.buffer.size";
+  private static final String PROJECT_DOWNLOAD_MAX_CONCURRENT =
+      "project.download.max.concurrent";
+  private static final int PROJECT_DOWNLOAD_MAX_CONCURRENT_DEFAULT = 10;
+  private static final int DOWNLOAD_RETRY_AFTER_SEC = 5;
 
   private static final long serialVersionUID = 1;
   private static final Logger logger = LoggerFactory.getLogger(ProjectManagerServlet.class);
@@ -155,6 +163,7 @@ public class ProjectManagerServlet extends LoginAbstractAzkabanServlet {
   private UserManager userManager;
   private FlowTriggerScheduler scheduler;
   private int downloadBufferSize;
+  private Semaphore downloadPermits = new Semaphore(PROJECT_DOWNLOAD_MAX_CONCURRENT_DEFAULT);
   private boolean lockdownCreateProjects = false;
   private boolean lockdownUploadProjects = false;
   private boolean enableQuartz = false;
@@ -200,6 +209,8 @@ public class ProjectManagerServlet extends LoginAbstractAzkabanServlet {
     this.downloadBufferSize =
         server.getServerProps().getInt(PROJECT_DOWNLOAD_BUFFER_SIZE_IN_BYTES, 8192);
     logger.info("downloadBufferSize: " + this.downloadBufferSize);
+    this.downloadPermits = new Semaphore(server.getServerProps()
+        .getInt(PROJECT_DOWNLOAD_MAX_CONCURRENT, PROJECT_DOWNLOAD_MAX_CONCURRENT_DEFAULT));
 
     // get upload privilege user, if not configured, treated upload as adhoc, no upload lock enabled
     // this feature flag is fundamental for project security feature enhanced by upload
@@ -487,14 +498,26 @@ public class ProjectManagerServlet extends LoginAbstractAzkabanServlet {
       final HttpServletRequest req, final HashMap<String, Object> ret) throws ServletException {
     final int num = this.getIntParam(req, "size", 1000);
     final int skip = this.getIntParam(req, "skip", 0);
+    // the events before the event of that time and id, the last one already fetched
+    final long time = this.getLongParam(req, "time", -1);
+    final long id = this.getLongParam(req, "id", Long.MAX_VALUE);
 
     final List<ProjectLogEvent> logEvents;
     try {
-      logEvents = this.projectManager.getProjectEventLogs(project, num, skip);
+      logEvents = time >= 0
+          ? this.projectManager.getProjectEventLogs(project, num, time, id)
+          : this.projectManager.getProjectEventLogs(project, num, skip);
     } catch (final ProjectManagerException e) {
       throw new ServletException(e);
     }
 
+    if (!logEvents.isEmpty()) {
+      // the parameters to fetch the next events
+      final ProjectLogEvent last = logEvents.get(logEvents.size() - 1);
+      ret.put("nextTime", last.getTime());
+      ret.put("nextId", last.getId());
+    }
+
     final String[] columns = new String[]{"user", "time", "type", "message"};
     ret.put("columns", columns);
 
@@ -641,32 +664,78 @@ public class ProjectManagerServlet extends LoginAbstractAzkabanServlet {
       version = getIntParam(req, "version");
     }
 
-    ProjectFileHandler projectFileHandler = null;
-    FileInputStream inStream = null;
-    OutputStream outStream = null;
+    if (!this.downloadPermits.tryAcquire()) {
+      logger.warn("Rejecting download of project " + projectName + " by " + user.getUserId()
+          + ", too many concurrent downloads");
+      resp.setHeader("Retry-After", String.valueOf(DOWNLOAD_RETRY_AFTER_SEC));
+      resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+          "Too many concurrent project downloads, retry later.");
+      return;
+    }
+
+    InputStream inStream = null;
+    File spooledFile = null;
     try {
-      projectFileHandler =
-          this.projectManager.getProjectFileHandler(project, version);
+      final ProjectFileHandler projectFileHandler =
+          this.projectManager.getProjectFileMetadata(project, version);
       if (projectFileHandler == null) {
         this.setErrorMessageInCookie(resp, "Project " + projectName
             + " with version " + version + " doesn't exist");
         resp.sendRedirect(req.getContextPath());
         return;
       }
-      final File projectZipFile = projectFileHandler.getLocalFile();
-      final String logStr =
-          String.format(
-              "downloading project zip file for project \"%s\" at \"%s\""
-                  + " size: %d type: %s  fileName: \"%s\"",
-              projectFileHandler.getFileName(),
-              projectZipFile.getAbsolutePath(), projectZipFile.length(),
-              projectFileHandler.getFileType(),
-              projectFileHandler.getFileName());
-      logger.info(logStr);
 
-      // now set up HTTP response for downloading file
-      inStream = new FileInputStream(projectZipFile);
+      // The zip of a project version never changes, its md5 identifies it.
+      final String etag = projectFileHandler.getMD5Hash() == null ? null
+          : "\"" + HashUtils.bytesHashToString(projectFileHandler.getMD5Hash()) + "\"";
+      if (etag != null) {
+        resp.setHeader("ETag", etag);
+        if (etagMatches(req.getHeader("If-None-Match"), etag)) {
+          resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+          return;
+        }
+      }
 
+      final long size = this.projectManager.getProjectFileSize(projectFileHandler);
+      Pair<Long, Long> range = null;
+      final String rangeHeader = req.getHeader("Range");
+      final String ifRange = req.getHeader("If-Range");
+      // multiple ranges are not supported, the whole file is sent instead
+      if (rangeHeader != null && rangeHeader.startsWith("bytes=") && !rangeHeader.contains(",")
+          && size >= 0 && (ifRange == null || ifRange.equals(etag))) {
+        range = parseRange(rangeHeader, size);
+        if (range == null) {
+          resp.setHeader("Content-Range", "bytes */" + size);
+          resp.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+          return;
+        }
+      }
+
+      logger.info(String.format(
+          "downloading project zip file for project \"%s\" version: %d size: %d type: %s"
+              + " fileName: \"%s\" range: %s", projectName, projectFileHandler.getVersion(),
+          size, projectFileHandler.getFileType(), projectFileHandler.getFileName(), rangeHeader));
+
+      final long offset = range == null ? 0 : range.getFirst();
+      if (range == null && projectFileHandler.getMD5Hash() != null) {
+        // The md5 is only known to match once the whole file is read. Spool it to local disk
+        // first, so that a corrupt file fails the request before the response is committed.
+        spooledFile = File.createTempFile("download-" + project.getId() + "-", ".zip");
+        try (final InputStream verified = this.projectManager
+            .openProjectFile(projectFileHandler, 0);
+            final OutputStream spool = new BufferedOutputStream(
+                new FileOutputStream(spooledFile))) {
+          IOUtils.copyLarge(verified, spool, new byte[this.downloadBufferSize]);
+        }
+        inStream = new FileInputStream(spooledFile);
+      } else {
+        // stream straight from storage, the file is not copied to local disk
+        inStream = this.projectManager.openProjectFile(projectFileHandler, offset);
+      }
+      final long length = spooledFile != null ? spooledFile.length()
+          : range == null ? size : range.getSecond() - range.getFirst() + 1;
+
+      // now set up HTTP response for downloading file
       resp.setContentType(APPLICATION_ZIP_MIME_TYPE);
 
       final String headerKey = "Content-Disposition";
@@ -678,15 +747,27 @@ public class ProjectManagerServlet extends LoginAbstractAzkabanServlet {
           Integer.toString(projectFileHandler.getVersion()));
       resp.setHeader("projectId",
           Integer.toString(projectFileHandler.getProjectId()));
+      if (size >= 0) {
+        resp.setHeader("Accept-Ranges", "bytes");
+      }
 
-      outStream = resp.getOutputStream();
+      if (range != null) {
+        resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        resp.setHeader("Content-Range",
+            "bytes " + range.getFirst() + "-" + range.getSecond() + "/" + size);
+      }
+      if (length >= 0) {
+        resp.setHeader("Content-Length", Long.toString(length));
+      }
 
+      final OutputStream outStream = resp.getOutputStream();
       final byte[] buffer = new byte[this.downloadBufferSize];
-      int bytesRead = -1;
-
-      while ((bytesRead = inStream.read(buffer)) != -1) {
-        outStream.write(buffer, 0, bytesRead);
+      if (range != null) {
+        IOUtils.copyLarge(inStream, outStream, 0, length, buffer);
+      } else {
+        IOUtils.copyLarge(inStream, outStream, buffer);
       }
+      outStream.flush();
 
     } catch (final Throwable e) {
       logger.error(
@@ -695,13 +776,69 @@ public class ProjectManagerServlet extends LoginAbstractAzkabanServlet {
       throw new ServletException(e);
     } finally {
       IOUtils.closeQuietly(inStream);
-      IOUtils.closeQuietly(outStream);
+      FileUtils.deleteQuietly(spooledFile);
+      this.downloadPermits.release();
+    }
 
-      if (projectFileHandler != null) {
-        projectFileHandler.deleteLocalFile();
+  }
+
+  /**
+   * @return true if the If-None-Match header lists the etag, or is a wildcard
+   */
+  @VisibleForTesting
+  static boolean etagMatches(final String ifNoneMatch, final String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String tag : ifNoneMatch.split(",")) {
+      tag = tag.trim();
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if (tag.equals("*") || tag.equals(etag)) {
+        return true;
       }
     }
+    return false;
+  }
 
+  /**
+   * Parse a single byte range of a Range header, as in "bytes=0-499", "bytes=500-" or
+   * "bytes=-500".
+   *
+   * @return the first and last byte positions of the range, both inclusive, or null if the range
+   * can not be satisfied
+   */
+  @VisibleForTesting
+  static Pair<Long, Long> parseRange(final String rangeHeader, final long size) {
+    final String spec = rangeHeader.substring("bytes=".length()).trim();
+    final int dash = spec.indexOf('-');
+    if (dash < 0) {
+      return null;
+    }
+    try {
+      final long first;
+      long last;
+      if (dash == 0) {
+        // suffix range: the last n bytes
+        final long suffix = Long.parseLong(spec.substring(1));
+        if (suffix <= 0) {
+          return null;
+        }
+        first = Math.max(0, size - suffix);
+        last = size - 1;
+      } else {
+        first = Long.parseLong(spec.substring(0, dash));
+        last = dash == spec.length() - 1 ? size - 1 : Long.parseLong(spec.substring(dash + 1));
+      }
+      last = Math.min(last, size - 1);
+      if (first < 0 || first > last) {
+        return null;
+      }
+      return new Pair<>(first, last);
+    } catch (final NumberFormatException e) {
+      return null;
+    }
   }
 
   /**
@@ -1454,6 +1591,7 @@ public class ProjectManagerServlet extends LoginAbstractAzkabanServlet {
     page.add("projectName", "");
     page.add("dataSeries", "[]");
     page.add("history", null);
+    page.add("nextCursor", "");
 
     final String projectName = getParam(req, "project");
     final User user = session.getUser();
@@ -1482,12 +1620,21 @@ public class ProjectManagerServlet extends LoginAbstractAzkabanServlet {
         pageNum = totalPages;
         page.add("page", pageNum);
       }
-      final int elementsToSkip = (pageNum - 1) * pageSize;
-      final List<ExecutableJobInfo> jobInfo =
-          this.executorManagerAdapter.getExecutableJobs(project, jobId, elementsToSkip, pageSize);
+      // the next page links pass the position of the last job run of the page, so that it is
+      // fetched without skipping the rows of all the previous pages
+      final JobHistoryCursor after = getJobHistoryCursor(req);
+      final List<ExecutableJobInfo> jobInfo;
+      if (after != null && pageNum > 1) {
+        jobInfo = this.executorManagerAdapter.getExecutableJobs(project, jobId, after, pageSize);
+      } else {
+        final int elementsToSkip = (pageNum - 1) * pageSize;
+        jobInfo =
+            this.executorManagerAdapter.getExecutableJobs(project, jobId, elementsToSkip, pageSize);
+      }
 
       if (CollectionUtils.isNotEmpty(jobInfo)) {
         page.add("history", jobInfo);
+        page.add("nextCursor", JobHistoryCursor.after(jobInfo.get(jobInfo.size() - 1)).toString());
 
         final ArrayList<Object> dataSeries = new ArrayList<>();
         for (final ExecutableJobInfo info : jobInfo) {
@@ -1503,6 +1650,19 @@ public class ProjectManagerServlet extends LoginAbstractAzkabanServlet {
     page.render();
   }
 
+  private JobHistoryCursor getJobHistoryCursor(final HttpServletRequest req) {
+    final String cursor = getParam(req, "after", null);
+    if (cursor == null) {
+      return null;
+    }
+    try {
+      return JobHistoryCursor.parse(cursor);
+    } catch (final IllegalArgumentException e) {
+      logger.warn("Ignoring " + e.getMessage());
+      return null;
+    }
+  }
+
   private void handlePermissionPage(final HttpServletRequest req,
       final HttpServletResponse resp, final Session session) throws ServletException, IOException {
     final Page page =
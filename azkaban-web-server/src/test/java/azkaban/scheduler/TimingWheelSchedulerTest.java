@@ -0,0 +1,359 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import azkaban.Constants.ConfigurationKeys;
+import azkaban.db.DatabaseOperator;
+import azkaban.scheduler.TimingWheelScheduler.MisfirePolicy;
+import azkaban.test.Utils;
+import azkaban.utils.Props;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.quartz.CronExpression;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.StdSchedulerFactory;
+
+/**
+ * Drives {@link TimingWheelScheduler} with a fake clock against the H2 test database.
+ */
+public class TimingWheelSchedulerTest {
+
+  private static final String EVERY_MINUTE = "0 * * * * ?";
+  // 2022-01-01 00:00:30 UTC
+  private static final long START = 1_640_995_230_000L;
+
+  private static DatabaseOperator dbOperator;
+  private final AtomicLong now = new AtomicLong(START);
+  private final List<TimingWheelScheduler> schedulers = new ArrayList<>();
+  private JdbcScheduleDefinitionLoader loader;
+  private SchedulerJobFactory jobFactory;
+
+  @BeforeClass
+  public static void setUpDB() throws Exception {
+    dbOperator = Utils.initTestDB();
+  }
+
+  @AfterClass
+  public static void destroyDB() throws Exception {
+    dbOperator.update("DROP ALL OBJECTS");
+    dbOperator.update("SHUTDOWN");
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    RecordingJob.FIRES.clear();
+    RecordingJob.DATA.clear();
+    this.loader = new JdbcScheduleDefinitionLoader(dbOperator);
+    this.jobFactory = mock(SchedulerJobFactory.class);
+    when(this.jobFactory.newJob(any(), any())).thenAnswer(invocation -> new RecordingJob());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    this.schedulers.forEach(TimingWheelScheduler::shutdown);
+    dbOperator.update("DELETE FROM job_schedules");
+  }
+
+  @Test
+  public void testFiresOnCronAndRecordsLastFire() throws Exception {
+    final TimingWheelScheduler scheduler = createScheduler(0, 1, MisfirePolicy.FIRE_ONCE_NOW);
+    assertThat(scheduler.scheduleJobIfAbsent(EVERY_MINUTE,
+        createJobDescription("1.flow", ImmutableMap.of("KEY", "value")))).isTrue();
+
+    final long first = nextFireTime(START);
+    this.now.set(first - 1);
+    scheduler.tick();
+    assertThat(RecordingJob.FIRES).isEmpty();
+
+    this.now.set(first);
+    scheduler.tick();
+    assertThat(RecordingJob.FIRES).containsExactly(first);
+    assertThat(RecordingJob.DATA).containsExactly("value");
+    assertThat(this.loader.get("SampleJob", "1.flow").getLastFireTime()).isEqualTo(first);
+
+    final long second = nextFireTime(first);
+    this.now.set(second);
+    scheduler.tick();
+    assertThat(RecordingJob.FIRES).containsExactly(first, second);
+
+    final List<ScheduledJob> jobs = scheduler.getScheduledJobs("SampleJob");
+    assertThat(jobs).hasSize(1);
+    assertThat(jobs.get(0).getNextFireTime().getTime()).isEqualTo(nextFireTime(second));
+    assertThat(jobs.get(0).getJobData()).containsEntry("KEY", "value");
+  }
+
+  @Test
+  public void testUnshardedServersRunEachFireOnce() throws Exception {
+    final TimingWheelScheduler server1 = createScheduler(0, 1, MisfirePolicy.FIRE_ONCE_NOW);
+    final TimingWheelScheduler server2 = createScheduler(0, 1, MisfirePolicy.FIRE_ONCE_NOW);
+    assertThat(server1.scheduleJobIfAbsent(EVERY_MINUTE, createJobDescription("1.flow")))
+        .isTrue();
+    server2.load();
+
+    final long first = nextFireTime(START);
+    this.now.set(first);
+    server1.tick();
+    server2.tick();
+    assertThat(RecordingJob.FIRES).containsExactly(first);
+
+    final long second = nextFireTime(first);
+    this.now.set(second);
+    server2.tick();
+    server1.tick();
+    assertThat(RecordingJob.FIRES).containsExactly(first, second);
+  }
+
+  @Test
+  public void testSchedulingDuplicateJob() throws Exception {
+    final TimingWheelScheduler scheduler = createScheduler(0, 1, MisfirePolicy.FIRE_ONCE_NOW);
+    assertThat(scheduler.scheduleJobIfAbsent(EVERY_MINUTE, createJobDescription("1.flow")))
+        .isTrue();
+    assertThat(scheduler.scheduleJobIfAbsent("0 5 * * * ?", createJobDescription("1.flow")))
+        .isFalse();
+  }
+
+  @Test
+  public void testInvalidCron() {
+    final TimingWheelScheduler scheduler = createScheduler(0, 1, MisfirePolicy.FIRE_ONCE_NOW);
+    assertThatThrownBy(
+        () -> scheduler.scheduleJobIfAbsent("0 5 * * * *", createJobDescription("1.flow")))
+        .isInstanceOf(SchedulerException.class)
+        .hasMessageContaining("The cron expression string");
+  }
+
+  @Test
+  public void testPauseResumeAndUnschedule() throws Exception {
+    final TimingWheelScheduler scheduler = createScheduler(0, 1, MisfirePolicy.FIRE_ONCE_NOW);
+    assertThat(scheduler.pauseJobIfPresent("SampleJob", "1.flow")).isFalse();
+    scheduler.scheduleJobIfAbsent(EVERY_MINUTE, createJobDescription("1.flow"));
+    assertThat(scheduler.getArmedCount()).isEqualTo(1);
+
+    assertThat(scheduler.pauseJobIfPresent("SampleJob", "1.flow")).isTrue();
+    assertThat(scheduler.isJobPaused("SampleJob", "1.flow")).isTrue();
+    assertThat(scheduler.getArmedCount()).isEqualTo(0);
+    this.now.set(nextFireTime(START));
+    scheduler.tick();
+    assertThat(RecordingJob.FIRES).isEmpty();
+
+    assertThat(scheduler.resumeJobIfPresent("SampleJob", "1.flow")).isTrue();
+    assertThat(scheduler.isJobPaused("SampleJob", "1.flow")).isFalse();
+    // the firing armed before the pause was replaced, not left on the wheel
+    assertThat(scheduler.resumeJobIfPresent("SampleJob", "1.flow")).isTrue();
+    assertThat(scheduler.getArmedCount()).isEqualTo(1);
+    assertThat(scheduler.unscheduleJob("SampleJob", "1.flow")).isTrue();
+    assertThat(scheduler.getArmedCount()).isEqualTo(0);
+    this.now.addAndGet(60_000);
+    scheduler.tick();
+    assertThat(RecordingJob.FIRES).isEmpty();
+    assertThat(scheduler.unscheduleJob("SampleJob", "1.flow")).isFalse();
+    assertThatThrownBy(() -> scheduler.isJobPaused("SampleJob", "1.flow"))
+        .isInstanceOf(SchedulerException.class);
+  }
+
+  @Test
+  public void testMisfireFiresOnceNow() throws Exception {
+    insertMissedSchedule();
+    final TimingWheelScheduler scheduler = createScheduler(0, 1, MisfirePolicy.FIRE_ONCE_NOW);
+    scheduler.load();
+
+    this.now.addAndGet(1000);
+    scheduler.tick();
+    assertThat(RecordingJob.FIRES).containsExactly(START);
+    this.now.addAndGet(1000);
+    scheduler.tick();
+    assertThat(RecordingJob.FIRES).containsExactly(START);
+
+    this.now.set(nextFireTime(START));
+    scheduler.tick();
+    assertThat(RecordingJob.FIRES).containsExactly(START, nextFireTime(START));
+  }
+
+  @Test
+  public void testMisfireDoNothing() throws Exception {
+    insertMissedSchedule();
+    final TimingWheelScheduler scheduler = createScheduler(0, 1, MisfirePolicy.DO_NOTHING);
+    scheduler.load();
+
+    this.now.addAndGet(1000);
+    scheduler.tick();
+    assertThat(RecordingJob.FIRES).isEmpty();
+
+    this.now.set(nextFireTime(START));
+    scheduler.tick();
+    assertThat(RecordingJob.FIRES).containsExactly(nextFireTime(START));
+  }
+
+  @Test
+  public void testMisfireIgnoreMisfires() throws Exception {
+    insertMissedSchedule();
+    final TimingWheelScheduler scheduler = createScheduler(0, 1, MisfirePolicy.IGNORE_MISFIRES);
+    scheduler.load();
+
+    // One missed fire per tick until caught up.
+    for (int i = 0; i < 20; i++) {
+      this.now.addAndGet(1000);
+      scheduler.tick();
+    }
+    assertThat(RecordingJob.FIRES).hasSize(10);
+  }
+
+  @Test
+  public void testShardsSplitSchedules() throws Exception {
+    final TimingWheelScheduler shard0 = createScheduler(0, 2, MisfirePolicy.FIRE_ONCE_NOW);
+    final TimingWheelScheduler shard1 = createScheduler(1, 2, MisfirePolicy.FIRE_ONCE_NOW);
+    for (int i = 0; i < 20; i++) {
+      shard0.scheduleJobIfAbsent(EVERY_MINUTE, createJobDescription(i + ".flow"));
+    }
+    shard1.refresh();
+    assertThat(shard0.getScheduledJobs("SampleJob")).hasSize(20);
+    assertThat(shard1.getScheduledJobs("SampleJob")).hasSize(20);
+    assertThat(shard0.getArmedCount() + shard1.getArmedCount()).isEqualTo(20);
+
+    this.now.set(nextFireTime(START));
+    shard0.tick();
+    shard1.tick();
+    assertThat(RecordingJob.FIRES).hasSize(20);
+
+    // Changes made on one server reach the other on refresh.
+    final String ownedByShard1 = ownedGroup(shard1, 20);
+    shard0.pauseJobIfPresent("SampleJob", ownedByShard1);
+    this.now.addAndGet(1000);
+    shard1.refresh();
+    assertThat(shard1.isJobPaused("SampleJob", ownedByShard1)).isTrue();
+    shard0.unscheduleJob("SampleJob", "0.flow");
+    shard1.refresh();
+    assertThat(shard1.getScheduledJobs("SampleJob")).hasSize(19);
+  }
+
+  @Test
+  public void testImportQuartzSchedules() throws Exception {
+    final Properties quartzProps = new Properties();
+    quartzProps.put("org.quartz.scheduler.instanceName", "TimingWheelImportTest");
+    quartzProps.put("org.quartz.jobStore.class", "org.quartz.simpl.RAMJobStore");
+    quartzProps.put("org.quartz.threadPool.threadCount", "1");
+    final Scheduler quartz = new StdSchedulerFactory(quartzProps).getScheduler();
+    try {
+      for (final String group : new String[]{"1.flow", "2.flow"}) {
+        quartz.scheduleJob(JobBuilder.newJob(RecordingJob.class).withIdentity("SampleJob", group)
+                .usingJobData("KEY", group).build(),
+            TriggerBuilder.newTrigger().startAt(new Date(START))
+                .withSchedule(CronScheduleBuilder.cronSchedule(EVERY_MINUTE)).build());
+      }
+      quartz.pauseJob(new JobKey("SampleJob", "2.flow"));
+
+      final TimingWheelScheduler scheduler = createScheduler(0, 1, MisfirePolicy.FIRE_ONCE_NOW);
+      assertThat(scheduler.importQuartzSchedules(quartz)).isEqualTo(2);
+      // Running the import again, e.g. from another server, imports nothing twice.
+      assertThat(scheduler.importQuartzSchedules(quartz)).isEqualTo(0);
+      scheduler.load();
+
+      assertThat(scheduler.getScheduledJobs("SampleJob")).hasSize(2);
+      assertThat(scheduler.isJobPaused("SampleJob", "1.flow")).isFalse();
+      assertThat(scheduler.isJobPaused("SampleJob", "2.flow")).isTrue();
+      assertThat(scheduler.getArmedCount()).isEqualTo(1);
+
+      this.now.set(nextFireTime(START));
+      scheduler.tick();
+      assertThat(RecordingJob.DATA).containsExactly("1.flow");
+    } finally {
+      quartz.shutdown(false);
+    }
+  }
+
+  private TimingWheelScheduler createScheduler(final int shardIndex, final int shardCount,
+      final MisfirePolicy misfirePolicy) {
+    final Props props = new Props();
+    props.put(ConfigurationKeys.TIMING_WHEEL_TICK_MS, 1000);
+    props.put(ConfigurationKeys.TIMING_WHEEL_SIZE, 64);
+    props.put(ConfigurationKeys.TIMING_WHEEL_SHARD_INDEX, shardIndex);
+    props.put(ConfigurationKeys.TIMING_WHEEL_SHARD_COUNT, shardCount);
+    props.put(ConfigurationKeys.TIMING_WHEEL_MISFIRE_POLICY, misfirePolicy.name());
+    final TimingWheelScheduler scheduler = new TimingWheelScheduler(props, this.loader,
+        this.jobFactory, MoreExecutors.newDirectExecutorService(), this.now::get);
+    this.schedulers.add(scheduler);
+    return scheduler;
+  }
+
+  /**
+   * An every-minute schedule that last fired at 23:50, ten missed fires before {@link #START}.
+   */
+  private void insertMissedSchedule() throws Exception {
+    final long lastFire = nextFireTime(START - 11 * 60_000);
+    this.loader.insertIfAbsent(new ScheduleDefinition("SampleJob", "1.flow",
+        RecordingJob.class.getName(), EVERY_MINUTE, ImmutableMap.of(), false, lastFire,
+        lastFire, lastFire));
+  }
+
+  private static String ownedGroup(final TimingWheelScheduler scheduler, final int count) {
+    for (int i = 0; i < count; i++) {
+      if (scheduler.owns(ScheduleDefinition.scheduleId("SampleJob", i + ".flow"))) {
+        return i + ".flow";
+      }
+    }
+    throw new AssertionError("shard owns no schedule");
+  }
+
+  private static long nextFireTime(final long after) throws Exception {
+    return new CronExpression(EVERY_MINUTE).getNextValidTimeAfter(new Date(after)).getTime();
+  }
+
+  private static QuartzJobDescription createJobDescription(final String groupName) {
+    return createJobDescription(groupName, ImmutableMap.of());
+  }
+
+  private static QuartzJobDescription createJobDescription(final String groupName,
+      final ImmutableMap<String, String> contextMap) {
+    return new QuartzJobDescription<>(RecordingJob.class, "SampleJob", groupName, contextMap);
+  }
+
+  public static class RecordingJob extends AbstractQuartzJob {
+
+    static final List<Long> FIRES = new CopyOnWriteArrayList<>();
+    static final List<Object> DATA = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void execute(final JobExecutionContext context) {
+      FIRES.add(context.getScheduledFireTime().getTime());
+      if (context.getMergedJobDataMap().containsKey("KEY")) {
+        DATA.add(context.getMergedJobDataMap().get("KEY"));
+      }
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class TimingWheelTest {
+
+  @Test
+  public void testExpiresAtDeadline() {
+    final TimingWheel<String> wheel = new TimingWheel<>(100, 8, 0);
+    wheel.add("a", 250);
+    wheel.add("b", 300);
+    wheel.add("c", 1000);
+    assertThat(wheel.size()).isEqualTo(3);
+
+    // Deadlines are rounded up to the next tick, so nothing fires early.
+    assertThat(wheel.advance(200)).isEmpty();
+    assertThat(wheel.advance(299)).isEmpty();
+    assertThat(wheel.advance(300)).containsExactlyInAnyOrder("a", "b");
+    assertThat(wheel.advance(999)).isEmpty();
+    assertThat(wheel.advance(1000)).containsExactly("c");
+    assertThat(wheel.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void testDeadlinesBeyondOneRotation() {
+    final TimingWheel<String> wheel = new TimingWheel<>(100, 4, 0);
+    // Same bucket as tick 2, three rotations later.
+    wheel.add("late", 1400);
+    wheel.add("early", 200);
+    assertThat(wheel.advance(200)).containsExactly("early");
+    assertThat(wheel.advance(1300)).isEmpty();
+    assertThat(wheel.advance(1400)).containsExactly("late");
+  }
+
+  @Test
+  public void testPastDeadlinesExpireOnNextAdvance() {
+    final TimingWheel<String> wheel = new TimingWheel<>(100, 4, 1000);
+    wheel.add("past", 500);
+    assertThat(wheel.advance(1000)).isEmpty();
+    assertThat(wheel.advance(1100)).containsExactly("past");
+  }
+
+  @Test
+  public void testCatchesUpAfterLongPause() {
+    final TimingWheel<String> wheel = new TimingWheel<>(100, 4, 0);
+    wheel.add("a", 100);
+    wheel.add("b", 700);
+    wheel.add("c", 5000);
+    assertThat(wheel.advance(100_000)).containsExactlyInAnyOrder("a", "b", "c");
+  }
+
+  @Test
+  public void testRemove() {
+    final TimingWheel<String> wheel = new TimingWheel<>(100, 4, 0);
+    final TimingWheel.Entry<String> a = wheel.add("a", 200);
+    wheel.add("b", 200);
+    assertThat(wheel.remove(a)).isTrue();
+    assertThat(wheel.size()).isEqualTo(1);
+    assertThat(wheel.remove(a)).isFalse();
+    assertThat(wheel.advance(200)).containsExactly("b");
+    assertThat(wheel.size()).isEqualTo(0);
+  }
+}
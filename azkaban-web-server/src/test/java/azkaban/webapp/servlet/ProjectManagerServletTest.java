@@ -33,6 +33,7 @@ import azkaban.scheduler.ScheduleManager;
 import azkaban.server.session.Session;
 import azkaban.test.executions.ExecutionsTestUtil;
 import azkaban.user.User;
+import azkaban.utils.Pair;
 import azkaban.utils.Props;
 import azkaban.webapp.AzkabanWebServer;
 import azkaban.webapp.CSRFTokenUtility;
@@ -136,6 +137,27 @@ public class ProjectManagerServletTest {
         .validateCSRFToken(Mockito.any());
   }
 
+  @Test
+  public void testParseRange() {
+    Assert.assertEquals(new Pair<>(0L, 499L), ProjectManagerServlet.parseRange("bytes=0-499", 1000));
+    Assert.assertEquals(new Pair<>(500L, 999L), ProjectManagerServlet.parseRange("bytes=500-", 1000));
+    Assert.assertEquals(new Pair<>(900L, 999L), ProjectManagerServlet.parseRange("bytes=-100", 1000));
+    Assert.assertEquals(new Pair<>(900L, 999L), ProjectManagerServlet.parseRange("bytes=900-5000", 1000));
+    Assert.assertNull(ProjectManagerServlet.parseRange("bytes=1000-", 1000));
+    Assert.assertNull(ProjectManagerServlet.parseRange("bytes=5-1", 1000));
+    Assert.assertNull(ProjectManagerServlet.parseRange("bytes=a-b", 1000));
+  }
+
+  @Test
+  public void testEtagMatches() {
+    final String etag = "\"0123abcd\"";
+    Assert.assertTrue(ProjectManagerServlet.etagMatches(etag, etag));
+    Assert.assertTrue(ProjectManagerServlet.etagMatches("\"other\", W/" + etag, etag));
+    Assert.assertTrue(ProjectManagerServlet.etagMatches("*", etag));
+    Assert.assertFalse(ProjectManagerServlet.etagMatches("\"other\"", etag));
+    Assert.assertFalse(ProjectManagerServlet.etagMatches(null, etag));
+  }
+
   private ProjectManagerServlet getSpyProjectManagerServlet() throws IOException {
     initServiceProvider();
 
@@ -27,6 +27,7 @@ var initJobHistoryPage = function (settings) {
     pageSize: settings.pageSize,
     visiblePages: settings.visiblePages,
     recordCount: settings.recordCount,
+    nextCursor: settings.nextCursor,
     dataSeries: settings.dataSeries,
     projectName: settings.projectName,
     jobId: settings.jobId,
@@ -55,6 +56,10 @@ var initJobHistoryPage = function (settings) {
           "page": page,
           "size": dataModel.get("pageSize")
         };
+        // the next page is fetched from the last job run of this page
+        if (page == dataModel.get("page") + 1 && dataModel.get("nextCursor")) {
+          qparams["after"] = dataModel.get("nextCursor");
+        }
         window.location.href = dataModel.get("fetchJobHistoryUrl") + "?history&"
             + $.param(qparams);
       }
@@ -33,10 +33,13 @@ var typeMapping = {
   "PROPERTY_OVERRIDE": "Property Override"
 };
 
+var logPageSize = 200;
+
 var projectLogView;
 azkaban.ProjectLogView = Backbone.View.extend({
   events: {
-    "click #updateLogBtn": "handleUpdate"
+    "click #updateLogBtn": "handleUpdate",
+    "click #moreLogBtn": "handleMore"
   },
 
   initialize: function (settings) {
@@ -45,15 +48,27 @@ azkaban.ProjectLogView = Backbone.View.extend({
   },
 
   handleUpdate: function (evt) {
-    var current = this.model.get("current");
+    this.fetchLogs({"skip": 0}, false);
+  },
+
+  // The next events are fetched from the time and id of the last event shown,
+  // rather than by skipping all the events shown.
+  handleMore: function (evt) {
+    var log = this.model.get("log");
+    if (!log || log.nextTime === undefined) {
+      return;
+    }
+    this.fetchLogs({"time": log.nextTime, "id": log.nextId}, true);
+  },
+
+  fetchLogs: function (position, append) {
     var requestURL = contextURL + "/manager";
     var model = this.model;
-    var requestData = {
+    var requestData = $.extend({
       "project": projectName,
       "ajax": "fetchProjectLogs",
-      "size": 1000,
-      "skip": 0
-    };
+      "size": logPageSize
+    }, position);
 
     var successHandler = function (data) {
       console.log("fetchLogs");
@@ -68,8 +83,11 @@ azkaban.ProjectLogView = Backbone.View.extend({
         columnMap[columns[i]] = i;
       }
       var logSection = $("#logTable").find("tbody")[0];
-      $(logSection).empty();
+      if (!append) {
+        $(logSection).empty();
+      }
       var logData = data.logData;
+      $("#moreLogBtn").toggle(logData.length == logPageSize);
       for (var i = 0; i < logData.length; ++i) {
         var event = logData[i];
         var user = event[columnMap['user']];
@@ -18,14 +18,20 @@
 
 package azkaban.cachedhttpfilesystem;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLConnection;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.commons.io.IOUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
@@ -77,7 +83,11 @@ import static java.util.Objects.*;
  *
  * NOTE: To avoid race conditions where multiple processes attempt to persist a file to cache simultaneously, we first
  * write to a temporary file, and then rename the temporary file to the final file name when persisting a file to the
- * cache.
+ * cache. Within a process, concurrent cache misses on the same file share a single download from the origin.
+ *
+ * If LOCAL_CACHE_DIR is set, files are also kept in a local directory in front of the cache FileSystem, bounded to
+ * LOCAL_CACHE_MAX_BYTES by evicting the least recently read files, so that a host reading the same file again reads
+ * it from its local disk.
  *
  * FOLDER STRUCTURE ON CACHE EXAMPLE:
  * CachedHttpFileSystem was initialized with URI: chttp://www.example.com/jars/
@@ -93,6 +103,10 @@ public class CachedHttpFileSystem extends FileSystem {
   // pull directly from the origin. CACHE_ROOT_URI is not used when caching is disabled.
   public static final String CACHE_ROOT_URI = "cachedhttpfilesystem.cache_root_uri";
   public static final String CACHE_ENABLED_FLAG = "cachedhttpfilesystem.caching_enabled";
+  // Optional local directory caching files in front of the cache FileSystem, and its maximum size in bytes.
+  public static final String LOCAL_CACHE_DIR = "cachedhttpfilesystem.local_cache_dir";
+  public static final String LOCAL_CACHE_MAX_BYTES = "cachedhttpfilesystem.local_cache_max_bytes";
+  private static final long DEFAULT_LOCAL_CACHE_MAX_BYTES = 10L * 1024 * 1024 * 1024;
 
   private static final long DEFAULT_BLOCK_SIZE = 4096;
   private static final Path WORKING_DIR = new Path("/");
@@ -102,11 +116,21 @@ public class CachedHttpFileSystem extends FileSystem {
 
   private static final Logger log = Logger.getLogger(CachedHttpFileSystem.class);
 
+  // Downloads in progress in this process, shared by all the instances, keyed by the file they populate.
+  private static final ConcurrentHashMap<String, CompletableFuture<Boolean>> IN_FLIGHT = new ConcurrentHashMap<>();
+
   private boolean cachingEnabled;
   private URI uri;
   private FileSystem cacheFS;
   private URI rootCachedURI;
   private URI rootOriginURI;
+  private LocalDiskCache localCache;
+  private FileSystem localFS;
+
+  private final AtomicLong cacheHits = new AtomicLong();
+  private final AtomicLong cacheMisses = new AtomicLong();
+  private final AtomicLong localCacheHits = new AtomicLong();
+  private final AtomicLong bytesDownloaded = new AtomicLong();
 
   @Override
   public void initialize(final URI name, final Configuration conf) throws IOException {
@@ -129,9 +153,44 @@ public class CachedHttpFileSystem extends FileSystem {
 
       this.rootCachedURI = URI.create(addTrailingForwardSlash(cacheRootUri));
       this.cacheFS = FileSystem.get(rootCachedURI, conf);
+
+      final String localCacheDir = conf.get(LOCAL_CACHE_DIR);
+      if (localCacheDir != null) {
+        this.localCache = LocalDiskCache.forDirectory(new File(localCacheDir),
+            conf.getLong(LOCAL_CACHE_MAX_BYTES, DEFAULT_LOCAL_CACHE_MAX_BYTES));
+        this.localFS = FileSystem.getLocal(conf).getRawFileSystem();
+      }
     }
   }
 
+  /**
+   * @return the number of files read from the cache FileSystem
+   */
+  public long getCacheHits() {
+    return this.cacheHits.get();
+  }
+
+  /**
+   * @return the number of files not found in the cache FileSystem
+   */
+  public long getCacheMisses() {
+    return this.cacheMisses.get();
+  }
+
+  /**
+   * @return the number of files read from the local cache directory
+   */
+  public long getLocalCacheHits() {
+    return this.localCacheHits.get();
+  }
+
+  /**
+   * @return the number of bytes downloaded from the origin into the cache
+   */
+  public long getBytesDownloaded() {
+    return this.bytesDownloaded.get();
+  }
+
   // If the base URIs don't have a trailing forward slash the resolving and relativization can get messed up.
   private static String addTrailingForwardSlash(final String in) {
     return in.endsWith("/") ? in : in + "/";
@@ -161,50 +220,146 @@ public class CachedHttpFileSystem extends FileSystem {
       return downloadFromOrigin(resolvedOriginURI);
     }
 
-    Path resolvedCachePath = new Path(this.rootCachedURI.resolve(relativeURI));
+    final Path resolvedCachePath = new Path(this.rootCachedURI.resolve(relativeURI));
+    if (this.localCache == null) {
+      return openFromCache(resolvedCachePath, resolvedOriginURI, bufferSize);
+    }
+
+    final String relativePath = relativeURI.getPath();
+    final File localFile = this.localCache.get(relativePath);
+    if (localFile != null) {
+      this.localCacheHits.incrementAndGet();
+      this.log.info("LOCAL CACHE HIT: " + localFile);
+      return this.localFS.open(new Path(localFile.toURI()), bufferSize);
+    }
+    final boolean localized = singleFlight(new File(this.localCache.getRootDir(), relativePath).getPath(), () -> {
+      try (InputStream in = openFromCache(resolvedCachePath, resolvedOriginURI, bufferSize)) {
+        try {
+          return this.localCache.put(relativePath, in) != null;
+        } catch (IOException e) {
+          // e.g. a full local disk, the readers read from the cache FileSystem instead
+          this.log.warn("Failed to cache " + relativePath + " locally, returning stream from cache", e);
+          return false;
+        }
+      }
+    });
+    final File localizedFile = localized ? this.localCache.get(relativePath) : null;
+    if (localizedFile != null) {
+      return this.localFS.open(new Path(localizedFile.toURI()), bufferSize);
+    }
+    return openFromCache(resolvedCachePath, resolvedOriginURI, bufferSize);
+  }
+
+  private FSDataInputStream openFromCache(final Path resolvedCachePath, final URI resolvedOriginURI,
+      final int bufferSize) throws IOException {
     try {
       // Try to pull from cache
-      FSDataInputStream cachedInputStream =  this.cacheFS.open(resolvedCachePath, bufferSize);
+      FSDataInputStream cachedInputStream = this.cacheFS.open(resolvedCachePath, bufferSize);
+      this.cacheHits.incrementAndGet();
       this.log.info("CACHE HIT: " + resolvedCachePath.toString());
       return cachedInputStream;
     } catch (FileNotFoundException e) {
+      this.cacheMisses.incrementAndGet();
       this.log.info("CACHE MISS: " + resolvedCachePath.toString());
-      // Cache miss, let's download from the origin
-      FSDataInputStream originInputStream = downloadFromOrigin(resolvedOriginURI);
+    }
 
-      // Let's persist to the cache
-      Path folderInCacheForFile = resolvedCachePath.getParent();
-      Path tempCacheFile = new Path(folderInCacheForFile, String.format(CACHE_TMP_FILE_TEMPLATE, RAND.nextInt()));
-      FSDataOutputStream outStreamToTmpFile;
+    // Cache miss, let's download from the origin, once for all the concurrent readers of the file
+    final boolean persisted = singleFlight(resolvedCachePath.toString(),
+        () -> persistToCache(resolvedCachePath, resolvedOriginURI));
+    if (persisted) {
       try {
-        this.cacheFS.mkdirs(folderInCacheForFile);
-        outStreamToTmpFile = this.cacheFS.create(tempCacheFile, false);
-      } catch (IOException e2) {
-        // We failed to create the output stream, so just return the stream from the origin
-        this.log.warn("Failed to persist file to cache, returning stream from origin: " +
-            resolvedOriginURI.toString(), e2);
-        return originInputStream;
+        // Return input stream from cache
+        return this.cacheFS.open(resolvedCachePath, bufferSize);
+      } catch (FileNotFoundException e) {
+        this.log.warn("File persisted to cache is gone, returning stream from origin: " + resolvedCachePath, e);
       }
+    }
+    return downloadFromOrigin(resolvedOriginURI);
+  }
 
-      // Copy from origin to tmp file in cache
-      IOUtils.copy(originInputStream, outStreamToTmpFile);
-      originInputStream.close();
-      outStreamToTmpFile.close();
+  /**
+   * Download the file from the origin into the cache.
+   *
+   * @return false if the file could not be persisted to the cache, and should be read from the origin instead
+   */
+  private boolean persistToCache(final Path resolvedCachePath, final URI resolvedOriginURI) throws IOException {
+    Path folderInCacheForFile = resolvedCachePath.getParent();
+    Path tempCacheFile = new Path(folderInCacheForFile, String.format(CACHE_TMP_FILE_TEMPLATE, RAND.nextInt()));
+    FSDataOutputStream outStreamToTmpFile;
+    try {
+      this.cacheFS.mkdirs(folderInCacheForFile);
+      outStreamToTmpFile = this.cacheFS.create(tempCacheFile, false);
+    } catch (IOException e2) {
+      // We failed to create the output stream, so the readers will read from the origin
+      this.log.warn("Failed to persist file to cache, returning stream from origin: " +
+          resolvedOriginURI.toString(), e2);
+      return false;
+    }
 
-      try {
-        // Rename the temporary file to the final file name
-        this.cacheFS.rename(tempCacheFile, resolvedCachePath);
-      } catch (FileAlreadyExistsException e2) {
-        this.log.info("Another process already persisted this file: " + resolvedCachePath.toString());
-        // Another process beat us to the race - no problem though, that means the file already exists so we
-        // can just swallow this error and return the stream like usual!
+    // Copy from origin to tmp file in cache
+    try (InputStream originInputStream = downloadFromOrigin(resolvedOriginURI);
+        FSDataOutputStream out = outStreamToTmpFile) {
+      this.bytesDownloaded.addAndGet(IOUtils.copyLarge(originInputStream, out));
+    } catch (IOException e2) {
+      deleteQuietly(tempCacheFile);
+      throw e2;
+    }
+
+    try {
+      // Rename the temporary file to the final file name
+      if (!this.cacheFS.rename(tempCacheFile, resolvedCachePath)) {
+        deleteQuietly(tempCacheFile);
       }
+    } catch (FileAlreadyExistsException e2) {
+      this.log.info("Another process already persisted this file: " + resolvedCachePath.toString());
+      // Another process beat us to the race - no problem though, that means the file already exists so we
+      // can just swallow this error and return the stream like usual!
+      deleteQuietly(tempCacheFile);
+    }
+    return true;
+  }
 
-      // Return input stream from cache
-      return this.cacheFS.open(resolvedCachePath, bufferSize);
+  private void deleteQuietly(final Path path) {
+    try {
+      this.cacheFS.delete(path, false);
+    } catch (IOException e) {
+      this.log.warn("Failed to delete temporary cache file " + path, e);
+    }
+  }
+
+  /**
+   * Run the action once for the concurrent callers with the same key: the first caller runs it and the others wait
+   * for its result, or its failure.
+   */
+  private static boolean singleFlight(final String key, final IOAction action) throws IOException {
+    final CompletableFuture<Boolean> flight = new CompletableFuture<>();
+    final CompletableFuture<Boolean> existing = IN_FLIGHT.putIfAbsent(key, flight);
+    if (existing != null) {
+      try {
+        return existing.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for the download of " + key);
+      } catch (ExecutionException e) {
+        throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+      }
+    }
+    try {
+      final boolean result = action.run();
+      flight.complete(result);
+      return result;
+    } catch (IOException | RuntimeException e) {
+      flight.completeExceptionally(e);
+      throw e;
+    } finally {
+      IN_FLIGHT.remove(key, flight);
     }
   }
 
+  private interface IOAction {
+    boolean run() throws IOException;
+  }
+
   @Override
   public FSDataOutputStream create(final Path path, final FsPermission fsPermission,
       final boolean b, final int i, final short i1, final long l,
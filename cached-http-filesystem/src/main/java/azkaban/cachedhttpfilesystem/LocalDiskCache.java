@@ -0,0 +1,183 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package azkaban.cachedhttpfilesystem;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+
+
+/**
+ * Bounded least recently used cache of files on the local disk, used by CachedHttpFileSystem in
+ * front of its cache FileSystem so that files read again on the same host are not read from the
+ * (usually remote) cache FileSystem again.
+ *
+ * Files are written to a temporary file first and then renamed, so that readers never see a
+ * partially written file. Reading a file updates its modification time, which is what eviction
+ * orders files by once the total size exceeds the maximum.
+ *
+ * Hadoop creates a FileSystem per user, so the instances of a directory are shared through
+ * {@link #forDirectory(File, long)} to keep a single count of the bytes used in the directory.
+ */
+class LocalDiskCache {
+  private static final Logger log = Logger.getLogger(LocalDiskCache.class);
+
+  // Caches of this process, keyed by the canonical path of their directory
+  private static final ConcurrentHashMap<String, LocalDiskCache> CACHES = new ConcurrentHashMap<>();
+
+  private final File rootDir;
+  private final String canonicalRoot;
+  private final long maxBytes;
+  private long usedBytes;
+
+  LocalDiskCache(final File rootDir, final long maxBytes) throws IOException {
+    if (!rootDir.isDirectory() && !rootDir.mkdirs()) {
+      throw new IOException("Cannot create local cache directory " + rootDir);
+    }
+    this.rootDir = rootDir;
+    this.canonicalRoot = rootDir.getCanonicalPath() + File.separator;
+    this.maxBytes = maxBytes;
+    this.usedBytes = FileUtils.sizeOfDirectory(rootDir);
+  }
+
+  /**
+   * @return the cache of the directory in this process, the maximum size of the first cache of the
+   * directory applies
+   */
+  static LocalDiskCache forDirectory(final File rootDir, final long maxBytes) throws IOException {
+    final String key = rootDir.getCanonicalPath();
+    final LocalDiskCache cache;
+    try {
+      cache = CACHES.computeIfAbsent(key, k -> {
+        try {
+          return new LocalDiskCache(rootDir, maxBytes);
+        } catch (final IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+    if (cache.maxBytes != maxBytes) {
+      log.warn("Local cache " + key + " is already used with a maximum size of " + cache.maxBytes
+          + " bytes, ignoring the maximum size of " + maxBytes);
+    }
+    return cache;
+  }
+
+  /**
+   * @return the cached file, or null if it isn't cached
+   */
+  File get(final String relativePath) throws IOException {
+    final File file = resolve(relativePath);
+    if (file == null || !file.isFile()) {
+      return null;
+    }
+    file.setLastModified(System.currentTimeMillis());
+    return file;
+  }
+
+  /**
+   * Cache the content of the stream.
+   *
+   * @return the cached file, or null if it is larger than the cache
+   */
+  File put(final String relativePath, final InputStream in) throws IOException {
+    final File file = resolve(relativePath);
+    if (file == null) {
+      return null;
+    }
+    final File folder = file.getParentFile();
+    if (!folder.isDirectory() && !folder.mkdirs()) {
+      throw new IOException("Cannot create local cache directory " + folder);
+    }
+    final File tmp = File.createTempFile("tmp", ".tmp", folder);
+    final long size;
+    try {
+      try (OutputStream out = new FileOutputStream(tmp)) {
+        size = IOUtils.copyLarge(in, out);
+      }
+      if (size > this.maxBytes) {
+        log.info("Not caching " + relativePath + " locally, its size " + size
+            + " exceeds the local cache size " + this.maxBytes);
+        return null;
+      }
+      synchronized (this) {
+        final long replacedSize = file.isFile() ? file.length() : 0;
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+        this.usedBytes += size - replacedSize;
+        evict(file);
+      }
+      return file;
+    } finally {
+      tmp.delete();
+    }
+  }
+
+  File getRootDir() {
+    return this.rootDir;
+  }
+
+  synchronized long getUsedBytes() {
+    return this.usedBytes;
+  }
+
+  private void evict(final File keep) {
+    if (this.usedBytes <= this.maxBytes) {
+      return;
+    }
+    final List<File> files = new ArrayList<>(FileUtils.listFiles(this.rootDir, null, true));
+    files.sort(Comparator.comparingLong(File::lastModified));
+    for (final File file : files) {
+      if (this.usedBytes <= this.maxBytes) {
+        break;
+      }
+      // temporary files are being written by other readers
+      if (file.equals(keep) || file.getName().endsWith(".tmp")) {
+        continue;
+      }
+      final long size = file.length();
+      if (file.delete()) {
+        this.usedBytes -= size;
+        log.info("Evicted " + file + " from the local cache");
+      }
+    }
+  }
+
+  private File resolve(final String relativePath) throws IOException {
+    final File file = new File(this.rootDir, relativePath);
+    // the path comes from the URI being opened, don't write outside of the cache directory
+    if (!file.getCanonicalPath().startsWith(this.canonicalRoot)) {
+      log.warn("Not caching " + relativePath + " locally, it is outside of " + this.rootDir);
+      return null;
+    }
+    return file;
+  }
+}
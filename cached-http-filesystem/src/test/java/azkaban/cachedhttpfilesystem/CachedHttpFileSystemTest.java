@@ -17,11 +17,23 @@
 
 package azkaban.cachedhttpfilesystem;
 
+import com.sun.net.httpserver.HttpServer;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.hadoop.conf.Configuration;
@@ -80,6 +92,11 @@ public class CachedHttpFileSystemTest {
 
     this.cacheFS = mock(FileSystem.class);
 
+    this.cachedHttpFileSystem = spy((CachedHttpFileSystem) FileSystem.get(chttpRootURI, createCachingConf()));
+    configureMockResponseFromHttpOrigin(this.cachedHttpFileSystem, this.originAbsoluteJarURI);
+  }
+
+  private Configuration createCachingConf() {
     Configuration conf = new Configuration(false);
     // Stop FileSystem.get() from returning cached instances of CachedHttpFileSystem, it messes with our tests.
     // we need to create a new object each time.
@@ -87,9 +104,7 @@ public class CachedHttpFileSystemTest {
     conf.set("fs.chttp.impl", azkaban.cachedhttpfilesystem.CachedHttpFileSystem.class.getName());
     conf.set("fs.file.impl", org.apache.hadoop.fs.LocalFileSystem.class.getName());
     conf.set(CachedHttpFileSystem.CACHE_ROOT_URI, this.cacheRootURI.toString());
-
-    this.cachedHttpFileSystem = spy((CachedHttpFileSystem) FileSystem.get(chttpRootURI, conf));
-    configureMockResponseFromHttpOrigin(this.cachedHttpFileSystem, this.originAbsoluteJarURI);
+    return conf;
   }
 
   private static void configureMockResponseFromHttpOrigin(CachedHttpFileSystem fs, URI originAbsoluteJarURI)
@@ -196,4 +211,124 @@ public class CachedHttpFileSystemTest {
     // This should be a cache miss BUT should still succeed (the error renaming the file should be swallowed)
     assertInputStreamIsJarContent(this.cachedHttpFileSystem.open(new Path(this.chttpAbsoluteJarURI)));
   }
+
+  @Test
+  public void testConcurrentCacheMissesShareOneDownload() throws Exception {
+    // Serve the jar from an embedded HTTP origin which holds its responses until all the readers missed the cache.
+    final AtomicInteger originRequests = new AtomicInteger();
+    final CountDownLatch releaseOrigin = new CountDownLatch(1);
+    final byte[] jarBytes = JAR_CONTENT.getBytes(StandardCharsets.UTF_8);
+    HttpServer origin = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    origin.createContext("/repo/", exchange -> {
+      originRequests.incrementAndGet();
+      try {
+        releaseOrigin.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.sendResponseHeaders(200, jarBytes.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(jarBytes);
+      }
+    });
+    origin.setExecutor(Executors.newCachedThreadPool());
+    origin.start();
+
+    ExecutorService readers = Executors.newFixedThreadPool(4);
+    try {
+      URI rootURI = URI.create("chttp://localhost:" + origin.getAddress().getPort() + "/repo/");
+      CachedHttpFileSystem fs = (CachedHttpFileSystem) FileSystem.get(rootURI, createCachingConf());
+      Path jarPath = new Path(rootURI.resolve(RELATIVE_JAR_PATH));
+
+      List<Future<String>> contents = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        contents.add(readers.submit(() -> {
+          try (InputStream in = fs.open(jarPath)) {
+            return IOUtils.toString(in);
+          }
+        }));
+      }
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (fs.getCacheMisses() < 4 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      releaseOrigin.countDown();
+
+      for (Future<String> content : contents) {
+        assertEquals(JAR_CONTENT, content.get(10, TimeUnit.SECONDS));
+      }
+      assertEquals(1, originRequests.get());
+      assertEquals(jarBytes.length, fs.getBytesDownloaded());
+      assertTrue(this.expectedLocallyCachedJar.exists());
+    } finally {
+      readers.shutdownNow();
+      origin.stop(0);
+    }
+  }
+
+  @Test
+  public void testLocalCacheTier() throws Exception {
+    File localCacheFolder = TEMP_DIR.newFolder("local");
+    Configuration conf = createCachingConf();
+    conf.set(CachedHttpFileSystem.LOCAL_CACHE_DIR, localCacheFolder.getPath());
+    CachedHttpFileSystem fs = spy((CachedHttpFileSystem) FileSystem.get(chttpRootURI, conf));
+    configureMockResponseFromHttpOrigin(fs, this.originAbsoluteJarURI);
+
+    // A miss in both tiers populates both of them
+    assertInputStreamIsJarContent(fs.open(new Path(this.chttpAbsoluteJarURI)));
+    assertTrue(this.expectedLocallyCachedJar.exists());
+    assertTrue(new File(localCacheFolder, RELATIVE_JAR_PATH).exists());
+    assertEquals(1, fs.getCacheMisses());
+
+    // The second read is served by the local tier, even once the file is gone from the cache FileSystem
+    assertTrue(this.expectedLocallyCachedJar.delete());
+    assertInputStreamIsJarContent(fs.open(new Path(this.chttpAbsoluteJarURI)));
+    assertEquals(1, fs.getLocalCacheHits());
+    assertEquals(0, fs.getCacheHits());
+    verify(fs).downloadFromOrigin(any());
+  }
+
+  @Test
+  public void testLocalCacheFailureReadsFromCache() throws Exception {
+    File localCacheFolder = TEMP_DIR.newFolder("broken");
+    // the local folder of the jar can't be created
+    assertTrue(new File(localCacheFolder, "jars").createNewFile());
+    Configuration conf = createCachingConf();
+    conf.set(CachedHttpFileSystem.LOCAL_CACHE_DIR, localCacheFolder.getPath());
+    CachedHttpFileSystem fs = spy((CachedHttpFileSystem) FileSystem.get(chttpRootURI, conf));
+    configureMockResponseFromHttpOrigin(fs, this.originAbsoluteJarURI);
+
+    assertInputStreamIsJarContent(fs.open(new Path(this.chttpAbsoluteJarURI)));
+    assertTrue(this.expectedLocallyCachedJar.exists());
+    assertEquals(1, fs.getCacheHits());
+    verify(fs).downloadFromOrigin(any());
+  }
+
+  @Test
+  public void testLocalDiskCacheIsSharedPerDirectory() throws Exception {
+    File localCacheFolder = TEMP_DIR.newFolder("shared");
+    LocalDiskCache localCache = LocalDiskCache.forDirectory(localCacheFolder, 1024);
+    assertSame(localCache, LocalDiskCache.forDirectory(
+        new File(localCacheFolder, "../" + localCacheFolder.getName()), 1024));
+  }
+
+  @Test
+  public void testLocalDiskCacheEvictsLeastRecentlyRead() throws Exception {
+    File localCacheFolder = TEMP_DIR.newFolder("lru");
+    LocalDiskCache localCache = new LocalDiskCache(localCacheFolder, 2 * JAR_CONTENT.length());
+
+    File first = localCache.put("a.jar", IOUtils.toInputStream(JAR_CONTENT));
+    File second = localCache.put("b.jar", IOUtils.toInputStream(JAR_CONTENT));
+    first.setLastModified(System.currentTimeMillis() - 60_000);
+    second.setLastModified(System.currentTimeMillis() - 30_000);
+    // reading the first file makes the second one the least recently used
+    assertNotNull(localCache.get("a.jar"));
+    localCache.put("c.jar", IOUtils.toInputStream(JAR_CONTENT));
+
+    assertTrue(first.exists());
+    assertFalse(second.exists());
+    assertEquals(2 * JAR_CONTENT.length(), localCache.getUsedBytes());
+    // a file larger than the cache is not cached
+    assertNull(localCache.put("d.jar", IOUtils.toInputStream(JAR_CONTENT + JAR_CONTENT + JAR_CONTENT)));
+  }
 }